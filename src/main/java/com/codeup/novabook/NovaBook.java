@@ -4,8 +4,28 @@
 
 package com.codeup.novabook;
 
+import com.codeup.novabook.cache.AvailabilityLedger;
+import com.codeup.novabook.cache.IsbnBloomFilter;
+import com.codeup.novabook.cache.LibraryCounters;
 import com.codeup.novabook.connection.ConnectionFactory;
+import com.codeup.novabook.engine.FineAssessor;
+import com.codeup.novabook.engine.FineEngine;
+import com.codeup.novabook.engine.OverdueEngine;
+import com.codeup.novabook.engine.OverdueNotifier;
+import com.codeup.novabook.engine.ReservationQueue;
+import com.codeup.novabook.infra.config.AppConfig;
+import com.codeup.novabook.infra.jfr.FlightRecording;
+import com.codeup.novabook.infra.logging.AsyncHandler;
+import com.codeup.novabook.infra.metrics.MetricsRegistry;
+import com.codeup.novabook.security.AuthExecutor;
+import com.codeup.novabook.security.BcryptCalibrator;
+import com.codeup.novabook.security.LoginRateLimiter;
+import com.codeup.novabook.security.SessionManager;
 import com.codeup.novabook.ui.NovaBookUI;
+import com.codeup.novabook.utils.LoggerConfig;
+import com.codeup.novabook.utils.PasswordUtils;
+import java.nio.file.Paths;
+import java.time.Duration;
 import javax.swing.JOptionPane;
 
 /**
@@ -24,7 +44,9 @@ public class NovaBook {
     public static void main(String[] args) {
         try {
             // Initialize logging
-            com.codeup.novabook.utils.LoggerConfig.init();
+            LoggerConfig.init();
+
+            configureRuntime();
 
             // Test database connection first
             System.out.println("Starting NovaBook Library Management System...");
@@ -36,6 +58,8 @@ public class NovaBook {
             if (connectionSuccessful) {
                 System.out.println("✓ Database connection successful!");
 
+                startBackgroundServices();
+
                 // Show welcome message
                 JOptionPane.showMessageDialog(null,
                         "Welcome to NovaBook Library Management System!\n\n" +
@@ -72,4 +96,73 @@ public class NovaBook {
 
         System.out.println("NovaBook application closed.");
     }
+
+    /**
+     * Sizes password hashing, registers the gauges and starts the flight
+     * recording if configured. Shared by the desktop and server entry points.
+     *
+     * @throws Exception if the flight recording cannot be started
+     */
+    static void configureRuntime() throws Exception {
+        // Size password hashing to this machine unless a cost is configured
+        AppConfig config = AppConfig.getInstance();
+        int bcryptCost = config.getInt("auth.bcrypt.cost", 0);
+        PasswordUtils.setCost(bcryptCost > 0 ? bcryptCost : BcryptCalibrator.calibrate(
+                Duration.ofMillis(config.getLong("auth.bcrypt.targetMillis", BcryptCalibrator.DEFAULT_TARGET_MILLIS)),
+                config.getInt("auth.bcrypt.minCost", BcryptCalibrator.DEFAULT_MIN_COST),
+                config.getInt("auth.bcrypt.maxCost", BcryptCalibrator.DEFAULT_MAX_COST)));
+
+        registerGauges();
+        if (config.getBoolean("jfr.enabled", false)) {
+            FlightRecording.start(Paths.get(config.get("jfr.file", "novabook.jfr")),
+                    Duration.ofMinutes(config.getLong("jfr.maxAgeMinutes", 60)));
+        }
+    }
+
+    /**
+     * Seeds the in-memory lookups before the first request needs them and
+     * starts the background engines. Needs a working database connection.
+     */
+    static void startBackgroundServices() {
+        IsbnBloomFilter.getInstance().warmUp();
+        AvailabilityLedger ledger = AvailabilityLedger.getInstance();
+        ledger.warmUp();
+        ledger.startReconciliation(AppConfig.getInstance().getLong("availability.reconcile.minutes", 10));
+        OverdueEngine overdueEngine = OverdueEngine.getInstance();
+        overdueEngine.addListener(new OverdueNotifier());
+        overdueEngine.addListener(new FineAssessor());
+        overdueEngine.warmUp();
+        overdueEngine.start();
+        ReservationQueue reservationQueue = ReservationQueue.getInstance();
+        reservationQueue.warmUp();
+        reservationQueue.start();
+        LibraryCounters libraryCounters = LibraryCounters.getInstance();
+        libraryCounters.warmUp();
+        libraryCounters.startReconciliation(AppConfig.getInstance().getLong("stats.reconcile.minutes", 5));
+        FineEngine.getInstance().start(AppConfig.getInstance().getLong("fines.run.hours", 24));
+    }
+
+    /**
+     * Exposes the counters of the background components in the metrics
+     * report, next to the per-operation latencies.
+     */
+    private static void registerGauges() {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.gauge("auth.queueDepth", () -> AuthExecutor.getInstance().getQueueDepth());
+        metrics.gauge("auth.rejected", () -> AuthExecutor.getInstance().getRejectedCount());
+        metrics.gauge("auth.rateLimit.rejectedByEmail",
+                () -> LoginRateLimiter.getInstance().getRejectedByEmailCount());
+        metrics.gauge("auth.rateLimit.rejectedBySource",
+                () -> LoginRateLimiter.getInstance().getRejectedBySourceCount());
+        metrics.gauge("auth.sessions", () -> SessionManager.getInstance().size());
+        IsbnBloomFilter isbnFilter = IsbnBloomFilter.getInstance();
+        metrics.gauge("isbnFilter.checks", isbnFilter::getChecks);
+        metrics.gauge("isbnFilter.observedFpRate", isbnFilter::getObservedFalsePositiveRate);
+        metrics.gauge("isbnFilter.expectedFpRate", isbnFilter::getExpectedFalsePositiveRate);
+        AsyncHandler logHandler = LoggerConfig.getAsyncHandler();
+        if (logHandler != null) {
+            metrics.gauge("log.dropped", logHandler::getDroppedCount);
+            metrics.gauge("log.sampledOut", logHandler::getSampledOutCount);
+        }
+    }
 }
@@ -0,0 +1,75 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ */
+
+package com.codeup.novabook;
+
+import com.codeup.novabook.api.ApiServer;
+import com.codeup.novabook.connection.ConnectionFactory;
+import com.codeup.novabook.infra.config.AppConfig;
+import com.codeup.novabook.infra.metrics.MetricsRegistry;
+import com.codeup.novabook.infra.metrics.Timed;
+import com.codeup.novabook.service.BookService;
+import com.codeup.novabook.service.LendingService;
+import com.codeup.novabook.service.UserService;
+import com.codeup.novabook.service.impl.BookServiceImpl;
+import com.codeup.novabook.service.impl.LendingServiceImpl;
+import com.codeup.novabook.service.impl.UserServiceImpl;
+import com.codeup.novabook.utils.LoggerConfig;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+
+/**
+ * Headless entry point of NovaBook. Starts the same services as
+ * {@link NovaBook} and serves them as a JSON API instead of opening the
+ * Swing client.
+ * 
+ * @author Adrián Gutiérrez
+ */
+public class NovaBookServer {
+
+    /**
+     * Main method - entry point of the server.
+     * 
+     * @param args command line arguments
+     */
+    public static void main(String[] args) {
+        try {
+            LoggerConfig.init();
+            NovaBook.configureRuntime();
+
+            System.out.println("Starting NovaBook API server...");
+            if (!ConnectionFactory.getInstance().testConnection()) {
+                System.err.println("✗ Database connection failed! Check application.properties.");
+                System.exit(1);
+            }
+            NovaBook.startBackgroundServices();
+
+            AppConfig config = AppConfig.getInstance();
+            ApiServer server = new ApiServer(
+                    new InetSocketAddress(config.get("api.host", "0.0.0.0"), config.getInt("api.port", 8080)),
+                    config.getInt("api.backlog", ApiServer.DEFAULT_BACKLOG),
+                    config.getInt("api.maxInFlight", ApiServer.DEFAULT_MAX_IN_FLIGHT),
+                    Duration.ofMillis(config.getLong("api.admissionTimeoutMillis",
+                            ApiServer.DEFAULT_ADMISSION_TIMEOUT_MILLIS)),
+                    Timed.wrap(BookService.class, new BookServiceImpl()),
+                    Timed.wrap(LendingService.class, new LendingServiceImpl()),
+                    Timed.wrap(UserService.class, new UserServiceImpl()));
+
+            MetricsRegistry metrics = MetricsRegistry.getInstance();
+            metrics.gauge("api.inFlight", server::getInFlight);
+            metrics.gauge("api.served", server::getServedCount);
+            metrics.gauge("api.shed", server::getShedCount);
+            metrics.gauge("api.failed", server::getFailedCount);
+
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(Duration.ofSeconds(5)), "api-shutdown"));
+            server.start();
+            System.out.println("✓ NovaBook API listening on " + server.getAddress()
+                    + (server.isUsingVirtualThreads() ? " (virtual threads)" : " (worker pool)"));
+        } catch (Exception e) {
+            System.err.println("Server startup failed: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+}
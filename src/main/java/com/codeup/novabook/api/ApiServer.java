@@ -0,0 +1,521 @@
+package com.codeup.novabook.api;
+
+import com.codeup.novabook.domain.Book;
+import com.codeup.novabook.domain.LendingOutcome;
+import com.codeup.novabook.exceptions.book.BookNotFoundException;
+import com.codeup.novabook.exceptions.db.ConcurrentUpdateException;
+import com.codeup.novabook.exceptions.lending.BookNotAvailableException;
+import com.codeup.novabook.exceptions.member.InactiveMemberException;
+import com.codeup.novabook.exceptions.user.AuthenticationBusyException;
+import com.codeup.novabook.exceptions.user.TooManyLoginAttemptsException;
+import com.codeup.novabook.security.Session;
+import com.codeup.novabook.service.BookService;
+import com.codeup.novabook.service.LendingService;
+import com.codeup.novabook.service.UserService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * JSON over HTTP front end to the library services, for kiosks and web
+ * catalogs that cannot run the Swing client.
+ * <p>
+ * Endpoints:
+ * </p>
+ * <ul>
+ * <li>{@code POST /api/sessions} with {@code email} and {@code password}
+ * logs in and returns a token; {@code DELETE /api/sessions} logs out.</li>
+ * <li>{@code GET /api/books?title=} or {@code ?author=} searches the
+ * catalog.</li>
+ * <li>{@code GET /api/books/{id}/availability} tells whether a copy can be
+ * lent.</li>
+ * <li>{@code POST /api/checkouts} with {@code memberId} and {@code bookId},
+ * or {@code bookIds} as a comma separated list, lends books.</li>
+ * <li>{@code POST /api/checkins} with {@code lendingId} or {@code lendingIds}
+ * returns them.</li>
+ * <li>{@code GET /api/lendings/overdue} lists overdue loans.</li>
+ * <li>{@code GET /health} answers without touching the database.</li>
+ * </ul>
+ * <p>
+ * Parameters come from the query string or a form encoded body. Catalog
+ * reads are public; the rest need an {@code Authorization: Bearer} token,
+ * and checkouts and check-ins need write access. Logins are throttled per
+ * email and per client address by the user service.
+ * </p>
+ * <p>
+ * Requests run on virtual threads when the JVM has them, so thousands of
+ * open requests cost a few kilobytes each rather than a platform thread.
+ * At most {@code maxInFlight} of them do work at once, since each may hold
+ * a database connection; a request that cannot get a slot within the
+ * admission timeout is answered 503 with {@code Retry-After}, so a spike
+ * sheds load instead of piling up on the database. Without virtual threads
+ * the requests run on a fixed pool of twice {@code maxInFlight} platform
+ * threads, so as many again can wait for a slot and be shed; requests
+ * beyond that wait in the pool's queue.
+ * </p>
+ */
+public class ApiServer {
+
+    private static final Logger LOGGER = Logger.getLogger(ApiServer.class.getName());
+
+    /** Requests doing work at once when none is configured. */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 200;
+    /** Wait for a request slot when none is configured. */
+    public static final long DEFAULT_ADMISSION_TIMEOUT_MILLIS = 1_000;
+    /** Pending TCP connections when none is configured. */
+    public static final int DEFAULT_BACKLOG = 1_024;
+
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+    private static final String JSON_TYPE = "application/json; charset=utf-8";
+
+    private final BookService bookService;
+    private final LendingService lendingService;
+    private final UserService userService;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final long admissionTimeoutMillis;
+    private final LongAdder served = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * Binds the server; it accepts no requests until {@link #start()}.
+     *
+     * @param address          where to listen
+     * @param backlog          pending TCP connections the socket may hold
+     * @param maxInFlight      requests doing work at once
+     * @param admissionTimeout how long a request waits for a slot
+     * @param bookService      catalog service
+     * @param lendingService   lending service
+     * @param userService      user and session service
+     * @throws IOException if the address cannot be bound
+     */
+    public ApiServer(InetSocketAddress address, int backlog, int maxInFlight, Duration admissionTimeout,
+            BookService bookService, LendingService lendingService, UserService userService) throws IOException {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("Requests in flight must be positive");
+        }
+        this.bookService = bookService;
+        this.lendingService = lendingService;
+        this.userService = userService;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.admissionTimeoutMillis = admissionTimeout.toMillis();
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual : newWorkerPool(2 * maxInFlight);
+        this.server = HttpServer.create(address, backlog);
+        server.setExecutor(executor);
+        server.createContext("/health", exchange -> handle(exchange, "GET", ex -> Reply.ok("{\"status\":\"UP\"}")));
+        server.createContext("/api/sessions", this::sessions);
+        server.createContext("/api/books", exchange -> handle(exchange, "GET", this::books));
+        server.createContext("/api/checkouts", exchange -> handle(exchange, "POST", this::checkout));
+        server.createContext("/api/checkins", exchange -> handle(exchange, "POST", this::checkin));
+        server.createContext("/api/lendings/overdue", exchange -> handle(exchange, "GET", this::overdue));
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+        LOGGER.log(Level.INFO, "API listening on {0} ({1})", new Object[] { getAddress(),
+                virtualThreads ? "virtual threads" : "worker pool" });
+    }
+
+    /**
+     * Stops accepting requests, gives those in progress up to the delay to
+     * finish and releases the threads.
+     *
+     * @param delay how long to wait for requests in progress
+     */
+    public void stop(Duration delay) {
+        server.stop((int) Math.max(0, delay.toSeconds()));
+        executor.shutdown();
+        try {
+            executor.awaitTermination(delay.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdownNow();
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    public boolean isUsingVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public long getServedCount() {
+        return served.sum();
+    }
+
+    public long getShedCount() {
+        return shed.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    public int getInFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    // Endpoints
+
+    private void sessions(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        handle(exchange, "DELETE".equals(method) ? "DELETE" : "POST", ex -> {
+            if ("DELETE".equals(method)) {
+                userService.endSession(requireSession(ex).getToken());
+                return new Reply(204, null);
+            }
+            Map<String, String> params = parameters(ex);
+            String source = ex.getRemoteAddress().getAddress().getHostAddress();
+            Optional<Session> session = await(userService.createSession(required(params, "email"),
+                    required(params, "password"), source));
+            return session.map(s -> new Reply(201, Json.session(s)))
+                    .orElseThrow(() -> new ApiException(401, "Invalid email or password"));
+        });
+    }
+
+    private Reply books(HttpExchange exchange) throws IOException {
+        String[] path = exchange.getRequestURI().getPath().split("/");
+        // /api/books/{id}/availability splits into "", "api", "books", id, "availability"
+        if (path.length == 5 && "availability".equals(path[4])) {
+            int bookId = parseId(path[3], "book id");
+            Book book = bookService.findBookById(bookId).orElseThrow(() -> new BookNotFoundException(bookId));
+            return Reply.ok(Json.availability(book, bookService.isBookAvailable(bookId)));
+        }
+        if (path.length != 3) {
+            throw new ApiException(404, "No such resource");
+        }
+        Map<String, String> params = parameters(exchange);
+        if (params.containsKey("title")) {
+            return Reply.ok(Json.books(bookService.searchBooksByTitle(params.get("title"))));
+        }
+        if (params.containsKey("author")) {
+            return Reply.ok(Json.books(bookService.searchBooksByAuthor(params.get("author"))));
+        }
+        throw new ApiException(400, "Search by title or author");
+    }
+
+    private Reply checkout(HttpExchange exchange) throws IOException {
+        requireWriteAccess(exchange);
+        Map<String, String> params = parameters(exchange);
+        int memberId = parseId(required(params, "memberId"), "memberId");
+        int days = params.containsKey("days") ? parseId(params.get("days"), "days") : 0;
+        if (params.containsKey("bookIds")) {
+            return Reply.ok(Json.outcomes(lendingService.checkoutAll(memberId, parseIds(params.get("bookIds"),
+                    "bookIds"), days)));
+        }
+        // One book goes through the bulk path too, so stock moves the same either way
+        int bookId = parseId(required(params, "bookId"), "bookId");
+        LendingOutcome outcome = single(lendingService.checkoutAll(memberId, List.of(bookId), days),
+                "Book " + bookId);
+        return new Reply(201, Json.lending(outcome.getLending()));
+    }
+
+    private Reply checkin(HttpExchange exchange) throws IOException {
+        requireWriteAccess(exchange);
+        Map<String, String> params = parameters(exchange);
+        if (params.containsKey("lendingIds")) {
+            return Reply.ok(Json.outcomes(lendingService.checkinAll(parseIds(params.get("lendingIds"),
+                    "lendingIds"))));
+        }
+        int lendingId = parseId(required(params, "lendingId"), "lendingId");
+        LendingOutcome outcome = single(lendingService.checkinAll(List.of(lendingId)), "Lending " + lendingId);
+        return Reply.ok(Json.lending(outcome.getLending()));
+    }
+
+    /**
+     * Unwraps the outcome of a one item bulk call, turning a refusal into
+     * the matching status.
+     */
+    private static LendingOutcome single(List<LendingOutcome> outcomes, String item) {
+        LendingOutcome outcome = outcomes.get(0);
+        switch (outcome.getStatus()) {
+            case DONE:
+                return outcome;
+            case NOT_FOUND:
+                throw new ApiException(404, item + " not found");
+            case INVALID:
+                throw new ApiException(400, item + " is not valid");
+            case ALREADY_RETURNED:
+                throw new ApiException(409, item + " has already been returned");
+            case LIMIT_REACHED:
+                throw new ApiException(409, "Member has reached the maximum number of borrowed books");
+            default:
+                throw new ApiException(409, item + " is not available");
+        }
+    }
+
+    private Reply overdue(HttpExchange exchange) {
+        requireSession(exchange);
+        return Reply.ok(Json.lendings(lendingService.getOverdueLendings()));
+    }
+
+    // Request handling
+
+    /**
+     * Runs one endpoint: admits the request, checks the method, maps
+     * exceptions to status codes and writes the reply.
+     */
+    private void handle(HttpExchange exchange, String method, Endpoint endpoint) throws IOException {
+        try (exchange) {
+            if (!admit()) {
+                shed.increment();
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                send(exchange, new Reply(503, Json.error(503, "Server busy, try again")));
+                return;
+            }
+            try {
+                Reply reply;
+                try {
+                    if (!method.equals(exchange.getRequestMethod())) {
+                        exchange.getResponseHeaders().set("Allow", method);
+                        throw new ApiException(405, "Use " + method);
+                    }
+                    reply = endpoint.handle(exchange);
+                } catch (RuntimeException e) {
+                    reply = toReply(exchange, e);
+                }
+                send(exchange, reply);
+                served.increment();
+            } finally {
+                inFlight.release();
+            }
+        }
+    }
+
+    private boolean admit() {
+        try {
+            return inFlight.tryAcquire(admissionTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Reply toReply(HttpExchange exchange, RuntimeException e) {
+        int status;
+        if (e instanceof ApiException) {
+            status = ((ApiException) e).status;
+        } else if (e instanceof IllegalArgumentException) {
+            status = 400;
+        } else if (e instanceof BookNotFoundException) {
+            status = 404;
+        } else if (e instanceof BookNotAvailableException || e instanceof InactiveMemberException
+                || e instanceof ConcurrentUpdateException) {
+            status = 409;
+        } else if (e instanceof TooManyLoginAttemptsException) {
+            status = 429;
+            long seconds = Math.max(1, ((TooManyLoginAttemptsException) e).getRetryAfter().toSeconds());
+            exchange.getResponseHeaders().set("Retry-After", Long.toString(seconds));
+        } else if (e instanceof AuthenticationBusyException) {
+            status = 503;
+            exchange.getResponseHeaders().set("Retry-After", "1");
+        } else {
+            failed.increment();
+            LOGGER.log(Level.SEVERE, "Request failed: " + exchange.getRequestMethod() + " "
+                    + exchange.getRequestURI().getPath(), e);
+            // Internal details stay in the log
+            return new Reply(500, Json.error(500, "Internal error"));
+        }
+        return new Reply(status, Json.error(status, e.getMessage()));
+    }
+
+    private static void send(HttpExchange exchange, Reply reply) throws IOException {
+        if (reply.body == null) {
+            exchange.sendResponseHeaders(reply.status, -1);
+            return;
+        }
+        byte[] body = reply.body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON_TYPE);
+        exchange.sendResponseHeaders(reply.status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private Session requireSession(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            throw new ApiException(401, "Log in first");
+        }
+        return userService.findSession(header.substring(7).trim())
+                .orElseThrow(() -> new ApiException(401, "Session expired, log in again"));
+    }
+
+    private void requireWriteAccess(HttpExchange exchange) {
+        if (!requireSession(exchange).hasWriteAccess()) {
+            throw new ApiException(403, "Write access required");
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException(503, "Interrupted");
+        } catch (ExecutionException e) {
+            // Rethrows the service's own exception so it maps to its status
+            Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+
+    // Parameters
+
+    private static Map<String, String> parameters(HttpExchange exchange) throws IOException {
+        Map<String, String> params = new HashMap<>();
+        parse(exchange.getRequestURI().getRawQuery(), params);
+        String type = exchange.getRequestHeaders().getFirst("Content-Type");
+        if (type != null && type.startsWith("application/x-www-form-urlencoded")) {
+            parse(readBody(exchange), params);
+        }
+        return params;
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (body.length > MAX_BODY_BYTES) {
+                throw new ApiException(413, "Body larger than " + MAX_BODY_BYTES + " bytes");
+            }
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void parse(String encoded, Map<String, String> params) {
+        if (encoded == null || encoded.isEmpty()) {
+            return;
+        }
+        for (String pair : encoded.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.put(name, value);
+        }
+    }
+
+    private static String required(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.isBlank()) {
+            throw new ApiException(400, name + " is required");
+        }
+        return value;
+    }
+
+    private static int parseId(String value, String name) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, name + " must be a number");
+        }
+    }
+
+    private static List<Integer> parseIds(String value, String name) {
+        List<Integer> ids = new ArrayList<>();
+        for (String id : value.split(",")) {
+            if (!id.isBlank()) {
+                ids.add(parseId(id, name));
+            }
+        }
+        return ids;
+    }
+
+    // Threads
+
+    /**
+     * Gets a virtual thread per task executor through reflection, so the
+     * server uses one on JVMs that have it while the code still builds for
+     * Java 17.
+     *
+     * @return the executor, or null if this JVM has no virtual threads
+     */
+    static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        } catch (InvocationTargetException e) {
+            // Java 19 and 20 refuse unless preview features are enabled
+            return null;
+        }
+    }
+
+    private static ExecutorService newWorkerPool(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "api-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @FunctionalInterface
+    private interface Endpoint {
+        Reply handle(HttpExchange exchange) throws IOException;
+    }
+
+    private static final class Reply {
+        private final int status;
+        private final String body;
+
+        private Reply(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        private static Reply ok(String body) {
+            return new Reply(200, body);
+        }
+    }
+
+    /**
+     * A request the API refuses with a given status.
+     */
+    private static final class ApiException extends RuntimeException {
+        private final int status;
+
+        private ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
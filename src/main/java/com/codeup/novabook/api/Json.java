@@ -0,0 +1,138 @@
+package com.codeup.novabook.api;
+
+import com.codeup.novabook.domain.Book;
+import com.codeup.novabook.domain.Lending;
+import com.codeup.novabook.domain.LendingOutcome;
+import com.codeup.novabook.infra.logging.JsonFormatter;
+import com.codeup.novabook.security.Session;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Writes the JSON bodies of the API. Each domain object has one fixed shape,
+ * so the bodies are appended field by field rather than through a mapper.
+ */
+final class Json {
+
+    private Json() {
+    }
+
+    static String book(Book book) {
+        StringBuilder json = new StringBuilder();
+        appendBook(json, book);
+        return json.toString();
+    }
+
+    static String books(List<Book> books) {
+        return array(books, Json::appendBook);
+    }
+
+    static String lending(Lending lending) {
+        StringBuilder json = new StringBuilder();
+        appendLending(json, lending, Instant.now());
+        return json.toString();
+    }
+
+    static String lendings(List<Lending> lendings) {
+        // One time for the whole list, so every row is overdue as of the same moment
+        Instant now = Instant.now();
+        return array(lendings, (json, lending) -> appendLending(json, lending, now));
+    }
+
+    static String outcomes(List<LendingOutcome> outcomes) {
+        Instant now = Instant.now();
+        return array(outcomes, (json, outcome) -> {
+            json.append("{\"requestedId\":").append(outcome.getRequestedId());
+            string(json.append(",\"status\":"), outcome.getStatus().name());
+            json.append(",\"lending\":");
+            if (outcome.getLending() == null) {
+                json.append("null");
+            } else {
+                appendLending(json, outcome.getLending(), now);
+            }
+            json.append('}');
+        });
+    }
+
+    static String availability(Book book, boolean available) {
+        return new StringBuilder().append("{\"bookId\":").append(book.getId())
+                .append(",\"stock\":").append(book.getStock())
+                .append(",\"available\":").append(available).append('}').toString();
+    }
+
+    static String session(Session session) {
+        StringBuilder json = new StringBuilder("{");
+        string(json.append("\"token\":"), session.getToken());
+        json.append(",\"userId\":").append(session.getUserId());
+        string(json.append(",\"name\":"), session.getName());
+        string(json.append(",\"role\":"), session.getRole());
+        json.append(",\"writeAccess\":").append(session.hasWriteAccess());
+        return json.append('}').toString();
+    }
+
+    static String field(String name, Object value) {
+        StringBuilder json = new StringBuilder("{");
+        string(json, name);
+        json.append(':');
+        if (value instanceof String) {
+            string(json, (String) value);
+        } else {
+            json.append(value);
+        }
+        return json.append('}').toString();
+    }
+
+    static String error(int status, String message) {
+        StringBuilder json = new StringBuilder("{\"status\":").append(status);
+        string(json.append(",\"error\":"), message);
+        return json.append('}').toString();
+    }
+
+    private static void appendBook(StringBuilder json, Book book) {
+        json.append("{\"id\":").append(book.getId());
+        string(json.append(",\"isbn\":"), book.getIsbn());
+        string(json.append(",\"title\":"), book.getTitle());
+        string(json.append(",\"author\":"), book.getAuthor());
+        json.append(",\"stock\":").append(book.getStock()).append('}');
+    }
+
+    private static void appendLending(StringBuilder json, Lending lending, Instant now) {
+        json.append("{\"id\":").append(lending.getId())
+                .append(",\"memberId\":").append(lending.getMemberId())
+                .append(",\"bookId\":").append(lending.getBookId());
+        instant(json.append(",\"lendingDate\":"), lending.getLendingDate());
+        instant(json.append(",\"dueDate\":"), lending.getDueDate());
+        json.append(",\"returned\":").append(lending.isReturned());
+        if (!lending.isReturned()) {
+            json.append(",\"daysOverdue\":").append(lending.getDaysOverdue(now));
+        }
+        json.append('}');
+    }
+
+    private static <T> String array(List<T> items, BiConsumer<StringBuilder, T> element) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            element.accept(json, items.get(i));
+        }
+        return json.append(']').toString();
+    }
+
+    private static void instant(StringBuilder json, Instant value) {
+        string(json, value == null ? null : value.toString());
+    }
+
+    private static void string(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        JsonFormatter.escape(json, value);
+        json.append('"');
+    }
+}
@@ -0,0 +1,394 @@
+package com.codeup.novabook.cache;
+
+import com.codeup.novabook.infra.collections.IntIntMap;
+import com.codeup.novabook.infra.collections.PageTable;
+import com.codeup.novabook.infra.metrics.Timed;
+import com.codeup.novabook.repository.BookRepository;
+import com.codeup.novabook.repository.LendingRepository;
+import com.codeup.novabook.repository.jdbc.BookRepositoryJDBC;
+import com.codeup.novabook.repository.jdbc.LendingRepositoryJDBC;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-memory ledger of available copies and active loans per book.
+ * <p>
+ * Each book id maps to one {@code long} slot packing its stock (high 32 bits)
+ * and its number of active loans (low 32 bits), so both are read and updated
+ * with a single atomic operation and availability checks never touch the
+ * database. Slots live in a {@link PageTable} of {@link AtomicLongArray}
+ * pages; growing the ledger only copies the page table, never a slot that
+ * another thread may be updating.
+ * </p>
+ * The ledger is loaded from the database on first use and periodically
+ * reconciled against {@code book.stock} and the active rows of
+ * {@code lending}; see {@link #reconcile()}. Updates received before the
+ * first load are ignored, since the load reads them from the database.
+ */
+public class AvailabilityLedger {
+
+    private static final Logger LOGGER = Logger.getLogger(AvailabilityLedger.class.getName());
+    private static volatile AvailabilityLedger instance;
+
+    private static final int UNTRACKED_STOCK = -1;
+    private static final long UNTRACKED = pack(UNTRACKED_STOCK, 0);
+    // Slots changed this recently are left alone by reconciliation, as the
+    // matching database write may still be in flight
+    private static final long RECONCILE_GRACE_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    private final BookRepository bookRepository;
+    private final LendingRepository lendingRepository;
+    private final PageTable<Page> pages = new PageTable<>(Page::new);
+    private volatile boolean loaded;
+    private volatile ReconciliationReport lastReport;
+    private ScheduledExecutorService reconciler;
+
+    /**
+     * Constructor for injecting dependencies (useful for tests)
+     *
+     * @param bookRepository    repository used to read book stock
+     * @param lendingRepository repository used to count active loans
+     */
+    public AvailabilityLedger(BookRepository bookRepository, LendingRepository lendingRepository) {
+        this.bookRepository = bookRepository;
+        this.lendingRepository = lendingRepository;
+    }
+
+    /**
+     * Returns the shared ledger backed by the JDBC repositories.
+     *
+     * @return the singleton AvailabilityLedger instance
+     */
+    public static AvailabilityLedger getInstance() {
+        if (instance == null) {
+            synchronized (AvailabilityLedger.class) {
+                if (instance == null) {
+                    instance = new AvailabilityLedger(Timed.wrap(BookRepository.class, new BookRepositoryJDBC()),
+                            Timed.wrap(LendingRepository.class, new LendingRepositoryJDBC()));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Loads the ledger from the database if it has not been loaded yet.
+     */
+    public void warmUp() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    load();
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether the ledger holds an entry for a book.
+     *
+     * @param bookId the book ID
+     * @return true if the book is tracked
+     */
+    public boolean isTracked(int bookId) {
+        return read(bookId) != UNTRACKED;
+    }
+
+    /**
+     * Checks whether a book has copies available.
+     *
+     * @param bookId the book ID
+     * @return true if the book is tracked and its stock is positive
+     */
+    public boolean isAvailable(int bookId) {
+        return stockOf(read(bookId)) > 0;
+    }
+
+    /**
+     * Gets the available copies of a book.
+     *
+     * @param bookId the book ID
+     * @return the stock, or -1 if the book is not tracked
+     */
+    public int getStock(int bookId) {
+        return stockOf(read(bookId));
+    }
+
+    /**
+     * Gets the number of active loans of a book.
+     *
+     * @param bookId the book ID
+     * @return the active loans, or 0 if the book is not tracked
+     */
+    public int getActiveLoans(int bookId) {
+        return loansOf(read(bookId));
+    }
+
+    /**
+     * Takes one copy out of stock if any is left.
+     *
+     * @param bookId the book ID
+     * @return true if a copy was taken, false if the stock is exhausted or
+     *         the book is not tracked
+     */
+    public boolean tryTakeCopy(int bookId) {
+        warmUp();
+        Page page = page(bookId, false);
+        if (page == null) {
+            return false;
+        }
+        int slot = PageTable.slot(bookId);
+        while (true) {
+            long current = page.state.get(slot);
+            int stock = stockOf(current);
+            if (stock <= 0) {
+                return false;
+            }
+            page.stamps.set(slot, System.nanoTime());
+            if (page.state.compareAndSet(slot, current, pack(stock - 1, loansOf(current)))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Puts one copy back into stock.
+     *
+     * @param bookId the book ID
+     */
+    public void returnCopy(int bookId) {
+        update(bookId, 1, 0);
+    }
+
+    /**
+     * Records a new active loan.
+     *
+     * @param bookId the book ID
+     */
+    public void loanOpened(int bookId) {
+        update(bookId, 0, 1);
+    }
+
+    /**
+     * Records that an active loan was returned.
+     *
+     * @param bookId the book ID
+     */
+    public void loanClosed(int bookId) {
+        update(bookId, 0, -1);
+    }
+
+    /**
+     * Sets the stock of a book, starting to track it if needed. Active loans
+     * are kept.
+     *
+     * @param bookId the book ID
+     * @param stock  the new stock
+     */
+    public void setStock(int bookId, int stock) {
+        if (!loaded || stock < 0) {
+            return;
+        }
+        Page page = page(bookId, true);
+        int slot = PageTable.slot(bookId);
+        while (true) {
+            long current = page.state.get(slot);
+            int loans = current == UNTRACKED ? 0 : loansOf(current);
+            page.stamps.set(slot, System.nanoTime());
+            if (page.state.compareAndSet(slot, current, pack(stock, loans))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Stops tracking a deleted book.
+     *
+     * @param bookId the book ID
+     */
+    public void forget(int bookId) {
+        Page page = loaded ? page(bookId, false) : null;
+        if (page != null) {
+            int slot = PageTable.slot(bookId);
+            page.stamps.set(slot, System.nanoTime());
+            page.state.set(slot, UNTRACKED);
+        }
+    }
+
+    /**
+     * Compares every entry with {@code book.stock} and the active lendings
+     * and repairs those that drifted. Entries updated in the last couple of
+     * seconds are skipped and checked again on the next run.
+     *
+     * @return the repair report
+     */
+    public ReconciliationReport reconcile() {
+        if (!loaded) {
+            warmUp();
+        }
+        ReconciliationReport report = new ReconciliationReport("Availability ledger");
+        long cutoff = System.nanoTime() - RECONCILE_GRACE_NANOS;
+        IntIntMap stock = bookRepository.findAllStock();
+        IntIntMap loans = lendingRepository.countActiveByBook();
+
+        stock.forEach((bookId, dbStock) -> {
+            report.recordChecked();
+            Page page = page(bookId, true);
+            int slot = PageTable.slot(bookId);
+            long current = page.state.get(slot);
+            long expected = pack(dbStock, loans.get(bookId));
+            if (current == expected) {
+                return;
+            }
+            if (changedSince(page, slot, cutoff) || !page.state.compareAndSet(slot, current, expected)) {
+                report.recordSkipped();
+                return;
+            }
+            if (stockOf(current) != dbStock) {
+                report.recordRepair(bookId, "stock", stockOf(current), dbStock);
+            }
+            if (loansOf(current) != loans.get(bookId)) {
+                report.recordRepair(bookId, "activeLoans", loansOf(current), loans.get(bookId));
+            }
+        });
+
+        // Books deleted from the database without going through the service
+        for (int p = 0; p < pages.pageCount(); p++) {
+            Page page = pages.pageAt(p);
+            for (int slot = 0; page != null && slot < PageTable.PAGE_SIZE; slot++) {
+                int bookId = (p << PageTable.PAGE_BITS) | slot;
+                long value = page.state.get(slot);
+                if (value != UNTRACKED && !stock.containsKey(bookId)
+                        && !changedSince(page, slot, cutoff)
+                        && page.state.compareAndSet(slot, value, UNTRACKED)) {
+                    report.recordRepair(bookId, "tracked", 1, 0);
+                }
+            }
+        }
+
+        report.finish();
+        lastReport = report;
+        LOGGER.log(report.isClean() ? Level.FINE : Level.WARNING, report.toString());
+        return report;
+    }
+
+    /**
+     * Gets the report of the last reconciliation run.
+     *
+     * @return the last report, or null if reconciliation never ran
+     */
+    public ReconciliationReport getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * Starts reconciling the ledger in the background.
+     *
+     * @param periodMinutes minutes between two runs
+     */
+    public synchronized void startReconciliation(long periodMinutes) {
+        if (reconciler != null || periodMinutes <= 0) {
+            return;
+        }
+        reconciler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "availability-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reconciler.scheduleWithFixedDelay(() -> {
+            try {
+                reconcile();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Availability reconciliation failed: " + e.getMessage(), e);
+            }
+        }, periodMinutes, periodMinutes, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Stops the background reconciliation.
+     */
+    public synchronized void stopReconciliation() {
+        if (reconciler != null) {
+            reconciler.shutdownNow();
+            reconciler = null;
+        }
+    }
+
+    private void load() {
+        IntIntMap stock = bookRepository.findAllStock();
+        IntIntMap loans = lendingRepository.countActiveByBook();
+        pages.clear();
+        stock.forEach((bookId, dbStock) ->
+                page(bookId, true).state.set(PageTable.slot(bookId), pack(dbStock, loans.get(bookId))));
+        loaded = true;
+        LOGGER.log(Level.INFO, "Availability ledger loaded with {0} books", stock.size());
+    }
+
+    private long read(int bookId) {
+        warmUp();
+        Page page = page(bookId, false);
+        return page == null ? UNTRACKED : page.state.get(PageTable.slot(bookId));
+    }
+
+    /**
+     * Adds deltas to a tracked book. Stock and loans never go below zero.
+     */
+    private void update(int bookId, int stockDelta, int loansDelta) {
+        Page page = loaded ? page(bookId, false) : null;
+        if (page == null) {
+            return;
+        }
+        int slot = PageTable.slot(bookId);
+        while (true) {
+            long current = page.state.get(slot);
+            if (current == UNTRACKED) {
+                return;
+            }
+            long next = pack(Math.max(0, stockOf(current) + stockDelta), Math.max(0, loansOf(current) + loansDelta));
+            page.stamps.set(slot, System.nanoTime());
+            if (page.state.compareAndSet(slot, current, next)) {
+                return;
+            }
+        }
+    }
+
+    private Page page(int bookId, boolean create) {
+        if (bookId < 0) {
+            return null;
+        }
+        return create ? pages.getOrCreate(bookId) : pages.get(bookId);
+    }
+
+    private static boolean changedSince(Page page, int slot, long nanoTime) {
+        long stamp = page.stamps.get(slot);
+        return stamp != 0 && stamp - nanoTime > 0;
+    }
+
+    private static long pack(int stock, int loans) {
+        return ((long) stock << 32) | (loans & 0xFFFFFFFFL);
+    }
+
+    private static int stockOf(long value) {
+        return (int) (value >> 32);
+    }
+
+    private static int loansOf(long value) {
+        return (int) value;
+    }
+
+    private static final class Page {
+        private final AtomicLongArray state = new AtomicLongArray(PageTable.PAGE_SIZE);
+        private final AtomicLongArray stamps = new AtomicLongArray(PageTable.PAGE_SIZE);
+
+        private Page() {
+            for (int i = 0; i < PageTable.PAGE_SIZE; i++) {
+                state.set(i, UNTRACKED);
+            }
+        }
+    }
+}
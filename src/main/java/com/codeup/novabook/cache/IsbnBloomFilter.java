@@ -0,0 +1,248 @@
+package com.codeup.novabook.cache;
+
+import com.codeup.novabook.infra.collections.CountingBloomFilter;
+import com.codeup.novabook.infra.config.AppConfig;
+import com.codeup.novabook.infra.metrics.Timed;
+import com.codeup.novabook.repository.BookRepository;
+import com.codeup.novabook.repository.jdbc.BookRepositoryJDBC;
+import com.codeup.novabook.utils.IsbnCodec;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-memory pre-check for ISBN uniqueness.
+ * <p>
+ * Holds every catalog ISBN in a counting Bloom filter so that inserting a new
+ * book can skip the {@code existsByIsbn} query when the ISBN is definitely not
+ * in the catalog. Positive answers still go to the database, and the unique
+ * constraint on {@code book.isbn} remains the final arbiter.
+ * </p>
+ * The filter is seeded from the book table on first use (or explicitly at
+ * startup through {@link #warmUp()}) and kept current by the book service.
+ */
+public class IsbnBloomFilter {
+
+    private static final Logger LOGGER = Logger.getLogger(IsbnBloomFilter.class.getName());
+    private static volatile IsbnBloomFilter instance;
+
+    private final BookRepository bookRepository;
+    private final double falsePositiveRate;
+    private volatile CountingBloomFilter filter;
+    private volatile boolean seeded;
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder definiteNegatives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    /**
+     * Constructor for injecting dependencies (useful for tests)
+     *
+     * @param bookRepository     repository used to seed the filter
+     * @param expectedInsertions initial capacity of the filter
+     * @param falsePositiveRate  target false positive probability
+     */
+    public IsbnBloomFilter(BookRepository bookRepository, int expectedInsertions, double falsePositiveRate) {
+        this.bookRepository = bookRepository;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new CountingBloomFilter(expectedInsertions, falsePositiveRate);
+    }
+
+    /**
+     * Returns the shared filter, sized from application.properties.
+     *
+     * @return the singleton IsbnBloomFilter instance
+     */
+    public static IsbnBloomFilter getInstance() {
+        if (instance == null) {
+            synchronized (IsbnBloomFilter.class) {
+                if (instance == null) {
+                    AppConfig config = AppConfig.getInstance();
+                    instance = new IsbnBloomFilter(Timed.wrap(BookRepository.class, new BookRepositoryJDBC()),
+                            config.getInt("isbn.bloom.expectedInsertions", 100_000),
+                            config.getDouble("isbn.bloom.falsePositiveRate", 0.01));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Seeds the filter from the book table if it has not been seeded yet.
+     */
+    public void warmUp() {
+        if (!seeded) {
+            synchronized (this) {
+                if (!seeded) {
+                    reseed();
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether an ISBN may already exist in the catalog.
+     *
+     * @param isbn the ISBN to check
+     * @return false if the ISBN is definitely not in the catalog
+     */
+    public boolean mightContain(String isbn) {
+        warmUp();
+        checks.increment();
+        boolean result = filter.mightContain(hash(isbn));
+        if (!result) {
+            definiteNegatives.increment();
+        }
+        return result;
+    }
+
+    /**
+     * Records that a positive answer was not confirmed by the database.
+     */
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    /**
+     * Adds an ISBN after a book was saved.
+     *
+     * @param isbn the saved ISBN
+     */
+    public void add(String isbn) {
+        if (!seeded) {
+            // The initial seed will read it from the database
+            return;
+        }
+        CountingBloomFilter current = filter;
+        current.add(hash(isbn));
+        if (current.size() > current.getExpectedInsertions()) {
+            synchronized (this) {
+                if (filter == current) {
+                    LOGGER.log(Level.INFO, "ISBN filter is over capacity ({0}), resizing", current.size());
+                    reseed();
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes an ISBN after a book was deleted or its ISBN changed.
+     *
+     * @param isbn the ISBN that no longer exists
+     */
+    public void remove(String isbn) {
+        if (seeded) {
+            filter.remove(hash(isbn));
+        }
+    }
+
+    /**
+     * Gets the number of ISBN checks performed.
+     *
+     * @return the number of checks
+     */
+    public long getChecks() {
+        return checks.sum();
+    }
+
+    /**
+     * Gets the number of checks answered without a database query.
+     *
+     * @return the number of definite negatives
+     */
+    public long getDefiniteNegatives() {
+        return definiteNegatives.sum();
+    }
+
+    /**
+     * Gets the number of positive answers the database did not confirm.
+     *
+     * @return the number of false positives
+     */
+    public long getFalsePositives() {
+        return falsePositives.sum();
+    }
+
+    /**
+     * Gets the observed false positive rate: false positives divided by all
+     * checks for ISBNs that turned out not to exist.
+     *
+     * @return the observed false positive rate, or 0 if there is no data yet
+     */
+    public double getObservedFalsePositiveRate() {
+        long fp = falsePositives.sum();
+        long negatives = definiteNegatives.sum() + fp;
+        return negatives == 0 ? 0.0 : (double) fp / negatives;
+    }
+
+    /**
+     * Gets the false positive rate predicted from the current fill level.
+     *
+     * @return the expected false positive rate
+     */
+    public double getExpectedFalsePositiveRate() {
+        return filter.expectedFalsePositiveRate();
+    }
+
+    /**
+     * Gets the number of ISBNs held by the filter.
+     *
+     * @return the number of ISBNs
+     */
+    public int size() {
+        return filter.size();
+    }
+
+    /**
+     * Rebuilds the filter from the book table, doubling its capacity when the
+     * catalog has outgrown it.
+     */
+    private void reseed() {
+        List<String> isbns = bookRepository.findAllIsbns();
+        int capacity = filter.getExpectedInsertions();
+        while (capacity < isbns.size() * 2L && capacity < Integer.MAX_VALUE / 2) {
+            capacity *= 2;
+        }
+        CountingBloomFilter rebuilt = new CountingBloomFilter(capacity, falsePositiveRate);
+        for (String isbn : isbns) {
+            rebuilt.add(hash(isbn));
+        }
+        filter = rebuilt;
+        seeded = true;
+        LOGGER.log(Level.INFO, "ISBN filter seeded with {0} ISBNs (capacity {1})",
+                new Object[] { isbns.size(), capacity });
+    }
+
+    /**
+     * Hashes the packed ISBN-13 key, so "978-0134685991", "9780134685991" and
+     * the ISBN-10 "0134685990" share a slot. Strings that are not valid ISBNs
+     * fall back to a hash of their digits and check character.
+     */
+    private static long hash(String isbn) {
+        long h = IsbnCodec.toKey(isbn);
+        if (h == IsbnCodec.NO_KEY) {
+            h = 0xcbf29ce484222325L;
+            if (isbn != null) {
+                for (int i = 0; i < isbn.length(); i++) {
+                    char c = isbn.charAt(i);
+                    if (c == 'x') {
+                        c = 'X';
+                    }
+                    if ((c >= '0' && c <= '9') || c == 'X') {
+                        h ^= c;
+                        h *= 0x100000001b3L;
+                    }
+                }
+            }
+        }
+        // Final avalanche so both 32-bit halves are well mixed
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,315 @@
+package com.codeup.novabook.cache;
+
+import com.codeup.novabook.engine.OverdueEngine;
+import com.codeup.novabook.infra.metrics.Timed;
+import com.codeup.novabook.repository.StatsRepository;
+import com.codeup.novabook.repository.jdbc.StatsRepositoryJDBC;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Library-wide counters shown on the statistics dashboards, kept in memory
+ * so that opening a dashboard does not run a {@code COUNT(*)} per figure.
+ * <p>
+ * The counters are read from the {@code stats} table on first use, or
+ * counted from the source tables if none were saved yet, and then moved by
+ * the services as books, members, users and lendings are created and
+ * changed. The overdue count comes from the {@link OverdueEngine} once it
+ * has loaded, since lendings become overdue with the passing of time rather
+ * than through a write.
+ * </p>
+ * The counters are periodically reconciled against the source tables and
+ * saved back to {@code stats}; see {@link #reconcile()}. Updates received
+ * before the first load are ignored, since the load reads them from the
+ * database.
+ */
+public class LibraryCounters {
+
+    /**
+     * A dashboard figure.
+     */
+    public enum Counter {
+        BOOKS(StatsRepository.BOOKS),
+        MEMBERS(StatsRepository.MEMBERS),
+        REGULAR_MEMBERS(StatsRepository.REGULAR_MEMBERS),
+        PREMIUM_MEMBERS(StatsRepository.PREMIUM_MEMBERS),
+        ACTIVE_MEMBERS(StatsRepository.ACTIVE_MEMBERS),
+        USERS(StatsRepository.USERS),
+        LENDINGS(StatsRepository.LENDINGS),
+        ACTIVE_LENDINGS(StatsRepository.ACTIVE_LENDINGS),
+        OVERDUE_LENDINGS(StatsRepository.OVERDUE_LENDINGS);
+
+        private final String key;
+
+        Counter(String key) {
+            this.key = key;
+        }
+
+        /**
+         * Gets the name the counter is stored under.
+         *
+         * @return the counter name
+         */
+        public String getKey() {
+            return key;
+        }
+    }
+
+    private static final Logger LOGGER = Logger.getLogger(LibraryCounters.class.getName());
+    private static volatile LibraryCounters instance;
+
+    private static final Counter[] COUNTERS = Counter.values();
+    // Counters changed this recently are left alone by reconciliation, as the
+    // matching database write may still be in flight
+    private static final long RECONCILE_GRACE_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    private final StatsRepository statsRepository;
+    private final OverdueEngine overdueEngine;
+    private final AtomicLongArray values = new AtomicLongArray(COUNTERS.length);
+    private final AtomicLongArray changedAt = new AtomicLongArray(COUNTERS.length);
+    private volatile boolean loaded;
+    private volatile ReconciliationReport lastReport;
+    private ScheduledExecutorService reconciler;
+
+    /**
+     * Constructor for injecting dependencies (useful for tests)
+     *
+     * @param statsRepository repository used to read, count and save the counters
+     * @param overdueEngine   engine that tracks overdue lendings
+     */
+    public LibraryCounters(StatsRepository statsRepository, OverdueEngine overdueEngine) {
+        this.statsRepository = statsRepository;
+        this.overdueEngine = overdueEngine;
+    }
+
+    /**
+     * Returns the shared counters backed by the JDBC repository.
+     *
+     * @return the singleton LibraryCounters instance
+     */
+    public static LibraryCounters getInstance() {
+        if (instance == null) {
+            synchronized (LibraryCounters.class) {
+                if (instance == null) {
+                    instance = new LibraryCounters(Timed.wrap(StatsRepository.class, new StatsRepositoryJDBC()),
+                            OverdueEngine.getInstance());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Loads the counters from the database if not loaded yet.
+     */
+    public void warmUp() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    load();
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the current value of a counter, loading the counters on first use.
+     *
+     * @param counter the counter
+     * @return the value
+     */
+    public long get(Counter counter) {
+        warmUp();
+        if (counter == Counter.OVERDUE_LENDINGS && overdueEngine.isLoaded()) {
+            return overdueEngine.getOverdueCount();
+        }
+        return values.get(counter.ordinal());
+    }
+
+    /**
+     * Moves a counter after a change written through a service.
+     *
+     * @param counter the counter
+     * @param delta   the change, negative to decrease it
+     */
+    public void add(Counter counter, long delta) {
+        if (!loaded) {
+            return;
+        }
+        int index = counter.ordinal();
+        values.addAndGet(index, delta);
+        changedAt.set(index, System.nanoTime());
+    }
+
+    /**
+     * Counts a newly registered member.
+     *
+     * @param role   the member's role
+     * @param active whether the member is active
+     */
+    public void memberAdded(String role, boolean active) {
+        add(Counter.MEMBERS, 1);
+        moveMember(role, active, 1);
+    }
+
+    /**
+     * Moves a member between the role and activity counters after an update.
+     *
+     * @param oldRole   the role before the update
+     * @param wasActive whether the member was active before the update
+     * @param newRole   the role after the update
+     * @param active    whether the member is active after the update
+     */
+    public void memberChanged(String oldRole, boolean wasActive, String newRole, boolean active) {
+        moveMember(oldRole, wasActive, -1);
+        moveMember(newRole, active, 1);
+    }
+
+    /**
+     * Counts a new lending.
+     */
+    public void lendingOpened() {
+        add(Counter.LENDINGS, 1);
+        add(Counter.ACTIVE_LENDINGS, 1);
+    }
+
+    /**
+     * Counts a returned lending.
+     */
+    public void lendingClosed() {
+        add(Counter.ACTIVE_LENDINGS, -1);
+    }
+
+    /**
+     * Counts every statistic from the source tables, repairs the counters
+     * that drifted and saves the result to {@code stats}. Counters updated in
+     * the last couple of seconds are skipped and checked again on the next
+     * run.
+     *
+     * @return the repair report
+     */
+    public ReconciliationReport reconcile() {
+        if (!loaded) {
+            warmUp();
+        }
+        ReconciliationReport report = new ReconciliationReport("Library counters");
+        long cutoff = System.nanoTime() - RECONCILE_GRACE_NANOS;
+        Map<String, Long> counted = statsRepository.countFromTables(Instant.now());
+
+        for (Counter counter : COUNTERS) {
+            Long databaseValue = counted.get(counter.key);
+            if (databaseValue == null) {
+                continue;
+            }
+            int index = counter.ordinal();
+            if (counter == Counter.OVERDUE_LENDINGS) {
+                // Only used until the engine has loaded, so never moved in between
+                values.set(index, databaseValue);
+                continue;
+            }
+            report.recordChecked();
+            long current = values.get(index);
+            if (current == databaseValue) {
+                continue;
+            }
+            if (changedAt.get(index) - cutoff > 0 || !values.compareAndSet(index, current, databaseValue)) {
+                report.recordSkipped();
+                continue;
+            }
+            report.recordRepair(index, counter.key, current, databaseValue);
+        }
+
+        statsRepository.saveAll(snapshot(), Instant.now());
+        report.finish();
+        lastReport = report;
+        LOGGER.log(report.isClean() ? Level.FINE : Level.WARNING, report.toString());
+        return report;
+    }
+
+    /**
+     * Gets the report of the last reconciliation run.
+     *
+     * @return the last report, or null if reconciliation never ran
+     */
+    public ReconciliationReport getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * Starts reconciling the counters in the background.
+     *
+     * @param periodMinutes minutes between two runs
+     */
+    public synchronized void startReconciliation(long periodMinutes) {
+        if (reconciler != null || periodMinutes <= 0) {
+            return;
+        }
+        reconciler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stats-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reconciler.scheduleWithFixedDelay(() -> {
+            try {
+                reconcile();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Statistics reconciliation failed: " + e.getMessage(), e);
+            }
+        }, periodMinutes, periodMinutes, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Stops the background reconciliation.
+     */
+    public synchronized void stopReconciliation() {
+        if (reconciler != null) {
+            reconciler.shutdownNow();
+            reconciler = null;
+        }
+    }
+
+    private void load() {
+        Map<String, Long> stored = statsRepository.findAll();
+        boolean complete = true;
+        for (Counter counter : COUNTERS) {
+            complete &= stored.containsKey(counter.key);
+        }
+        if (!complete) {
+            // First run against this database: count once and keep the result
+            stored = statsRepository.countFromTables(Instant.now());
+            statsRepository.saveAll(stored, Instant.now());
+        }
+        for (Counter counter : COUNTERS) {
+            values.set(counter.ordinal(), stored.getOrDefault(counter.key, 0L));
+        }
+        loaded = true;
+        LOGGER.log(Level.INFO, "Library counters loaded from {0}", complete ? "stats table" : "source tables");
+    }
+
+    private Map<String, Long> snapshot() {
+        Map<String, Long> snapshot = new LinkedHashMap<>();
+        for (Counter counter : COUNTERS) {
+            snapshot.put(counter.key, get(counter));
+        }
+        return snapshot;
+    }
+
+    private void moveMember(String role, boolean active, int delta) {
+        if ("REGULAR".equals(role)) {
+            add(Counter.REGULAR_MEMBERS, delta);
+        } else if ("PREMIUM".equals(role)) {
+            add(Counter.PREMIUM_MEMBERS, delta);
+        }
+        if (active) {
+            add(Counter.ACTIVE_MEMBERS, delta);
+        }
+    }
+}
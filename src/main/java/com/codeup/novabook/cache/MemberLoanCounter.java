@@ -0,0 +1,228 @@
+package com.codeup.novabook.cache;
+
+import com.codeup.novabook.domain.Member;
+import com.codeup.novabook.infra.collections.PagedAtomicIntArray;
+import com.codeup.novabook.infra.config.AppConfig;
+import com.codeup.novabook.infra.metrics.Timed;
+import com.codeup.novabook.repository.LendingRepository;
+import com.codeup.novabook.repository.MemberRepository;
+import com.codeup.novabook.repository.jdbc.LendingRepositoryJDBC;
+import com.codeup.novabook.repository.jdbc.MemberRepositoryJDBC;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Per-member count of active loans and borrowing limit, kept in memory so
+ * that borrowing-limit checks do not query the database.
+ * <p>
+ * A member's count is loaded from {@code lending} the first time the member
+ * borrows or is checked, and then moved by {@link #tryAcquire(int)} and
+ * {@link #release(int)} as loans are created and returned. The limit comes
+ * from the member's role ({@code lending.maxBooks.<ROLE>} in
+ * application.properties) and is cached until the role changes.
+ * </p>
+ * The count is only a fast answer: the limit itself is enforced by the
+ * database when lendings are inserted. A count can come out too high when a
+ * return lands while it is first loaded, so a member who looks full is
+ * counted again before being refused; see {@link #recount(int)}.
+ */
+public class MemberLoanCounter {
+
+    /** Limit for REGULAR members when none is configured. */
+    public static final int DEFAULT_REGULAR_LIMIT = 3;
+    /** Limit for PREMIUM members when none is configured. */
+    public static final int DEFAULT_PREMIUM_LIMIT = 5;
+
+    private static final int UNKNOWN = -1;
+    private static volatile MemberLoanCounter instance;
+
+    private final LendingRepository lendingRepository;
+    private final MemberRepository memberRepository;
+    private final Map<String, Integer> limitsByRole;
+    private final int defaultLimit;
+    private final PagedAtomicIntArray activeLoans = new PagedAtomicIntArray(UNKNOWN);
+    private final PagedAtomicIntArray limits = new PagedAtomicIntArray(UNKNOWN);
+
+    /**
+     * Constructor for injecting dependencies (useful for tests)
+     *
+     * @param lendingRepository repository used to count active loans
+     * @param memberRepository  repository used to read member roles
+     * @param limitsByRole      borrowing limit per member role
+     * @param defaultLimit      limit for roles missing from the map
+     */
+    public MemberLoanCounter(LendingRepository lendingRepository, MemberRepository memberRepository,
+            Map<String, Integer> limitsByRole, int defaultLimit) {
+        this.lendingRepository = lendingRepository;
+        this.memberRepository = memberRepository;
+        this.limitsByRole = new HashMap<>(limitsByRole);
+        this.defaultLimit = defaultLimit;
+    }
+
+    /**
+     * Returns the shared counter, with limits read from application.properties.
+     *
+     * @return the singleton MemberLoanCounter instance
+     */
+    public static MemberLoanCounter getInstance() {
+        if (instance == null) {
+            synchronized (MemberLoanCounter.class) {
+                if (instance == null) {
+                    AppConfig config = AppConfig.getInstance();
+                    Map<String, Integer> limits = new HashMap<>();
+                    limits.put("REGULAR", config.getInt("lending.maxBooks.REGULAR", DEFAULT_REGULAR_LIMIT));
+                    limits.put("PREMIUM", config.getInt("lending.maxBooks.PREMIUM", DEFAULT_PREMIUM_LIMIT));
+                    instance = new MemberLoanCounter(Timed.wrap(LendingRepository.class, new LendingRepositoryJDBC()),
+                            Timed.wrap(MemberRepository.class, new MemberRepositoryJDBC()),
+                            limits, DEFAULT_REGULAR_LIMIT);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Takes one loan slot for a member if the member is below their limit.
+     *
+     * @param memberId the member ID
+     * @return true if the slot was taken, false if the limit is reached
+     * @throws IllegalArgumentException if the member does not exist
+     */
+    public boolean tryAcquire(int memberId) {
+        return tryAcquire(memberId, 1) == 1;
+    }
+
+    /**
+     * Takes up to {@code slots} loan slots for a member, as many as their
+     * limit allows. A member who looks full is counted again from the
+     * database before being refused.
+     *
+     * @param memberId the member ID
+     * @param slots    the number of slots wanted
+     * @return the number of slots taken
+     * @throws IllegalArgumentException if the member does not exist
+     */
+    public int tryAcquire(int memberId, int slots) {
+        int limit = getLimit(memberId);
+        boolean recounted = false;
+        while (slots > 0) {
+            int current = getActiveLoans(memberId);
+            if (current >= limit && !recounted) {
+                recount(memberId);
+                recounted = true;
+                continue;
+            }
+            int taken = Math.min(slots, limit - current);
+            if (taken <= 0) {
+                return 0;
+            }
+            if (activeLoans.compareAndSet(memberId, current, current + taken)) {
+                return taken;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Gives back a loan slot after a return, or after a loan that took a slot
+     * could not be saved.
+     *
+     * @param memberId the member ID
+     */
+    public void release(int memberId) {
+        while (true) {
+            int current = activeLoans.get(memberId);
+            if (current <= 0) {
+                // Not loaded yet (the load will count from the database) or already zero
+                return;
+            }
+            if (activeLoans.compareAndSet(memberId, current, current - 1)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of active loans of a member, loading it on first use.
+     *
+     * @param memberId the member ID
+     * @return the number of active loans
+     */
+    public int getActiveLoans(int memberId) {
+        int current = activeLoans.get(memberId);
+        if (current == UNKNOWN) {
+            int counted = (int) lendingRepository.countByMemberId(memberId);
+            // Another thread may have loaded it meanwhile; its value wins
+            activeLoans.compareAndSet(memberId, UNKNOWN, counted);
+            current = activeLoans.get(memberId);
+        }
+        return current;
+    }
+
+    /**
+     * Checks whether a member is below their limit, counting again from the
+     * database before answering no.
+     *
+     * @param memberId the member ID
+     * @return true if the member can borrow one more book
+     * @throws IllegalArgumentException if the member does not exist
+     */
+    public boolean hasRoom(int memberId) {
+        int limit = getLimit(memberId);
+        return getActiveLoans(memberId) < limit || recount(memberId) < limit;
+    }
+
+    /**
+     * Replaces the count of a member with the number of active loans in the
+     * database, e.g. after the database refused a lending the count allowed.
+     *
+     * @param memberId the member ID
+     * @return the number of active loans
+     */
+    public int recount(int memberId) {
+        int counted = (int) lendingRepository.countByMemberId(memberId);
+        activeLoans.set(memberId, counted);
+        return counted;
+    }
+
+    /**
+     * Gets the borrowing limit of a member from their role.
+     *
+     * @param memberId the member ID
+     * @return the maximum number of active loans
+     * @throws IllegalArgumentException if the member does not exist
+     */
+    public int getLimit(int memberId) {
+        int limit = limits.get(memberId);
+        if (limit == UNKNOWN) {
+            Optional<Member> member = memberRepository.findById(memberId);
+            if (!member.isPresent()) {
+                throw new IllegalArgumentException("Member with ID " + memberId + " does not exist");
+            }
+            limit = getLimitForRole(member.get().getRole());
+            limits.set(memberId, limit);
+        }
+        return limit;
+    }
+
+    /**
+     * Gets the borrowing limit configured for a role.
+     *
+     * @param role the member role
+     * @return the maximum number of active loans
+     */
+    public int getLimitForRole(String role) {
+        return limitsByRole.getOrDefault(role, defaultLimit);
+    }
+
+    /**
+     * Forgets the cached limit of a member after their role changed.
+     *
+     * @param memberId the member ID
+     */
+    public void invalidateLimit(int memberId) {
+        limits.set(memberId, UNKNOWN);
+    }
+}
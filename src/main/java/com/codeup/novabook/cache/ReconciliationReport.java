@@ -0,0 +1,129 @@
+package com.codeup.novabook.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of comparing an in-memory cache with the database and repairing
+ * the entries that had drifted.
+ */
+public class ReconciliationReport {
+
+    /**
+     * A single repaired value.
+     */
+    public static final class Repair {
+        private final int id;
+        private final String field;
+        private final long cachedValue;
+        private final long databaseValue;
+
+        public Repair(int id, String field, long cachedValue, long databaseValue) {
+            this.id = id;
+            this.field = field;
+            this.cachedValue = cachedValue;
+            this.databaseValue = databaseValue;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getField() {
+            return field;
+        }
+
+        public long getCachedValue() {
+            return cachedValue;
+        }
+
+        public long getDatabaseValue() {
+            return databaseValue;
+        }
+
+        @Override
+        public String toString() {
+            return "#" + id + " " + field + ": " + cachedValue + " -> " + databaseValue;
+        }
+    }
+
+    private final String cacheName;
+    private final Instant startedAt;
+    private final List<Repair> repairs = new ArrayList<>();
+    private int checked;
+    private int skipped;
+    private Instant finishedAt;
+
+    public ReconciliationReport(String cacheName) {
+        this.cacheName = cacheName;
+        this.startedAt = Instant.now();
+    }
+
+    void recordChecked() {
+        checked++;
+    }
+
+    void recordSkipped() {
+        skipped++;
+    }
+
+    void recordRepair(int id, String field, long cachedValue, long databaseValue) {
+        repairs.add(new Repair(id, field, cachedValue, databaseValue));
+    }
+
+    void finish() {
+        finishedAt = Instant.now();
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * Gets the number of entries compared with the database.
+     */
+    public int getChecked() {
+        return checked;
+    }
+
+    /**
+     * Gets the number of entries left alone because they changed while the
+     * database snapshot was being read.
+     */
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public List<Repair> getRepairs() {
+        return Collections.unmodifiableList(repairs);
+    }
+
+    public boolean isClean() {
+        return repairs.isEmpty();
+    }
+
+    public Duration getDuration() {
+        return Duration.between(startedAt, finishedAt != null ? finishedAt : Instant.now());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(cacheName).append(" reconciliation: ")
+                .append(checked).append(" checked, ")
+                .append(repairs.size()).append(" repaired, ")
+                .append(skipped).append(" skipped in ")
+                .append(getDuration().toMillis()).append(" ms");
+        for (Repair repair : repairs) {
+            sb.append("\n  ").append(repair);
+        }
+        return sb.toString();
+    }
+}
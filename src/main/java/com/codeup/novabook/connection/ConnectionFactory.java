@@ -7,9 +7,12 @@ package com.codeup.novabook.connection;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.Statement;
 
 import com.codeup.novabook.exceptions.db.DatabaseException;
 import com.codeup.novabook.infra.config.AppConfig;
+import com.codeup.novabook.infra.jfr.ConnectionBorrowEvent;
+import com.codeup.novabook.infra.metrics.MetricsRegistry;
 
 /**
  * Singleton class for managing database connections.
@@ -20,13 +23,20 @@ import com.codeup.novabook.infra.config.AppConfig;
 public class ConnectionFactory {
     private static volatile ConnectionFactory instance;
     private final AppConfig config;
+    private final SqlInstrumentation sqlInstrumentation;
     
     /**
      * Private constructor to prevent instantiation from outside the class.
      * Loads the application configuration.
      */
     private ConnectionFactory() {
-        this.config = new AppConfig();
+        this.config = AppConfig.getInstance();
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        this.sqlInstrumentation = metrics.isEnabled()
+                ? new SqlInstrumentation(metrics,
+                        config.getLong("sql.slow.millis", SqlInstrumentation.DEFAULT_SLOW_MILLIS),
+                        config.getLong("sql.largeResult.rows", SqlInstrumentation.DEFAULT_LARGE_RESULT_ROWS))
+                : null;
     }
     
     /**
@@ -48,7 +58,8 @@ public class ConnectionFactory {
     
     /**
      * Creates and returns a new database connection.
-     * Supports both MySQL and PostgreSQL databases.
+     * Supports both MySQL and PostgreSQL databases. Unless metrics are
+     * disabled, the connection times its statements and logs slow ones.
      * 
      * @return a new database connection
      * @throws DatabaseException if connection fails
@@ -69,10 +80,49 @@ public class ConnectionFactory {
             url = String.format("jdbc:mysql://%s:%s/%s?useSSL=%s&serverTimezone=UTC", host, port, name, useSSL);
         }
         
+        ConnectionBorrowEvent event = new ConnectionBorrowEvent();
+        event.begin();
         try {
-            return DriverManager.getConnection(url, user, pass);
+            Connection connection = DriverManager.getConnection(url, user, pass);
+            event.success = true;
+            return sqlInstrumentation != null ? sqlInstrumentation.wrap(connection) : connection;
         } catch (SQLException e) {
             throw new DatabaseException("Failed to connect to database", e);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.vendor = isPostgres() ? "postgres" : "mysql";
+                event.commit();
+            }
+        }
+    }
+    
+    /**
+     * Checks whether the configured database is PostgreSQL.
+     * 
+     * @return true for PostgreSQL, false for MySQL
+     */
+    public boolean isPostgres() {
+        return "postgres".equalsIgnoreCase(config.get("db.vendor"));
+    }
+    
+    /**
+     * Makes a query stream its rows instead of buffering the whole result
+     * in memory. On PostgreSQL this turns off auto-commit on the connection,
+     * which should only be used for the streamed query.
+     * 
+     * @param conn the connection the statement belongs to
+     * @param stmt a forward-only, read-only statement
+     * @throws SQLException if the driver rejects the settings
+     */
+    public void enableStreaming(Connection conn, Statement stmt) throws SQLException {
+        if (isPostgres()) {
+            // The PostgreSQL driver only uses a cursor inside a transaction
+            conn.setAutoCommit(false);
+            stmt.setFetchSize(1000);
+        } else {
+            // MySQL Connector/J streams rows one at a time with this fetch size
+            stmt.setFetchSize(Integer.MIN_VALUE);
         }
     }
     
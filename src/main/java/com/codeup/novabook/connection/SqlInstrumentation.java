@@ -0,0 +1,277 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.codeup.novabook.connection;
+
+import com.codeup.novabook.infra.metrics.LatencyHistogram;
+import com.codeup.novabook.infra.metrics.MetricsRegistry;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Wraps JDBC connections so that every statement they run is timed, its rows
+ * are counted and slow or oversized queries are logged.
+ * <p>
+ * Timings and row counts go to the {@link MetricsRegistry} under
+ * {@code sql <statement text>}. A statement slower than the threshold is
+ * logged to the {@code com.codeup.novabook.sql.slow} logger with the first
+ * few bound parameters; parameters of statements that touch a password
+ * column are never logged. A query returning more rows than the large
+ * result threshold is logged too, as it usually means an unbounded scan.
+ * Rows are counted when the result set is exhausted or closed, or when its
+ * statement is closed.
+ * </p>
+ *
+ * @author Adrián Gutiérrez
+ */
+public class SqlInstrumentation {
+
+    private static final Logger SLOW_LOG = Logger.getLogger("com.codeup.novabook.sql.slow");
+
+    /** Execution time that makes a statement slow when none is configured. */
+    public static final long DEFAULT_SLOW_MILLIS = 200;
+    /** Rows that make a result large when none is configured. */
+    public static final long DEFAULT_LARGE_RESULT_ROWS = 10_000;
+
+    private static final int MAX_LOGGED_PARAMETERS = 10;
+    private static final int MAX_PARAMETER_LENGTH = 64;
+    private static final int MAX_TRACKED_STATEMENTS = 1_000;
+    private static final String OTHER_STATEMENTS = "sql (other)";
+    private static final String BATCH_STATEMENTS = "(statement batch)";
+
+    private final MetricsRegistry registry;
+    private final long slowNanos;
+    private final long largeResultRows;
+    private final LongAdder slowStatements;
+    private final LongAdder largeResults;
+    private final Map<String, StatementMetrics> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the instrumentation.
+     *
+     * @param registry        where timings and row counts are recorded
+     * @param slowMillis      execution time that makes a statement slow
+     * @param largeResultRows rows that make a result large
+     */
+    public SqlInstrumentation(MetricsRegistry registry, long slowMillis, long largeResultRows) {
+        this.registry = registry;
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(slowMillis);
+        this.largeResultRows = largeResultRows;
+        this.slowStatements = registry.counter("sql.slow");
+        this.largeResults = registry.counter("sql.largeResults");
+    }
+
+    /**
+     * Wraps a connection. Statements it creates and result sets they return
+     * are wrapped as well.
+     *
+     * @param connection the driver's connection
+     * @return the instrumented connection
+     */
+    public Connection wrap(Connection connection) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof PreparedStatement && "prepareStatement".equals(method.getName())) {
+                return wrapStatement(PreparedStatement.class, (Statement) result, (String) args[0]);
+            }
+            if (result instanceof Statement && "createStatement".equals(method.getName())) {
+                return wrapStatement(Statement.class, (Statement) result, null);
+            }
+            return result;
+        };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, handler);
+    }
+
+    private Object wrapStatement(Class<? extends Statement> type, Statement statement, String sql) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                new StatementHandler(statement, sql));
+    }
+
+    private StatementMetrics metricsFor(String sql) {
+        StatementMetrics found = metrics.get(sql);
+        if (found != null) {
+            return found;
+        }
+        // Statements built at run time could otherwise create metrics without end
+        String name = metrics.size() < MAX_TRACKED_STATEMENTS
+                ? "sql " + sql.replaceAll("\\s+", " ").trim()
+                : OTHER_STATEMENTS;
+        return metrics.computeIfAbsent(sql, key -> new StatementMetrics(registry.histogram(name),
+                registry.counter(name + " [rows]")));
+    }
+
+    private void recordExecution(String sql, long nanos, Map<Integer, Object> parameters) {
+        metricsFor(sql).latency.record(nanos);
+        if (nanos >= slowNanos) {
+            slowStatements.increment();
+            if (SLOW_LOG.isLoggable(Level.WARNING)) {
+                SLOW_LOG.log(Level.WARNING, "Slow statement ({0} ms): {1} parameters={2}",
+                        new Object[] { TimeUnit.NANOSECONDS.toMillis(nanos), sql, describe(sql, parameters) });
+            }
+        }
+    }
+
+    private void recordRows(String sql, long rows) {
+        metricsFor(sql).rows.add(rows);
+        if (rows >= largeResultRows) {
+            largeResults.increment();
+            SLOW_LOG.log(Level.WARNING, "Large result ({0} rows): {1}", new Object[] { rows, sql });
+        }
+    }
+
+    private static String describe(String sql, Map<Integer, Object> parameters) {
+        if (sql.toLowerCase(Locale.ROOT).contains("password")) {
+            return "[redacted]";
+        }
+        StringBuilder sb = new StringBuilder("[");
+        int logged = 0;
+        for (Map.Entry<Integer, Object> parameter : parameters.entrySet()) {
+            if (logged == MAX_LOGGED_PARAMETERS) {
+                sb.append(", ...");
+                break;
+            }
+            String value = String.valueOf(parameter.getValue());
+            if (value.length() > MAX_PARAMETER_LENGTH) {
+                value = value.substring(0, MAX_PARAMETER_LENGTH) + "...";
+            }
+            sb.append(logged++ == 0 ? "" : ", ").append(parameter.getKey()).append('=').append(value);
+        }
+        return sb.append(']').toString();
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            // Callers see the SQLException the driver threw, not the reflection wrapper
+            throw e.getCause();
+        }
+    }
+
+    private static final class StatementMetrics {
+        private final LatencyHistogram latency;
+        private final LongAdder rows;
+
+        private StatementMetrics(LatencyHistogram latency, LongAdder rows) {
+            this.latency = latency;
+            this.rows = rows;
+        }
+    }
+
+    /**
+     * Tracks one statement. JDBC statements are used by one thread at a time,
+     * so no state here is synchronized.
+     */
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String preparedSql;
+        private final Map<Integer, Object> parameters = new TreeMap<>();
+        private ResultHandler openResult;
+
+        private StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer
+                    && method.getDeclaringClass() == PreparedStatement.class) {
+                parameters.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if (name.equals("close")) {
+                finishResult();
+            }
+            return SqlInstrumentation.invoke(target, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            finishResult();
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+            if (sql == null) {
+                sql = BATCH_STATEMENTS;
+            }
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = SqlInstrumentation.invoke(target, method, args);
+            } finally {
+                recordExecution(sql, System.nanoTime() - start, parameters);
+            }
+            if (result instanceof ResultSet) {
+                openResult = new ResultHandler((ResultSet) result, sql);
+                return Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                        new Class<?>[] { ResultSet.class }, openResult);
+            }
+            return result;
+        }
+
+        private void finishResult() {
+            if (openResult != null) {
+                openResult.finish();
+                openResult = null;
+            }
+        }
+    }
+
+    /**
+     * Counts the rows read from one result set.
+     */
+    private final class ResultHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final String sql;
+        private long rows;
+        private boolean finished;
+
+        private ResultHandler(ResultSet target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("next")) {
+                Object hasRow = SqlInstrumentation.invoke(target, method, args);
+                if (Boolean.TRUE.equals(hasRow)) {
+                    rows++;
+                } else {
+                    finish();
+                }
+                return hasRow;
+            }
+            if (method.getName().equals("close")) {
+                finish();
+            }
+            return SqlInstrumentation.invoke(target, method, args);
+        }
+
+        private void finish() {
+            if (!finished) {
+                finished = true;
+                recordRows(sql, rows);
+            }
+        }
+    }
+}
@@ -30,9 +30,14 @@ CREATE TABLE IF NOT EXISTS users (
 CREATE TABLE IF NOT EXISTS book (
     id INT AUTO_INCREMENT PRIMARY KEY,
     isbn VARCHAR(20) NOT NULL UNIQUE,
+    -- ISBN-13 packed as a number (ISBN-10 values converted), see IsbnCodec.toKey
+    isbn_key BIGINT NULL UNIQUE,
     title VARCHAR(100) NOT NULL,
     author VARCHAR(100) NOT NULL,
     stock INT NOT NULL,
+    -- Bumped by every write; updates compare it (on an existing database:
+    -- ALTER TABLE book ADD COLUMN version INT NOT NULL DEFAULT 0)
+    version INT NOT NULL DEFAULT 0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
 );
@@ -55,12 +60,54 @@ CREATE TABLE IF NOT EXISTS lending (
     lending_date DATE,
     due_date DATE,
     returned BOOLEAN,
+    -- Bumped by every write; updates compare it (on an existing database:
+    -- ALTER TABLE lending ADD COLUMN version INT NOT NULL DEFAULT 0)
+    version INT NOT NULL DEFAULT 0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    -- Serves the active-loan lookups by book (SELECT 1 ... LIMIT 1); on an existing
+    -- database: CREATE INDEX idx_lending_book_returned ON lending (book_id, returned)
+    INDEX idx_lending_book_returned (book_id, returned),
     FOREIGN KEY (member_id) REFERENCES member(id),
     FOREIGN KEY (book_id) REFERENCES book(id)
 );
 
+-- One row per overdue lending, rewritten by each fine run; amounts in cents
+CREATE TABLE IF NOT EXISTS fine (
+    lending_id INT PRIMARY KEY,
+    member_id INT NOT NULL,
+    days_overdue INT NOT NULL,
+    daily_rate_cents BIGINT NOT NULL,
+    amount_cents BIGINT NOT NULL,
+    calculated_at TIMESTAMP NOT NULL,
+    INDEX idx_fine_member (member_id),
+    FOREIGN KEY (lending_id) REFERENCES lending(id),
+    FOREIGN KEY (member_id) REFERENCES member(id)
+);
+
+-- Holds on lent-out books; WAITING and READY rows are loaded into the in-memory queues
+CREATE TABLE IF NOT EXISTS reservation (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    member_id INT NOT NULL,
+    book_id INT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'WAITING',
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    ready_at TIMESTAMP NULL,
+    expires_at TIMESTAMP NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    INDEX idx_reservation_status (status, created_at),
+    INDEX idx_reservation_member (member_id),
+    FOREIGN KEY (member_id) REFERENCES member(id),
+    FOREIGN KEY (book_id) REFERENCES book(id)
+);
+
+-- Dashboard counters, kept in memory by the application and saved after each reconciliation
+CREATE TABLE IF NOT EXISTS stats (
+    name VARCHAR(64) PRIMARY KEY,
+    total BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
 -- Insert test users with BCrypt-hashed passwords
 -- Passwords are:
 -- admin@123 -> $2a$12$LQv3c1yqBWVHxkd0LHAkCOYz6TtxMQJqhN8/LewqhrPtR6sGdVL6m
@@ -91,6 +138,12 @@ VALUES
 ('978-0596516680', 'Database Design Patterns', 'Michael Ross', 1, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 ('978-0137673629', 'Core Python Programming', 'Wesley Chun', 2, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
 
+-- Fill isbn_key for ISBN-13 rows (also usable to migrate an existing database
+-- after ALTER TABLE book ADD COLUMN isbn_key BIGINT NULL UNIQUE AFTER isbn)
+UPDATE book
+SET isbn_key = CAST(REPLACE(REPLACE(isbn, '-', ''), ' ', '') AS UNSIGNED)
+WHERE isbn_key IS NULL AND CHAR_LENGTH(REPLACE(REPLACE(isbn, '-', ''), ' ', '')) = 13;
+
 -- Insert test lendings with different scenarios
 -- Current loans
 INSERT INTO lending (member_id, book_id, lending_date, due_date, returned, created_at, updated_at)
@@ -19,6 +19,7 @@ public class Book {
     private int stock;
     private Instant createdAt;
     private Instant updatedAt;
+    private int version;
 
     /**
      * Constructor for Book
@@ -213,6 +214,28 @@ public class Book {
         this.updatedAt = updatedAt;
     }
 
+    /**
+     * Getter for the version of the book
+     * <p>
+     * The version is the one read from the database; an update only succeeds
+     * if the row still has it.
+     * </p>
+     * 
+     * @return version of the book
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Setter for the version of the book
+     * 
+     * @param version version of the book
+     */
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     /**
      * toString method for the book
      * 
@@ -221,7 +244,7 @@ public class Book {
     @Override
     public String toString() {
         return "Book{" + "id=" + id + ", isbn=" + isbn + ", title=" + title + ", author=" + author + ", stock=" + stock
-                + ", createdAt=" + createdAt + ", updatedAt=" + updatedAt + '}';
+                + ", createdAt=" + createdAt + ", updatedAt=" + updatedAt + ", version=" + version + '}';
     }
 
 }
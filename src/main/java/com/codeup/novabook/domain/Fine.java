@@ -0,0 +1,122 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.codeup.novabook.domain;
+
+import java.time.Instant;
+
+/**
+ * Fine accrued by an overdue lending. Amounts are whole cents, so sums and
+ * rates stay exact.
+ *
+ * @author Adrián Gutiérrez
+ */
+public class Fine {
+
+    private final int lendingId;
+    private final int memberId;
+    private final int daysOverdue;
+    private final long dailyRateCents;
+    private final long amountCents;
+    private final Instant calculatedAt;
+
+    /**
+     * Constructor for Fine
+     *
+     * @param lendingId      ID of the overdue lending
+     * @param memberId       ID of the member who owes the fine
+     * @param daysOverdue    Whole days past the due date
+     * @param dailyRateCents Rate applied per day, in cents
+     * @param amountCents    Fine amount, in cents
+     * @param calculatedAt   When the fine was calculated
+     */
+    public Fine(int lendingId, int memberId, int daysOverdue, long dailyRateCents, long amountCents,
+            Instant calculatedAt) {
+        if (lendingId <= 0) {
+            throw new IllegalArgumentException("Lending ID cannot be less than or equal to 0");
+        }
+        if (memberId <= 0) {
+            throw new IllegalArgumentException("Member ID cannot be less than or equal to 0");
+        }
+        if (daysOverdue < 0 || dailyRateCents < 0 || amountCents < 0) {
+            throw new IllegalArgumentException("Days, rate and amount cannot be negative");
+        }
+        if (calculatedAt == null) {
+            throw new IllegalArgumentException("Calculated at cannot be null");
+        }
+
+        this.lendingId = lendingId;
+        this.memberId = memberId;
+        this.daysOverdue = daysOverdue;
+        this.dailyRateCents = dailyRateCents;
+        this.amountCents = amountCents;
+        this.calculatedAt = calculatedAt;
+    }
+
+    /**
+     * Getter for the lending ID of the fine
+     *
+     * @return lending ID of the fine
+     */
+    public int getLendingId() {
+        return lendingId;
+    }
+
+    /**
+     * Getter for the member ID of the fine
+     *
+     * @return member ID of the fine
+     */
+    public int getMemberId() {
+        return memberId;
+    }
+
+    /**
+     * Getter for the days overdue of the fine
+     *
+     * @return whole days past the due date
+     */
+    public int getDaysOverdue() {
+        return daysOverdue;
+    }
+
+    /**
+     * Getter for the daily rate of the fine
+     *
+     * @return rate per day, in cents
+     */
+    public long getDailyRateCents() {
+        return dailyRateCents;
+    }
+
+    /**
+     * Getter for the amount of the fine
+     *
+     * @return amount, in cents
+     */
+    public long getAmountCents() {
+        return amountCents;
+    }
+
+    /**
+     * Getter for the calculation time of the fine
+     *
+     * @return when the fine was calculated
+     */
+    public Instant getCalculatedAt() {
+        return calculatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "Fine{" +
+                "lendingId=" + lendingId +
+                ", memberId=" + memberId +
+                ", daysOverdue=" + daysOverdue +
+                ", dailyRateCents=" + dailyRateCents +
+                ", amountCents=" + amountCents +
+                ", calculatedAt=" + calculatedAt +
+                '}';
+    }
+}
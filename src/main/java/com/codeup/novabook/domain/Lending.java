@@ -20,6 +20,7 @@ public class Lending {
     private boolean returned;
     private Instant createdAt;
     private Instant updatedAt;
+    private int version;
 
     /**
      * Constructor for Lending
@@ -113,10 +114,21 @@ public class Lending {
      * @return number of days overdue, or 0 if not overdue
      */
     public long getDaysOverdue() {
+        return getDaysOverdue(Instant.now());
+    }
+
+    /**
+     * Calculates the number of days this lending is overdue at a given time.
+     * Callers going through many lendings pass one shared time instead of
+     * reading the clock for each row.
+     * 
+     * @param now the reference time
+     * @return number of days overdue, or 0 if not overdue
+     */
+    public long getDaysOverdue(Instant now) {
         if (returned) {
             return 0;
         }
-        Instant now = Instant.now();
         if (now.isAfter(dueDate)) {
             return java.time.Duration.between(dueDate, now).toDays();
         }
@@ -261,6 +273,28 @@ public class Lending {
         this.updatedAt = updatedAt;
     }
 
+    /**
+     * Getter for the version of the lending
+     * <p>
+     * The version is the one read from the database; an update only succeeds
+     * if the row still has it.
+     * </p>
+     * 
+     * @return version of the lending
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Setter for the version of the lending
+     * 
+     * @param version version of the lending
+     */
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     /**
      * toString method for the lending
      * 
@@ -270,7 +304,7 @@ public class Lending {
     public String toString() {
         return "Lending{" + "id=" + id + ", memberId=" + memberId + ", bookId=" + bookId + ", lendingDate="
                 + lendingDate + ", dueDate=" + dueDate + ", returned=" + returned + ", createdAt=" + createdAt
-                + ", updatedAt=" + updatedAt + '}';
+                + ", updatedAt=" + updatedAt + ", version=" + version + '}';
     }
 
 }
@@ -0,0 +1,92 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.codeup.novabook.domain;
+
+/**
+ * Result of one item of a bulk check-in or checkout.
+ *
+ * @author Adrián Gutiérrez
+ */
+public class LendingOutcome {
+
+    /**
+     * What happened to the item.
+     */
+    public enum Status {
+        /** The lending was created or returned. */
+        DONE,
+        /** The lending does not exist. */
+        NOT_FOUND,
+        /** The lending had already been returned. */
+        ALREADY_RETURNED,
+        /** The book is lent out, kept for another member's hold or has no stock left. */
+        NOT_AVAILABLE,
+        /** The member reached their borrowing limit. */
+        LIMIT_REACHED,
+        /** The ID is not valid or was repeated in the request. */
+        INVALID
+    }
+
+    private final int requestedId;
+    private final Status status;
+    private final Lending lending;
+
+    /**
+     * Constructor for LendingOutcome
+     *
+     * @param requestedId the lending ID (check-in) or book ID (checkout) of the item
+     * @param status      what happened to the item
+     * @param lending     the lending involved, or null if there is none
+     */
+    public LendingOutcome(int requestedId, Status status, Lending lending) {
+        if (status == null) {
+            throw new IllegalArgumentException("Status cannot be null");
+        }
+        this.requestedId = requestedId;
+        this.status = status;
+        this.lending = lending;
+    }
+
+    /**
+     * Getter for the requested ID of the outcome
+     *
+     * @return the lending ID (check-in) or book ID (checkout) of the item
+     */
+    public int getRequestedId() {
+        return requestedId;
+    }
+
+    /**
+     * Getter for the status of the outcome
+     *
+     * @return what happened to the item
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Getter for the lending of the outcome
+     *
+     * @return the lending involved, or null if there is none
+     */
+    public Lending getLending() {
+        return lending;
+    }
+
+    /**
+     * Checks whether the item succeeded.
+     *
+     * @return true if the status is DONE
+     */
+    public boolean isDone() {
+        return status == Status.DONE;
+    }
+
+    @Override
+    public String toString() {
+        return "LendingOutcome{" + "requestedId=" + requestedId + ", status=" + status + ", lending=" + lending + '}';
+    }
+}
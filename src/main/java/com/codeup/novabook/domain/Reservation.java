@@ -0,0 +1,199 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.codeup.novabook.domain;
+
+import java.time.Instant;
+
+/**
+ * Hold placed by a member on a book that is lent out. Holds on the same book
+ * are served first come, first served.
+ *
+ * @author Adrián Gutiérrez
+ */
+public class Reservation {
+
+    /**
+     * Lifecycle of a hold.
+     */
+    public enum Status {
+        /** In line for the next returned copy. */
+        WAITING,
+        /** A returned copy is kept for the member until the hold expires. */
+        READY,
+        /** The member borrowed the book. */
+        FULFILLED,
+        /** The member withdrew the hold. */
+        CANCELLED,
+        /** The member did not collect the copy in time. */
+        EXPIRED;
+
+        /**
+         * Checks whether a hold in this status is still in the queue.
+         *
+         * @return true for WAITING and READY
+         */
+        public boolean isActive() {
+            return this == WAITING || this == READY;
+        }
+    }
+
+    private int id;
+    private int memberId;
+    private int bookId;
+    private Status status;
+    private Instant createdAt;
+    private Instant readyAt;
+    private Instant expiresAt;
+
+    /**
+     * Constructor for Reservation
+     *
+     * @param id        ID of the reservation
+     * @param memberId  ID of the member
+     * @param bookId    ID of the book
+     * @param status    Status of the hold
+     * @param createdAt When the hold was placed
+     * @param readyAt   When a copy was kept for the member, or null
+     * @param expiresAt When the kept copy is released, or null
+     */
+    public Reservation(int id, int memberId, int bookId, Status status, Instant createdAt, Instant readyAt,
+            Instant expiresAt) {
+        if (id < 0) {
+            throw new IllegalArgumentException("ID cannot be less than 0");
+        }
+        if (memberId <= 0) {
+            throw new IllegalArgumentException("Member ID cannot be less than or equal to 0");
+        }
+        if (bookId <= 0) {
+            throw new IllegalArgumentException("Book ID cannot be less than or equal to 0");
+        }
+        if (status == null) {
+            throw new IllegalArgumentException("Status cannot be null");
+        }
+        if (createdAt == null) {
+            throw new IllegalArgumentException("Created at cannot be null");
+        }
+
+        this.id = id;
+        this.memberId = memberId;
+        this.bookId = bookId;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.readyAt = readyAt;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Getter for the id of the reservation
+     *
+     * @return id of the reservation
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Setter for the id of the reservation
+     *
+     * @param id id of the reservation
+     */
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    /**
+     * Getter for the member ID of the reservation
+     *
+     * @return member ID of the reservation
+     */
+    public int getMemberId() {
+        return memberId;
+    }
+
+    /**
+     * Getter for the book ID of the reservation
+     *
+     * @return book ID of the reservation
+     */
+    public int getBookId() {
+        return bookId;
+    }
+
+    /**
+     * Getter for the status of the reservation
+     *
+     * @return status of the reservation
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Setter for the status of the reservation
+     *
+     * @param status status of the reservation
+     */
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    /**
+     * Getter for the creation time of the reservation
+     *
+     * @return when the hold was placed
+     */
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Getter for the ready time of the reservation
+     *
+     * @return when a copy was kept for the member, or null
+     */
+    public Instant getReadyAt() {
+        return readyAt;
+    }
+
+    /**
+     * Setter for the ready time of the reservation
+     *
+     * @param readyAt when a copy was kept for the member
+     */
+    public void setReadyAt(Instant readyAt) {
+        this.readyAt = readyAt;
+    }
+
+    /**
+     * Getter for the expiry time of the reservation
+     *
+     * @return when the kept copy is released, or null
+     */
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * Setter for the expiry time of the reservation
+     *
+     * @param expiresAt when the kept copy is released
+     */
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public String toString() {
+        return "Reservation{" +
+                "id=" + id +
+                ", memberId=" + memberId +
+                ", bookId=" + bookId +
+                ", status=" + status +
+                ", createdAt=" + createdAt +
+                ", readyAt=" + readyAt +
+                ", expiresAt=" + expiresAt +
+                '}';
+    }
+}
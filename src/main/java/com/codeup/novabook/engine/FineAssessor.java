@@ -0,0 +1,109 @@
+package com.codeup.novabook.engine;
+
+import com.codeup.novabook.domain.Fine;
+import com.codeup.novabook.domain.Member;
+import com.codeup.novabook.infra.metrics.Timed;
+import com.codeup.novabook.repository.MemberRepository;
+import com.codeup.novabook.repository.jdbc.MemberRepositoryJDBC;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes the fine of a lending as soon as {@link OverdueEngine} reports it
+ * overdue, instead of waiting for the next {@link FineEngine} run.
+ * <p>
+ * Events are queued and written from a background thread, so the engine
+ * thread never waits on the database; events that pile up meanwhile (for
+ * instance when the engine loads after a restart) go out in one batch.
+ * Upserts are keyed by lending, so repeated events are harmless, and the
+ * periodic run remains the backstop for anything missed here.
+ * </p>
+ */
+public class FineAssessor implements OverdueListener {
+
+    private static final Logger LOGGER = Logger.getLogger(FineAssessor.class.getName());
+
+    private final FineEngine fineEngine;
+    private final MemberRepository memberRepository;
+    private final Executor executor;
+    private final Clock clock;
+    private final Queue<OverdueEvent> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /**
+     * Constructor that writes through the shared fine engine on a daemon
+     * thread.
+     */
+    public FineAssessor() {
+        this(FineEngine.getInstance(), Timed.wrap(MemberRepository.class, new MemberRepositoryJDBC()),
+                Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "fine-assessor");
+                    thread.setDaemon(true);
+                    return thread;
+                }), Clock.systemUTC());
+    }
+
+    /**
+     * Constructor for injecting dependencies (useful for tests)
+     *
+     * @param fineEngine       engine that calculates and saves fines
+     * @param memberRepository repository used to read member roles
+     * @param executor         runs the writes
+     * @param clock            source of the calculation time
+     */
+    public FineAssessor(FineEngine fineEngine, MemberRepository memberRepository, Executor executor, Clock clock) {
+        this.fineEngine = fineEngine;
+        this.memberRepository = memberRepository;
+        this.executor = executor;
+        this.clock = clock;
+    }
+
+    @Override
+    public void onEvent(OverdueEvent event) {
+        if (event.getType() != OverdueEvent.Type.OVERDUE) {
+            return;
+        }
+        pending.add(event);
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        scheduled.set(false);
+        List<OverdueEvent> events = new ArrayList<>();
+        for (OverdueEvent event = pending.poll(); event != null; event = pending.poll()) {
+            events.add(event);
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+        try {
+            Instant now = clock.instant();
+            Map<Integer, String> roles = new HashMap<>();
+            List<Fine> fines = new ArrayList<>(events.size());
+            for (OverdueEvent event : events) {
+                String role = roles.computeIfAbsent(event.getMemberId(),
+                        memberId -> memberRepository.findById(memberId).map(Member::getRole).orElse(""));
+                fines.add(fineEngine.fineOf(event.getLendingId(), event.getMemberId(), event.getDueDate(), role, now));
+            }
+            fineEngine.save(fines);
+        } catch (RuntimeException e) {
+            // The next fine run writes them instead
+            LOGGER.log(Level.WARNING, "Could not write the fines of " + events.size() + " overdue lendings: "
+                    + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.codeup.novabook.engine;
+
+import com.codeup.novabook.domain.Fine;
+import com.codeup.novabook.infra.config.AppConfig;
+import com.codeup.novabook.infra.metrics.Timed;
+import com.codeup.novabook.repository.FineRepository;
+import com.codeup.novabook.repository.jdbc.FineRepositoryJDBC;
+import com.codeup.novabook.utils.Money;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Calculates the fines of all overdue lendings in one pass.
+ * <p>
+ * Overdue lendings are streamed from the database with their member's role
+ * into fixed-size column chunks. Each full chunk is evaluated in parallel
+ * on a {@link ForkJoinPool}, splitting it into ranges, and written back with
+ * batched upserts into the {@code fine} table before the next chunk is
+ * filled, so memory stays bounded however many lendings are overdue.
+ * Amounts are whole cents: the daily rate of the member's role times the
+ * whole days past the due date.
+ * </p>
+ */
+public class FineEngine {
+
+    private static final Logger LOGGER = Logger.getLogger(FineEngine.class.getName());
+    private static volatile FineEngine instance;
+
+    /** Daily rate for REGULAR members when none is configured. */
+    public static final String DEFAULT_REGULAR_RATE = "1.00";
+    /** Daily rate for PREMIUM members when none is configured. */
+    public static final String DEFAULT_PREMIUM_RATE = "0.50";
+    /** Fines written per batched statement when none is configured. */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+    private static final int CHUNK_ROWS = 1 << 16;
+    // Below this many rows a range is evaluated in the current thread
+    private static final int SPLIT_THRESHOLD = 4096;
+
+    private final FineRepository fineRepository;
+    private final Map<String, Long> ratesByRole;
+    private final long defaultRateCents;
+    private final ForkJoinPool pool;
+    private final int batchSize;
+    private final int chunkRows;
+    private volatile FineRun lastRun;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructor for injecting dependencies (useful for tests)
+     *
+     * @param fineRepository   repository used to read overdue lendings and write fines
+     * @param ratesByRole      daily rate in cents per member role
+     * @param defaultRateCents daily rate for roles missing from the map
+     * @param pool             pool that evaluates chunks
+     * @param batchSize        fines written per batched statement
+     */
+    public FineEngine(FineRepository fineRepository, Map<String, Long> ratesByRole, long defaultRateCents,
+            ForkJoinPool pool, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.fineRepository = fineRepository;
+        this.ratesByRole = new HashMap<>(ratesByRole);
+        this.defaultRateCents = defaultRateCents;
+        this.pool = pool;
+        this.batchSize = batchSize;
+        // Whole batches per chunk, so only the last write of a run is partial
+        this.chunkRows = Math.max(1, CHUNK_ROWS / batchSize) * batchSize;
+    }
+
+    /**
+     * Returns the shared engine, with its rates read from
+     * application.properties.
+     *
+     * @return the singleton FineEngine instance
+     */
+    public static FineEngine getInstance() {
+        if (instance == null) {
+            synchronized (FineEngine.class) {
+                if (instance == null) {
+                    AppConfig config = AppConfig.getInstance();
+                    Map<String, Long> rates = new HashMap<>();
+                    rates.put("REGULAR", Money.parseCents(config.get("fines.dailyRate.REGULAR", DEFAULT_REGULAR_RATE)));
+                    rates.put("PREMIUM", Money.parseCents(config.get("fines.dailyRate.PREMIUM", DEFAULT_PREMIUM_RATE)));
+                    instance = new FineEngine(Timed.wrap(FineRepository.class, new FineRepositoryJDBC()),
+                            rates, rates.get("REGULAR"),
+                            ForkJoinPool.commonPool(), config.getInt("fines.batchSize", DEFAULT_BATCH_SIZE));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Gets the daily rate of a member role.
+     *
+     * @param role the member role
+     * @return the rate per day, in cents
+     */
+    public long getDailyRateCents(String role) {
+        return ratesByRole.getOrDefault(role, defaultRateCents);
+    }
+
+    /**
+     * Calculates the fine of one lending.
+     *
+     * @param dueDate the due date
+     * @param asOf    the reference time
+     * @param role    the member role
+     * @return the fine in cents, 0 if not overdue
+     */
+    public long calculateCents(Instant dueDate, Instant asOf, String role) {
+        return Money.times(getDailyRateCents(role), daysOverdue(dueDate.toEpochMilli(), asOf.toEpochMilli()));
+    }
+
+    /**
+     * Calculates the fine of one lending without saving it.
+     *
+     * @param lendingId the lending ID
+     * @param memberId  the member ID
+     * @param dueDate   the due date
+     * @param role      the member role
+     * @param asOf      the reference time
+     * @return the fine, with 0 days and amount if not overdue
+     */
+    public Fine fineOf(int lendingId, int memberId, Instant dueDate, String role, Instant asOf) {
+        long rate = getDailyRateCents(role);
+        int days = daysOverdue(dueDate.toEpochMilli(), asOf.toEpochMilli());
+        return new Fine(lendingId, memberId, days, rate, Money.times(rate, days), asOf);
+    }
+
+    /**
+     * Saves fines calculated outside a run, replacing earlier results of the
+     * same lendings.
+     *
+     * @param fines the fines to save
+     * @return the number of fines written
+     */
+    public int save(List<Fine> fines) {
+        return fineRepository.upsertAll(fines);
+    }
+
+    /**
+     * Calculates and saves the fines of every lending overdue at a given
+     * time, replacing the results of earlier runs.
+     *
+     * @param asOf the reference time
+     * @return the run summary
+     */
+    public synchronized FineRun run(Instant asOf) {
+        FineRun run = new FineRun(asOf);
+        Chunk chunk = new Chunk(asOf, chunkRows);
+        fineRepository.forEachOverdue(asOf, (lendingId, memberId, dueDate, role) -> {
+            chunk.add(lendingId, memberId, dueDate.toEpochMilli(), getDailyRateCents(role));
+            if (chunk.size == chunkRows) {
+                flush(chunk, run);
+            }
+        });
+        flush(chunk, run);
+        run.finish();
+        lastRun = run;
+        LOGGER.log(Level.INFO, run.toString());
+        return run;
+    }
+
+    /**
+     * Gets the summary of the last run.
+     *
+     * @return the last run, or null if the engine never ran
+     */
+    public FineRun getLastRun() {
+        return lastRun;
+    }
+
+    /**
+     * Starts running the engine in the background, first right away and
+     * then once per period.
+     *
+     * @param periodHours hours between two runs
+     */
+    public synchronized void start(long periodHours) {
+        if (scheduler != null || periodHours <= 0) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fine-engine");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                run(Instant.now());
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Fine run failed: " + e.getMessage(), e);
+            }
+        }, 0, periodHours, TimeUnit.HOURS);
+    }
+
+    /**
+     * Stops the background runs.
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void flush(Chunk chunk, FineRun run) {
+        if (chunk.size == 0) {
+            return;
+        }
+        pool.invoke(new EvaluateTask(chunk, 0, chunk.size));
+
+        for (int from = 0; from < chunk.size; from += batchSize) {
+            int to = Math.min(from + batchSize, chunk.size);
+            List<Fine> batch = new ArrayList<>(to - from);
+            long cents = 0;
+            for (int i = from; i < to; i++) {
+                batch.add(new Fine(chunk.lendingIds[i], chunk.memberIds[i], chunk.days[i], chunk.rates[i],
+                        chunk.amounts[i], chunk.asOf));
+                cents = Math.addExact(cents, chunk.amounts[i]);
+            }
+            fineRepository.upsertAll(batch);
+            run.recordBatch(batch.size(), cents);
+        }
+        chunk.size = 0;
+    }
+
+    private static int daysOverdue(long dueMillis, long asOfMillis) {
+        return asOfMillis > dueMillis ? (int) ((asOfMillis - dueMillis) / DAY_MILLIS) : 0;
+    }
+
+    /**
+     * Column-oriented buffer of overdue lendings and their results.
+     */
+    private static final class Chunk {
+        private final Instant asOf;
+        private final long asOfMillis;
+        private final int[] lendingIds;
+        private final int[] memberIds;
+        private final long[] dueMillis;
+        private final long[] rates;
+        private final int[] days;
+        private final long[] amounts;
+        private int size;
+
+        private Chunk(Instant asOf, int capacity) {
+            this.asOf = asOf;
+            this.asOfMillis = asOf.toEpochMilli();
+            this.lendingIds = new int[capacity];
+            this.memberIds = new int[capacity];
+            this.dueMillis = new long[capacity];
+            this.rates = new long[capacity];
+            this.days = new int[capacity];
+            this.amounts = new long[capacity];
+        }
+
+        private void add(int lendingId, int memberId, long due, long rateCents) {
+            lendingIds[size] = lendingId;
+            memberIds[size] = memberId;
+            dueMillis[size] = due;
+            rates[size] = rateCents;
+            size++;
+        }
+    }
+
+    /**
+     * Evaluates a range of a chunk, splitting it in halves while it is large.
+     */
+    private static final class EvaluateTask extends RecursiveAction {
+        private final Chunk chunk;
+        private final int from;
+        private final int to;
+
+        private EvaluateTask(Chunk chunk, int from, int to) {
+            this.chunk = chunk;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new EvaluateTask(chunk, from, middle), new EvaluateTask(chunk, middle, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                int overdue = daysOverdue(chunk.dueMillis[i], chunk.asOfMillis);
+                chunk.days[i] = overdue;
+                chunk.amounts[i] = Money.times(chunk.rates[i], overdue);
+            }
+        }
+    }
+}
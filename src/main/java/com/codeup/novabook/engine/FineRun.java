@@ -0,0 +1,74 @@
+package com.codeup.novabook.engine;
+
+import com.codeup.novabook.utils.Money;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Summary of one {@link FineEngine} run.
+ */
+public class FineRun {
+
+    private final Instant asOf;
+    private final Instant startedAt = Instant.now();
+    private int lendings;
+    private int batches;
+    private long totalCents;
+    private Instant finishedAt;
+
+    FineRun(Instant asOf) {
+        this.asOf = asOf;
+    }
+
+    void recordBatch(int size, long cents) {
+        lendings += size;
+        batches++;
+        totalCents = Math.addExact(totalCents, cents);
+    }
+
+    void finish() {
+        finishedAt = Instant.now();
+    }
+
+    public Instant getAsOf() {
+        return asOf;
+    }
+
+    /**
+     * Gets the number of overdue lendings fined.
+     *
+     * @return the number of fines written
+     */
+    public int getLendings() {
+        return lendings;
+    }
+
+    /**
+     * Gets the number of batched writes.
+     *
+     * @return the number of batches
+     */
+    public int getBatches() {
+        return batches;
+    }
+
+    /**
+     * Gets the sum of all fines written.
+     *
+     * @return the total in cents
+     */
+    public long getTotalCents() {
+        return totalCents;
+    }
+
+    public Duration getDuration() {
+        return Duration.between(startedAt, finishedAt != null ? finishedAt : Instant.now());
+    }
+
+    @Override
+    public String toString() {
+        return "Fine run as of " + asOf + ": " + lendings + " overdue lendings, total "
+                + Money.format(totalCents) + " in " + batches + " batches, " + getDuration().toMillis() + " ms";
+    }
+}
@@ -0,0 +1,413 @@
+package com.codeup.novabook.engine;
+
+import com.codeup.novabook.domain.Lending;
+import com.codeup.novabook.infra.collections.IntArrayList;
+import com.codeup.novabook.infra.collections.IntObjectMap;
+import com.codeup.novabook.infra.config.AppConfig;
+import com.codeup.novabook.infra.metrics.Timed;
+import com.codeup.novabook.infra.time.TimingWheel;
+import com.codeup.novabook.repository.LendingRepository;
+import com.codeup.novabook.repository.jdbc.LendingRepositoryJDBC;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Tracks the due state of every active lending and publishes
+ * {@link OverdueEvent}s as time passes.
+ * <p>
+ * Active lendings are streamed from the database once and placed on a
+ * {@link TimingWheel} keyed by due date. Each lending holds a single
+ * timeout: first at the start of the due-soon window, then, once that has
+ * fired, at the due date. Advancing the wheel only touches the lendings
+ * whose time has come, so the table is never rescanned and the cost of a
+ * tick does not grow with the number of active loans.
+ * </p>
+ * Lendings created, extended or returned through the service are kept in
+ * step with {@link #track(Lending)} and {@link #untrack(int)}. Updates
+ * received before the first load are ignored, since the load reads them
+ * from the database.
+ */
+public class OverdueEngine {
+
+    private static final Logger LOGGER = Logger.getLogger(OverdueEngine.class.getName());
+    private static volatile OverdueEngine instance;
+
+    /** Due-soon window when none is configured, matching the member view. */
+    public static final int DEFAULT_DUE_SOON_DAYS = 3;
+    /** Tick length when none is configured. */
+    public static final long DEFAULT_TICK_SECONDS = 60;
+
+    private final LendingRepository lendingRepository;
+    private final Clock clock;
+    private final long dueSoonMillis;
+    private final long tickMillis;
+    private final List<OverdueListener> listeners = new CopyOnWriteArrayList<>();
+    private final IntObjectMap<Entry> entries = new IntObjectMap<>();
+    private final IntObjectMap<IntArrayList> lendingsByMember = new IntObjectMap<>();
+    private TimingWheel<Entry> wheel;
+    private int overdueCount;
+    private volatile boolean loaded;
+    private ScheduledExecutorService ticker;
+
+    /**
+     * Constructor for injecting dependencies (useful for tests)
+     *
+     * @param lendingRepository repository used to load active lendings
+     * @param clock             clock that drives the wheel
+     * @param dueSoonWindow     how long before the due date a lending is due soon
+     * @param tick              resolution of the wheel
+     */
+    public OverdueEngine(LendingRepository lendingRepository, Clock clock, Duration dueSoonWindow, Duration tick) {
+        this.lendingRepository = lendingRepository;
+        this.clock = clock;
+        this.dueSoonMillis = dueSoonWindow.toMillis();
+        this.tickMillis = tick.toMillis();
+    }
+
+    /**
+     * Returns the shared engine, with its window and tick read from
+     * application.properties.
+     *
+     * @return the singleton OverdueEngine instance
+     */
+    public static OverdueEngine getInstance() {
+        if (instance == null) {
+            synchronized (OverdueEngine.class) {
+                if (instance == null) {
+                    AppConfig config = AppConfig.getInstance();
+                    instance = new OverdueEngine(Timed.wrap(LendingRepository.class, new LendingRepositoryJDBC()),
+                            Clock.systemUTC(),
+                            Duration.ofDays(config.getInt("overdue.dueSoon.days", DEFAULT_DUE_SOON_DAYS)),
+                            Duration.ofSeconds(config.getLong("overdue.tick.seconds", DEFAULT_TICK_SECONDS)));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Loads the active lendings from the database if not loaded yet.
+     */
+    public void warmUp() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    load();
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether the engine has loaded the active lendings.
+     *
+     * @return true once loaded
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Gets how long before its due date a lending counts as due soon.
+     *
+     * @return the due-soon window
+     */
+    public Duration getDueSoonWindow() {
+        return Duration.ofMillis(dueSoonMillis);
+    }
+
+    /**
+     * Registers a listener for due-state changes.
+     *
+     * @param listener the listener
+     */
+    public void addListener(OverdueListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener.
+     *
+     * @param listener the listener
+     */
+    public void removeListener(OverdueListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Starts tracking a lending, or reschedules it after its due date
+     * changed. A returned lending stops being tracked.
+     *
+     * @param lending the lending
+     */
+    public void track(Lending lending) {
+        if (!loaded) {
+            return;
+        }
+        if (lending.isReturned()) {
+            untrack(lending.getId());
+            return;
+        }
+        synchronized (this) {
+            Entry entry = entries.get(lending.getId());
+            if (entry == null) {
+                entry = new Entry(lending.getId(), lending.getMemberId(), lending.getBookId());
+                entries.put(entry.lendingId, entry);
+                memberLendings(entry.memberId).add(entry.lendingId);
+            }
+            entry.dueMillis = lending.getDueDate().toEpochMilli();
+            clearState(entry);
+            schedule(entry);
+        }
+    }
+
+    /**
+     * Moves the due date of a tracked lending forward after it was extended
+     * in the database, without reading it back.
+     *
+     * @param lendingId the lending ID
+     * @param by        how far the due date moved
+     */
+    public void extend(int lendingId, Duration by) {
+        if (!loaded) {
+            return;
+        }
+        synchronized (this) {
+            Entry entry = entries.get(lendingId);
+            if (entry != null) {
+                reschedule(entry, by.toMillis());
+            }
+        }
+    }
+
+    /**
+     * Moves the due date of every tracked lending forward after all active
+     * lendings were extended in the database.
+     *
+     * @param by how far the due dates moved
+     */
+    public void extendAll(Duration by) {
+        if (!loaded) {
+            return;
+        }
+        long deltaMillis = by.toMillis();
+        synchronized (this) {
+            entries.forEach((lendingId, entry) -> reschedule(entry, deltaMillis));
+        }
+    }
+
+    /**
+     * Stops tracking a returned or deleted lending.
+     *
+     * @param lendingId the lending ID
+     */
+    public void untrack(int lendingId) {
+        if (!loaded) {
+            return;
+        }
+        synchronized (this) {
+            Entry entry = entries.remove(lendingId);
+            if (entry == null) {
+                return;
+            }
+            wheel.cancel(entry);
+            clearState(entry);
+            IntArrayList ids = lendingsByMember.get(entry.memberId);
+            int index = ids.indexOf(lendingId);
+            if (index >= 0) {
+                ids.removeAt(index);
+            }
+            if (ids.isEmpty()) {
+                lendingsByMember.remove(entry.memberId);
+            }
+        }
+    }
+
+    /**
+     * Moves the engine clock to now and publishes the events that are due.
+     *
+     * @return the number of events published
+     */
+    public int advance() {
+        warmUp();
+        List<OverdueEvent> events = new ArrayList<>();
+        synchronized (this) {
+            long now = clock.millis();
+            for (Entry entry : wheel.advanceTo(now)) {
+                OverdueEvent.Type type = entry.dueMillis <= now ? OverdueEvent.Type.OVERDUE : OverdueEvent.Type.DUE_SOON;
+                if (type == OverdueEvent.Type.OVERDUE && entry.state != OverdueEvent.Type.OVERDUE) {
+                    overdueCount++;
+                }
+                entry.state = type;
+                events.add(new OverdueEvent(type, entry.lendingId, entry.memberId, entry.bookId,
+                        Instant.ofEpochMilli(entry.dueMillis)));
+                if (type == OverdueEvent.Type.DUE_SOON) {
+                    wheel.schedule(entry, entry.dueMillis);
+                }
+            }
+        }
+        // Listeners run outside the lock so they may call back into the engine
+        for (OverdueEvent event : events) {
+            for (OverdueListener listener : listeners) {
+                try {
+                    listener.onEvent(event);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.SEVERE, "Overdue listener failed on " + event + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return events.size();
+    }
+
+    /**
+     * Gets the due state of a lending as of the last {@link #advance()}.
+     *
+     * @param lendingId the lending ID
+     * @return DUE_SOON, OVERDUE, or null if on time or not tracked
+     */
+    public synchronized OverdueEvent.Type getState(int lendingId) {
+        Entry entry = entries.get(lendingId);
+        return entry == null ? null : entry.state;
+    }
+
+    /**
+     * Gets a member's lendings in a given due state.
+     *
+     * @param memberId the member ID
+     * @param state    DUE_SOON or OVERDUE
+     * @return the lending IDs, possibly empty
+     */
+    public synchronized List<Integer> getLendingIds(int memberId, OverdueEvent.Type state) {
+        List<Integer> result = new ArrayList<>();
+        IntArrayList ids = lendingsByMember.get(memberId);
+        for (int i = 0; ids != null && i < ids.size(); i++) {
+            Entry entry = entries.get(ids.get(i));
+            if (entry != null && entry.state == state) {
+                result.add(entry.lendingId);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of tracked active lendings.
+     *
+     * @return the number of lendings
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the number of tracked lendings that were overdue as of the last
+     * {@link #advance()}.
+     *
+     * @return the number of overdue lendings
+     */
+    public synchronized int getOverdueCount() {
+        return overdueCount;
+    }
+
+    /**
+     * Starts advancing the engine in the background, once per tick.
+     */
+    public synchronized void start() {
+        if (ticker != null) {
+            return;
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "overdue-engine");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(() -> {
+            try {
+                advance();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Overdue engine tick failed: " + e.getMessage(), e);
+            }
+        }, 0, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the background ticks.
+     */
+    public synchronized void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+    }
+
+    private void load() {
+        long now = clock.millis();
+        wheel = new TimingWheel<>(tickMillis, now);
+        entries.clear();
+        lendingsByMember.clear();
+        overdueCount = 0;
+        lendingRepository.forEachActive(lending -> {
+            Entry entry = new Entry(lending.getId(), lending.getMemberId(), lending.getBookId());
+            entry.dueMillis = lending.getDueDate().toEpochMilli();
+            entries.put(entry.lendingId, entry);
+            memberLendings(entry.memberId).add(entry.lendingId);
+            schedule(entry);
+        });
+        loaded = true;
+        LOGGER.log(Level.INFO, "Overdue engine loaded with {0} active lendings", entries.size());
+    }
+
+    /**
+     * Places the first timeout of a lending at the start of its due-soon
+     * window. If that has passed, it fires on the next advance and reports
+     * whichever state the lending is in by then.
+     */
+    private void schedule(Entry entry) {
+        wheel.schedule(entry, entry.dueMillis - dueSoonMillis);
+    }
+
+    private void reschedule(Entry entry, long deltaMillis) {
+        entry.dueMillis += deltaMillis;
+        clearState(entry);
+        schedule(entry);
+    }
+
+    private void clearState(Entry entry) {
+        if (entry.state == OverdueEvent.Type.OVERDUE) {
+            overdueCount--;
+        }
+        entry.state = null;
+    }
+
+    private IntArrayList memberLendings(int memberId) {
+        IntArrayList ids = lendingsByMember.get(memberId);
+        if (ids == null) {
+            ids = new IntArrayList(4);
+            lendingsByMember.put(memberId, ids);
+        }
+        return ids;
+    }
+
+    private static final class Entry extends TimingWheel.Timeout {
+        private final int lendingId;
+        private final int memberId;
+        private final int bookId;
+        private long dueMillis;
+        private OverdueEvent.Type state;
+
+        private Entry(int lendingId, int memberId, int bookId) {
+            this.lendingId = lendingId;
+            this.memberId = memberId;
+            this.bookId = bookId;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.codeup.novabook.engine;
+
+import java.time.Instant;
+
+/**
+ * Change in the due state of an active lending, published by
+ * {@link OverdueEngine}.
+ */
+public class OverdueEvent {
+
+    /**
+     * Kind of due-state change.
+     */
+    public enum Type {
+        /** The due date is within the due-soon window. */
+        DUE_SOON,
+        /** The due date has passed. */
+        OVERDUE
+    }
+
+    private final Type type;
+    private final int lendingId;
+    private final int memberId;
+    private final int bookId;
+    private final Instant dueDate;
+
+    public OverdueEvent(Type type, int lendingId, int memberId, int bookId, Instant dueDate) {
+        this.type = type;
+        this.lendingId = lendingId;
+        this.memberId = memberId;
+        this.bookId = bookId;
+        this.dueDate = dueDate;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getLendingId() {
+        return lendingId;
+    }
+
+    public int getMemberId() {
+        return memberId;
+    }
+
+    public int getBookId() {
+        return bookId;
+    }
+
+    public Instant getDueDate() {
+        return dueDate;
+    }
+
+    @Override
+    public String toString() {
+        return "OverdueEvent{" + type + ", lending=" + lendingId + ", member=" + memberId
+                + ", book=" + bookId + ", due=" + dueDate + "}";
+    }
+}
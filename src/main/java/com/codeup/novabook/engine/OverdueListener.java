@@ -0,0 +1,20 @@
+package com.codeup.novabook.engine;
+
+/**
+ * Receives due-state changes from {@link OverdueEngine}.
+ * <p>
+ * Listeners run on the engine thread, in firing order, and should hand
+ * slow work off instead of blocking it. Events can repeat for the same
+ * lending (for instance after a restart), so handling must be idempotent.
+ * </p>
+ */
+@FunctionalInterface
+public interface OverdueListener {
+
+    /**
+     * Called when a lending becomes due soon or overdue.
+     *
+     * @param event the event
+     */
+    void onEvent(OverdueEvent event);
+}
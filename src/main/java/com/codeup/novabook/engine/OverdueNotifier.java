@@ -0,0 +1,23 @@
+package com.codeup.novabook.engine;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Turns due-state changes into member notices in the application log.
+ */
+public class OverdueNotifier implements OverdueListener {
+
+    private static final Logger LOGGER = Logger.getLogger(OverdueNotifier.class.getName());
+
+    @Override
+    public void onEvent(OverdueEvent event) {
+        if (event.getType() == OverdueEvent.Type.OVERDUE) {
+            LOGGER.log(Level.WARNING, "Member {0}: lending {1} (book {2}) is overdue since {3}",
+                    new Object[] { event.getMemberId(), event.getLendingId(), event.getBookId(), event.getDueDate() });
+        } else {
+            LOGGER.log(Level.INFO, "Member {0}: lending {1} (book {2}) is due on {3}",
+                    new Object[] { event.getMemberId(), event.getLendingId(), event.getBookId(), event.getDueDate() });
+        }
+    }
+}
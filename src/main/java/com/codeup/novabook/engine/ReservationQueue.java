@@ -0,0 +1,545 @@
+package com.codeup.novabook.engine;
+
+import com.codeup.novabook.domain.Reservation;
+import com.codeup.novabook.infra.collections.IntArrayList;
+import com.codeup.novabook.infra.collections.IntObjectMap;
+import com.codeup.novabook.infra.config.AppConfig;
+import com.codeup.novabook.infra.metrics.Timed;
+import com.codeup.novabook.infra.time.TimingWheel;
+import com.codeup.novabook.repository.ReservationRepository;
+import com.codeup.novabook.repository.jdbc.ReservationRepositoryJDBC;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * First come, first served hold queues, one per book.
+ * <p>
+ * The WAITING and READY reservations are loaded from the database once.
+ * Each book with holds has a FIFO of waiting holds, so when a copy comes
+ * back the next member in line is taken from its head without searching
+ * the reservations. The promoted hold becomes READY and keeps the copy for
+ * its member until the hold window ends; expiries sit on a
+ * {@link TimingWheel}, and an expired hold passes the copy to the next
+ * member in line.
+ * </p>
+ * Cancelled holds are only marked and left in their FIFO; promotion skips
+ * them, so cancelling is constant-time too. Every state change is written
+ * to the database before it is applied in memory.
+ */
+public class ReservationQueue {
+
+    private static final Logger LOGGER = Logger.getLogger(ReservationQueue.class.getName());
+    private static volatile ReservationQueue instance;
+
+    /** How long a returned copy is kept for a member when none is configured. */
+    public static final long DEFAULT_HOLD_HOURS = 48;
+    /** Resolution of the expiry checks when none is configured. */
+    public static final long DEFAULT_TICK_SECONDS = 60;
+
+    private final ReservationRepository reservationRepository;
+    private final Clock clock;
+    private final long holdMillis;
+    private final long tickMillis;
+    private final IntObjectMap<Hold> holds = new IntObjectMap<>();
+    private final IntObjectMap<BookQueue> queues = new IntObjectMap<>();
+    private final IntObjectMap<IntArrayList> holdsByMember = new IntObjectMap<>();
+    private TimingWheel<Hold> wheel;
+    private volatile boolean loaded;
+    private ScheduledExecutorService ticker;
+
+    /**
+     * Constructor for injecting dependencies (useful for tests)
+     *
+     * @param reservationRepository repository used to load and update reservations
+     * @param clock                 clock used for ready and expiry times
+     * @param holdWindow            how long a returned copy is kept for a member
+     * @param tick                  resolution of the expiry checks
+     */
+    public ReservationQueue(ReservationRepository reservationRepository, Clock clock, Duration holdWindow,
+            Duration tick) {
+        this.reservationRepository = reservationRepository;
+        this.clock = clock;
+        this.holdMillis = holdWindow.toMillis();
+        this.tickMillis = tick.toMillis();
+    }
+
+    /**
+     * Returns the shared queue, with its hold window and tick read from
+     * application.properties.
+     *
+     * @return the singleton ReservationQueue instance
+     */
+    public static ReservationQueue getInstance() {
+        if (instance == null) {
+            synchronized (ReservationQueue.class) {
+                if (instance == null) {
+                    AppConfig config = AppConfig.getInstance();
+                    instance = new ReservationQueue(Timed.wrap(ReservationRepository.class, new ReservationRepositoryJDBC()),
+                            Clock.systemUTC(),
+                            Duration.ofHours(config.getLong("reservations.hold.hours", DEFAULT_HOLD_HOURS)),
+                            Duration.ofSeconds(config.getLong("reservations.tick.seconds", DEFAULT_TICK_SECONDS)));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Loads the active reservations from the database if not loaded yet.
+     */
+    public void warmUp() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    load();
+                }
+            }
+        }
+    }
+
+    /**
+     * Places a member at the end of a book's queue.
+     *
+     * @param memberId the member ID
+     * @param bookId   the book ID
+     * @return the saved reservation
+     * @throws IllegalArgumentException if the member already has an active
+     *                                  hold on the book
+     */
+    public Reservation place(int memberId, int bookId) {
+        warmUp();
+        synchronized (this) {
+            return enqueue(memberId, bookId);
+        }
+    }
+
+    /**
+     * Places a member at the end of a book's queue, but only while they
+     * could not borrow the book: it is lent out or its copy is kept for
+     * another member. The check and the placement run under the queue's
+     * lock, which {@link #promoteNext(int)} also takes after a return is
+     * recorded, so a copy coming back meanwhile is kept for the new hold
+     * instead of sitting free.
+     *
+     * @param memberId the member ID
+     * @param bookId   the book ID
+     * @param lent     tells whether the book is lent out; called under the lock
+     * @return the saved reservation
+     * @throws IllegalArgumentException if the book can be borrowed now, or
+     *                                  the member already has an active hold
+     *                                  on the book
+     */
+    public Reservation placeIfUnavailable(int memberId, int bookId, BooleanSupplier lent) {
+        warmUp();
+        synchronized (this) {
+            if (!lent.getAsBoolean() && !isHeldForAnother(bookId, memberId)) {
+                throw new IllegalArgumentException("Book is available; borrow it instead of placing a hold");
+            }
+            return enqueue(memberId, bookId);
+        }
+    }
+
+    private Reservation enqueue(int memberId, int bookId) {
+        if (find(memberId, bookId) != null) {
+            throw new IllegalArgumentException("Member already has an active hold on this book");
+        }
+        Reservation saved = reservationRepository.save(new Reservation(0, memberId, bookId,
+                Reservation.Status.WAITING, clock.instant(), null, null));
+        Hold hold = new Hold(saved.getId(), memberId, bookId, saved.getCreatedAt());
+        add(hold);
+        return hold.toReservation();
+    }
+
+    /**
+     * Keeps a copy that has just come back for the next member in line.
+     *
+     * @param bookId the book ID
+     * @return the promoted reservation, or empty if nobody is waiting
+     */
+    public Optional<Reservation> promoteNext(int bookId) {
+        warmUp();
+        synchronized (this) {
+            BookQueue queue = queues.get(bookId);
+            while (queue != null && queue.waitingCount > 0) {
+                Hold hold = queue.waiting.pollFirst();
+                if (hold.status != Reservation.Status.WAITING) {
+                    // Cancelled or fulfilled while in line
+                    continue;
+                }
+                Instant readyAt = clock.instant();
+                Instant expiresAt = readyAt.plusMillis(holdMillis);
+                boolean updated;
+                try {
+                    updated = reservationRepository.updateStatus(hold.id, Reservation.Status.WAITING,
+                            Reservation.Status.READY, readyAt, expiresAt);
+                } catch (RuntimeException e) {
+                    // The copy stays free; the member keeps their place for the next return
+                    queue.waiting.addFirst(hold);
+                    LOGGER.log(Level.SEVERE, "Could not promote hold " + hold.id + ": " + e.getMessage(), e);
+                    return Optional.empty();
+                }
+                if (!updated) {
+                    // Changed outside this queue; forget it and try the next member
+                    remove(hold);
+                    queue = queues.get(bookId);
+                    continue;
+                }
+                queue.waitingCount--;
+                queue.readyCount++;
+                hold.status = Reservation.Status.READY;
+                hold.readyAt = readyAt;
+                hold.expiresAt = expiresAt;
+                wheel.schedule(hold, expiresAt.toEpochMilli());
+                LOGGER.log(Level.INFO, "Hold {0} on book {1} is ready for member {2} until {3}",
+                        new Object[] { hold.id, bookId, hold.memberId, expiresAt });
+                return Optional.of(hold.toReservation());
+            }
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Withdraws an active hold. A copy kept for it goes to the next member
+     * in line.
+     *
+     * @param reservationId the reservation ID
+     * @return true if the hold was active and is now cancelled
+     */
+    public boolean cancel(int reservationId) {
+        warmUp();
+        synchronized (this) {
+            Hold hold = holds.get(reservationId);
+            if (hold == null) {
+                return false;
+            }
+            boolean wasReady = hold.status == Reservation.Status.READY;
+            reservationRepository.updateStatus(hold.id, hold.status, Reservation.Status.CANCELLED,
+                    hold.readyAt, hold.expiresAt);
+            remove(hold);
+            if (wasReady) {
+                promoteNext(hold.bookId);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Closes a member's hold on a book they have just borrowed.
+     *
+     * @param memberId the member ID
+     * @param bookId   the book ID
+     * @return true if the member had an active hold on the book
+     */
+    public boolean fulfil(int memberId, int bookId) {
+        warmUp();
+        synchronized (this) {
+            Hold hold = find(memberId, bookId);
+            if (hold == null) {
+                return false;
+            }
+            reservationRepository.updateStatus(hold.id, hold.status, Reservation.Status.FULFILLED,
+                    hold.readyAt, hold.expiresAt);
+            remove(hold);
+            return true;
+        }
+    }
+
+    /**
+     * Checks whether a copy of a book is kept for someone other than a
+     * given member.
+     *
+     * @param bookId   the book ID
+     * @param memberId the member who wants to borrow it
+     * @return true if the book has a READY hold and none of them is the member's
+     */
+    public boolean isHeldForAnother(int bookId, int memberId) {
+        warmUp();
+        synchronized (this) {
+            BookQueue queue = queues.get(bookId);
+            if (queue == null || queue.readyCount == 0) {
+                return false;
+            }
+            Hold own = find(memberId, bookId);
+            return own == null || own.status != Reservation.Status.READY;
+        }
+    }
+
+    /**
+     * Gets the number of copies of a book kept for members.
+     *
+     * @param bookId the book ID
+     * @return the number of READY holds
+     */
+    public int getReadyCount(int bookId) {
+        warmUp();
+        synchronized (this) {
+            BookQueue queue = queues.get(bookId);
+            return queue == null ? 0 : queue.readyCount;
+        }
+    }
+
+    /**
+     * Gets the number of members waiting for a book.
+     *
+     * @param bookId the book ID
+     * @return the number of WAITING holds
+     */
+    public int getWaitingCount(int bookId) {
+        warmUp();
+        synchronized (this) {
+            BookQueue queue = queues.get(bookId);
+            return queue == null ? 0 : queue.waitingCount;
+        }
+    }
+
+    /**
+     * Gets the place of a hold in its book's queue.
+     *
+     * @param reservationId the reservation ID
+     * @return 1 for the next in line, 0 if a copy is already kept for it, or
+     *         -1 if the hold is not active
+     */
+    public int getPosition(int reservationId) {
+        warmUp();
+        synchronized (this) {
+            Hold hold = holds.get(reservationId);
+            if (hold == null) {
+                return -1;
+            }
+            if (hold.status == Reservation.Status.READY) {
+                return 0;
+            }
+            int position = 0;
+            for (Hold waiting : queues.get(hold.bookId).waiting) {
+                if (waiting.status == Reservation.Status.WAITING) {
+                    position++;
+                }
+                if (waiting == hold) {
+                    break;
+                }
+            }
+            return position;
+        }
+    }
+
+    /**
+     * Finds a member's active hold on a book.
+     *
+     * @param memberId the member ID
+     * @param bookId   the book ID
+     * @return the reservation, or empty if the member has no active hold on it
+     */
+    public Optional<Reservation> findActive(int memberId, int bookId) {
+        warmUp();
+        synchronized (this) {
+            Hold hold = find(memberId, bookId);
+            return hold == null ? Optional.empty() : Optional.of(hold.toReservation());
+        }
+    }
+
+    /**
+     * Gets a member's active holds.
+     *
+     * @param memberId the member ID
+     * @return the WAITING and READY reservations, oldest first
+     */
+    public List<Reservation> getActiveByMember(int memberId) {
+        warmUp();
+        synchronized (this) {
+            List<Reservation> result = new ArrayList<>();
+            IntArrayList ids = holdsByMember.get(memberId);
+            for (int i = 0; ids != null && i < ids.size(); i++) {
+                result.add(holds.get(ids.get(i)).toReservation());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Gets the number of active holds.
+     *
+     * @return the number of WAITING and READY reservations
+     */
+    public synchronized int size() {
+        return holds.size();
+    }
+
+    /**
+     * Expires the READY holds whose window has ended and passes their copies
+     * to the next members in line.
+     *
+     * @return the number of holds expired
+     */
+    public int expire() {
+        warmUp();
+        synchronized (this) {
+            int expired = 0;
+            for (Hold hold : wheel.advanceTo(clock.millis())) {
+                if (hold.status != Reservation.Status.READY) {
+                    continue;
+                }
+                if (reservationRepository.updateStatus(hold.id, Reservation.Status.READY, Reservation.Status.EXPIRED,
+                        hold.readyAt, hold.expiresAt)) {
+                    expired++;
+                    LOGGER.log(Level.INFO, "Hold {0} on book {1} expired for member {2}",
+                            new Object[] { hold.id, hold.bookId, hold.memberId });
+                }
+                remove(hold);
+                promoteNext(hold.bookId);
+            }
+            return expired;
+        }
+    }
+
+    /**
+     * Starts expiring holds in the background, once per tick.
+     */
+    public synchronized void start() {
+        if (ticker != null) {
+            return;
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reservation-queue");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(() -> {
+            try {
+                expire();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Reservation expiry failed: " + e.getMessage(), e);
+            }
+        }, 0, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the background expiry.
+     */
+    public synchronized void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+    }
+
+    private void load() {
+        long now = clock.millis();
+        wheel = new TimingWheel<>(tickMillis, now);
+        holds.clear();
+        queues.clear();
+        holdsByMember.clear();
+        reservationRepository.forEachActive(reservation -> {
+            Hold hold = new Hold(reservation.getId(), reservation.getMemberId(), reservation.getBookId(),
+                    reservation.getCreatedAt());
+            if (reservation.getStatus() == Reservation.Status.READY) {
+                hold.status = Reservation.Status.READY;
+                hold.readyAt = reservation.getReadyAt();
+                hold.expiresAt = reservation.getExpiresAt() != null ? reservation.getExpiresAt()
+                        : Instant.ofEpochMilli(now + holdMillis);
+            }
+            add(hold);
+        });
+        loaded = true;
+        LOGGER.log(Level.INFO, "Reservation queue loaded with {0} active holds", holds.size());
+    }
+
+    private void add(Hold hold) {
+        holds.put(hold.id, hold);
+        IntArrayList ids = holdsByMember.get(hold.memberId);
+        if (ids == null) {
+            ids = new IntArrayList(4);
+            holdsByMember.put(hold.memberId, ids);
+        }
+        ids.add(hold.id);
+        BookQueue queue = queues.get(hold.bookId);
+        if (queue == null) {
+            queue = new BookQueue();
+            queues.put(hold.bookId, queue);
+        }
+        if (hold.status == Reservation.Status.READY) {
+            queue.readyCount++;
+            wheel.schedule(hold, hold.expiresAt.toEpochMilli());
+        } else {
+            queue.waiting.addLast(hold);
+            queue.waitingCount++;
+        }
+    }
+
+    /**
+     * Drops a hold from the indexes. A waiting hold stays in its FIFO, marked
+     * inactive, until promotion reaches it or the queue empties.
+     */
+    private void remove(Hold hold) {
+        holds.remove(hold.id);
+        IntArrayList ids = holdsByMember.get(hold.memberId);
+        int index = ids.indexOf(hold.id);
+        if (index >= 0) {
+            ids.removeAt(index);
+        }
+        if (ids.isEmpty()) {
+            holdsByMember.remove(hold.memberId);
+        }
+        BookQueue queue = queues.get(hold.bookId);
+        if (hold.status == Reservation.Status.READY) {
+            queue.readyCount--;
+            wheel.cancel(hold);
+        } else {
+            queue.waitingCount--;
+        }
+        hold.status = null;
+        if (queue.waitingCount == 0 && queue.readyCount == 0) {
+            queues.remove(hold.bookId);
+        }
+    }
+
+    private Hold find(int memberId, int bookId) {
+        IntArrayList ids = holdsByMember.get(memberId);
+        for (int i = 0; ids != null && i < ids.size(); i++) {
+            Hold hold = holds.get(ids.get(i));
+            if (hold.bookId == bookId) {
+                return hold;
+            }
+        }
+        return null;
+    }
+
+    private static final class BookQueue {
+        private final ArrayDeque<Hold> waiting = new ArrayDeque<>();
+        private int waitingCount;
+        private int readyCount;
+    }
+
+    private static final class Hold extends TimingWheel.Timeout {
+        private final int id;
+        private final int memberId;
+        private final int bookId;
+        private final Instant createdAt;
+        // Null once the hold has left the queue
+        private Reservation.Status status = Reservation.Status.WAITING;
+        private Instant readyAt;
+        private Instant expiresAt;
+
+        private Hold(int id, int memberId, int bookId, Instant createdAt) {
+            this.id = id;
+            this.memberId = memberId;
+            this.bookId = bookId;
+            this.createdAt = createdAt;
+        }
+
+        private Reservation toReservation() {
+            return new Reservation(id, memberId, bookId, status, createdAt, readyAt, expiresAt);
+        }
+    }
+}
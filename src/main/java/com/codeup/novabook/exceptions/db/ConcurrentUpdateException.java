@@ -0,0 +1,37 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.codeup.novabook.exceptions.db;
+
+/**
+ * Thrown when an update is based on a version of a row that someone else
+ * has changed since it was read.
+ *
+ * @author Adrián Gutiérrez
+ */
+public class ConcurrentUpdateException extends RuntimeException {
+
+    private final String entity;
+    private final int id;
+    private final int expectedVersion;
+
+    public ConcurrentUpdateException(String entity, int id, int expectedVersion) {
+        super(entity + " with ID " + id + " was modified by someone else (expected version " + expectedVersion + ")");
+        this.entity = entity;
+        this.id = id;
+        this.expectedVersion = expectedVersion;
+    }
+
+    public String getEntity() {
+        return entity;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getExpectedVersion() {
+        return expectedVersion;
+    }
+}
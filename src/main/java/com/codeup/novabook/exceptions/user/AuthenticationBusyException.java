@@ -0,0 +1,7 @@
+package com.codeup.novabook.exceptions.user;
+
+public class AuthenticationBusyException extends RuntimeException {
+    public AuthenticationBusyException(int queued) {
+        super("Too many logins in progress (" + queued + " waiting). Please try again in a moment.");
+    }
+}
@@ -0,0 +1,16 @@
+package com.codeup.novabook.exceptions.user;
+
+import java.time.Duration;
+
+public class TooManyLoginAttemptsException extends RuntimeException {
+    private final Duration retryAfter;
+
+    public TooManyLoginAttemptsException(Duration retryAfter) {
+        super("Too many login attempts. Please try again in " + Math.max(1, retryAfter.toSeconds()) + " seconds.");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
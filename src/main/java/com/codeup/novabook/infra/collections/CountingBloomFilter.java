@@ -0,0 +1,142 @@
+package com.codeup.novabook.infra.collections;
+
+import java.util.Arrays;
+
+/**
+ * Counting Bloom filter over 64-bit hashes.
+ * <p>
+ * Each slot is a small saturating counter instead of a single bit, so
+ * elements can be removed as well as added. A negative answer from
+ * {@link #mightContain(long)} is definite; a positive answer may be a false
+ * positive with roughly the configured probability.
+ * </p>
+ * Callers are expected to hash their keys to a well-mixed 64-bit value.
+ */
+public class CountingBloomFilter {
+
+    private static final int MAX_COUNT = 0xFF;
+
+    private final byte[] counters;
+    private final int hashFunctions;
+    private final int expectedInsertions;
+    private int size;
+
+    /**
+     * Creates a filter sized for the expected number of elements.
+     *
+     * @param expectedInsertions the number of elements the filter should hold
+     * @param falsePositiveRate  the target false positive probability (0..1)
+     */
+    public CountingBloomFilter(int expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Expected insertions must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+        double ln2 = Math.log(2);
+        long slots = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.counters = new byte[(int) Math.min(Integer.MAX_VALUE - 8, Math.max(64, slots))];
+        this.hashFunctions = Math.max(1, (int) Math.round((double) counters.length / expectedInsertions * ln2));
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    /**
+     * Adds an element.
+     *
+     * @param hash the 64-bit hash of the element
+     */
+    public synchronized void add(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashFunctions; i++) {
+            int index = index(h1 + i * h2);
+            if ((counters[index] & MAX_COUNT) < MAX_COUNT) {
+                counters[index]++;
+            }
+        }
+        size++;
+    }
+
+    /**
+     * Removes an element previously added. Removing an element that was never
+     * added may introduce false negatives, so callers must only remove what
+     * they added.
+     *
+     * @param hash the 64-bit hash of the element
+     */
+    public synchronized void remove(long hash) {
+        if (!mightContain(hash)) {
+            return;
+        }
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashFunctions; i++) {
+            int index = index(h1 + i * h2);
+            int count = counters[index] & MAX_COUNT;
+            // Saturated counters are never decremented: their true count is unknown
+            if (count > 0 && count < MAX_COUNT) {
+                counters[index]--;
+            }
+        }
+        size--;
+    }
+
+    /**
+     * Checks whether an element may be in the filter.
+     *
+     * @param hash the 64-bit hash of the element
+     * @return false if the element is definitely absent
+     */
+    public synchronized boolean mightContain(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashFunctions; i++) {
+            if (counters[index(h1 + i * h2)] == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes every element.
+     */
+    public synchronized void clear() {
+        Arrays.fill(counters, (byte) 0);
+        size = 0;
+    }
+
+    /**
+     * Gets the number of elements currently held.
+     *
+     * @return the number of elements
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of elements the filter was sized for.
+     *
+     * @return the expected number of insertions
+     */
+    public int getExpectedInsertions() {
+        return expectedInsertions;
+    }
+
+    /**
+     * Estimates the current false positive probability from the number of
+     * elements held: (1 - e^(-k*n/m))^k.
+     *
+     * @return the expected false positive probability
+     */
+    public synchronized double expectedFalsePositiveRate() {
+        double exponent = -(double) hashFunctions * size / counters.length;
+        return Math.pow(1 - Math.exp(exponent), hashFunctions);
+    }
+
+    private int index(int combinedHash) {
+        return (combinedHash & Integer.MAX_VALUE) % counters.length;
+    }
+}
@@ -0,0 +1,37 @@
+package com.codeup.novabook.infra.collections;
+
+/**
+ * Hashing helpers shared by the open-addressing maps.
+ */
+final class HashSupport {
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private HashSupport() {
+    }
+
+    /**
+     * Folds the high bits into the low ones, like HashMap does. Database ids
+     * are mostly consecutive, so keeping them in consecutive slots gives
+     * collision-free, cache-friendly tables; scrambling them costs a cache
+     * miss per lookup instead.
+     */
+    static int mix(int key) {
+        return key ^ (key >>> 16);
+    }
+
+    /**
+     * Gets the power-of-two table size that holds the expected number of
+     * entries below the load factor.
+     */
+    static int tableSize(int expectedSize, float loadFactor) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size cannot be negative");
+        }
+        long needed = (long) Math.ceil(Math.max(expectedSize, 4) / (double) loadFactor) + 1;
+        if (needed > MAX_CAPACITY) {
+            return MAX_CAPACITY;
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+}
@@ -0,0 +1,160 @@
+package com.codeup.novabook.infra.collections;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive ints, for lists of ids that would otherwise be
+ * a {@code List<Integer>}.
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class IntArrayList {
+
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private int[] elements;
+    private int size;
+
+    /**
+     * Creates an empty list.
+     */
+    public IntArrayList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty list with room for the given number of elements.
+     *
+     * @param initialCapacity the initial capacity
+     */
+    public IntArrayList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative");
+        }
+        this.elements = new int[initialCapacity];
+    }
+
+    /**
+     * Appends an element.
+     *
+     * @param value the element
+     */
+    public void add(int value) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, Math.max(DEFAULT_CAPACITY, size + (size >> 1)));
+        }
+        elements[size++] = value;
+    }
+
+    /**
+     * Gets the element at a position.
+     *
+     * @param index the position (0 to size - 1)
+     * @return the element
+     */
+    public int get(int index) {
+        checkIndex(index);
+        return elements[index];
+    }
+
+    /**
+     * Replaces the element at a position.
+     *
+     * @param index the position (0 to size - 1)
+     * @param value the new element
+     * @return the previous element
+     */
+    public int set(int index, int value) {
+        checkIndex(index);
+        int previous = elements[index];
+        elements[index] = value;
+        return previous;
+    }
+
+    /**
+     * Removes the element at a position, shifting the following elements.
+     *
+     * @param index the position (0 to size - 1)
+     * @return the removed element
+     */
+    public int removeAt(int index) {
+        checkIndex(index);
+        int previous = elements[index];
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        size--;
+        return previous;
+    }
+
+    /**
+     * Finds the first position of an element.
+     *
+     * @param value the element
+     * @return the position, or -1 if absent
+     */
+    public int indexOf(int value) {
+        for (int i = 0; i < size; i++) {
+            if (elements[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Checks whether the list holds an element.
+     *
+     * @param value the element
+     * @return true if present
+     */
+    public boolean contains(int value) {
+        return indexOf(value) >= 0;
+    }
+
+    /**
+     * Sorts the elements in ascending order.
+     */
+    public void sort() {
+        Arrays.sort(elements, 0, size);
+    }
+
+    /**
+     * Copies the elements into an array.
+     *
+     * @return a new array of the elements
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    /**
+     * Gets the number of elements.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the list is empty.
+     *
+     * @return true if there are no elements
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every element.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.codeup.novabook.infra.collections;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from int keys to int values, such as counters
+ * per book or member id.
+ * <p>
+ * Keys and values live in primitive arrays; nothing is boxed and no node is
+ * allocated per entry. Collisions are resolved by linear probing and
+ * removals shift the following entries back.
+ * </p>
+ * This class is not thread-safe.
+ */
+public class IntIntMap {
+
+    /**
+     * Receives the entries of a map.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(int key, int value);
+    }
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private final int missingValue;
+    private int[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int size;
+    private int mask;
+    private int resizeAt;
+
+    /**
+     * Creates an empty map that answers 0 for absent keys.
+     */
+    public IntIntMap() {
+        this(DEFAULT_CAPACITY, 0);
+    }
+
+    /**
+     * Creates an empty map.
+     *
+     * @param expectedSize the number of entries to hold without resizing
+     * @param missingValue the value returned for absent keys
+     */
+    public IntIntMap(int expectedSize, int missingValue) {
+        this.missingValue = missingValue;
+        allocate(HashSupport.tableSize(expectedSize, LOAD_FACTOR));
+    }
+
+    /**
+     * Gets the value for a key.
+     *
+     * @param key the key
+     * @return the value, or the missing value if the key is absent
+     */
+    public int get(int key) {
+        int slot = find(key);
+        return slot >= 0 ? values[slot] : missingValue;
+    }
+
+    /**
+     * Checks whether a key is present.
+     *
+     * @param key the key
+     * @return true if the map holds the key
+     */
+    public boolean containsKey(int key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Associates a value with a key.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the previous value, or the missing value if the key was absent
+     */
+    public int put(int key, int value) {
+        int slot = HashSupport.mix(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                int previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        insertAt(slot, key, value);
+        return missingValue;
+    }
+
+    /**
+     * Adds a delta to the value of a key, starting from the missing value if
+     * the key is absent.
+     *
+     * @param key   the key
+     * @param delta the amount to add
+     * @return the new value
+     */
+    public int addTo(int key, int delta) {
+        int slot = HashSupport.mix(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return values[slot] += delta;
+            }
+            slot = (slot + 1) & mask;
+        }
+        int value = missingValue + delta;
+        insertAt(slot, key, value);
+        return value;
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param key the key
+     * @return the removed value, or the missing value if the key was absent
+     */
+    public int remove(int key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return missingValue;
+        }
+        int previous = values[slot];
+        shiftBack(slot);
+        size--;
+        return previous;
+    }
+
+    /**
+     * Calls the consumer for every entry, in no particular order. The map
+     * must not be modified during the iteration.
+     *
+     * @param consumer the entry consumer
+     */
+    public void forEach(EntryConsumer consumer) {
+        for (int i = 0; i < used.length; i++) {
+            if (used[i]) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * Copies the keys into a list, in no particular order.
+     *
+     * @return a new list of the keys
+     */
+    public IntArrayList keys() {
+        IntArrayList result = new IntArrayList(size);
+        for (int i = 0; i < used.length; i++) {
+            if (used[i]) {
+                result.add(keys[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of entries.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the map is empty.
+     *
+     * @return true if there are no entries
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    private int find(int key) {
+        int slot = HashSupport.mix(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void insertAt(int slot, int key, int value) {
+        keys[slot] = key;
+        values[slot] = value;
+        used[slot] = true;
+        if (++size > resizeAt) {
+            rehash(used.length * 2);
+        }
+    }
+
+    /**
+     * Closes the gap left by a removed entry by moving back the entries of
+     * the same probe chain that follow it.
+     */
+    private void shiftBack(int gap) {
+        int slot = gap;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (!used[slot]) {
+                break;
+            }
+            int home = HashSupport.mix(keys[slot]) & mask;
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                gap = slot;
+            }
+        }
+        used[gap] = false;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(capacity);
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (oldUsed[i]) {
+                int slot = HashSupport.mix(oldKeys[i]) & mask;
+                while (used[slot]) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                used[slot] = true;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+}
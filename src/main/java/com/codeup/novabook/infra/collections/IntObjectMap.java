@@ -0,0 +1,236 @@
+package com.codeup.novabook.infra.collections;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Open-addressing hash map from int keys to object values.
+ * <p>
+ * Keys are stored in an {@code int[]}, so looking up a book, member or
+ * lending by id neither boxes the id nor allocates a map node per entry.
+ * Collisions are resolved by linear probing and removals shift the
+ * following entries back, so no tombstones accumulate.
+ * </p>
+ * Null values are not supported. This class is not thread-safe.
+ *
+ * @param <V> the value type
+ */
+public class IntObjectMap<V> {
+
+    /**
+     * Receives the entries of a map.
+     *
+     * @param <V> the value type
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(int key, V value);
+    }
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private int[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+    private int resizeAt;
+
+    /**
+     * Creates an empty map.
+     */
+    public IntObjectMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty map sized for the expected number of entries.
+     *
+     * @param expectedSize the number of entries to hold without resizing
+     */
+    public IntObjectMap(int expectedSize) {
+        allocate(HashSupport.tableSize(expectedSize, LOAD_FACTOR));
+    }
+
+    /**
+     * Gets the value for a key.
+     *
+     * @param key the key
+     * @return the value, or null if the key is absent
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int slot = HashSupport.mix(key) & mask;
+        Object value;
+        while ((value = values[slot]) != null) {
+            if (keys[slot] == key) {
+                return (V) value;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether a key is present.
+     *
+     * @param key the key
+     * @return true if the map holds the key
+     */
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Associates a value with a key.
+     *
+     * @param key   the key
+     * @param value the value, not null
+     * @return the previous value, or null if the key was absent
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+        int slot = HashSupport.mix(key) & mask;
+        Object current;
+        while ((current = values[slot]) != null) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return (V) current;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeAt) {
+            rehash(values.length * 2);
+        }
+        return null;
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param key the key
+     * @return the removed value, or null if the key was absent
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int slot = HashSupport.mix(key) & mask;
+        Object current;
+        while ((current = values[slot]) != null) {
+            if (keys[slot] == key) {
+                shiftBack(slot);
+                size--;
+                return (V) current;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Calls the consumer for every entry, in no particular order. The map
+     * must not be modified during the iteration.
+     *
+     * @param consumer the entry consumer
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> consumer) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                consumer.accept(keys[i], (V) values[i]);
+            }
+        }
+    }
+
+    /**
+     * Copies the values into a list, in no particular order.
+     *
+     * @return a new list of the values
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> values() {
+        List<V> result = new ArrayList<>(size);
+        for (Object value : values) {
+            if (value != null) {
+                result.add((V) value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of entries.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the map is empty.
+     *
+     * @return true if there are no entries
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Closes the gap left by a removed entry by moving back the entries of
+     * the same probe chain that follow it.
+     */
+    private void shiftBack(int gap) {
+        int slot = gap;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (values[slot] == null) {
+                break;
+            }
+            int home = HashSupport.mix(keys[slot]) & mask;
+            // Move the entry only if its home slot is not between the gap and its slot
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                gap = slot;
+            }
+        }
+        values[gap] = null;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = HashSupport.mix(oldKeys[i]) & mask;
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+}
@@ -0,0 +1,125 @@
+package com.codeup.novabook.infra.collections;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe, unbounded table of fixed-size pages indexed by id.
+ * <p>
+ * An index maps to page {@code index >>> PAGE_BITS} and to slot
+ * {@code index & PAGE_MASK} within it. Pages are created on first use by a
+ * factory, so sparse or growing id ranges cost memory only for the pages
+ * they touch. Growing only copies the page table; a page is never moved
+ * once created, so concurrent atomic updates on a page are never lost.
+ * </p>
+ *
+ * @param <P> the page type, typically a group of atomic arrays of
+ *            {@link #PAGE_SIZE} slots
+ */
+public final class PageTable<P> {
+
+    /** Bits of an index that select the slot within a page. */
+    public static final int PAGE_BITS = 10;
+    /** Slots per page. */
+    public static final int PAGE_SIZE = 1 << PAGE_BITS;
+    /** Mask selecting the slot of an index within its page. */
+    public static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private final Supplier<P> pageFactory;
+    private volatile Object[] pages = new Object[0];
+
+    /**
+     * Creates an empty table.
+     *
+     * @param pageFactory creates a page filled with the default slot values
+     */
+    public PageTable(Supplier<P> pageFactory) {
+        this.pageFactory = pageFactory;
+    }
+
+    /**
+     * Gets the slot of an index within its page.
+     *
+     * @param index the index, not negative
+     * @return the slot
+     */
+    public static int slot(int index) {
+        return index & PAGE_MASK;
+    }
+
+    /**
+     * Gets the page holding an index.
+     *
+     * @param index the index, not negative
+     * @return the page, or null if it was never created
+     */
+    public P get(int index) {
+        return pageAt(pageIndex(index));
+    }
+
+    /**
+     * Gets the page holding an index, creating it if needed.
+     *
+     * @param index the index, not negative
+     * @return the page
+     */
+    public P getOrCreate(int index) {
+        int pageIndex = pageIndex(index);
+        P page = pageAt(pageIndex);
+        if (page != null) {
+            return page;
+        }
+        synchronized (this) {
+            Object[] current = pages;
+            if (pageIndex >= current.length) {
+                current = Arrays.copyOf(current, Math.max(pageIndex + 1, current.length * 2));
+            }
+            if (current[pageIndex] == null) {
+                current[pageIndex] = pageFactory.get();
+            }
+            pages = current;
+            return cast(current[pageIndex]);
+        }
+    }
+
+    /**
+     * Gets the number of page positions in the table, for walking every page
+     * with {@link #pageAt(int)}. Positions at or past this count hold no page.
+     *
+     * @return the page count
+     */
+    public int pageCount() {
+        return pages.length;
+    }
+
+    /**
+     * Gets a page by its position; the first index it holds is
+     * {@code pageIndex << PAGE_BITS}.
+     *
+     * @param pageIndex the page position
+     * @return the page, or null if it was never created
+     */
+    public P pageAt(int pageIndex) {
+        Object[] current = pages;
+        return pageIndex < current.length ? cast(current[pageIndex]) : null;
+    }
+
+    /**
+     * Drops every page.
+     */
+    public synchronized void clear() {
+        pages = new Object[0];
+    }
+
+    private static int pageIndex(int index) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Index cannot be negative: " + index);
+        }
+        return index >>> PAGE_BITS;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <P> P cast(Object page) {
+        return (P) page;
+    }
+}
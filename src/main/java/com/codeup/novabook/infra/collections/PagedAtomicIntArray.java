@@ -0,0 +1,74 @@
+package com.codeup.novabook.infra.collections;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Thread-safe, unbounded array of ints indexed by id.
+ * <p>
+ * Values live in a {@link PageTable} of {@link AtomicIntegerArray} pages
+ * that are created on first write, so sparse or growing id ranges cost
+ * memory only for the pages they touch, and concurrent atomic updates are
+ * never lost while the table grows.
+ * </p>
+ */
+public class PagedAtomicIntArray {
+
+    private final int defaultValue;
+    private final PageTable<AtomicIntegerArray> pages;
+
+    /**
+     * Creates an array where every index starts at the default value.
+     *
+     * @param defaultValue the value of indexes never written
+     */
+    public PagedAtomicIntArray(int defaultValue) {
+        this.defaultValue = defaultValue;
+        this.pages = new PageTable<>(() -> {
+            int[] initial = new int[PageTable.PAGE_SIZE];
+            Arrays.fill(initial, defaultValue);
+            return new AtomicIntegerArray(initial);
+        });
+    }
+
+    /**
+     * Gets the value at an index.
+     *
+     * @param index the index, not negative
+     * @return the value, or the default value if never written
+     */
+    public int get(int index) {
+        AtomicIntegerArray page = pages.get(index);
+        return page == null ? defaultValue : page.get(PageTable.slot(index));
+    }
+
+    /**
+     * Sets the value at an index.
+     *
+     * @param index the index, not negative
+     * @param value the new value
+     */
+    public void set(int index, int value) {
+        pages.getOrCreate(index).set(PageTable.slot(index), value);
+    }
+
+    /**
+     * Atomically sets the value at an index if it currently holds the
+     * expected value.
+     *
+     * @param index    the index, not negative
+     * @param expected the expected current value
+     * @param value    the new value
+     * @return true if the value was set
+     */
+    public boolean compareAndSet(int index, int expected, int value) {
+        return pages.getOrCreate(index).compareAndSet(PageTable.slot(index), expected, value);
+    }
+
+    /**
+     * Resets every index to the default value.
+     */
+    public void clear() {
+        pages.clear();
+    }
+}
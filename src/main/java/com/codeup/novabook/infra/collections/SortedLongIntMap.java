@@ -0,0 +1,159 @@
+package com.codeup.novabook.infra.collections;
+
+import java.util.Arrays;
+
+/**
+ * Map from long keys to int values kept as two parallel sorted arrays.
+ * <p>
+ * Keys and values are stored as primitives, so an entry costs 12 bytes
+ * instead of two boxed objects plus a map node. Lookups are binary searches
+ * and, because the keys are ordered, callers can walk every entry in a key
+ * range with {@link #ceilingIndex(long)}, {@link #keyAt(int)} and
+ * {@link #valueAt(int)}. Inserts and removals shift the arrays, which suits
+ * read-mostly data such as catalog indexes.
+ * </p>
+ * This class is not thread-safe.
+ */
+public class SortedLongIntMap {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final int missingValue;
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    /**
+     * Creates an empty map.
+     *
+     * @param missingValue the value returned by {@link #get(long)} for absent keys
+     */
+    public SortedLongIntMap(int missingValue) {
+        this.missingValue = missingValue;
+        this.keys = new long[DEFAULT_CAPACITY];
+        this.values = new int[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Gets the value for a key.
+     *
+     * @param key the key
+     * @return the value, or the missing value if the key is absent
+     */
+    public int get(long key) {
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        return index >= 0 ? values[index] : missingValue;
+    }
+
+    /**
+     * Checks whether a key is present.
+     *
+     * @param key the key
+     * @return true if the map holds the key
+     */
+    public boolean containsKey(long key) {
+        return Arrays.binarySearch(keys, 0, size, key) >= 0;
+    }
+
+    /**
+     * Associates a value with a key.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the previous value, or the missing value if the key was absent
+     */
+    public int put(long key, int value) {
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        if (index >= 0) {
+            int previous = values[index];
+            values[index] = value;
+            return previous;
+        }
+        int insertAt = -index - 1;
+        if (size == keys.length) {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        System.arraycopy(keys, insertAt, keys, insertAt + 1, size - insertAt);
+        System.arraycopy(values, insertAt, values, insertAt + 1, size - insertAt);
+        keys[insertAt] = key;
+        values[insertAt] = value;
+        size++;
+        return missingValue;
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param key the key
+     * @return the removed value, or the missing value if the key was absent
+     */
+    public int remove(long key) {
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        if (index < 0) {
+            return missingValue;
+        }
+        int previous = values[index];
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+        return previous;
+    }
+
+    /**
+     * Finds the position of the smallest key greater than or equal to the
+     * given key.
+     *
+     * @param key the lower bound
+     * @return the position, or {@link #size()} if every key is smaller
+     */
+    public int ceilingIndex(long key) {
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Gets the key at a position, in ascending key order.
+     *
+     * @param index the position (0 to size - 1)
+     * @return the key
+     */
+    public long keyAt(int index) {
+        checkIndex(index);
+        return keys[index];
+    }
+
+    /**
+     * Gets the value at a position, in ascending key order.
+     *
+     * @param index the position (0 to size - 1)
+     * @return the value
+     */
+    public int valueAt(int index) {
+        checkIndex(index);
+        return values[index];
+    }
+
+    /**
+     * Gets the number of entries.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+}
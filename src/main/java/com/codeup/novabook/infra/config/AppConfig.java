@@ -13,6 +13,7 @@ import java.util.Properties;
  * @author Adrián Gutiérrez
  */
 public class AppConfig {
+    private static volatile AppConfig instance;
     private final Properties props = new Properties();
 
     public AppConfig() {
@@ -26,5 +27,54 @@ public class AppConfig {
         }
     }
 
+    /**
+     * Returns the shared configuration, loading application.properties once.
+     *
+     * @return the singleton AppConfig instance
+     */
+    public static AppConfig getInstance() {
+        if (instance == null) {
+            synchronized (AppConfig.class) {
+                if (instance == null) {
+                    instance = new AppConfig();
+                }
+            }
+        }
+        return instance;
+    }
+
     public String get(String key) { return props.getProperty(key); }
+
+    public String get(String key, String defaultValue) {
+        String value = props.getProperty(key);
+        return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+    }
+
+    public int getInt(String key, int defaultValue) {
+        try {
+            return Integer.parseInt(get(key, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public long getLong(String key, long defaultValue) {
+        try {
+            return Long.parseLong(get(key, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        try {
+            return Double.parseDouble(get(key, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        return Boolean.parseBoolean(get(key, String.valueOf(defaultValue)));
+    }
 }
\ No newline at end of file
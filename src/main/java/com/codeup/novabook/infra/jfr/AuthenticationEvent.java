@@ -0,0 +1,29 @@
+package com.codeup.novabook.infra.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One credential check, from the user lookup to the end of the password
+ * hash. Rate limited attempts never get this far.
+ */
+@Name("com.codeup.novabook.Authentication")
+@Label("Authentication")
+@Category({ "NovaBook", "Security" })
+@Description("Email and password checked against the stored hash")
+public class AuthenticationEvent extends Event {
+
+    @Label("User ID")
+    @Description("The authenticated user, 0 if the check failed")
+    public int userId;
+
+    @Label("Success")
+    public boolean success;
+
+    @Label("BCrypt Cost")
+    @Description("Cost of the stored hash, -1 if no hash was checked")
+    public int bcryptCost;
+}
@@ -0,0 +1,30 @@
+package com.codeup.novabook.infra.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One return, or one bulk return, including the follow-up on holds.
+ */
+@Name("com.codeup.novabook.Checkin")
+@Label("Checkin")
+@Category({ "NovaBook", "Lending" })
+@Description("Lent books returned")
+public class CheckinEvent extends Event {
+
+    @Label("Lending ID")
+    @Description("The lending closed, 0 for a bulk checkin")
+    public int lendingId;
+
+    @Label("Book ID")
+    public int bookId;
+
+    @Label("Lendings Requested")
+    public int requested;
+
+    @Label("Lendings Returned")
+    public int returned;
+}
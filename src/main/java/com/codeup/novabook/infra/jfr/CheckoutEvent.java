@@ -0,0 +1,34 @@
+package com.codeup.novabook.infra.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One checkout, or one bulk checkout, from validation to the saved lending.
+ */
+@Name("com.codeup.novabook.Checkout")
+@Label("Checkout")
+@Category({ "NovaBook", "Lending" })
+@Description("Books lent to a member")
+public class CheckoutEvent extends Event {
+
+    @Label("Member ID")
+    public int memberId;
+
+    @Label("Book ID")
+    @Description("The book lent, 0 for a bulk checkout")
+    public int bookId;
+
+    @Label("Books Requested")
+    public int requested;
+
+    @Label("Books Lent")
+    public int lent;
+
+    @Label("Availability Cache Hit")
+    @Description("Whether availability was answered from memory rather than the database")
+    public boolean cacheHit;
+}
@@ -0,0 +1,21 @@
+package com.codeup.novabook.infra.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Time taken to get a database connection from the driver.
+ */
+@Name("com.codeup.novabook.ConnectionBorrow")
+@Label("Connection Borrow")
+@Category({ "NovaBook", "Database" })
+public class ConnectionBorrowEvent extends Event {
+
+    @Label("Vendor")
+    public String vendor;
+
+    @Label("Success")
+    public boolean success;
+}
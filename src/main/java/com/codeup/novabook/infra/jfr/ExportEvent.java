@@ -0,0 +1,27 @@
+package com.codeup.novabook.infra.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One CSV export.
+ */
+@Name("com.codeup.novabook.Export")
+@Label("Export")
+@Category({ "NovaBook", "Reports" })
+public class ExportEvent extends Event {
+
+    @Label("Kind")
+    public String kind;
+
+    @Label("Rows")
+    public int rows;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,66 @@
+package com.codeup.novabook.infra.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * Starts a flight recording with the NovaBook profile, {@code novabook.jfc}
+ * on the classpath, so the library's events can be read next to GC and lock
+ * stalls without passing JVM options.
+ */
+public final class FlightRecording {
+
+    /** Classpath location of the recording profile. */
+    public static final String PROFILE = "/novabook.jfc";
+
+    private FlightRecording() {
+    }
+
+    /**
+     * Reads the NovaBook recording profile.
+     *
+     * @return the profile
+     * @throws IOException    if the profile cannot be read
+     * @throws ParseException if the profile is not a valid .jfc file
+     */
+    public static Configuration profile() throws IOException, ParseException {
+        try (InputStream in = FlightRecording.class.getResourceAsStream(PROFILE)) {
+            if (in == null) {
+                throw new IOException(PROFILE + " not found");
+            }
+            try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                return Configuration.create(reader);
+            }
+        }
+    }
+
+    /**
+     * Starts a recording that keeps a rolling window of events and is
+     * written to a file when the JVM exits.
+     *
+     * @param destination the file written on exit
+     * @param maxAge      how much history is kept
+     * @return the running recording
+     * @throws IOException    if the profile or destination cannot be used
+     * @throws ParseException if the profile is not a valid .jfc file
+     */
+    public static Recording start(Path destination, Duration maxAge) throws IOException, ParseException {
+        Recording recording = new Recording(profile());
+        recording.setName("NovaBook");
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setDestination(destination);
+        recording.setDumpOnExit(true);
+        recording.start();
+        return recording;
+    }
+}
@@ -0,0 +1,31 @@
+package com.codeup.novabook.infra.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One catalog search or autocomplete lookup.
+ */
+@Name("com.codeup.novabook.Search")
+@Label("Search")
+@Category({ "NovaBook", "Catalog" })
+@Description("Catalog search or autocomplete suggestion")
+public class SearchEvent extends Event {
+
+    @Label("Kind")
+    @Description("What was searched, such as title, author or suggestTitles")
+    public String kind;
+
+    @Label("Query Length")
+    public int queryLength;
+
+    @Label("Results")
+    public int results;
+
+    @Label("Cache Hit")
+    @Description("Whether the answer came from an in-memory index rather than the database")
+    public boolean cacheHit;
+}
@@ -0,0 +1,237 @@
+package com.codeup.novabook.infra.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * Hands log records to other handlers on a single writer thread, so the
+ * threads that log never wait for the disk or the console.
+ * <p>
+ * Records wait in a bounded ring buffer. The writer takes them in batches,
+ * passes each to the target handlers and flushes the targets once per batch
+ * instead of once per record. What happens when the buffer is full is set by
+ * the {@link OverflowPolicy}; records refused are counted, never silently
+ * lost. Closing the handler writes out whatever is still buffered.
+ * </p>
+ */
+public class AsyncHandler extends Handler {
+
+    /**
+     * What {@link #publish(LogRecord)} does when the buffer is full.
+     */
+    public enum OverflowPolicy {
+        /** Discard the record. The logging thread never waits. */
+        DROP,
+        /** Wait for room. No record is lost, but logging may stall. */
+        BLOCK,
+        /**
+         * Once the buffer is half full keep only one in a configured number
+         * of records below WARNING; WARNING and above wait for room.
+         */
+        SAMPLE
+    }
+
+    /** Buffered records when none is configured. */
+    public static final int DEFAULT_CAPACITY = 8192;
+    /** Records written per flush when none is configured. */
+    public static final int DEFAULT_BATCH_SIZE = 256;
+    /** One in this many low level records kept while sampling, when none is configured. */
+    public static final int DEFAULT_SAMPLE_RATE = 10;
+
+    private static final long CLOSE_TIMEOUT_MILLIS = 5_000;
+
+    private final Handler[] targets;
+    private final BlockingQueue<LogRecord> buffer;
+    private final int batchSize;
+    private final OverflowPolicy policy;
+    private final int sampleRate;
+    private final int sampleThreshold;
+    private final Thread writer;
+    private final LongAdder written = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+    private final AtomicLong sampleCounter = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * Creates a handler and starts its writer thread.
+     *
+     * @param capacity   number of records the buffer holds
+     * @param batchSize  most records written per flush
+     * @param policy     what to do when the buffer is full
+     * @param sampleRate one in this many records below WARNING is kept while sampling
+     * @param targets    handlers that receive the records
+     */
+    public AsyncHandler(int capacity, int batchSize, OverflowPolicy policy, int sampleRate, Handler... targets) {
+        if (capacity <= 0 || batchSize <= 0 || sampleRate <= 0) {
+            throw new IllegalArgumentException("Capacity, batch size and sample rate must be positive");
+        }
+        this.targets = targets.clone();
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.policy = policy;
+        this.sampleRate = sampleRate;
+        this.sampleThreshold = capacity / 2;
+        this.writer = new Thread(this::drainLoop, "log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (closed || !isLoggable(record)) {
+            return;
+        }
+        // The caller is found by walking the stack, which only works on the logging thread
+        record.getSourceClassName();
+        try {
+            if (!enqueue(record)) {
+                dropped.increment();
+            }
+        } catch (InterruptedException e) {
+            dropped.increment();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean enqueue(LogRecord record) throws InterruptedException {
+        switch (policy) {
+            case BLOCK:
+                buffer.put(record);
+                return true;
+            case SAMPLE:
+                if (record.getLevel().intValue() >= Level.WARNING.intValue()) {
+                    buffer.put(record);
+                    return true;
+                }
+                if (buffer.size() >= sampleThreshold) {
+                    if (sampleCounter.incrementAndGet() % sampleRate != 0) {
+                        sampledOut.increment();
+                        return true;
+                    }
+                }
+                return buffer.offer(record);
+            default:
+                return buffer.offer(record);
+        }
+    }
+
+    private void drainLoop() {
+        List<LogRecord> batch = new ArrayList<>(batchSize);
+        while (!closed || !buffer.isEmpty()) {
+            try {
+                LogRecord first = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+                write(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                // Woken by close; the loop condition drains what is left
+            }
+        }
+    }
+
+    private void write(List<LogRecord> batch) {
+        for (LogRecord record : batch) {
+            for (Handler target : targets) {
+                try {
+                    target.publish(record);
+                } catch (RuntimeException e) {
+                    reportError("Log target failed", e, ErrorManager.WRITE_FAILURE);
+                }
+            }
+        }
+        flushTargets();
+        written.add(batch.size());
+        batches.increment();
+    }
+
+    private void flushTargets() {
+        for (Handler target : targets) {
+            try {
+                target.flush();
+            } catch (RuntimeException e) {
+                reportError("Log target flush failed", e, ErrorManager.FLUSH_FAILURE);
+            }
+        }
+    }
+
+    /**
+     * Flushes the targets. Records still buffered are written by the writer
+     * thread with its next batch.
+     */
+    @Override
+    public void flush() {
+        flushTargets();
+    }
+
+    /**
+     * Stops taking records, writes out the buffer and closes the targets.
+     * Safe to call more than once.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        writer.interrupt();
+        try {
+            writer.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Handler target : targets) {
+            target.close();
+        }
+    }
+
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    /**
+     * Gets the number of records refused because the buffer was full.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Gets the number of records left out while sampling.
+     */
+    public long getSampledOutCount() {
+        return sampledOut.sum();
+    }
+
+    /**
+     * Gets the number of records waiting for the writer.
+     */
+    public int getQueueDepth() {
+        return buffer.size();
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncHandler[policy=" + policy + ", queued=" + getQueueDepth() + ", written=" + getWrittenCount()
+                + ", batches=" + getBatchCount() + ", dropped=" + getDroppedCount() + ", sampledOut="
+                + getSampledOutCount() + "]";
+    }
+}
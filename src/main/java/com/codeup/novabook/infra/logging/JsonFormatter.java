@@ -0,0 +1,98 @@
+package com.codeup.novabook.infra.logging;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.logging.Formatter;
+import java.util.logging.LogRecord;
+
+/**
+ * Formats each log record as one line of JSON, so shipped logs can be read
+ * field by field instead of with regular expressions.
+ * <p>
+ * A record becomes an object with {@code ts}, {@code level}, {@code logger},
+ * {@code thread}, {@code source} and {@code message}, plus {@code error} and
+ * {@code stack} when it carries an exception. The line is built by hand in a
+ * {@link StringBuilder} sized from the message, so formatting allocates one
+ * buffer and uses no reflection.
+ * </p>
+ */
+public class JsonFormatter extends Formatter {
+
+    private static final int FIXED_FIELDS_SIZE = 192;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    @Override
+    public String format(LogRecord record) {
+        String message = formatMessage(record);
+        String stack = record.getThrown() != null ? stackTrace(record.getThrown()) : null;
+        StringBuilder json = new StringBuilder(FIXED_FIELDS_SIZE
+                + (message != null ? message.length() : 0) + (stack != null ? stack.length() + 64 : 0));
+        json.append("{\"ts\":\"").append(record.getInstant()).append('"');
+        json.append(",\"level\":\"").append(record.getLevel().getName()).append('"');
+        appendField(json, "logger", record.getLoggerName());
+        json.append(",\"thread\":").append(record.getLongThreadID());
+        if (record.getSourceClassName() != null) {
+            appendField(json, "source", record.getSourceMethodName() != null
+                    ? record.getSourceClassName() + "." + record.getSourceMethodName()
+                    : record.getSourceClassName());
+        }
+        appendField(json, "message", message);
+        if (stack != null) {
+            appendField(json, "error", record.getThrown().toString());
+            appendField(json, "stack", stack);
+        }
+        return json.append("}\n").toString();
+    }
+
+    private static void appendField(StringBuilder json, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        json.append(",\"").append(name).append("\":\"");
+        escape(json, value);
+        json.append('"');
+    }
+
+    /**
+     * Appends a string with the characters JSON does not allow raw escaped.
+     *
+     * @param json  the output
+     * @param value the string to escape
+     */
+    public static void escape(StringBuilder json, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+    }
+
+    private static String stackTrace(Throwable thrown) {
+        StringWriter out = new StringWriter(1024);
+        try (PrintWriter writer = new PrintWriter(out)) {
+            thrown.printStackTrace(writer);
+        }
+        return out.toString();
+    }
+}
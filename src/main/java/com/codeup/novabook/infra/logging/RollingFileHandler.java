@@ -0,0 +1,197 @@
+package com.codeup.novabook.infra.logging;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.ErrorManager;
+import java.util.logging.Formatter;
+import java.util.logging.LogRecord;
+import java.util.logging.StreamHandler;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes log records to a file that is rolled over once it reaches a size
+ * or a period ends, whichever comes first.
+ * <p>
+ * A rolled file is renamed with the time of the roll, for example
+ * {@code app.log.20250101-000000}, and optionally compressed to
+ * {@code .gz}; only the newest rolled files are kept. Periods are aligned to
+ * the epoch in UTC, so a daily period rolls at midnight UTC, and a file left
+ * over from an earlier period is rolled as soon as the handler opens it.
+ * Output is buffered and written on {@link #flush()}, which suits a handler
+ * sitting behind an {@link AsyncHandler}.
+ * </p>
+ */
+public class RollingFileHandler extends StreamHandler {
+
+    /** Size that rolls the file when none is configured. */
+    public static final long DEFAULT_MAX_MEGABYTES = 10;
+    /** Period that rolls the file when none is configured. */
+    public static final long DEFAULT_ROLL_HOURS = 24;
+    /** Rolled files kept when none is configured. */
+    public static final int DEFAULT_MAX_FILES = 7;
+
+    private static final DateTimeFormatter ROLL_STAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+    private static final String ROLLED_GLOB = ".[0-9][0-9][0-9][0-9][0-9][0-9][0-9][0-9]-*";
+    private static final String GZIP_SUFFIX = ".gz";
+
+    private final Path file;
+    private final long maxBytes;
+    private final long intervalMillis;
+    private final int maxFiles;
+    private final boolean gzip;
+    private final Clock clock;
+    private CountingOutputStream out;
+    private long nextRollAt;
+
+    /**
+     * Opens the log file, appending to it unless it belongs to an earlier period.
+     *
+     * @param file      the active log file
+     * @param maxBytes  size that rolls the file
+     * @param interval  period that rolls the file
+     * @param maxFiles  rolled files kept
+     * @param gzip      whether rolled files are compressed
+     * @param formatter formatter for the records
+     * @param clock     clock that decides the periods and names rolled files
+     * @throws IOException if the file cannot be opened
+     */
+    public RollingFileHandler(Path file, long maxBytes, Duration interval, int maxFiles, boolean gzip,
+            Formatter formatter, Clock clock) throws IOException {
+        if (maxBytes <= 0 || interval.toMillis() <= 0 || maxFiles < 0) {
+            throw new IllegalArgumentException("Size and interval must be positive and kept files not negative");
+        }
+        this.file = file.toAbsolutePath();
+        this.maxBytes = maxBytes;
+        this.intervalMillis = interval.toMillis();
+        this.maxFiles = maxFiles;
+        this.gzip = gzip;
+        this.clock = clock;
+        setFormatter(formatter);
+        long now = clock.millis();
+        long periodStart = now - Math.floorMod(now, intervalMillis);
+        if (Files.exists(this.file) && Files.getLastModifiedTime(this.file).toMillis() < periodStart
+                && Files.size(this.file) > 0) {
+            rollFile();
+        }
+        open();
+    }
+
+    @Override
+    public synchronized void publish(LogRecord record) {
+        if (!isLoggable(record)) {
+            return;
+        }
+        if (out == null || out.count >= maxBytes || clock.millis() >= nextRollAt) {
+            roll();
+        }
+        super.publish(record);
+    }
+
+    private void roll() {
+        // Closes the current file so it can be renamed on every platform
+        setOutputStream(OutputStream.nullOutputStream());
+        out = null;
+        try {
+            rollFile();
+            open();
+        } catch (IOException e) {
+            reportError("Could not roll " + file, e, ErrorManager.OPEN_FAILURE);
+        }
+    }
+
+    private void open() throws IOException {
+        Path parent = file.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        out = new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(file,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)), Files.size(file));
+        setOutputStream(out);
+        long now = clock.millis();
+        nextRollAt = now - Math.floorMod(now, intervalMillis) + intervalMillis;
+    }
+
+    private void rollFile() throws IOException {
+        if (!Files.exists(file) || Files.size(file) == 0) {
+            return;
+        }
+        String base = file.getFileName() + "." + ROLL_STAMP.format(clock.instant());
+        Path rolled = file.resolveSibling(base);
+        for (int i = 1; Files.exists(rolled)
+                || Files.exists(rolled.resolveSibling(rolled.getFileName() + GZIP_SUFFIX)); i++) {
+            rolled = file.resolveSibling(base + "-" + i);
+        }
+        Files.move(file, rolled);
+        if (gzip) {
+            compress(rolled);
+        }
+        prune();
+    }
+
+    private static void compress(Path rolled) throws IOException {
+        Path compressed = rolled.resolveSibling(rolled.getFileName() + GZIP_SUFFIX);
+        try (InputStream in = Files.newInputStream(rolled);
+                OutputStream gz = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+            in.transferTo(gz);
+        }
+        Files.delete(rolled);
+    }
+
+    private void prune() throws IOException {
+        List<Path> rolled = new ArrayList<>();
+        try (DirectoryStream<Path> siblings = Files.newDirectoryStream(file.getParent(),
+                file.getFileName() + ROLLED_GLOB)) {
+            siblings.forEach(rolled::add);
+        }
+        // Stamps sort by time, so the oldest names come first
+        Collections.sort(rolled);
+        for (int i = 0; i < rolled.size() - maxFiles; i++) {
+            Files.deleteIfExists(rolled.get(i));
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        super.close();
+        out = null;
+    }
+
+    /**
+     * Counts the bytes written, so the size check costs no file system call.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        private CountingOutputStream(OutputStream out, long initialCount) {
+            super(out);
+            this.count = initialCount;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.codeup.novabook.infra.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Distribution of durations in logarithmic buckets, from which percentiles
+ * can be read without keeping the samples.
+ * <p>
+ * Every power of two is split into 16 linear sub-buckets, as in an HDR
+ * histogram, so a percentile is reported within about 6% of the true value
+ * whether it is a microsecond or a minute. Each bucket is a
+ * {@link LongAdder}, created the first time a duration lands in it, so
+ * recording from many threads does not contend and a histogram only pays
+ * memory for the ranges it actually sees.
+ * </p>
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final long MAX_VALUE = (1L << MAX_EXPONENT) - 1;
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BITS + 1) * SUB_COUNT;
+
+    private final AtomicReferenceArray<LongAdder> buckets = new AtomicReferenceArray<>(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records one duration. Durations over about 18 minutes are counted in
+     * the last bucket.
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, Math.min(nanos, MAX_VALUE));
+        int index = indexOf(value);
+        LongAdder bucket = buckets.get(index);
+        if (bucket == null) {
+            buckets.compareAndSet(index, null, new LongAdder());
+            bucket = buckets.get(index);
+        }
+        bucket.increment();
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the mean duration.
+     *
+     * @return the mean in milliseconds, 0 if nothing was recorded
+     */
+    public double getMeanMillis() {
+        long n = count.sum();
+        return n == 0 ? 0 : totalNanos.sum() / (double) n / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Gets the longest duration recorded.
+     *
+     * @return the maximum in milliseconds
+     */
+    public double getMaxMillis() {
+        return maxNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Gets the duration that the given fraction of recordings did not exceed.
+     *
+     * @param quantile the fraction, for example 0.99 for p99
+     * @return the upper bound of the bucket holding that rank, in milliseconds;
+     *         0 if nothing was recorded
+     */
+    public double getPercentileMillis(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1");
+        }
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            LongAdder bucket = buckets.get(i);
+            if (bucket != null) {
+                counts[i] = bucket.sum();
+                total += counts[i];
+            }
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                long nanos = Math.min(upperBound(i), maxNanos.get());
+                return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+            }
+        }
+        return getMaxMillis();
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        int sub = (int) (value >>> shift) & (SUB_COUNT - 1);
+        return (shift + 1) * SUB_COUNT + sub;
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_COUNT - 1;
+        int sub = index % SUB_COUNT;
+        return ((long) (SUB_COUNT + sub + 1) << shift) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d, mean=%.2f ms, p50=%.2f ms, p99=%.2f ms, p999=%.2f ms, max=%.2f ms",
+                getCount(), getMeanMillis(), getPercentileMillis(0.5), getPercentileMillis(0.99),
+                getPercentileMillis(0.999), getMaxMillis());
+    }
+}
@@ -0,0 +1,129 @@
+package com.codeup.novabook.infra.metrics;
+
+import com.codeup.novabook.infra.config.AppConfig;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Named counters, gauges and latency histograms for the whole application.
+ * <p>
+ * Metrics are created on first use and live for the life of the process.
+ * Looking one up is a map read, so callers on hot paths should keep the
+ * returned object rather than look it up per event. {@link #report()} lists
+ * every metric with its percentiles, sorted by name.
+ * </p>
+ */
+public class MetricsRegistry {
+
+    private static volatile MetricsRegistry instance;
+
+    private final boolean enabled;
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    // Gauges are kept as their formatted reading, so whole and fractional values share one namespace
+    private final Map<String, Supplier<String>> gauges = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for injecting dependencies (useful for tests)
+     *
+     * @param enabled whether calls are decorated with timing at all
+     */
+    public MetricsRegistry(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns the shared registry, enabled unless application.properties
+     * turns it off.
+     *
+     * @return the singleton MetricsRegistry instance
+     */
+    public static MetricsRegistry getInstance() {
+        if (instance == null) {
+            synchronized (MetricsRegistry.class) {
+                if (instance == null) {
+                    instance = new MetricsRegistry(AppConfig.getInstance().getBoolean("metrics.enabled", true));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Checks whether repositories and services should be decorated with timing.
+     *
+     * @return true if metrics are enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets a counter, creating it if needed.
+     *
+     * @param name the metric name
+     * @return the counter
+     */
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    /**
+     * Gets a latency histogram, creating it if needed.
+     *
+     * @param name the metric name
+     * @return the histogram
+     */
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Registers a value that is read when the metrics are reported,
+     * replacing any gauge of the same name.
+     *
+     * @param name  the metric name
+     * @param value supplies the current value
+     */
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, () -> Long.toString(value.getAsLong()));
+    }
+
+    /**
+     * Registers a fractional value, such as a rate, that is read when the
+     * metrics are reported, replacing any gauge of the same name.
+     *
+     * @param name  the metric name
+     * @param value supplies the current value
+     */
+    public void gauge(String name, DoubleSupplier value) {
+        gauges.put(name, () -> String.format(Locale.ROOT, "%.6f", value.getAsDouble()));
+    }
+
+    /**
+     * Lists every metric, sorted by name, with p50, p99 and p999 for the
+     * histograms. Histograms nothing was recorded in are left out.
+     *
+     * @return the report, one metric per line
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        new TreeMap<>(histograms).forEach((name, histogram) -> {
+            if (histogram.getCount() > 0) {
+                sb.append(name).append(": ").append(histogram).append('\n');
+            }
+        });
+        new TreeMap<>(counters).forEach((name, counter) -> sb.append(name).append(": ").append(counter.sum())
+                .append('\n'));
+        new TreeMap<>(gauges).forEach((name, gauge) -> sb.append(name).append(": ").append(gauge.get())
+                .append('\n'));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,86 @@
+package com.codeup.novabook.infra.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decorates an implementation of an interface so that every call through
+ * the interface is timed into the {@link MetricsRegistry}.
+ * <p>
+ * Each interface method gets a histogram named
+ * {@code InterfaceName.methodName} and a counter of the calls that threw,
+ * named {@code InterfaceName.methodName.errors}; overloads share them. The
+ * histograms are looked up once when the decorator is made, so a call costs
+ * a map read, two clock reads and a histogram update on top of the call
+ * itself. Methods of {@link Object} are passed through untimed.
+ * </p>
+ */
+public final class Timed {
+
+    private Timed() {
+    }
+
+    /**
+     * Decorates an implementation with timing, using the shared registry.
+     *
+     * @param type   the interface to time
+     * @param target the implementation
+     * @param <T>    the interface type
+     * @return the decorated implementation, or the target itself if metrics are disabled
+     */
+    public static <T> T wrap(Class<T> type, T target) {
+        return wrap(type, target, MetricsRegistry.getInstance());
+    }
+
+    /**
+     * Decorates an implementation with timing.
+     *
+     * @param type     the interface to time
+     * @param target   the implementation
+     * @param registry where the timings are recorded
+     * @param <T>      the interface type
+     * @return the decorated implementation, or the target itself if metrics are disabled
+     */
+    public static <T> T wrap(Class<T> type, T target, MetricsRegistry registry) {
+        if (!registry.isEnabled()) {
+            return target;
+        }
+        Map<Method, LatencyHistogram> histograms = new HashMap<>();
+        Map<Method, LongAdder> errors = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            String name = type.getSimpleName() + "." + method.getName();
+            histograms.put(method, registry.histogram(name));
+            errors.put(method, registry.counter(name + ".errors"));
+        }
+        InvocationHandler handler = (proxy, method, args) -> {
+            LatencyHistogram histogram = histograms.get(method);
+            if (histogram == null) {
+                return invoke(target, method, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return invoke(target, method, args);
+            } catch (Throwable e) {
+                errors.get(method).increment();
+                throw e;
+            } finally {
+                histogram.record(System.nanoTime() - start);
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            // Callers see the exception the implementation threw, not the reflection wrapper
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.codeup.novabook.infra.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compact radix trie used for prefix autocomplete.
+ * <p>
+ * Every node keeps its best {@code topK} suggestions precomputed, so a lookup
+ * only walks the characters of the prefix and returns the cached array.
+ * Suggestions are ranked by how many keys point to the same value (for
+ * example, an author with several books ranks higher) and then alphabetically.
+ * </p>
+ * Reads and writes are guarded by a read/write lock, so a single instance can
+ * be shared between the UI and the services.
+ */
+public class PrefixTrie {
+
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    private final int topK;
+    private final Node root = new Node("");
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int size;
+
+    /**
+     * Creates an empty trie.
+     *
+     * @param topK number of suggestions precomputed per node
+     */
+    public PrefixTrie(int topK) {
+        if (topK <= 0) {
+            throw new IllegalArgumentException("topK must be positive");
+        }
+        this.topK = topK;
+    }
+
+    /**
+     * Associates a value with a key. The same value may be inserted under many
+     * keys; it is reported once per prefix.
+     *
+     * @param key   the normalized key to index
+     * @param value the suggestion to return for prefixes of the key
+     */
+    public void insert(String key, String value) {
+        if (key == null || key.isEmpty() || value == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            insert(root, key, 0, value);
+            size++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes one association between a key and a value.
+     *
+     * @param key   the normalized key
+     * @param value the value previously inserted under the key
+     * @return true if the association existed
+     */
+    public boolean remove(String key, String value) {
+        if (key == null || key.isEmpty() || value == null) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            boolean removed = remove(root, key, 0, value);
+            if (removed) {
+                size--;
+            }
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the best suggestions for a prefix.
+     *
+     * @param prefix the normalized prefix typed by the user
+     * @param limit  the maximum number of suggestions (capped at topK)
+     * @return list of suggestions, best first
+     */
+    public List<String> suggest(String prefix, int limit) {
+        if (prefix == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int i = 0;
+            while (i < prefix.length()) {
+                Node child = node.child(prefix.charAt(i));
+                if (child == null) {
+                    return Collections.emptyList();
+                }
+                String label = child.label;
+                int remaining = prefix.length() - i;
+                if (remaining <= label.length()) {
+                    // The prefix ends inside (or at the end of) this edge
+                    if (!label.regionMatches(0, prefix, i, remaining)) {
+                        return Collections.emptyList();
+                    }
+                    node = child;
+                    break;
+                }
+                if (!prefix.regionMatches(i, label, 0, label.length())) {
+                    return Collections.emptyList();
+                }
+                node = child;
+                i += label.length();
+            }
+
+            Entry[] top = node.top;
+            int count = Math.min(limit, top.length);
+            List<String> result = new ArrayList<>(count);
+            for (int j = 0; j < count; j++) {
+                result.add(top[j].value);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of key/value associations in the trie.
+     *
+     * @return the number of associations
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every association.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            root.children = null;
+            root.values = null;
+            root.top = NO_ENTRIES;
+            size = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void insert(Node node, String key, int offset, String value) {
+        if (offset == key.length()) {
+            node.addValue(value);
+            recompute(node);
+            return;
+        }
+
+        char c = key.charAt(offset);
+        Node child = node.child(c);
+        if (child == null) {
+            child = new Node(key.substring(offset));
+            child.addValue(value);
+            recompute(child);
+            node.putChild(c, child);
+            recompute(node);
+            return;
+        }
+
+        String label = child.label;
+        int common = commonPrefixLength(label, key, offset);
+        if (common < label.length()) {
+            // Split the edge: node -> mid -> child
+            Node mid = new Node(label.substring(0, common));
+            child.label = label.substring(common);
+            mid.putChild(child.label.charAt(0), child);
+            node.putChild(c, mid);
+            child = mid;
+        }
+
+        insert(child, key, offset + common, value);
+        recompute(node);
+    }
+
+    private boolean remove(Node node, String key, int offset, String value) {
+        if (offset == key.length()) {
+            if (!node.removeValue(value)) {
+                return false;
+            }
+            recompute(node);
+            return true;
+        }
+
+        char c = key.charAt(offset);
+        Node child = node.child(c);
+        if (child == null || !key.startsWith(child.label, offset)) {
+            return false;
+        }
+        if (!remove(child, key, offset + child.label.length(), value)) {
+            return false;
+        }
+
+        // Prune empty leaves and merge single-child chains to keep the trie compact
+        if (child.values == null && (child.children == null || child.children.isEmpty())) {
+            node.children.remove(c);
+        } else if (child.values == null && child.children.size() == 1) {
+            Node grandChild = child.children.values().iterator().next();
+            grandChild.label = child.label + grandChild.label;
+            node.putChild(c, grandChild);
+        }
+        recompute(node);
+        return true;
+    }
+
+    /**
+     * Rebuilds the precomputed suggestions of a node from its own values and
+     * the precomputed suggestions of its children.
+     */
+    private void recompute(Node node) {
+        Map<String, Integer> candidates = new HashMap<>();
+        if (node.values != null) {
+            candidates.putAll(node.values);
+        }
+        if (node.children != null) {
+            for (Node child : node.children.values()) {
+                for (Entry entry : child.top) {
+                    candidates.merge(entry.value, entry.weight, Math::max);
+                }
+            }
+        }
+        if (candidates.isEmpty()) {
+            node.top = NO_ENTRIES;
+            return;
+        }
+
+        List<Entry> entries = new ArrayList<>(candidates.size());
+        for (Map.Entry<String, Integer> candidate : candidates.entrySet()) {
+            entries.add(new Entry(candidate.getKey(), candidate.getValue()));
+        }
+        entries.sort((a, b) -> {
+            int byWeight = Integer.compare(b.weight, a.weight);
+            return byWeight != 0 ? byWeight : a.value.compareToIgnoreCase(b.value);
+        });
+        int count = Math.min(topK, entries.size());
+        node.top = entries.subList(0, count).toArray(new Entry[count]);
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node {
+        private String label;
+        private Map<Character, Node> children;
+        private Map<String, Integer> values;
+        private Entry[] top = NO_ENTRIES;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private Node child(char c) {
+            return children == null ? null : children.get(c);
+        }
+
+        private void putChild(char c, Node child) {
+            if (children == null) {
+                children = new HashMap<>(4);
+            }
+            children.put(c, child);
+        }
+
+        private void addValue(String value) {
+            if (values == null) {
+                values = new HashMap<>(2);
+            }
+            values.merge(value, 1, Integer::sum);
+        }
+
+        private boolean removeValue(String value) {
+            if (values == null || !values.containsKey(value)) {
+                return false;
+            }
+            int remaining = values.get(value) - 1;
+            if (remaining > 0) {
+                values.put(value, remaining);
+            } else {
+                values.remove(value);
+                if (values.isEmpty()) {
+                    values = null;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class Entry {
+        private final String value;
+        private final int weight;
+
+        private Entry(String value, int weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.codeup.novabook.infra.time;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-key limit on the number of events in a sliding time window.
+ * <p>
+ * The window is cut into a fixed number of buckets. Each key owns one
+ * {@link AtomicLongArray} slot per bucket, packing the bucket number (high
+ * bits) and the events counted in it (low bits), so a slot left over from an
+ * earlier turn of the window is recognised and reused without a separate
+ * reset, and an event is admitted with a single compare-and-set. No lock is
+ * taken on any path.
+ * </p>
+ * Keys whose buckets have all slid out of the window are dropped at most
+ * once per bucket, so memory follows the number of keys seen recently
+ * rather than ever.
+ */
+public class SlidingWindowLimiter {
+
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final Clock clock;
+    private final int maxEvents;
+    private final int buckets;
+    private final long bucketMillis;
+    private final Map<String, AtomicLongArray> windows = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweepBucket = new AtomicLong();
+
+    /**
+     * Creates a limiter.
+     *
+     * @param clock     clock that places events in buckets
+     * @param maxEvents events allowed per key within the window
+     * @param window    length of the window
+     * @param buckets   number of buckets the window is cut into
+     */
+    public SlidingWindowLimiter(Clock clock, int maxEvents, Duration window, int buckets) {
+        if (maxEvents <= 0 || maxEvents > COUNT_MASK || buckets <= 0) {
+            throw new IllegalArgumentException("Events and buckets must be positive");
+        }
+        this.clock = clock;
+        this.maxEvents = maxEvents;
+        this.buckets = buckets;
+        this.bucketMillis = Math.max(1, window.toMillis() / buckets);
+    }
+
+    /**
+     * Counts an event for a key if the key is below its limit.
+     *
+     * @param key the key
+     * @return true if the event was admitted, false if the limit is reached
+     */
+    public boolean tryAcquire(String key) {
+        long bucket = clock.millis() / bucketMillis;
+        sweepIfDue(bucket);
+        AtomicLongArray slots = windows.computeIfAbsent(key, k -> new AtomicLongArray(buckets));
+        int index = (int) (bucket % buckets);
+        while (true) {
+            long current = slots.get(index);
+            long inBucket = (current >>> COUNT_BITS) == bucket ? current & COUNT_MASK : 0;
+            if (countOthers(slots, bucket, index) + inBucket >= maxEvents) {
+                return false;
+            }
+            if (slots.compareAndSet(index, current, (bucket << COUNT_BITS) | (inBucket + 1))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Counts the events of a key still within the window.
+     *
+     * @param key the key
+     * @return the number of events
+     */
+    public int getCount(String key) {
+        AtomicLongArray slots = windows.get(key);
+        if (slots == null) {
+            return 0;
+        }
+        long bucket = clock.millis() / bucketMillis;
+        int index = (int) (bucket % buckets);
+        long current = slots.get(index);
+        long inBucket = (current >>> COUNT_BITS) == bucket ? current & COUNT_MASK : 0;
+        return (int) (countOthers(slots, bucket, index) + inBucket);
+    }
+
+    /**
+     * Gets the time until the oldest bucket leaves the window, which is when
+     * a key at its limit may next be admitted.
+     *
+     * @return the time until the next bucket starts
+     */
+    public Duration getRetryAfter() {
+        return Duration.ofMillis(bucketMillis - clock.millis() % bucketMillis);
+    }
+
+    /**
+     * Gets the number of keys with events in the window.
+     *
+     * @return the number of tracked keys
+     */
+    public int getTrackedKeys() {
+        return windows.size();
+    }
+
+    private long countOthers(AtomicLongArray slots, long bucket, int index) {
+        long total = 0;
+        for (int i = 0; i < buckets; i++) {
+            long value = slots.get(i);
+            long age = bucket - (value >>> COUNT_BITS);
+            if (i != index && age > 0 && age < buckets) {
+                total += value & COUNT_MASK;
+            }
+        }
+        return total;
+    }
+
+    private void sweepIfDue(long bucket) {
+        long last = lastSweepBucket.get();
+        if (bucket == last || !lastSweepBucket.compareAndSet(last, bucket)) {
+            return;
+        }
+        windows.forEach((key, slots) -> {
+            long newest = 0;
+            for (int i = 0; i < buckets; i++) {
+                newest = Math.max(newest, slots.get(i) >>> COUNT_BITS);
+            }
+            if (bucket - newest >= buckets) {
+                // An event racing with the removal is lost, erring towards admitting
+                windows.remove(key, slots);
+            }
+        });
+    }
+}
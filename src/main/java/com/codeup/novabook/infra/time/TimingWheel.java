@@ -0,0 +1,233 @@
+package com.codeup.novabook.infra.time;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel for very large numbers of timeouts.
+ * <p>
+ * Time is cut into ticks of a fixed length. Level 0 has one slot per tick
+ * for the next 64 ticks; each higher level has 64 slots that each span a
+ * whole turn of the level below. A timeout sits in the coarsest level that
+ * can hold it and cascades one level down each time the lower level comes
+ * around, so scheduling and cancelling are O(1) and advancing costs one
+ * slot per tick plus one move per timeout and level, however many timeouts
+ * are pending. Four levels cover 64^4 ticks (about 31 years with one-minute
+ * ticks); timeouts further away wait in the top level until they fit.
+ * </p>
+ * Timeouts are intrusive: callers extend {@link Timeout}, so the wheel adds
+ * no allocation per scheduled item. All methods are thread-safe.
+ *
+ * @param <T> the timeout type
+ */
+public class TimingWheel<T extends TimingWheel.Timeout> {
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_SPAN = 1L << (WHEEL_BITS * LEVELS);
+    private static final int DETACHED = -2;
+    private static final int EXPIRED = -1;
+
+    private final long tickMillis;
+    private final Timeout[][] slots = new Timeout[LEVELS][WHEEL_SIZE];
+    private Timeout expired;
+    private long currentTick;
+    private int size;
+
+    /**
+     * Creates a wheel whose clock starts at the given time.
+     *
+     * @param tickMillis  length of a tick in milliseconds
+     * @param startMillis current time in epoch milliseconds
+     */
+    public TimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive: " + tickMillis);
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    /**
+     * Schedules a timeout, moving it if it was already scheduled. A deadline
+     * that has already passed fires on the next {@link #advanceTo(long)}.
+     *
+     * @param item           the timeout
+     * @param deadlineMillis when it fires, in epoch milliseconds
+     */
+    public synchronized void schedule(T item, long deadlineMillis) {
+        Timeout timeout = item;
+        unlink(timeout);
+        // Round up so a timeout never fires before its deadline
+        timeout.deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        if (timeout.deadlineTick <= currentTick) {
+            timeout.level = EXPIRED;
+            timeout.next = expired;
+            if (expired != null) {
+                expired.prev = timeout;
+            }
+            expired = timeout;
+        } else {
+            place(timeout);
+        }
+        size++;
+    }
+
+    /**
+     * Cancels a timeout.
+     *
+     * @param item the timeout
+     * @return true if it was scheduled
+     */
+    public synchronized boolean cancel(T item) {
+        Timeout timeout = item;
+        if (timeout.level == DETACHED) {
+            return false;
+        }
+        unlink(timeout);
+        return true;
+    }
+
+    /**
+     * Moves the clock forward and collects every timeout whose deadline is
+     * reached. Collected timeouts are no longer scheduled.
+     *
+     * @param nowMillis current time in epoch milliseconds
+     * @return the expired timeouts, earliest first
+     */
+    public synchronized List<T> advanceTo(long nowMillis) {
+        List<T> fired = new ArrayList<>();
+        drain(expired, fired);
+        expired = null;
+
+        long target = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < target) {
+            if (size == fired.size()) {
+                // Nothing left in the wheel, jump straight to the target
+                currentTick = target;
+                break;
+            }
+            currentTick++;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+                    cascade(level, slotIndex(currentTick, level));
+                }
+            }
+            int slot = slotIndex(currentTick, 0);
+            Timeout head = slots[0][slot];
+            slots[0][slot] = null;
+            drain(head, fired);
+        }
+        size -= fired.size();
+        return fired;
+    }
+
+    /**
+     * Gets the number of scheduled timeouts.
+     *
+     * @return the number of timeouts not yet fired or cancelled
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Gets the length of a tick.
+     *
+     * @return the tick length in milliseconds
+     */
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    private void place(Timeout timeout) {
+        // Deadlines beyond the top level wait in its farthest slot and are re-placed when it comes around
+        long tick = Math.min(timeout.deadlineTick, currentTick + MAX_SPAN - 1);
+        long delta = tick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (WHEEL_BITS * (level + 1))) {
+            level++;
+        }
+        int slot = slotIndex(tick, level);
+        Timeout head = slots[level][slot];
+        timeout.level = level;
+        timeout.slot = slot;
+        timeout.prev = null;
+        timeout.next = head;
+        if (head != null) {
+            head.prev = timeout;
+        }
+        slots[level][slot] = timeout;
+    }
+
+    private void cascade(int level, int slot) {
+        Timeout node = slots[level][slot];
+        slots[level][slot] = null;
+        while (node != null) {
+            Timeout next = node.next;
+            place(node);
+            node = next;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void drain(Timeout head, List<T> fired) {
+        Timeout node = head;
+        while (node != null) {
+            Timeout next = node.next;
+            node.level = DETACHED;
+            node.prev = null;
+            node.next = null;
+            fired.add((T) node);
+            node = next;
+        }
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.level == DETACHED) {
+            return;
+        }
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else if (timeout.level == EXPIRED) {
+            expired = timeout.next;
+        } else {
+            slots[timeout.level][timeout.slot] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.level = DETACHED;
+        timeout.prev = null;
+        timeout.next = null;
+        size--;
+    }
+
+    private static int slotIndex(long tick, int level) {
+        return (int) ((tick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+    }
+
+    /**
+     * Base class for items scheduled on a {@link TimingWheel}. An instance
+     * can be scheduled on one wheel at a time.
+     */
+    public static class Timeout {
+
+        private long deadlineTick;
+        private int level = DETACHED;
+        private int slot;
+        private Timeout prev;
+        private Timeout next;
+
+        /**
+         * Checks whether this timeout is waiting to fire.
+         *
+         * @return true if scheduled and not yet fired or cancelled
+         */
+        public boolean isScheduled() {
+            return level != DETACHED;
+        }
+    }
+}
@@ -5,6 +5,8 @@
 package com.codeup.novabook.repository;
 
 import com.codeup.novabook.domain.Book;
+import com.codeup.novabook.exceptions.db.ConcurrentUpdateException;
+import com.codeup.novabook.infra.collections.IntIntMap;
 import java.util.List;
 import java.util.Optional;
 
@@ -47,6 +49,13 @@ public interface BookRepository {
      */
     List<Book> findAll();
     
+    /**
+     * Finds the ISBNs of all books.
+     * 
+     * @return list of every ISBN in the catalog
+     */
+    List<String> findAllIsbns();
+    
     /**
      * Finds books by title containing the given text.
      * 
@@ -72,10 +81,12 @@ public interface BookRepository {
     List<Book> findByStockGreaterThan(int minStock);
     
     /**
-     * Updates a book.
+     * Updates a book if it still has the version it was read with, and moves
+     * it to the next version.
      * 
      * @param book the book to update
      * @return the updated book
+     * @throws ConcurrentUpdateException if the book was changed since it was read
      */
     Book update(Book book);
     
@@ -96,6 +107,23 @@ public interface BookRepository {
      */
     boolean updateStock(int bookId, int newStock);
     
+    /**
+     * Atomically adds a delta to the stock of a book, refusing to let it drop
+     * below zero.
+     * 
+     * @param bookId the book ID
+     * @param delta the amount to add (negative to take copies out)
+     * @return true if the stock was changed
+     */
+    boolean adjustStock(int bookId, int delta);
+    
+    /**
+     * Finds the stock of every book.
+     * 
+     * @return map from book ID to stock
+     */
+    IntIntMap findAllStock();
+    
     /**
      * Checks if a book exists by ISBN.
      * 
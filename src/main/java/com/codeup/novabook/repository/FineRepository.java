@@ -0,0 +1,69 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Interface.java to edit this template
+ */
+package com.codeup.novabook.repository;
+
+import com.codeup.novabook.domain.Fine;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository interface for Fine entity operations.
+ * Defines the contract for Fine data access operations.
+ *
+ * @author Adrián Gutiérrez
+ */
+public interface FineRepository {
+
+    /**
+     * Receives the rows streamed by {@link #forEachOverdue(Instant, OverdueLendingHandler)}.
+     */
+    @FunctionalInterface
+    interface OverdueLendingHandler {
+
+        /**
+         * Called once per overdue lending.
+         *
+         * @param lendingId  the lending ID
+         * @param memberId   the member ID
+         * @param dueDate    the due date
+         * @param memberRole the member's role
+         */
+        void accept(int lendingId, int memberId, Instant dueDate, String memberRole);
+    }
+
+    /**
+     * Streams every active lending whose due date is before a given time,
+     * together with its member's role, in a single query.
+     *
+     * @param asOf    the reference time
+     * @param handler receives each overdue lending in turn
+     */
+    void forEachOverdue(Instant asOf, OverdueLendingHandler handler);
+
+    /**
+     * Inserts or updates fines, keyed by lending, using batched statements
+     * in one transaction.
+     *
+     * @param fines the fines to write
+     * @return the number of fines written
+     */
+    int upsertAll(List<Fine> fines);
+
+    /**
+     * Finds the fines of a member.
+     *
+     * @param memberId the member ID
+     * @return list of the member's fines
+     */
+    List<Fine> findByMemberId(int memberId);
+
+    /**
+     * Sums the fines of a member.
+     *
+     * @param memberId the member ID
+     * @return the total in cents
+     */
+    long sumByMemberId(int memberId);
+}
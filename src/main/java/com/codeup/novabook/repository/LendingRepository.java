@@ -5,9 +5,15 @@
 package com.codeup.novabook.repository;
 
 import com.codeup.novabook.domain.Lending;
+import com.codeup.novabook.domain.LendingOutcome;
+import com.codeup.novabook.exceptions.db.ConcurrentUpdateException;
+import com.codeup.novabook.infra.collections.IntIntMap;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Repository interface for Lending entity operations.
@@ -33,6 +39,14 @@ public interface LendingRepository {
      */
     Optional<Lending> findById(int id);
     
+    /**
+     * Finds several lendings by ID in one round trip.
+     * 
+     * @param ids the lending IDs
+     * @return the lendings found, in no particular order
+     */
+    List<Lending> findByIds(Collection<Integer> ids);
+    
     /**
      * Finds all lendings.
      * 
@@ -56,6 +70,23 @@ public interface LendingRepository {
      */
     List<Lending> findByBookId(int bookId);
     
+    /**
+     * Checks whether a book has an active (not returned) lending, without
+     * loading its lending history.
+     * 
+     * @param bookId the book ID
+     * @return true if the book is currently lent out
+     */
+    boolean existsActiveByBookId(int bookId);
+    
+    /**
+     * Finds which of the given books have an active (not returned) lending.
+     * 
+     * @param bookIds the book IDs to check
+     * @return the subset of the given IDs that are currently lent out
+     */
+    Set<Integer> activeBookIds(Collection<Integer> bookIds);
+    
     /**
      * Finds lendings by return status.
      * 
@@ -64,6 +95,14 @@ public interface LendingRepository {
      */
     List<Lending> findByReturned(boolean returned);
     
+    /**
+     * Streams all active (not returned) lendings without holding them in
+     * memory, for bulk loads over very large tables.
+     * 
+     * @param consumer receives each active lending in turn
+     */
+    void forEachActive(Consumer<Lending> consumer);
+    
     /**
      * Finds lendings that are overdue.
      * 
@@ -82,21 +121,70 @@ public interface LendingRepository {
     List<Lending> findByDueDateBetween(Instant startDate, Instant endDate);
     
     /**
-     * Updates a lending.
+     * Updates a lending if it still has the version it was read with, and moves
+     * it to the next version.
      * 
      * @param lending the lending to update
      * @return the updated lending
+     * @throws ConcurrentUpdateException if the lending was changed since it was read
      */
     Lending update(Lending lending);
     
+    /**
+     * Moves the due date of an active lending forward in a single statement,
+     * without reading the lending first.
+     * 
+     * @param lendingId the lending ID
+     * @param days      days to add to the due date
+     * @return true if the lending was extended, false if it does not exist
+     *         or was already returned
+     */
+    boolean extendDueDate(int lendingId, int days);
+    
+    /**
+     * Moves the due date of every active lending forward in a single
+     * statement, for example during a branch closure.
+     * 
+     * @param days days to add to the due dates
+     * @return the number of lendings extended
+     */
+    int extendAllActive(int days);
+    
     /**
      * Marks a lending as returned.
      * 
      * @param lendingId the lending ID to mark as returned
-     * @return true if update was successful
+     * @return true if update was successful, false if the lending does not
+     *         exist or was already returned
      */
     boolean markAsReturned(int lendingId);
     
+    /**
+     * Returns several lendings at once: marks the active ones as returned
+     * and puts their copies back into stock with one increment per book, all
+     * in a single transaction.
+     * 
+     * @param lendingIds the lending IDs to return
+     * @return the lendings found, as they were before the call; those that
+     *         were not yet returned are the ones this call returned
+     */
+    List<Lending> returnAll(Collection<Integer> lendingIds);
+    
+    /**
+     * Creates several lendings at once, taking their copies out of stock,
+     * all in a single transaction. A lending is not created if its book has
+     * no stock left or already has an active lending, or if its member would
+     * go over {@code maxActiveLoans} active lendings. These checks run under
+     * locks on the member and book rows, so they hold across processes
+     * sharing the database.
+     * 
+     * @param lendings       the lendings to create
+     * @param maxActiveLoans the most active lendings a member may have
+     * @return one outcome per lending, in order: DONE with the created
+     *         lending and its generated ID, NOT_AVAILABLE or LIMIT_REACHED
+     */
+    List<LendingOutcome> checkoutAll(List<Lending> lendings, int maxActiveLoans);
+    
     /**
      * Deletes a lending by ID.
      * 
@@ -119,6 +207,13 @@ public interface LendingRepository {
      */
     long countActiveLendings();
     
+    /**
+     * Counts active lendings (not returned) per book.
+     * 
+     * @return map from book ID to its number of active lendings
+     */
+    IntIntMap countActiveByBook();
+    
     /**
      * Counts lendings by member.
      * 
@@ -0,0 +1,67 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Interface.java to edit this template
+ */
+package com.codeup.novabook.repository;
+
+import com.codeup.novabook.domain.Reservation;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Repository interface for Reservation entity operations.
+ * Defines the contract for Reservation data access operations.
+ *
+ * @author Adrián Gutiérrez
+ */
+public interface ReservationRepository {
+
+    /**
+     * Saves a new reservation.
+     *
+     * @param reservation the reservation to save
+     * @return the saved reservation with its generated ID
+     */
+    Reservation save(Reservation reservation);
+
+    /**
+     * Finds a reservation by ID.
+     *
+     * @param id the reservation ID
+     * @return Optional containing the reservation if found, empty otherwise
+     */
+    Optional<Reservation> findById(int id);
+
+    /**
+     * Finds all reservations of a member, newest first.
+     *
+     * @param memberId the member ID
+     * @return list of the member's reservations
+     */
+    List<Reservation> findByMemberId(int memberId);
+
+    /**
+     * Streams the WAITING and READY reservations in the order they were
+     * placed, for loading the hold queues.
+     *
+     * @param consumer receives each active reservation in turn
+     */
+    void forEachActive(Consumer<Reservation> consumer);
+
+    /**
+     * Moves a reservation to a new status if it is still in the expected
+     * one.
+     *
+     * @param id        the reservation ID
+     * @param expected  the status the reservation must be in
+     * @param status    the new status
+     * @param readyAt   the new ready time, or null
+     * @param expiresAt the new expiry time, or null
+     * @return true if the reservation was updated, false if it was not found
+     *         or had moved on
+     */
+    boolean updateStatus(int id, Reservation.Status expected, Reservation.Status status, Instant readyAt,
+            Instant expiresAt);
+}
@@ -0,0 +1,59 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Interface.java to edit this template
+ */
+package com.codeup.novabook.repository;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Repository interface for the library statistics counters.
+ * Counters are stored by name in the {@code stats} table.
+ *
+ * @author Adrián Gutiérrez
+ */
+public interface StatsRepository {
+
+    /** Number of books. */
+    String BOOKS = "books";
+    /** Number of members not deleted. */
+    String MEMBERS = "members";
+    /** Number of REGULAR members not deleted. */
+    String REGULAR_MEMBERS = "members.regular";
+    /** Number of PREMIUM members not deleted. */
+    String PREMIUM_MEMBERS = "members.premium";
+    /** Number of active members not deleted. */
+    String ACTIVE_MEMBERS = "members.active";
+    /** Number of users not deleted. */
+    String USERS = "users";
+    /** Number of lendings ever made. */
+    String LENDINGS = "lendings";
+    /** Number of lendings not returned. */
+    String ACTIVE_LENDINGS = "lendings.active";
+    /** Number of lendings not returned and past their due date. */
+    String OVERDUE_LENDINGS = "lendings.overdue";
+
+    /**
+     * Reads every stored counter.
+     *
+     * @return the counters by name, empty if none was saved yet
+     */
+    Map<String, Long> findAll();
+
+    /**
+     * Inserts or updates counters in one transaction.
+     *
+     * @param counters  the counters by name
+     * @param updatedAt the time the values were taken
+     */
+    void saveAll(Map<String, Long> counters, Instant updatedAt);
+
+    /**
+     * Counts every statistic from the source tables in a single query.
+     *
+     * @param asOf the reference time for overdue lendings
+     * @return the counters by name
+     */
+    Map<String, Long> countFromTables(Instant asOf);
+}
@@ -62,6 +62,16 @@ public interface UserRepository {
      */
     User update(User user);
     
+    /**
+     * Replaces a user's password hash, only if it is still the expected one.
+     * 
+     * @param id the user ID
+     * @param expectedHash the hash the new one is based on
+     * @param newHash the new hash
+     * @return true if the hash was replaced, false if it had changed meanwhile
+     */
+    boolean updatePassword(int id, String expectedHash, String newHash);
+    
     /**
      * Deletes a user by ID (soft delete).
      * 
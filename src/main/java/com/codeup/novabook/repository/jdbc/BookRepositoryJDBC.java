@@ -6,8 +6,12 @@ package com.codeup.novabook.repository.jdbc;
 
 import com.codeup.novabook.connection.ConnectionFactory;
 import com.codeup.novabook.domain.Book;
+import com.codeup.novabook.exceptions.book.DuplicateISBNException;
+import com.codeup.novabook.exceptions.db.ConcurrentUpdateException;
 import com.codeup.novabook.exceptions.db.DatabaseException;
+import com.codeup.novabook.infra.collections.IntIntMap;
 import com.codeup.novabook.repository.BookRepository;
+import com.codeup.novabook.utils.IsbnCodec;
 
 import java.sql.*;
 import java.time.Instant;
@@ -34,18 +38,19 @@ public class BookRepositoryJDBC implements BookRepository {
     
     @Override
     public Book save(Book book) {
-        String sql = "INSERT INTO book (isbn, title, author, stock, created_at, updated_at) " +
-                    "VALUES (?, ?, ?, ?, ?, ?)";
+        String sql = "INSERT INTO book (isbn, isbn_key, title, author, stock, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?)";
         
         try (Connection conn = connectionFactory.open();
              PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             
             stmt.setString(1, book.getIsbn());
-            stmt.setString(2, book.getTitle());
-            stmt.setString(3, book.getAuthor());
-            stmt.setInt(4, book.getStock());
-            stmt.setTimestamp(5, Timestamp.from(book.getCreatedAt()));
-            stmt.setTimestamp(6, Timestamp.from(book.getUpdatedAt()));
+            setIsbnKey(stmt, 2, book.getIsbn());
+            stmt.setString(3, book.getTitle());
+            stmt.setString(4, book.getAuthor());
+            stmt.setInt(5, book.getStock());
+            stmt.setTimestamp(6, Timestamp.from(book.getCreatedAt()));
+            stmt.setTimestamp(7, Timestamp.from(book.getUpdatedAt()));
             
             int affectedRows = stmt.executeUpdate();
             
@@ -62,6 +67,9 @@ public class BookRepositoryJDBC implements BookRepository {
             }
             
             return book;
+        } catch (SQLIntegrityConstraintViolationException e) {
+            // The unique constraint on isbn is the final arbiter for duplicates
+            throw new DuplicateISBNException(book.getIsbn());
         } catch (SQLException e) {
             throw new DatabaseException("Error saving book", e);
         }
@@ -90,12 +98,15 @@ public class BookRepositoryJDBC implements BookRepository {
     
     @Override
     public Optional<Book> findByIsbn(String isbn) {
-        String sql = "SELECT * FROM book WHERE isbn = ?";
+        // isbn_key matches every spelling of the ISBN (hyphens, ISBN-10 or 13);
+        // the isbn column still covers legacy rows without a key
+        String sql = "SELECT * FROM book WHERE isbn_key = ? OR isbn = ? LIMIT 1";
         
         try (Connection conn = connectionFactory.open();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, isbn);
+            setIsbnKey(stmt, 1, isbn);
+            stmt.setString(2, isbn);
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
@@ -128,6 +139,25 @@ public class BookRepositoryJDBC implements BookRepository {
         }
     }
     
+    @Override
+    public List<String> findAllIsbns() {
+        String sql = "SELECT isbn FROM book";
+        List<String> isbns = new ArrayList<>();
+        
+        try (Connection conn = connectionFactory.open();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            while (rs.next()) {
+                isbns.add(rs.getString(1));
+            }
+            
+            return isbns;
+        } catch (SQLException e) {
+            throw new DatabaseException("Error finding all ISBNs", e);
+        }
+    }
+    
     @Override
     public List<Book> findByTitleContaining(String title) {
         String sql = "SELECT * FROM book WHERE title LIKE ? ORDER BY title";
@@ -196,25 +226,35 @@ public class BookRepositoryJDBC implements BookRepository {
     
     @Override
     public Book update(Book book) {
-        String sql = "UPDATE book SET isbn = ?, title = ?, author = ?, stock = ?, updated_at = ? WHERE id = ?";
+        // Compare-and-set: only the version that was read may be overwritten
+        String sql = "UPDATE book SET isbn = ?, isbn_key = ?, title = ?, author = ?, stock = ?, updated_at = ?, "
+                + "version = version + 1 WHERE id = ? AND version = ?";
         
         try (Connection conn = connectionFactory.open();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setString(1, book.getIsbn());
-            stmt.setString(2, book.getTitle());
-            stmt.setString(3, book.getAuthor());
-            stmt.setInt(4, book.getStock());
-            stmt.setTimestamp(5, Timestamp.from(book.getUpdatedAt()));
-            stmt.setInt(6, book.getId());
+            setIsbnKey(stmt, 2, book.getIsbn());
+            stmt.setString(3, book.getTitle());
+            stmt.setString(4, book.getAuthor());
+            stmt.setInt(5, book.getStock());
+            stmt.setTimestamp(6, Timestamp.from(book.getUpdatedAt()));
+            stmt.setInt(7, book.getId());
+            stmt.setInt(8, book.getVersion());
             
             int affectedRows = stmt.executeUpdate();
             
             if (affectedRows == 0) {
+                if (existsById(conn, book.getId())) {
+                    throw new ConcurrentUpdateException("Book", book.getId(), book.getVersion());
+                }
                 throw new DatabaseException("Updating book failed, no rows affected.");
             }
             
+            book.setVersion(book.getVersion() + 1);
             return book;
+        } catch (SQLIntegrityConstraintViolationException e) {
+            throw new DuplicateISBNException(book.getIsbn());
         } catch (SQLException e) {
             throw new DatabaseException("Error updating book", e);
         }
@@ -238,7 +278,7 @@ public class BookRepositoryJDBC implements BookRepository {
     
     @Override
     public boolean updateStock(int bookId, int newStock) {
-        String sql = "UPDATE book SET stock = ?, updated_at = ? WHERE id = ?";
+        String sql = "UPDATE book SET stock = ?, updated_at = ?, version = version + 1 WHERE id = ?";
         
         try (Connection conn = connectionFactory.open();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -254,22 +294,58 @@ public class BookRepositoryJDBC implements BookRepository {
         }
     }
     
+    @Override
+    public boolean adjustStock(int bookId, int delta) {
+        String sql = "UPDATE book SET stock = stock + ?, updated_at = ?, version = version + 1 "
+                + "WHERE id = ? AND stock + ? >= 0";
+        
+        try (Connection conn = connectionFactory.open();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, delta);
+            stmt.setTimestamp(2, Timestamp.from(Instant.now()));
+            stmt.setInt(3, bookId);
+            stmt.setInt(4, delta);
+            
+            int affectedRows = stmt.executeUpdate();
+            return affectedRows > 0;
+        } catch (SQLException e) {
+            throw new DatabaseException("Error adjusting book stock", e);
+        }
+    }
+    
+    @Override
+    public IntIntMap findAllStock() {
+        String sql = "SELECT id, stock FROM book";
+        IntIntMap stock = new IntIntMap();
+        
+        try (Connection conn = connectionFactory.open();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            while (rs.next()) {
+                stock.put(rs.getInt(1), rs.getInt(2));
+            }
+            
+            return stock;
+        } catch (SQLException e) {
+            throw new DatabaseException("Error finding book stock", e);
+        }
+    }
+    
     @Override
     public boolean existsByIsbn(String isbn) {
-        String sql = "SELECT COUNT(*) FROM book WHERE isbn = ?";
+        String sql = "SELECT 1 FROM book WHERE isbn_key = ? OR isbn = ? LIMIT 1";
         
         try (Connection conn = connectionFactory.open();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, isbn);
+            setIsbnKey(stmt, 1, isbn);
+            stmt.setString(2, isbn);
             
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1) > 0;
-                }
+                return rs.next();
             }
-            
-            return false;
         } catch (SQLException e) {
             throw new DatabaseException("Error checking if book exists by ISBN", e);
         }
@@ -293,6 +369,23 @@ public class BookRepositoryJDBC implements BookRepository {
         }
     }
     
+    /**
+     * Binds the packed ISBN-13 key of an ISBN, or NULL if it is not a valid ISBN.
+     * 
+     * @param stmt  the statement
+     * @param index the parameter index
+     * @param isbn  the ISBN
+     * @throws SQLException if binding fails
+     */
+    private void setIsbnKey(PreparedStatement stmt, int index, String isbn) throws SQLException {
+        long key = IsbnCodec.toKey(isbn);
+        if (key == IsbnCodec.NO_KEY) {
+            stmt.setNull(index, Types.BIGINT);
+        } else {
+            stmt.setLong(index, key);
+        }
+    }
+    
     /**
      * Maps a ResultSet row to a Book object.
      * 
@@ -301,7 +394,7 @@ public class BookRepositoryJDBC implements BookRepository {
      * @throws SQLException if mapping fails
      */
     private Book mapResultSetToBook(ResultSet rs) throws SQLException {
-        return new Book(
+        Book book = new Book(
             rs.getInt("id"),
             rs.getString("isbn"),
             rs.getString("title"),
@@ -310,5 +403,16 @@ public class BookRepositoryJDBC implements BookRepository {
             rs.getTimestamp("created_at").toInstant(),
             rs.getTimestamp("updated_at").toInstant()
         );
+        book.setVersion(rs.getInt("version"));
+        return book;
+    }
+
+    private static boolean existsById(Connection conn, int id) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT 1 FROM book WHERE id = ?")) {
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
     }
 }
@@ -0,0 +1,158 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.codeup.novabook.repository.jdbc;
+
+import com.codeup.novabook.connection.ConnectionFactory;
+import com.codeup.novabook.domain.Fine;
+import com.codeup.novabook.exceptions.db.DatabaseException;
+import com.codeup.novabook.repository.FineRepository;
+
+import java.sql.*;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC implementation of FineRepository.
+ * Provides database operations for Fine entities using JDBC.
+ *
+ * @author Adrián Gutiérrez
+ */
+public class FineRepositoryJDBC implements FineRepository {
+
+    private static final String UPSERT_MYSQL = "INSERT INTO fine (lending_id, member_id, days_overdue, "
+            + "daily_rate_cents, amount_cents, calculated_at) VALUES (?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE days_overdue = VALUES(days_overdue), "
+            + "daily_rate_cents = VALUES(daily_rate_cents), amount_cents = VALUES(amount_cents), "
+            + "calculated_at = VALUES(calculated_at)";
+    private static final String UPSERT_POSTGRES = "INSERT INTO fine (lending_id, member_id, days_overdue, "
+            + "daily_rate_cents, amount_cents, calculated_at) VALUES (?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (lending_id) DO UPDATE SET days_overdue = EXCLUDED.days_overdue, "
+            + "daily_rate_cents = EXCLUDED.daily_rate_cents, amount_cents = EXCLUDED.amount_cents, "
+            + "calculated_at = EXCLUDED.calculated_at";
+
+    private final ConnectionFactory connectionFactory;
+
+    /**
+     * Constructor that initializes the connection factory.
+     */
+    public FineRepositoryJDBC() {
+        this.connectionFactory = ConnectionFactory.getInstance();
+    }
+
+    @Override
+    public void forEachOverdue(Instant asOf, OverdueLendingHandler handler) {
+        String sql = "SELECT l.id, l.member_id, l.due_date, m.role FROM lending l "
+                + "JOIN member m ON m.id = l.member_id WHERE l.returned = false AND l.due_date < ?";
+
+        try (Connection conn = connectionFactory.open();
+             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                     ResultSet.CONCUR_READ_ONLY)) {
+
+            connectionFactory.enableStreaming(conn, stmt);
+            stmt.setTimestamp(1, Timestamp.from(asOf));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    handler.accept(rs.getInt(1), rs.getInt(2), rs.getTimestamp(3).toInstant(), rs.getString(4));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error streaming overdue lendings", e);
+        }
+    }
+
+    @Override
+    public int upsertAll(List<Fine> fines) {
+        if (fines.isEmpty()) {
+            return 0;
+        }
+        String sql = connectionFactory.isPostgres() ? UPSERT_POSTGRES : UPSERT_MYSQL;
+
+        try (Connection conn = connectionFactory.open()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (Fine fine : fines) {
+                    stmt.setInt(1, fine.getLendingId());
+                    stmt.setInt(2, fine.getMemberId());
+                    stmt.setInt(3, fine.getDaysOverdue());
+                    stmt.setLong(4, fine.getDailyRateCents());
+                    stmt.setLong(5, fine.getAmountCents());
+                    stmt.setTimestamp(6, Timestamp.from(fine.getCalculatedAt()));
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+                return fines.size();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error saving fines", e);
+        }
+    }
+
+    @Override
+    public List<Fine> findByMemberId(int memberId) {
+        String sql = "SELECT * FROM fine WHERE member_id = ? ORDER BY calculated_at DESC";
+        List<Fine> fines = new ArrayList<>();
+
+        try (Connection conn = connectionFactory.open();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, memberId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    fines.add(mapResultSetToFine(rs));
+                }
+            }
+
+            return fines;
+        } catch (SQLException e) {
+            throw new DatabaseException("Error finding fines by member ID", e);
+        }
+    }
+
+    @Override
+    public long sumByMemberId(int memberId) {
+        String sql = "SELECT COALESCE(SUM(amount_cents), 0) FROM fine WHERE member_id = ?";
+
+        try (Connection conn = connectionFactory.open();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, memberId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getLong(1);
+                }
+            }
+
+            return 0;
+        } catch (SQLException e) {
+            throw new DatabaseException("Error summing fines by member ID", e);
+        }
+    }
+
+    /**
+     * Maps a ResultSet row to a Fine object.
+     *
+     * @param rs the ResultSet
+     * @return the mapped Fine object
+     * @throws SQLException if mapping fails
+     */
+    private Fine mapResultSetToFine(ResultSet rs) throws SQLException {
+        return new Fine(
+            rs.getInt("lending_id"),
+            rs.getInt("member_id"),
+            rs.getInt("days_overdue"),
+            rs.getLong("daily_rate_cents"),
+            rs.getLong("amount_cents"),
+            rs.getTimestamp("calculated_at").toInstant()
+        );
+    }
+}
@@ -6,14 +6,22 @@ package com.codeup.novabook.repository.jdbc;
 
 import com.codeup.novabook.connection.ConnectionFactory;
 import com.codeup.novabook.domain.Lending;
+import com.codeup.novabook.domain.LendingOutcome;
+import com.codeup.novabook.exceptions.db.ConcurrentUpdateException;
 import com.codeup.novabook.exceptions.db.DatabaseException;
+import com.codeup.novabook.infra.collections.IntIntMap;
 import com.codeup.novabook.repository.LendingRepository;
 
 import java.sql.*;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * JDBC implementation of LendingRepository.
@@ -23,6 +31,9 @@ import java.util.Optional;
  */
 public class LendingRepositoryJDBC implements LendingRepository {
     
+    // Keeps IN lists well below driver and server placeholder limits
+    private static final int IN_CHUNK_SIZE = 500;
+    
     private final ConnectionFactory connectionFactory;
     
     /**
@@ -89,6 +100,34 @@ public class LendingRepositoryJDBC implements LendingRepository {
         }
     }
     
+    @Override
+    public List<Lending> findByIds(Collection<Integer> ids) {
+        List<Lending> lendings = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return lendings;
+        }
+        List<Integer> unique = new ArrayList<>(new LinkedHashSet<>(ids));
+        
+        try (Connection conn = connectionFactory.open()) {
+            for (int from = 0; from < unique.size(); from += IN_CHUNK_SIZE) {
+                List<Integer> chunk = unique.subList(from, Math.min(from + IN_CHUNK_SIZE, unique.size()));
+                String sql = "SELECT * FROM lending WHERE id IN (" + placeholders(chunk.size()) + ")";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    bindIds(stmt, 1, chunk);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            lendings.add(mapResultSetToLending(rs));
+                        }
+                    }
+                }
+            }
+            
+            return lendings;
+        } catch (SQLException e) {
+            throw new DatabaseException("Error finding lendings by IDs", e);
+        }
+    }
+    
     @Override
     public List<Lending> findAll() {
         String sql = "SELECT * FROM lending ORDER BY lending_date DESC";
@@ -152,6 +191,54 @@ public class LendingRepositoryJDBC implements LendingRepository {
         }
     }
     
+    @Override
+    public boolean existsActiveByBookId(int bookId) {
+        String sql = "SELECT 1 FROM lending WHERE book_id = ? AND returned = false LIMIT 1";
+        
+        try (Connection conn = connectionFactory.open();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, bookId);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error checking active lendings by book ID", e);
+        }
+    }
+    
+    @Override
+    public Set<Integer> activeBookIds(Collection<Integer> bookIds) {
+        Set<Integer> active = new HashSet<>();
+        if (bookIds.isEmpty()) {
+            return active;
+        }
+        List<Integer> ids = new ArrayList<>(new HashSet<>(bookIds));
+        
+        try (Connection conn = connectionFactory.open()) {
+            for (int from = 0; from < ids.size(); from += IN_CHUNK_SIZE) {
+                List<Integer> chunk = ids.subList(from, Math.min(from + IN_CHUNK_SIZE, ids.size()));
+                // One index probe per book: each EXISTS stops at the first active row
+                String sql = "SELECT b.id FROM book b WHERE b.id IN (" + placeholders(chunk.size()) + ") "
+                        + "AND EXISTS (SELECT 1 FROM lending l WHERE l.book_id = b.id AND l.returned = false LIMIT 1)";
+                
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    bindIds(stmt, 1, chunk);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            active.add(rs.getInt(1));
+                        }
+                    }
+                }
+            }
+            
+            return active;
+        } catch (SQLException e) {
+            throw new DatabaseException("Error finding active lendings by book IDs", e);
+        }
+    }
+    
     @Override
     public List<Lending> findByReturned(boolean returned) {
         String sql = "SELECT * FROM lending WHERE returned = ? ORDER BY lending_date DESC";
@@ -174,6 +261,26 @@ public class LendingRepositoryJDBC implements LendingRepository {
         }
     }
     
+    @Override
+    public void forEachActive(Consumer<Lending> consumer) {
+        String sql = "SELECT * FROM lending WHERE returned = false";
+        
+        try (Connection conn = connectionFactory.open();
+             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                     ResultSet.CONCUR_READ_ONLY)) {
+            
+            connectionFactory.enableStreaming(conn, stmt);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(mapResultSetToLending(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error streaming active lendings", e);
+        }
+    }
+    
     @Override
     public List<Lending> findOverdueLendings(Instant currentDate) {
         String sql = "SELECT * FROM lending WHERE due_date < ? AND returned = false ORDER BY due_date";
@@ -221,8 +328,9 @@ public class LendingRepositoryJDBC implements LendingRepository {
     
     @Override
     public Lending update(Lending lending) {
+        // Compare-and-set: only the version that was read may be overwritten
         String sql = "UPDATE lending SET member_id = ?, book_id = ?, lending_date = ?, due_date = ?, " +
-                    "returned = ?, updated_at = ? WHERE id = ?";
+                    "returned = ?, updated_at = ?, version = version + 1 WHERE id = ? AND version = ?";
         
         try (Connection conn = connectionFactory.open();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -234,22 +342,64 @@ public class LendingRepositoryJDBC implements LendingRepository {
             stmt.setBoolean(5, lending.isReturned());
             stmt.setTimestamp(6, Timestamp.from(lending.getUpdatedAt()));
             stmt.setInt(7, lending.getId());
+            stmt.setInt(8, lending.getVersion());
             
             int affectedRows = stmt.executeUpdate();
             
             if (affectedRows == 0) {
+                if (existsById(conn, lending.getId())) {
+                    throw new ConcurrentUpdateException("Lending", lending.getId(), lending.getVersion());
+                }
                 throw new DatabaseException("Updating lending failed, no rows affected.");
             }
             
+            lending.setVersion(lending.getVersion() + 1);
             return lending;
         } catch (SQLException e) {
             throw new DatabaseException("Error updating lending", e);
         }
     }
     
+    @Override
+    public boolean extendDueDate(int lendingId, int days) {
+        String sql = "UPDATE lending SET due_date = " + dueDatePlusDays() + ", updated_at = ?, "
+                + "version = version + 1 WHERE id = ? AND returned = false";
+        
+        try (Connection conn = connectionFactory.open();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, days);
+            stmt.setTimestamp(2, Timestamp.from(Instant.now()));
+            stmt.setInt(3, lendingId);
+            
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            throw new DatabaseException("Error extending lending", e);
+        }
+    }
+    
+    @Override
+    public int extendAllActive(int days) {
+        String sql = "UPDATE lending SET due_date = " + dueDatePlusDays() + ", updated_at = ?, "
+                + "version = version + 1 WHERE returned = false";
+        
+        try (Connection conn = connectionFactory.open();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, days);
+            stmt.setTimestamp(2, Timestamp.from(Instant.now()));
+            
+            return stmt.executeUpdate();
+        } catch (SQLException e) {
+            throw new DatabaseException("Error extending active lendings", e);
+        }
+    }
+    
     @Override
     public boolean markAsReturned(int lendingId) {
-        String sql = "UPDATE lending SET returned = true, updated_at = ? WHERE id = ?";
+        // Only an active lending can be returned, so a lending is never returned twice
+        String sql = "UPDATE lending SET returned = true, updated_at = ?, version = version + 1 "
+                + "WHERE id = ? AND returned = false";
         
         try (Connection conn = connectionFactory.open();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -264,6 +414,200 @@ public class LendingRepositoryJDBC implements LendingRepository {
         }
     }
     
+    @Override
+    public List<Lending> returnAll(Collection<Integer> lendingIds) {
+        List<Lending> found = new ArrayList<>();
+        if (lendingIds.isEmpty()) {
+            return found;
+        }
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(lendingIds));
+        Timestamp now = Timestamp.from(Instant.now());
+        
+        try (Connection conn = connectionFactory.open()) {
+            conn.setAutoCommit(false);
+            try {
+                // Lock the rows first so a concurrent return cannot restock the same copy twice
+                for (int from = 0; from < ids.size(); from += IN_CHUNK_SIZE) {
+                    List<Integer> chunk = ids.subList(from, Math.min(from + IN_CHUNK_SIZE, ids.size()));
+                    String sql = "SELECT * FROM lending WHERE id IN (" + placeholders(chunk.size()) + ") FOR UPDATE";
+                    try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                        bindIds(stmt, 1, chunk);
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            while (rs.next()) {
+                                found.add(mapResultSetToLending(rs));
+                            }
+                        }
+                    }
+                }
+                
+                List<Integer> active = new ArrayList<>();
+                IntIntMap copiesByBook = new IntIntMap();
+                for (Lending lending : found) {
+                    if (!lending.isReturned()) {
+                        active.add(lending.getId());
+                        copiesByBook.addTo(lending.getBookId(), 1);
+                    }
+                }
+                
+                for (int from = 0; from < active.size(); from += IN_CHUNK_SIZE) {
+                    List<Integer> chunk = active.subList(from, Math.min(from + IN_CHUNK_SIZE, active.size()));
+                    String sql = "UPDATE lending SET returned = true, updated_at = ?, version = version + 1 "
+                            + "WHERE returned = false AND id IN ("
+                            + placeholders(chunk.size()) + ")";
+                    try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                        stmt.setTimestamp(1, now);
+                        bindIds(stmt, 2, chunk);
+                        stmt.executeUpdate();
+                    }
+                }
+                
+                // One increment per book, however many of its copies came back
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "UPDATE book SET stock = stock + ?, updated_at = ?, version = version + 1 WHERE id = ?")) {
+                    for (int bookId : copiesByBook.keys().toArray()) {
+                        stmt.setInt(1, copiesByBook.get(bookId));
+                        stmt.setTimestamp(2, now);
+                        stmt.setInt(3, bookId);
+                        stmt.addBatch();
+                    }
+                    if (!copiesByBook.isEmpty()) {
+                        stmt.executeBatch();
+                    }
+                }
+                
+                conn.commit();
+                return found;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error returning lendings", e);
+        }
+    }
+    
+    @Override
+    public List<LendingOutcome> checkoutAll(List<Lending> lendings, int maxActiveLoans) {
+        List<LendingOutcome> outcomes = new ArrayList<>();
+        if (lendings.isEmpty()) {
+            return outcomes;
+        }
+        int[] bookIds = lendings.stream().mapToInt(Lending::getBookId).distinct().sorted().toArray();
+        Timestamp now = Timestamp.from(Instant.now());
+        
+        try (Connection conn = connectionFactory.open()) {
+            // Every read below must see lendings committed while this transaction waited for a lock
+            conn.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            conn.setAutoCommit(false);
+            try {
+                // Locking the member row, then the book rows in ID order, makes concurrent checkouts
+                // of the same member or book, from this process or another one, wait for each other
+                Set<Integer> members = new LinkedHashSet<>();
+                lendings.forEach(lending -> members.add(lending.getMemberId()));
+                IntIntMap activeByMember = new IntIntMap();
+                try (PreparedStatement lock = conn.prepareStatement("SELECT id FROM member WHERE id = ? FOR UPDATE");
+                     PreparedStatement count = conn.prepareStatement(
+                             "SELECT COUNT(*) FROM lending WHERE member_id = ? AND returned = false")) {
+                    for (int memberId : members) {
+                        lock.setInt(1, memberId);
+                        try (ResultSet rs = lock.executeQuery()) {
+                            // Only the row lock is needed
+                        }
+                        count.setInt(1, memberId);
+                        try (ResultSet rs = count.executeQuery()) {
+                            activeByMember.put(memberId, rs.next() ? rs.getInt(1) : 0);
+                        }
+                    }
+                }
+                
+                IntIntMap stockByBook = new IntIntMap();
+                try (PreparedStatement lock = conn.prepareStatement("SELECT stock FROM book WHERE id = ? FOR UPDATE");
+                     PreparedStatement lent = conn.prepareStatement(
+                             "SELECT 1 FROM lending WHERE book_id = ? AND returned = false LIMIT 1")) {
+                    for (int bookId : bookIds) {
+                        lock.setInt(1, bookId);
+                        try (ResultSet rs = lock.executeQuery()) {
+                            if (!rs.next()) {
+                                continue;
+                            }
+                            stockByBook.put(bookId, rs.getInt(1));
+                        }
+                        lent.setInt(1, bookId);
+                        try (ResultSet rs = lent.executeQuery()) {
+                            if (rs.next()) {
+                                // Already lent out: no more copies of it can go
+                                stockByBook.put(bookId, 0);
+                            }
+                        }
+                    }
+                }
+                
+                // Decided in request order; a book goes to at most one lending per call
+                List<Lending> created = new ArrayList<>();
+                IntIntMap takenByBook = new IntIntMap();
+                for (Lending lending : lendings) {
+                    int bookId = lending.getBookId();
+                    if (stockByBook.get(bookId) <= 0 || takenByBook.containsKey(bookId)) {
+                        outcomes.add(new LendingOutcome(bookId, LendingOutcome.Status.NOT_AVAILABLE, null));
+                    } else if (activeByMember.get(lending.getMemberId()) >= maxActiveLoans) {
+                        outcomes.add(new LendingOutcome(bookId, LendingOutcome.Status.LIMIT_REACHED, null));
+                    } else {
+                        activeByMember.addTo(lending.getMemberId(), 1);
+                        takenByBook.put(bookId, 1);
+                        created.add(lending);
+                        outcomes.add(new LendingOutcome(bookId, LendingOutcome.Status.DONE, lending));
+                    }
+                }
+                
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "UPDATE book SET stock = stock - 1, updated_at = ?, version = version + 1 WHERE id = ?")) {
+                    for (Lending lending : created) {
+                        stmt.setTimestamp(1, now);
+                        stmt.setInt(2, lending.getBookId());
+                        stmt.addBatch();
+                    }
+                    if (!created.isEmpty()) {
+                        stmt.executeBatch();
+                    }
+                }
+                
+                String sql = "INSERT INTO lending (member_id, book_id, lending_date, due_date, returned, created_at, updated_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+                try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    for (Lending lending : created) {
+                        stmt.setInt(1, lending.getMemberId());
+                        stmt.setInt(2, lending.getBookId());
+                        stmt.setTimestamp(3, Timestamp.from(lending.getLendingDate()));
+                        stmt.setTimestamp(4, Timestamp.from(lending.getDueDate()));
+                        stmt.setBoolean(5, lending.isReturned());
+                        stmt.setTimestamp(6, Timestamp.from(lending.getCreatedAt()));
+                        stmt.setTimestamp(7, Timestamp.from(lending.getUpdatedAt()));
+                        stmt.addBatch();
+                    }
+                    if (!created.isEmpty()) {
+                        stmt.executeBatch();
+                        try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                            for (Lending lending : created) {
+                                if (!generatedKeys.next()) {
+                                    throw new DatabaseException("Creating lendings failed, no ID obtained.");
+                                }
+                                lending.setId(generatedKeys.getInt(1));
+                            }
+                        }
+                    }
+                }
+                
+                conn.commit();
+                return outcomes;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error checking out lendings", e);
+        }
+    }
+    
     @Override
     public boolean deleteById(int id) {
         String sql = "DELETE FROM lending WHERE id = ?";
@@ -316,6 +660,25 @@ public class LendingRepositoryJDBC implements LendingRepository {
         }
     }
     
+    @Override
+    public IntIntMap countActiveByBook() {
+        String sql = "SELECT book_id, COUNT(*) FROM lending WHERE returned = false GROUP BY book_id";
+        IntIntMap counts = new IntIntMap();
+        
+        try (Connection conn = connectionFactory.open();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            while (rs.next()) {
+                counts.put(rs.getInt(1), rs.getInt(2));
+            }
+            
+            return counts;
+        } catch (SQLException e) {
+            throw new DatabaseException("Error counting active lendings by book", e);
+        }
+    }
+    
     @Override
     public long countByMemberId(int memberId) {
         String sql = "SELECT COUNT(*) FROM lending WHERE member_id = ? AND returned = false";
@@ -337,6 +700,34 @@ public class LendingRepositoryJDBC implements LendingRepository {
         }
     }
     
+    /**
+     * Builds the placeholder list of an IN clause.
+     * 
+     * @param count the number of values
+     * @return "?, ?, ..." with count placeholders
+     */
+    private static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            sb.append(i == 0 ? "?" : ", ?");
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * Binds IDs to consecutive parameters.
+     * 
+     * @param stmt  the statement
+     * @param first index of the first parameter
+     * @param ids   the IDs to bind
+     * @throws SQLException if binding fails
+     */
+    private static void bindIds(PreparedStatement stmt, int first, List<Integer> ids) throws SQLException {
+        for (int i = 0; i < ids.size(); i++) {
+            stmt.setInt(first + i, ids.get(i));
+        }
+    }
+    
     /**
      * Maps a ResultSet row to a Lending object.
      * 
@@ -345,7 +736,7 @@ public class LendingRepositoryJDBC implements LendingRepository {
      * @throws SQLException if mapping fails
      */
     private Lending mapResultSetToLending(ResultSet rs) throws SQLException {
-        return new Lending(
+        Lending lending = new Lending(
             rs.getInt("id"),
             rs.getInt("member_id"),
             rs.getInt("book_id"),
@@ -355,5 +746,23 @@ public class LendingRepositoryJDBC implements LendingRepository {
             rs.getTimestamp("created_at").toInstant(),
             rs.getTimestamp("updated_at").toInstant()
         );
+        lending.setVersion(rs.getInt("version"));
+        return lending;
+    }
+
+    /**
+     * Gets the SQL that adds a bound number of days to the due date.
+     */
+    private String dueDatePlusDays() {
+        return connectionFactory.isPostgres() ? "due_date + (? * INTERVAL '1 day')" : "DATE_ADD(due_date, INTERVAL ? DAY)";
+    }
+    
+    private static boolean existsById(Connection conn, int id) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT 1 FROM lending WHERE id = ?")) {
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
     }
 }
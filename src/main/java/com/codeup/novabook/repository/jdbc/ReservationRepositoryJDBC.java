@@ -0,0 +1,183 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.codeup.novabook.repository.jdbc;
+
+import com.codeup.novabook.connection.ConnectionFactory;
+import com.codeup.novabook.domain.Reservation;
+import com.codeup.novabook.exceptions.db.DatabaseException;
+import com.codeup.novabook.repository.ReservationRepository;
+
+import java.sql.*;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * JDBC implementation of ReservationRepository.
+ * Provides database operations for Reservation entities using JDBC.
+ *
+ * @author Adrián Gutiérrez
+ */
+public class ReservationRepositoryJDBC implements ReservationRepository {
+
+    private final ConnectionFactory connectionFactory;
+
+    /**
+     * Constructor that initializes the connection factory.
+     */
+    public ReservationRepositoryJDBC() {
+        this.connectionFactory = ConnectionFactory.getInstance();
+    }
+
+    @Override
+    public Reservation save(Reservation reservation) {
+        String sql = "INSERT INTO reservation (member_id, book_id, status, created_at, ready_at, expires_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+        try (Connection conn = connectionFactory.open();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            stmt.setInt(1, reservation.getMemberId());
+            stmt.setInt(2, reservation.getBookId());
+            stmt.setString(3, reservation.getStatus().name());
+            stmt.setTimestamp(4, Timestamp.from(reservation.getCreatedAt()));
+            stmt.setTimestamp(5, toTimestamp(reservation.getReadyAt()));
+            stmt.setTimestamp(6, toTimestamp(reservation.getExpiresAt()));
+            stmt.setTimestamp(7, Timestamp.from(reservation.getCreatedAt()));
+
+            int affectedRows = stmt.executeUpdate();
+
+            if (affectedRows == 0) {
+                throw new DatabaseException("Creating reservation failed, no rows affected.");
+            }
+
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    reservation.setId(generatedKeys.getInt(1));
+                } else {
+                    throw new DatabaseException("Creating reservation failed, no ID obtained.");
+                }
+            }
+
+            return reservation;
+        } catch (SQLException e) {
+            throw new DatabaseException("Error saving reservation", e);
+        }
+    }
+
+    @Override
+    public Optional<Reservation> findById(int id) {
+        String sql = "SELECT * FROM reservation WHERE id = ?";
+
+        try (Connection conn = connectionFactory.open();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, id);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(mapResultSetToReservation(rs));
+                }
+            }
+
+            return Optional.empty();
+        } catch (SQLException e) {
+            throw new DatabaseException("Error finding reservation by ID", e);
+        }
+    }
+
+    @Override
+    public List<Reservation> findByMemberId(int memberId) {
+        String sql = "SELECT * FROM reservation WHERE member_id = ? ORDER BY created_at DESC, id DESC";
+        List<Reservation> reservations = new ArrayList<>();
+
+        try (Connection conn = connectionFactory.open();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, memberId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    reservations.add(mapResultSetToReservation(rs));
+                }
+            }
+
+            return reservations;
+        } catch (SQLException e) {
+            throw new DatabaseException("Error finding reservations by member ID", e);
+        }
+    }
+
+    @Override
+    public void forEachActive(Consumer<Reservation> consumer) {
+        String sql = "SELECT * FROM reservation WHERE status IN ('WAITING', 'READY') ORDER BY created_at, id";
+
+        try (Connection conn = connectionFactory.open();
+             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                     ResultSet.CONCUR_READ_ONLY)) {
+
+            connectionFactory.enableStreaming(conn, stmt);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(mapResultSetToReservation(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error streaming active reservations", e);
+        }
+    }
+
+    @Override
+    public boolean updateStatus(int id, Reservation.Status expected, Reservation.Status status, Instant readyAt,
+            Instant expiresAt) {
+        String sql = "UPDATE reservation SET status = ?, ready_at = ?, expires_at = ?, updated_at = ? "
+                + "WHERE id = ? AND status = ?";
+
+        try (Connection conn = connectionFactory.open();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, status.name());
+            stmt.setTimestamp(2, toTimestamp(readyAt));
+            stmt.setTimestamp(3, toTimestamp(expiresAt));
+            stmt.setTimestamp(4, Timestamp.from(Instant.now()));
+            stmt.setInt(5, id);
+            stmt.setString(6, expected.name());
+
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            throw new DatabaseException("Error updating reservation status", e);
+        }
+    }
+
+    private static Timestamp toTimestamp(Instant instant) {
+        return instant == null ? null : Timestamp.from(instant);
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+
+    /**
+     * Maps a ResultSet row to a Reservation object.
+     *
+     * @param rs the ResultSet
+     * @return the mapped Reservation object
+     * @throws SQLException if mapping fails
+     */
+    private Reservation mapResultSetToReservation(ResultSet rs) throws SQLException {
+        return new Reservation(
+            rs.getInt("id"),
+            rs.getInt("member_id"),
+            rs.getInt("book_id"),
+            Reservation.Status.valueOf(rs.getString("status")),
+            rs.getTimestamp("created_at").toInstant(),
+            toInstant(rs.getTimestamp("ready_at")),
+            toInstant(rs.getTimestamp("expires_at"))
+        );
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.codeup.novabook.repository.jdbc;
+
+import com.codeup.novabook.connection.ConnectionFactory;
+import com.codeup.novabook.exceptions.db.DatabaseException;
+import com.codeup.novabook.repository.StatsRepository;
+
+import java.sql.*;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JDBC implementation of StatsRepository.
+ * Provides database operations for the statistics counters using JDBC.
+ *
+ * @author Adrián Gutiérrez
+ */
+public class StatsRepositoryJDBC implements StatsRepository {
+
+    private static final String UPSERT_MYSQL = "INSERT INTO stats (name, total, updated_at) VALUES (?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE total = VALUES(total), updated_at = VALUES(updated_at)";
+    private static final String UPSERT_POSTGRES = "INSERT INTO stats (name, total, updated_at) VALUES (?, ?, ?) "
+            + "ON CONFLICT (name) DO UPDATE SET total = EXCLUDED.total, updated_at = EXCLUDED.updated_at";
+    private static final String COUNT_ALL = "SELECT "
+            + "(SELECT COUNT(*) FROM book), "
+            + "(SELECT COUNT(*) FROM member WHERE deleted = false), "
+            + "(SELECT COUNT(*) FROM member WHERE role = 'REGULAR' AND deleted = false), "
+            + "(SELECT COUNT(*) FROM member WHERE role = 'PREMIUM' AND deleted = false), "
+            + "(SELECT COUNT(*) FROM member WHERE active = true AND deleted = false), "
+            + "(SELECT COUNT(*) FROM users WHERE deleted = false), "
+            + "(SELECT COUNT(*) FROM lending), "
+            + "(SELECT COUNT(*) FROM lending WHERE returned = false), "
+            + "(SELECT COUNT(*) FROM lending WHERE returned = false AND due_date < ?)";
+    // Column order of COUNT_ALL
+    private static final String[] COUNT_ALL_NAMES = {
+            BOOKS, MEMBERS, REGULAR_MEMBERS, PREMIUM_MEMBERS, ACTIVE_MEMBERS,
+            USERS, LENDINGS, ACTIVE_LENDINGS, OVERDUE_LENDINGS
+    };
+
+    private final ConnectionFactory connectionFactory;
+
+    /**
+     * Constructor that initializes the connection factory.
+     */
+    public StatsRepositoryJDBC() {
+        this.connectionFactory = ConnectionFactory.getInstance();
+    }
+
+    @Override
+    public Map<String, Long> findAll() {
+        String sql = "SELECT name, total FROM stats";
+        Map<String, Long> counters = new HashMap<>();
+
+        try (Connection conn = connectionFactory.open();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                counters.put(rs.getString("name"), rs.getLong("total"));
+            }
+
+            return counters;
+        } catch (SQLException e) {
+            throw new DatabaseException("Error reading statistics", e);
+        }
+    }
+
+    @Override
+    public void saveAll(Map<String, Long> counters, Instant updatedAt) {
+        if (counters.isEmpty()) {
+            return;
+        }
+        String sql = connectionFactory.isPostgres() ? UPSERT_POSTGRES : UPSERT_MYSQL;
+
+        try (Connection conn = connectionFactory.open()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                Timestamp timestamp = Timestamp.from(updatedAt);
+                for (Map.Entry<String, Long> counter : counters.entrySet()) {
+                    stmt.setString(1, counter.getKey());
+                    stmt.setLong(2, counter.getValue());
+                    stmt.setTimestamp(3, timestamp);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error saving statistics", e);
+        }
+    }
+
+    @Override
+    public Map<String, Long> countFromTables(Instant asOf) {
+        Map<String, Long> counters = new LinkedHashMap<>();
+
+        try (Connection conn = connectionFactory.open();
+             PreparedStatement stmt = conn.prepareStatement(COUNT_ALL)) {
+
+            stmt.setTimestamp(1, Timestamp.from(asOf));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    for (int i = 0; i < COUNT_ALL_NAMES.length; i++) {
+                        counters.put(COUNT_ALL_NAMES[i], rs.getLong(i + 1));
+                    }
+                }
+            }
+
+            return counters;
+        } catch (SQLException e) {
+            throw new DatabaseException("Error counting statistics", e);
+        }
+    }
+}
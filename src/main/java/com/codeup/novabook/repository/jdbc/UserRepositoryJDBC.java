@@ -184,6 +184,24 @@ public class UserRepositoryJDBC implements UserRepository {
         }
     }
     
+    @Override
+    public boolean updatePassword(int id, String expectedHash, String newHash) {
+        String sql = "UPDATE users SET password = ?, updated_at = ? WHERE id = ? AND password = ? AND deleted = false";
+        
+        try (Connection conn = connectionFactory.open();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setString(1, newHash);
+            stmt.setTimestamp(2, Timestamp.from(Instant.now()));
+            stmt.setInt(3, id);
+            stmt.setString(4, expectedHash);
+            
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            throw new DatabaseException("Error updating user password", e);
+        }
+    }
+    
     @Override
     public boolean deleteById(int id) {
         String sql = "UPDATE users SET deleted = true, updated_at = ? WHERE id = ?";
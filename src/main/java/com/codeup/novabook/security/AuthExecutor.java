@@ -0,0 +1,173 @@
+package com.codeup.novabook.security;
+
+import com.codeup.novabook.exceptions.user.AuthenticationBusyException;
+import com.codeup.novabook.infra.config.AppConfig;
+import com.codeup.novabook.infra.metrics.LatencyHistogram;
+import com.codeup.novabook.infra.metrics.MetricsRegistry;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing work on a fixed pool sized to the CPUs, so that a
+ * burst of logins cannot take over the threads that submit them.
+ * <p>
+ * Work waits in a bounded queue. Once the queue is full new work is refused
+ * with an {@link AuthenticationBusyException} instead of piling up, so a
+ * login storm slows down to what the CPUs can hash and the callers are told
+ * to retry. The time spent queued and the time spent hashing are recorded
+ * separately, to tell an undersized pool from an expensive hash.
+ * </p>
+ */
+public class AuthExecutor {
+
+    /** Queued logins allowed when none is configured. */
+    public static final int DEFAULT_QUEUE_CAPACITY = 64;
+
+    private static volatile AuthExecutor instance;
+
+    private final ThreadPoolExecutor pool;
+    private final int queueCapacity;
+    private final LatencyHistogram queueWait;
+    private final LatencyHistogram hashLatency;
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Constructor for injecting dependencies (useful for tests)
+     *
+     * @param threads       number of worker threads
+     * @param queueCapacity number of tasks that may wait for a worker
+     * @param registry      where queue wait and hash latency are recorded
+     */
+    public AuthExecutor(int threads, int queueCapacity, MetricsRegistry registry) {
+        if (threads <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Threads and queue capacity must be positive");
+        }
+        this.queueCapacity = queueCapacity;
+        this.queueWait = registry.histogram("auth.queueWait");
+        this.hashLatency = registry.histogram("auth.hash");
+        AtomicInteger counter = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "auth-worker-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Returns the shared executor, sized from application.properties and
+     * recording into the shared metrics registry.
+     *
+     * @return the singleton AuthExecutor instance
+     */
+    public static AuthExecutor getInstance() {
+        if (instance == null) {
+            synchronized (AuthExecutor.class) {
+                if (instance == null) {
+                    AppConfig config = AppConfig.getInstance();
+                    instance = new AuthExecutor(
+                            config.getInt("auth.threads", Runtime.getRuntime().availableProcessors()),
+                            config.getInt("auth.queue.capacity", DEFAULT_QUEUE_CAPACITY),
+                            MetricsRegistry.getInstance());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Queues a task for a worker.
+     *
+     * @param task the task
+     * @param <T>  the result type
+     * @return a future completed with the task's result, or exceptionally with
+     *         an {@link AuthenticationBusyException} if the queue is full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long queuedAt = System.nanoTime();
+        try {
+            pool.execute(() -> {
+                queueWait.record(System.nanoTime() - queuedAt);
+                try {
+                    future.complete(task.get());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            future.completeExceptionally(new AuthenticationBusyException(pool.getQueue().size()));
+        }
+        return future;
+    }
+
+    /**
+     * Runs a hash on the calling thread and records how long it took.
+     *
+     * @param hash the hashing work
+     * @param <T>  the result type
+     * @return the result of the hash
+     */
+    public <T> T timeHash(Supplier<T> hash) {
+        long start = System.nanoTime();
+        try {
+            return hash.get();
+        } finally {
+            hashLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Gets how long tasks waited for a worker.
+     */
+    public LatencyHistogram getQueueWait() {
+        return queueWait;
+    }
+
+    /**
+     * Gets how long hashes and verifications took.
+     */
+    public LatencyHistogram getHashLatency() {
+        return hashLatency;
+    }
+
+    /**
+     * Gets the number of tasks refused because the queue was full.
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Gets the number of tasks waiting for a worker.
+     */
+    public int getQueueDepth() {
+        return pool.getQueue().size();
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Stops the workers once the queued tasks have run.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return "AuthExecutor[threads=" + pool.getMaximumPoolSize() + ", queued=" + getQueueDepth() + "/"
+                + queueCapacity + ", rejected=" + getRejectedCount() + ", queueWait(" + queueWait
+                + "), hash(" + hashLatency + ")]";
+    }
+}
@@ -0,0 +1,80 @@
+package com.codeup.novabook.security;
+
+import com.codeup.novabook.utils.PasswordUtils;
+
+import java.time.Duration;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Picks the BCrypt cost that fits a verification time budget on the machine
+ * the application runs on.
+ * <p>
+ * Each step of the cost doubles the work, so a few hashes are timed at a
+ * cheap probe cost and the highest cost whose extrapolated time stays within
+ * the budget is chosen. The result never goes below a configured floor, so a
+ * slow terminal cannot weaken the hashes.
+ * </p>
+ */
+public final class BcryptCalibrator {
+
+    private static final Logger LOGGER = Logger.getLogger(BcryptCalibrator.class.getName());
+
+    /** Verification time aimed for when none is configured. */
+    public static final long DEFAULT_TARGET_MILLIS = 250;
+    /** Lowest cost chosen when none is configured, the fixed cost used before calibration. */
+    public static final int DEFAULT_MIN_COST = PasswordUtils.DEFAULT_COST;
+    /** Highest cost chosen when none is configured. */
+    public static final int DEFAULT_MAX_COST = 16;
+
+    private static final int PROBE_COST = 8;
+    private static final int PROBE_RUNS = 3;
+
+    private BcryptCalibrator() {
+    }
+
+    /**
+     * Finds the highest cost whose hash time fits the budget.
+     *
+     * @param budget  the time one verification may take
+     * @param minCost the lowest cost to return
+     * @param maxCost the highest cost to return
+     * @return the chosen cost
+     */
+    public static int calibrate(Duration budget, int minCost, int maxCost) {
+        if (minCost < PasswordUtils.MIN_COST || maxCost > PasswordUtils.MAX_COST || minCost > maxCost) {
+            throw new IllegalArgumentException("Invalid cost range " + minCost + ".." + maxCost);
+        }
+        // The fastest of a few runs, so JIT warm-up and a busy CPU do not count
+        long probeNanos = Long.MAX_VALUE;
+        for (int i = 0; i < PROBE_RUNS; i++) {
+            long start = System.nanoTime();
+            PasswordUtils.hashPassword("calibration", PROBE_COST);
+            probeNanos = Math.min(probeNanos, System.nanoTime() - start);
+        }
+        return chooseCost(probeNanos, PROBE_COST, budget.toNanos(), minCost, maxCost);
+    }
+
+    /**
+     * Extrapolates a measured hash time to higher costs.
+     *
+     * @param probeNanos  time of one hash at the probe cost
+     * @param probeCost   the probe cost
+     * @param budgetNanos the time one verification may take
+     * @param minCost     the lowest cost to return
+     * @param maxCost     the highest cost to return
+     * @return the chosen cost
+     */
+    static int chooseCost(long probeNanos, int probeCost, long budgetNanos, int minCost, int maxCost) {
+        int cost = probeCost;
+        double nanos = Math.max(probeNanos, 1);
+        while (cost < maxCost && nanos * 2 <= budgetNanos) {
+            cost++;
+            nanos *= 2;
+        }
+        int chosen = Math.max(minCost, Math.min(cost, maxCost));
+        LOGGER.log(Level.INFO, "BCrypt cost {0} chosen for a {1} ms budget (cost {2} took {3} us)",
+                new Object[] { chosen, budgetNanos / 1_000_000, probeCost, probeNanos / 1_000 });
+        return chosen;
+    }
+}
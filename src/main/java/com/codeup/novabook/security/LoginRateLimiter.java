@@ -0,0 +1,126 @@
+package com.codeup.novabook.security;
+
+import com.codeup.novabook.exceptions.user.TooManyLoginAttemptsException;
+import com.codeup.novabook.infra.config.AppConfig;
+import com.codeup.novabook.infra.time.SlidingWindowLimiter;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Throttles login attempts per account and per source, before any database
+ * lookup or password hash is paid for.
+ * <p>
+ * The account limit stops password guessing against one email; the source
+ * limit stops one client from spraying guesses across many emails. Both
+ * count every attempt, successful or not, in a sliding window, so a caller
+ * that stays under the limits is never affected.
+ * </p>
+ */
+public class LoginRateLimiter {
+
+    /** Source used for logins typed into the desktop application. */
+    public static final String LOCAL_SOURCE = "local";
+
+    /** Attempts per email allowed when none is configured. */
+    public static final int DEFAULT_EMAIL_MAX = 10;
+    /** Length of the per email window when none is configured. */
+    public static final long DEFAULT_EMAIL_WINDOW_SECONDS = 300;
+    /** Attempts per source allowed when none is configured. */
+    public static final int DEFAULT_SOURCE_MAX = 60;
+    /** Length of the per source window when none is configured. */
+    public static final long DEFAULT_SOURCE_WINDOW_SECONDS = 60;
+
+    private static final int BUCKETS = 10;
+    private static volatile LoginRateLimiter instance;
+
+    private final SlidingWindowLimiter byEmail;
+    private final SlidingWindowLimiter bySource;
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejectedByEmail = new LongAdder();
+    private final LongAdder rejectedBySource = new LongAdder();
+
+    /**
+     * Constructor for injecting dependencies (useful for tests)
+     *
+     * @param clock        clock the windows follow
+     * @param emailMax     attempts allowed per email within its window
+     * @param emailWindow  length of the per email window
+     * @param sourceMax    attempts allowed per source within its window
+     * @param sourceWindow length of the per source window
+     */
+    public LoginRateLimiter(Clock clock, int emailMax, Duration emailWindow, int sourceMax, Duration sourceWindow) {
+        this.byEmail = new SlidingWindowLimiter(clock, emailMax, emailWindow, BUCKETS);
+        this.bySource = new SlidingWindowLimiter(clock, sourceMax, sourceWindow, BUCKETS);
+    }
+
+    /**
+     * Returns the shared limiter, with thresholds read from application.properties.
+     *
+     * @return the singleton LoginRateLimiter instance
+     */
+    public static LoginRateLimiter getInstance() {
+        if (instance == null) {
+            synchronized (LoginRateLimiter.class) {
+                if (instance == null) {
+                    AppConfig config = AppConfig.getInstance();
+                    instance = new LoginRateLimiter(Clock.systemUTC(),
+                            config.getInt("auth.rateLimit.email.max", DEFAULT_EMAIL_MAX),
+                            Duration.ofSeconds(config.getLong("auth.rateLimit.email.windowSeconds",
+                                    DEFAULT_EMAIL_WINDOW_SECONDS)),
+                            config.getInt("auth.rateLimit.source.max", DEFAULT_SOURCE_MAX),
+                            Duration.ofSeconds(config.getLong("auth.rateLimit.source.windowSeconds",
+                                    DEFAULT_SOURCE_WINDOW_SECONDS)));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Counts a login attempt, refusing it if either limit is reached.
+     *
+     * @param email  the email being logged into
+     * @param source where the attempt comes from, such as a client address
+     * @throws TooManyLoginAttemptsException if the attempt is refused
+     */
+    public void acquire(String email, String source) {
+        // The source is checked first so a sprayer does not use up its victims' allowance
+        if (!bySource.tryAcquire(source == null ? LOCAL_SOURCE : source)) {
+            rejectedBySource.increment();
+            throw new TooManyLoginAttemptsException(bySource.getRetryAfter());
+        }
+        if (!byEmail.tryAcquire(email.trim().toLowerCase(Locale.ROOT))) {
+            rejectedByEmail.increment();
+            throw new TooManyLoginAttemptsException(byEmail.getRetryAfter());
+        }
+        allowed.increment();
+    }
+
+    public long getAllowedCount() {
+        return allowed.sum();
+    }
+
+    public long getRejectedByEmailCount() {
+        return rejectedByEmail.sum();
+    }
+
+    public long getRejectedBySourceCount() {
+        return rejectedBySource.sum();
+    }
+
+    /**
+     * Gets the number of emails and sources with attempts in their windows.
+     */
+    public int getTrackedKeys() {
+        return byEmail.getTrackedKeys() + bySource.getTrackedKeys();
+    }
+
+    @Override
+    public String toString() {
+        return "LoginRateLimiter[allowed=" + getAllowedCount() + ", rejectedByEmail=" + getRejectedByEmailCount()
+                + ", rejectedBySource=" + getRejectedBySourceCount() + ", trackedKeys=" + getTrackedKeys() + "]";
+    }
+}
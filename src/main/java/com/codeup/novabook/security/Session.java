@@ -0,0 +1,84 @@
+package com.codeup.novabook.security;
+
+import com.codeup.novabook.domain.User;
+
+import java.time.Instant;
+
+/**
+ * A logged-in user, identified by an opaque token. Carries what is needed to
+ * authorise requests without reading the user again.
+ */
+public final class Session {
+
+    private final String token;
+    private final int userId;
+    private final String name;
+    private final String email;
+    private final String role;
+    private final String accessLevel;
+    private final Instant createdAt;
+    private volatile Instant lastSeenAt;
+
+    Session(String token, User user, Instant createdAt) {
+        this.token = token;
+        this.userId = user.getId();
+        this.name = user.getName();
+        this.email = user.getEmail();
+        this.role = user.getRole();
+        this.accessLevel = user.getAccessLevel();
+        this.createdAt = createdAt;
+        this.lastSeenAt = createdAt;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public String getAccessLevel() {
+        return accessLevel;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getLastSeenAt() {
+        return lastSeenAt;
+    }
+
+    void touch(Instant now) {
+        lastSeenAt = now;
+    }
+
+    /**
+     * Checks whether the session allows changes.
+     *
+     * @return true for READ_WRITE access
+     */
+    public boolean hasWriteAccess() {
+        return "READ_WRITE".equals(accessLevel);
+    }
+
+    @Override
+    public String toString() {
+        // The token is a credential and is never printed
+        return "Session{userId=" + userId + ", role='" + role + "', accessLevel='" + accessLevel
+                + "', createdAt=" + createdAt + ", lastSeenAt=" + lastSeenAt + "}";
+    }
+}
@@ -0,0 +1,218 @@
+package com.codeup.novabook.security;
+
+import com.codeup.novabook.domain.User;
+import com.codeup.novabook.infra.config.AppConfig;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Issues and checks login session tokens, so that a user pays for a BCrypt
+ * verification once per login rather than once per request.
+ * <p>
+ * Tokens are 256 random bits, URL-safe Base64 encoded, and mean nothing on
+ * their own. A session ends after a period without use, after a maximum
+ * age regardless of use, or when its user is deactivated, changes password
+ * or changes role. At most a configured number of sessions are kept; when
+ * full, expired sessions are dropped first and then the least recently used.
+ * </p>
+ */
+public class SessionManager {
+
+    /** Idle time that ends a session when none is configured. */
+    public static final long DEFAULT_IDLE_MINUTES = 30;
+    /** Maximum session age when none is configured. */
+    public static final long DEFAULT_MAX_AGE_HOURS = 8;
+    /** Maximum number of sessions when none is configured. */
+    public static final int DEFAULT_MAX_SESSIONS = 10_000;
+
+    private static final int TOKEN_BYTES = 32;
+    private static volatile SessionManager instance;
+
+    private final Clock clock;
+    private final Duration idleTimeout;
+    private final Duration maxAge;
+    private final int maxSessions;
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<String>> tokensByUser = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for injecting dependencies (useful for tests)
+     *
+     * @param clock       clock used for expiry
+     * @param idleTimeout idle time that ends a session
+     * @param maxAge      age that ends a session
+     * @param maxSessions number of sessions kept
+     */
+    public SessionManager(Clock clock, Duration idleTimeout, Duration maxAge, int maxSessions) {
+        if (maxSessions <= 0) {
+            throw new IllegalArgumentException("Maximum sessions must be positive");
+        }
+        this.clock = clock;
+        this.idleTimeout = idleTimeout;
+        this.maxAge = maxAge;
+        this.maxSessions = maxSessions;
+    }
+
+    /**
+     * Returns the shared manager, with limits read from application.properties.
+     *
+     * @return the singleton SessionManager instance
+     */
+    public static SessionManager getInstance() {
+        if (instance == null) {
+            synchronized (SessionManager.class) {
+                if (instance == null) {
+                    AppConfig config = AppConfig.getInstance();
+                    instance = new SessionManager(Clock.systemUTC(),
+                            Duration.ofMinutes(config.getLong("auth.session.idleMinutes", DEFAULT_IDLE_MINUTES)),
+                            Duration.ofHours(config.getLong("auth.session.maxAgeHours", DEFAULT_MAX_AGE_HOURS)),
+                            config.getInt("auth.session.max", DEFAULT_MAX_SESSIONS));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Starts a session for an authenticated user.
+     *
+     * @param user the user
+     * @return the new session
+     */
+    public Session issue(User user) {
+        if (sessions.size() >= maxSessions) {
+            makeRoom();
+        }
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Session session = new Session(token, user, clock.instant());
+        sessions.put(token, session);
+        // Added inside compute so a concurrent remove cannot drop the set first
+        tokensByUser.compute(user.getId(), (id, tokens) -> {
+            Set<String> userTokens = tokens != null ? tokens : ConcurrentHashMap.newKeySet();
+            userTokens.add(token);
+            return userTokens;
+        });
+        return session;
+    }
+
+    /**
+     * Finds the live session for a token and marks it as used.
+     *
+     * @param token the session token
+     * @return the session, or empty if unknown or expired
+     */
+    public Optional<Session> validate(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            return Optional.empty();
+        }
+        Instant now = clock.instant();
+        if (isExpired(session, now)) {
+            remove(session);
+            return Optional.empty();
+        }
+        session.touch(now);
+        return Optional.of(session);
+    }
+
+    /**
+     * Ends a session.
+     *
+     * @param token the session token
+     * @return true if the session existed
+     */
+    public boolean invalidate(String token) {
+        Session session = token == null ? null : sessions.get(token);
+        return session != null && remove(session);
+    }
+
+    /**
+     * Ends every session of a user.
+     *
+     * @param userId the user ID
+     * @return the number of sessions ended
+     */
+    public int invalidateUser(int userId) {
+        Set<String> tokens = tokensByUser.remove(userId);
+        if (tokens == null) {
+            return 0;
+        }
+        int removed = 0;
+        for (String token : tokens) {
+            if (sessions.remove(token) != null) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Drops every expired session.
+     *
+     * @return the number of sessions dropped
+     */
+    public int purgeExpired() {
+        Instant now = clock.instant();
+        int removed = 0;
+        for (Session session : sessions.values()) {
+            if (isExpired(session, now) && remove(session)) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Gets the number of sessions kept, including expired ones not dropped yet.
+     *
+     * @return the number of sessions
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    private void makeRoom() {
+        if (purgeExpired() > 0) {
+            return;
+        }
+        Session oldest = null;
+        for (Session session : sessions.values()) {
+            if (oldest == null || session.getLastSeenAt().isBefore(oldest.getLastSeenAt())) {
+                oldest = session;
+            }
+        }
+        if (oldest != null) {
+            remove(oldest);
+        }
+    }
+
+    private boolean isExpired(Session session, Instant now) {
+        return !now.isBefore(session.getLastSeenAt().plus(idleTimeout))
+                || !now.isBefore(session.getCreatedAt().plus(maxAge));
+    }
+
+    private boolean remove(Session session) {
+        if (!sessions.remove(session.getToken(), session)) {
+            return false;
+        }
+        tokensByUser.computeIfPresent(session.getUserId(), (id, tokens) -> {
+            tokens.remove(session.getToken());
+            return tokens.isEmpty() ? null : tokens;
+        });
+        return true;
+    }
+}
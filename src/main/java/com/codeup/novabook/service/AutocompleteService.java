@@ -0,0 +1,67 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Interface.java to edit this template
+ */
+package com.codeup.novabook.service;
+
+import com.codeup.novabook.domain.Book;
+import java.util.List;
+
+/**
+ * Service interface for book search autocomplete.
+ * Keeps an in-memory prefix index over titles, authors and ISBNs that is
+ * refreshed incrementally whenever the catalog changes.
+ *
+ * @author Adrián Gutiérrez
+ */
+public interface AutocompleteService {
+
+    /**
+     * Suggests book titles starting with the given prefix.
+     * Any word of the title can be used as the start of the prefix.
+     *
+     * @param prefix the text typed by the user
+     * @param limit the maximum number of suggestions
+     * @return list of matching titles, best first
+     */
+    List<String> suggestTitles(String prefix, int limit);
+
+    /**
+     * Suggests author names starting with the given prefix.
+     * Any word of the name can be used as the start of the prefix.
+     *
+     * @param prefix the text typed by the user
+     * @param limit the maximum number of suggestions
+     * @return list of matching authors, best first
+     */
+    List<String> suggestAuthors(String prefix, int limit);
+
+    /**
+     * Suggests ISBNs starting with the given prefix.
+     * Hyphens and spaces in the prefix are ignored.
+     *
+     * @param prefix the ISBN digits typed by the user
+     * @param limit the maximum number of suggestions
+     * @return list of matching ISBNs as stored in the catalog
+     */
+    List<String> suggestIsbns(String prefix, int limit);
+
+    /**
+     * Adds a book to the index, replacing any previous entry with the same ID.
+     *
+     * @param book the book that was added or updated
+     */
+    void indexBook(Book book);
+
+    /**
+     * Removes a book from the index.
+     *
+     * @param bookId the ID of the removed book
+     */
+    void removeBook(int bookId);
+
+    /**
+     * Discards the index and reloads it from the book catalog.
+     */
+    void rebuild();
+}
@@ -5,6 +5,7 @@
 package com.codeup.novabook.service;
 
 import com.codeup.novabook.domain.Book;
+import com.codeup.novabook.exceptions.db.ConcurrentUpdateException;
 import java.util.List;
 import java.util.Optional;
 
@@ -78,9 +79,24 @@ public interface BookService {
      * @param book the book to update
      * @return the updated book
      * @throws IllegalArgumentException if book is invalid
+     * @throws ConcurrentUpdateException if the book was changed since it was read
      */
     Book updateBook(Book book);
     
+    /**
+     * Saves the edits a user made to a book, keeping changes other users
+     * saved meanwhile to fields this user left alone (such as the stock
+     * moving with loans). Each attempt re-reads the book, so a concurrent
+     * update only causes a retry.
+     * 
+     * @param asRead the book as it was shown to the user
+     * @param edited the book with the user's edits
+     * @return the updated book
+     * @throws IllegalArgumentException if the edits are invalid or the book no longer exists
+     * @throws ConcurrentUpdateException if another user changed a field that was edited here too
+     */
+    Book applyEdits(Book asRead, Book edited);
+    
     /**
      * Removes a book from the library.
      * 
@@ -5,9 +5,12 @@
 package com.codeup.novabook.service;
 
 import com.codeup.novabook.domain.Lending;
+import com.codeup.novabook.domain.LendingOutcome;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service interface for Lending business logic operations.
@@ -36,6 +39,28 @@ public interface LendingService {
      */
     boolean returnBook(int lendingId);
 
+    /**
+     * Returns several books at once, for example a book-drop batch. All
+     * returns and stock increments are applied in one transaction.
+     * 
+     * @param lendingIds the lending IDs to return
+     * @return one outcome per requested ID, in request order
+     */
+    List<LendingOutcome> checkinAll(List<Integer> lendingIds);
+
+    /**
+     * Lends several books to one member at once. All lendings and stock
+     * decrements are applied in one transaction; books that are lent out,
+     * out of stock or over the member's limit are skipped.
+     * 
+     * @param memberId    the member ID
+     * @param bookIds     the book IDs to lend
+     * @param lendingDays the number of days for lending (default: 14)
+     * @return one outcome per requested book, in request order
+     * @throws IllegalArgumentException if the member does not exist
+     */
+    List<LendingOutcome> checkoutAll(int memberId, List<Integer> bookIds, int lendingDays);
+
     /**
      * Finds a lending by ID.
      * 
@@ -97,6 +122,14 @@ public interface LendingService {
      */
     List<Lending> getLendingsDueBetween(Instant startDate, Instant endDate);
 
+    /**
+     * Gets a member's active lendings that are due soon but not yet overdue.
+     * 
+     * @param memberId the member ID
+     * @return list of the member's lendings due soon
+     */
+    List<Lending> getDueSoonLendingsByMember(int memberId);
+
     /**
      * Extends a lending period.
      * 
@@ -106,15 +139,40 @@ public interface LendingService {
      */
     boolean extendLending(int lendingId, int additionalDays);
 
+    /**
+     * Extends every active lending, e.g. while the branch is closed.
+     *
+     * @param additionalDays additional days to extend
+     * @return the number of lendings extended
+     */
+    int extendAllActiveLendings(int additionalDays);
+
     /**
      * Checks if a member can borrow more books.
      * 
      * @param memberId the member ID
-     * @param maxBooks the maximum number of books allowed (default: 3)
+     * @param maxBooks the maximum number of books allowed
      * @return true if member can borrow more books
      */
     boolean canMemberBorrowMoreBooks(int memberId, int maxBooks);
 
+    /**
+     * Checks if a member can borrow more books under the limit of their role.
+     * 
+     * @param memberId the member ID
+     * @return true if member can borrow more books
+     */
+    boolean canMemberBorrowMoreBooks(int memberId);
+
+    /**
+     * Gets the maximum number of books a member may borrow at once, which
+     * depends on the member's role.
+     * 
+     * @param memberId the member ID
+     * @return the borrowing limit
+     */
+    int getMaxBooks(int memberId);
+
     /**
      * Checks if a book is currently lent out.
      * 
@@ -123,6 +181,14 @@ public interface LendingService {
      */
     boolean isBookCurrentlyLent(int bookId);
 
+    /**
+     * Finds which of the given books are currently lent out, in one pass.
+     * 
+     * @param bookIds the book IDs to check
+     * @return the subset of the given IDs that are currently lent out
+     */
+    Set<Integer> findCurrentlyLentBookIds(Collection<Integer> bookIds);
+
     /**
      * Calculates fine for overdue lending.
      * 
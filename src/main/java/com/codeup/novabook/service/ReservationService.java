@@ -0,0 +1,79 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Interface.java to edit this template
+ */
+package com.codeup.novabook.service;
+
+import com.codeup.novabook.domain.Reservation;
+import java.util.List;
+
+/**
+ * Service interface for Reservation business logic operations.
+ * Defines the contract for placing and managing holds on lent-out books.
+ *
+ * @author Adrián Gutiérrez
+ */
+public interface ReservationService {
+
+    /**
+     * Places a hold on a book that is lent out or kept for other members.
+     *
+     * @param memberId the member ID
+     * @param bookId   the book ID
+     * @return the created reservation
+     * @throws IllegalArgumentException if validation fails, the book can be
+     *                                  borrowed right away or the member
+     *                                  already has a hold on it
+     */
+    Reservation placeHold(int memberId, int bookId);
+
+    /**
+     * Cancels an active hold.
+     *
+     * @param reservationId the reservation ID
+     * @return true if the hold was active and is now cancelled
+     */
+    boolean cancelHold(int reservationId);
+
+    /**
+     * Gets a member's active holds.
+     *
+     * @param memberId the member ID
+     * @return the WAITING and READY reservations, oldest first
+     */
+    List<Reservation> getActiveHoldsByMember(int memberId);
+
+    /**
+     * Gets all holds of a member, including closed ones.
+     *
+     * @param memberId the member ID
+     * @return the member's reservations, newest first
+     */
+    List<Reservation> getHoldHistoryByMember(int memberId);
+
+    /**
+     * Gets the place of a hold in its book's queue.
+     *
+     * @param reservationId the reservation ID
+     * @return 1 for the next in line, 0 if a copy is kept for it, or -1 if
+     *         the hold is not active
+     */
+    int getQueuePosition(int reservationId);
+
+    /**
+     * Checks whether a returned copy of a book is kept for another member.
+     *
+     * @param bookId   the book ID
+     * @param memberId the member who wants to borrow it
+     * @return true if the member cannot borrow the book because of a hold
+     */
+    boolean isHeldForAnotherMember(int bookId, int memberId);
+
+    /**
+     * Gets the number of members waiting for a book.
+     *
+     * @param bookId the book ID
+     * @return the number of waiting holds
+     */
+    int getQueueLength(int bookId);
+}
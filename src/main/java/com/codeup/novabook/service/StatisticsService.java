@@ -0,0 +1,71 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Interface.java to edit this template
+ */
+package com.codeup.novabook.service;
+
+/**
+ * Service interface for the library statistics dashboards.
+ * Every figure is read from in-memory counters, without querying the database.
+ *
+ * @author Adrián Gutiérrez
+ */
+public interface StatisticsService {
+
+    /**
+     * Gets the number of books.
+     *
+     * @return the number of books
+     */
+    long getBookCount();
+
+    /**
+     * Gets the number of members.
+     *
+     * @return the number of members
+     */
+    long getMemberCount();
+
+    /**
+     * Gets the number of members with a role.
+     *
+     * @param role REGULAR or PREMIUM
+     * @return the number of members with that role
+     */
+    long getMemberCountByRole(String role);
+
+    /**
+     * Gets the number of active members.
+     *
+     * @return the number of active members
+     */
+    long getActiveMemberCount();
+
+    /**
+     * Gets the number of users.
+     *
+     * @return the number of users
+     */
+    long getUserCount();
+
+    /**
+     * Gets the number of lendings ever made.
+     *
+     * @return the number of lendings
+     */
+    long getLendingCount();
+
+    /**
+     * Gets the number of lendings not returned yet.
+     *
+     * @return the number of active lendings
+     */
+    long getActiveLendingCount();
+
+    /**
+     * Gets the number of active lendings past their due date.
+     *
+     * @return the number of overdue lendings
+     */
+    long getOverdueLendingCount();
+}
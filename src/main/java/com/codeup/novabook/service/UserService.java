@@ -5,8 +5,10 @@
 package com.codeup.novabook.service;
 
 import com.codeup.novabook.domain.User;
+import com.codeup.novabook.security.Session;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service interface for User business logic operations.
@@ -34,6 +36,73 @@ public interface UserService {
      */
     Optional<User> authenticateUser(String email, String password);
     
+    /**
+     * Authenticates a user on the authentication worker pool, leaving the
+     * calling thread free while the password is verified.
+     * 
+     * @param email the user's email
+     * @param password the user's password
+     * @return a future with the user if authentication succeeds, completed
+     *         exceptionally with an AuthenticationBusyException if too many
+     *         logins are already waiting
+     * @throws IllegalArgumentException if the email or password is missing
+     */
+    CompletableFuture<Optional<User>> authenticateUserAsync(String email, String password);
+    
+    /**
+     * Authenticates a user on the authentication worker pool, counting the
+     * attempt against the login limits of the email and of its source.
+     * 
+     * @param email the user's email
+     * @param password the user's password
+     * @param source where the attempt comes from, such as a client address
+     * @return a future with the user if authentication succeeds, completed
+     *         exceptionally with a TooManyLoginAttemptsException if a limit
+     *         is reached or an AuthenticationBusyException if too many
+     *         logins are already waiting
+     * @throws IllegalArgumentException if the email or password is missing
+     */
+    CompletableFuture<Optional<User>> authenticateUserAsync(String email, String password, String source);
+    
+    /**
+     * Authenticates a user and starts a session, so later requests can
+     * present the session token instead of the password.
+     * 
+     * @param email the user's email
+     * @param password the user's password
+     * @return a future with the new session if authentication succeeds
+     * @throws IllegalArgumentException if the email or password is missing
+     */
+    CompletableFuture<Optional<Session>> createSession(String email, String password);
+    
+    /**
+     * Authenticates a user and starts a session, counting the attempt
+     * against the login limits of the email and of its source.
+     * 
+     * @param email the user's email
+     * @param password the user's password
+     * @param source where the attempt comes from, such as a client address
+     * @return a future with the new session if authentication succeeds
+     * @throws IllegalArgumentException if the email or password is missing
+     */
+    CompletableFuture<Optional<Session>> createSession(String email, String password, String source);
+    
+    /**
+     * Finds the live session for a token.
+     * 
+     * @param token the session token
+     * @return Optional containing the session if it exists and has not expired
+     */
+    Optional<Session> findSession(String token);
+    
+    /**
+     * Ends a session (logout).
+     * 
+     * @param token the session token
+     * @return true if the session existed
+     */
+    boolean endSession(String token);
+    
     /**
      * Finds a user by ID.
      * 
@@ -0,0 +1,325 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.codeup.novabook.service.impl;
+
+import com.codeup.novabook.domain.Book;
+import com.codeup.novabook.infra.collections.IntArrayList;
+import com.codeup.novabook.infra.collections.IntObjectMap;
+import com.codeup.novabook.infra.collections.SortedLongIntMap;
+import com.codeup.novabook.infra.jfr.SearchEvent;
+import com.codeup.novabook.infra.metrics.Timed;
+import com.codeup.novabook.infra.search.PrefixTrie;
+import com.codeup.novabook.repository.BookRepository;
+import com.codeup.novabook.repository.jdbc.BookRepositoryJDBC;
+import com.codeup.novabook.service.AutocompleteService;
+import com.codeup.novabook.utils.IsbnCodec;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Service implementation for book search autocomplete.
+ * The index is shared by every part of the application through
+ * {@link #getInstance()} and is loaded from the catalog on first use.
+ *
+ * @author Adrián Gutiérrez
+ */
+public class AutocompleteServiceImpl implements AutocompleteService {
+
+    private static final Logger LOGGER = Logger.getLogger(AutocompleteServiceImpl.class.getName());
+    private static final int TOP_K = 10;
+    private static final int ISBN13_DIGITS = 13;
+    private static final int ISBN10_BODY_DIGITS = 9;
+    private static volatile AutocompleteServiceImpl instance;
+
+    private final BookRepository bookRepository;
+    private final PrefixTrie titles = new PrefixTrie(TOP_K);
+    private final PrefixTrie authors = new PrefixTrie(TOP_K);
+    // ISBN-13 key -> book id; ISBN prefixes are contiguous key ranges
+    private final SortedLongIntMap isbns = new SortedLongIntMap(0);
+    private final IntObjectMap<IndexedBook> indexedBooks = new IntObjectMap<>();
+    private volatile boolean loaded;
+
+    /**
+     * Constructor for injecting a BookRepository (useful for tests)
+     */
+    public AutocompleteServiceImpl(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    /**
+     * Returns the shared autocomplete index backed by the JDBC repository.
+     *
+     * @return the singleton AutocompleteServiceImpl instance
+     */
+    public static AutocompleteServiceImpl getInstance() {
+        if (instance == null) {
+            synchronized (AutocompleteServiceImpl.class) {
+                if (instance == null) {
+                    instance = new AutocompleteServiceImpl(Timed.wrap(BookRepository.class, new BookRepositoryJDBC()));
+                }
+            }
+        }
+        return instance;
+    }
+
+    @Override
+    public List<String> suggestTitles(String prefix, int limit) {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        boolean cacheHit = loaded;
+        ensureLoaded();
+        return commit(event, "suggestTitles", prefix, cacheHit, titles.suggest(normalizeText(prefix), limit));
+    }
+
+    @Override
+    public List<String> suggestAuthors(String prefix, int limit) {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        boolean cacheHit = loaded;
+        ensureLoaded();
+        return commit(event, "suggestAuthors", prefix, cacheHit, authors.suggest(normalizeText(prefix), limit));
+    }
+
+    @Override
+    public List<String> suggestIsbns(String prefix, int limit) {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        boolean cacheHit = loaded;
+        ensureLoaded();
+        return commit(event, "suggestIsbns", prefix, cacheHit, findIsbns(prefix, limit));
+    }
+
+    private List<String> findIsbns(String prefix, int limit) {
+        String digits = isbnDigits(prefix);
+        if (digits.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        IntArrayList bookIds = new IntArrayList(limit);
+        synchronized (this) {
+            boolean endsWithX = digits.charAt(digits.length() - 1) == 'X';
+            if (!endsWithX && digits.length() <= ISBN13_DIGITS) {
+                collectRange(digits, limit, bookIds);
+            }
+            // Also match books by their ISBN-10 form, which is the ISBN-13 without "978"
+            if (!endsWithX && digits.length() <= ISBN10_BODY_DIGITS) {
+                collectRange("978" + digits, limit, bookIds);
+            } else if (digits.length() == 10) {
+                long key = IsbnCodec.toKey(digits);
+                if (key != IsbnCodec.NO_KEY && isbns.containsKey(key) && !bookIds.contains(isbns.get(key))) {
+                    bookIds.add(isbns.get(key));
+                }
+            }
+
+            List<String> result = new ArrayList<>(bookIds.size());
+            for (int i = 0; i < bookIds.size() && i < limit; i++) {
+                result.add(indexedBooks.get(bookIds.get(i)).isbn);
+            }
+            return result;
+        }
+    }
+
+    @Override
+    public synchronized void indexBook(Book book) {
+        if (book == null || book.getId() <= 0 || !loaded) {
+            // Books added before the first lookup are picked up by the initial load
+            return;
+        }
+        unindex(book.getId());
+        index(new IndexedBook(book));
+    }
+
+    @Override
+    public synchronized void removeBook(int bookId) {
+        if (loaded) {
+            unindex(bookId);
+        }
+    }
+
+    @Override
+    public synchronized void rebuild() {
+        titles.clear();
+        authors.clear();
+        isbns.clear();
+        indexedBooks.clear();
+
+        List<Book> books = bookRepository.findAll();
+        for (Book book : books) {
+            index(new IndexedBook(book));
+        }
+        loaded = true;
+        LOGGER.log(Level.INFO, "Autocomplete index loaded with {0} books", books.size());
+    }
+
+    private static List<String> commit(SearchEvent event, String kind, String prefix, boolean cacheHit,
+            List<String> results) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.kind = kind;
+            event.queryLength = prefix == null ? 0 : prefix.length();
+            event.results = results.size();
+            event.cacheHit = cacheHit;
+            event.commit();
+        }
+        return results;
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    private void index(IndexedBook book) {
+        indexedBooks.put(book.id, book);
+        for (String key : book.titleKeys) {
+            titles.insert(key, book.title);
+        }
+        for (String key : book.authorKeys) {
+            authors.insert(key, book.author);
+        }
+        if (book.isbnKey != IsbnCodec.NO_KEY) {
+            isbns.put(book.isbnKey, book.id);
+        }
+    }
+
+    private void unindex(int bookId) {
+        IndexedBook book = indexedBooks.remove(bookId);
+        if (book == null) {
+            return;
+        }
+        for (String key : book.titleKeys) {
+            titles.remove(key, book.title);
+        }
+        for (String key : book.authorKeys) {
+            authors.remove(key, book.author);
+        }
+        if (book.isbnKey != IsbnCodec.NO_KEY && isbns.get(book.isbnKey) == book.id) {
+            isbns.remove(book.isbnKey);
+        }
+    }
+
+    /**
+     * Builds the keys for a title or name: the full text and every suffix
+     * starting at a word boundary, so "java" also finds "Effective Java".
+     */
+    private static List<String> wordKeys(String text) {
+        String normalized = normalizeText(text);
+        List<String> keys = new ArrayList<>();
+        if (normalized.isEmpty()) {
+            return keys;
+        }
+        keys.add(normalized);
+        for (int i = 1; i < normalized.length(); i++) {
+            if (normalized.charAt(i - 1) == ' ') {
+                keys.add(normalized.substring(i));
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Lower-cases text, strips accents and collapses whitespace.
+     */
+    private static String normalizeText(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                pendingSpace = sb.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                sb.append(' ');
+                pendingSpace = false;
+            }
+            sb.append(Character.toLowerCase(c));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Adds the ids of books whose ISBN-13 starts with the given digits, in
+     * ISBN order, until the limit is reached.
+     */
+    private void collectRange(String digitPrefix, int limit, IntArrayList bookIds) {
+        long scale = 1;
+        for (int i = digitPrefix.length(); i < ISBN13_DIGITS; i++) {
+            scale *= 10;
+        }
+        long from = Long.parseLong(digitPrefix) * scale;
+        long to = from + scale;
+        for (int i = isbns.ceilingIndex(from); i < isbns.size() && isbns.keyAt(i) < to; i++) {
+            if (bookIds.size() >= limit) {
+                return;
+            }
+            int bookId = isbns.valueAt(i);
+            if (!bookIds.contains(bookId)) {
+                bookIds.add(bookId);
+            }
+        }
+    }
+
+    /**
+     * Keeps only the digits of a typed ISBN prefix.
+     */
+    private static String isbnDigits(String prefix) {
+        if (prefix == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(prefix.length());
+        for (int i = 0; i < prefix.length(); i++) {
+            char c = prefix.charAt(i);
+            if (c >= '0' && c <= '9') {
+                sb.append(c);
+            } else if ((c == 'x' || c == 'X') && sb.length() == ISBN10_BODY_DIGITS) {
+                // A complete ISBN-10 ending in X: look it up by its key instead
+                return IsbnCodec.isValid(prefix) ? sb.append('X').toString() : "";
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Snapshot of the indexed fields of a book, so it can be removed later
+     * without querying the database.
+     */
+    private static final class IndexedBook {
+        private final int id;
+        private final String title;
+        private final String author;
+        private final String isbn;
+        private final List<String> titleKeys;
+        private final List<String> authorKeys;
+        private final long isbnKey;
+
+        private IndexedBook(Book book) {
+            this.id = book.getId();
+            this.title = book.getTitle();
+            this.author = book.getAuthor();
+            this.isbn = book.getIsbn();
+            this.titleKeys = wordKeys(title);
+            this.authorKeys = wordKeys(author);
+            this.isbnKey = IsbnCodec.toKey(isbn);
+        }
+    }
+}
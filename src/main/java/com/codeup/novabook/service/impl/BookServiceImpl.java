@@ -4,17 +4,26 @@
  */
 package com.codeup.novabook.service.impl;
 
+import com.codeup.novabook.cache.AvailabilityLedger;
+import com.codeup.novabook.cache.IsbnBloomFilter;
+import com.codeup.novabook.cache.LibraryCounters;
 import com.codeup.novabook.domain.Book;
 import com.codeup.novabook.exceptions.book.DuplicateISBNException;
 import com.codeup.novabook.exceptions.book.InvalidStockException;
+import com.codeup.novabook.exceptions.db.ConcurrentUpdateException;
+import com.codeup.novabook.infra.jfr.SearchEvent;
+import com.codeup.novabook.infra.metrics.Timed;
 import com.codeup.novabook.repository.BookRepository;
 import com.codeup.novabook.repository.jdbc.BookRepositoryJDBC;
+import com.codeup.novabook.service.AutocompleteService;
 import com.codeup.novabook.service.BookService;
+import com.codeup.novabook.utils.ConflictRetry;
+import com.codeup.novabook.utils.IsbnCodec;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.regex.Pattern;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -27,20 +36,32 @@ import java.util.logging.Logger;
 public class BookServiceImpl implements BookService {
     
     private final BookRepository bookRepository;
-    // Keep the original complex pattern as a fallback, but prefer normalized checks
-    private static final Pattern ISBN_PATTERN = Pattern.compile(
-        "^(?:ISBN(?:-1[03])?:? )?(?=[0-9X]{10}$|(?=(?:[0-9]+[- ]){3})[- 0-9X]{13}$|97[89][0-9]{10}$|(?=(?:[0-9]+[- ]){4})[- 0-9]{17}$)(?:97[89][- ]?)?[0-9]{1,5}[- ]?[0-9]+[- ]?[0-9]+[- ]?[0-9X]$"
-    );
-
-    // Simple normalized patterns for ISBN-10 and ISBN-13
-    private static final Pattern NORMALIZED_ISBN10 = Pattern.compile("^[0-9]{9}[0-9X]$");
-    private static final Pattern NORMALIZED_ISBN13 = Pattern.compile("^[0-9]{13}$");
+    private final AutocompleteService autocompleteService;
+    private final IsbnBloomFilter isbnFilter;
+    private final AvailabilityLedger availabilityLedger;
+    private final LibraryCounters libraryCounters;
     
     /**
      * Constructor that initializes the book repository.
      */
     public BookServiceImpl() {
-        this.bookRepository = new BookRepositoryJDBC();
+        this.bookRepository = Timed.wrap(BookRepository.class, new BookRepositoryJDBC());
+        this.autocompleteService = AutocompleteServiceImpl.getInstance();
+        this.isbnFilter = IsbnBloomFilter.getInstance();
+        this.availabilityLedger = AvailabilityLedger.getInstance();
+        this.libraryCounters = LibraryCounters.getInstance();
+    }
+
+    /**
+     * Constructor for injecting dependencies (useful for tests)
+     */
+    public BookServiceImpl(BookRepository bookRepository, AutocompleteService autocompleteService,
+            IsbnBloomFilter isbnFilter, AvailabilityLedger availabilityLedger, LibraryCounters libraryCounters) {
+        this.bookRepository = bookRepository;
+        this.autocompleteService = autocompleteService;
+        this.isbnFilter = isbnFilter;
+        this.availabilityLedger = availabilityLedger;
+        this.libraryCounters = libraryCounters;
     }
     
     private static final Logger LOGGER = Logger.getLogger(BookServiceImpl.class.getName());
@@ -49,8 +70,13 @@ public class BookServiceImpl implements BookService {
         try {
             validateBook(book);
             
-            if (bookRepository.existsByIsbn(book.getIsbn())) {
-                throw new DuplicateISBNException(book.getIsbn());
+            // A definite negative from the filter skips the database round trip;
+            // the unique constraint still rejects anything the filter misses
+            if (isbnFilter.mightContain(book.getIsbn())) {
+                if (bookRepository.existsByIsbn(book.getIsbn())) {
+                    throw new DuplicateISBNException(book.getIsbn());
+                }
+                isbnFilter.recordFalsePositive();
             }
             
             if (book.getStock() < 0) {
@@ -63,6 +89,10 @@ public class BookServiceImpl implements BookService {
             book.setUpdatedAt(now);
             
             Book savedBook = bookRepository.save(book);
+            isbnFilter.add(savedBook.getIsbn());
+            availabilityLedger.setStock(savedBook.getId(), savedBook.getStock());
+            libraryCounters.add(LibraryCounters.Counter.BOOKS, 1);
+            autocompleteService.indexBook(savedBook);
             LOGGER.log(Level.INFO, "Book added successfully: {0}", book.getIsbn());
             return savedBook;
         } catch (Exception e) {
@@ -84,7 +114,9 @@ public class BookServiceImpl implements BookService {
         if (isbn == null || isbn.trim().isEmpty()) {
             throw new IllegalArgumentException("ISBN cannot be null or empty");
         }
-        return bookRepository.findByIsbn(isbn.trim());
+        // Books are stored with the canonical ISBN, so "978-0-13-..." finds them too
+        String normalized = IsbnCodec.normalize(isbn);
+        return bookRepository.findByIsbn(normalized != null ? normalized : isbn.trim());
     }
     
     @Override
@@ -97,7 +129,17 @@ public class BookServiceImpl implements BookService {
         if (title == null || title.trim().isEmpty()) {
             throw new IllegalArgumentException("Title cannot be null or empty");
         }
-        return bookRepository.findByTitleContaining(title.trim());
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        List<Book> books = bookRepository.findByTitleContaining(title.trim());
+        event.end();
+        if (event.shouldCommit()) {
+            event.kind = "title";
+            event.queryLength = title.trim().length();
+            event.results = books.size();
+            event.commit();
+        }
+        return books;
     }
     
     @Override
@@ -105,7 +147,17 @@ public class BookServiceImpl implements BookService {
         if (author == null || author.trim().isEmpty()) {
             throw new IllegalArgumentException("Author cannot be null or empty");
         }
-        return bookRepository.findByAuthorContaining(author.trim());
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        List<Book> books = bookRepository.findByAuthorContaining(author.trim());
+        event.end();
+        if (event.shouldCommit()) {
+            event.kind = "author";
+            event.queryLength = author.trim().length();
+            event.results = books.size();
+            event.commit();
+        }
+        return books;
     }
     
     @Override
@@ -125,18 +177,81 @@ public class BookServiceImpl implements BookService {
         }
         
         // Check if book exists
-        if (!bookRepository.findById(book.getId()).isPresent()) {
+        Optional<Book> currentBook = bookRepository.findById(book.getId());
+        if (!currentBook.isPresent()) {
             throw new IllegalArgumentException("Book with ID " + book.getId() + " does not exist");
         }
+        // Edits are made on what the user saw; a newer row is reported, not overwritten
+        if (currentBook.get().getVersion() != book.getVersion()) {
+            throw new ConcurrentUpdateException("Book", book.getId(), book.getVersion());
+        }
+        String previousIsbn = currentBook.get().getIsbn();
+        boolean isbnChanged = !previousIsbn.equals(book.getIsbn());
         
         // Check ISBN uniqueness (excluding current book)
-        Optional<Book> existingBook = bookRepository.findByIsbn(book.getIsbn());
-        if (existingBook.isPresent() && existingBook.get().getId() != book.getId()) {
-            throw new IllegalArgumentException("Book with ISBN " + book.getIsbn() + " already exists");
+        if (isbnChanged && isbnFilter.mightContain(book.getIsbn())) {
+            Optional<Book> existingBook = bookRepository.findByIsbn(book.getIsbn());
+            if (existingBook.isPresent() && existingBook.get().getId() != book.getId()) {
+                throw new IllegalArgumentException("Book with ISBN " + book.getIsbn() + " already exists");
+            }
         }
         
         book.setUpdatedAt(Instant.now());
-        return bookRepository.update(book);
+        Book updatedBook = bookRepository.update(book);
+        if (isbnChanged) {
+            isbnFilter.remove(previousIsbn);
+            isbnFilter.add(updatedBook.getIsbn());
+        }
+        availabilityLedger.setStock(updatedBook.getId(), updatedBook.getStock());
+        autocompleteService.indexBook(updatedBook);
+        return updatedBook;
+    }
+    
+    @Override
+    public Book applyEdits(Book asRead, Book edited) {
+        if (asRead == null || edited == null) {
+            throw new IllegalArgumentException("Book cannot be null");
+        }
+        if (asRead.getId() != edited.getId()) {
+            throw new IllegalArgumentException("Edits must be made to the same book");
+        }
+        
+        Book updated = ConflictRetry.run(() -> {
+            Book current = bookRepository.findById(asRead.getId())
+                    .orElseThrow(() -> new IllegalArgumentException("Book with ID " + asRead.getId() + " does not exist"));
+            String isbn = merge(asRead.getIsbn(), edited.getIsbn(), current.getIsbn());
+            String title = merge(asRead.getTitle(), edited.getTitle(), current.getTitle());
+            String author = merge(asRead.getAuthor(), edited.getAuthor(), current.getAuthor());
+            Integer stock = merge(asRead.getStock(), edited.getStock(), current.getStock());
+            if (isbn == null || title == null || author == null || stock == null) {
+                // Both sides changed the same field; retrying would not help
+                return null;
+            }
+            Book merged = new Book(current.getId(), isbn, title, author, stock, current.getCreatedAt(), Instant.now());
+            merged.setVersion(current.getVersion());
+            return updateBook(merged);
+        });
+        if (updated == null) {
+            throw new ConcurrentUpdateException("Book", asRead.getId(), asRead.getVersion());
+        }
+        return updated;
+    }
+    
+    /**
+     * Picks the value of one field for {@link #applyEdits(Book, Book)}: the
+     * edit if the field was edited, otherwise the current value.
+     * 
+     * @return the value to save, or null if the field was edited here and
+     *         changed to something else by someone else
+     */
+    private static <T> T merge(T asRead, T edited, T current) {
+        if (Objects.equals(edited, asRead)) {
+            return current;
+        }
+        if (Objects.equals(current, asRead) || Objects.equals(current, edited)) {
+            return edited;
+        }
+        return null;
     }
     
     @Override
@@ -144,7 +259,15 @@ public class BookServiceImpl implements BookService {
         if (id <= 0) {
             throw new IllegalArgumentException("Book ID must be positive");
         }
-        return bookRepository.deleteById(id);
+        Optional<Book> bookOpt = bookRepository.findById(id);
+        boolean deleted = bookRepository.deleteById(id);
+        if (deleted) {
+            bookOpt.ifPresent(book -> isbnFilter.remove(book.getIsbn()));
+            availabilityLedger.forget(id);
+            libraryCounters.add(LibraryCounters.Counter.BOOKS, -1);
+            autocompleteService.removeBook(id);
+        }
+        return deleted;
     }
     
     @Override
@@ -156,12 +279,11 @@ public class BookServiceImpl implements BookService {
             throw new IllegalArgumentException("Stock cannot be negative");
         }
         
-        Optional<Book> bookOpt = bookRepository.findById(bookId);
-        if (bookOpt.isPresent()) {
-            return bookRepository.updateStock(bookId, newStock);
+        boolean updated = bookRepository.updateStock(bookId, newStock);
+        if (updated) {
+            availabilityLedger.setStock(bookId, newStock);
         }
-        
-        return false;
+        return updated;
     }
     
     @Override
@@ -170,14 +292,18 @@ public class BookServiceImpl implements BookService {
             throw new IllegalArgumentException("Book ID must be positive");
         }
         
-        Optional<Book> bookOpt = bookRepository.findById(bookId);
-        if (bookOpt.isPresent()) {
-            Book book = bookOpt.get();
-            if (book.getStock() > 0) {
-                return bookRepository.updateStock(bookId, book.getStock() - 1);
-            }
+        // An exhausted stock is refused from memory; otherwise the copy is taken
+        // in the ledger first and the database decrement confirms it
+        if (!ensureTracked(bookId) || !availabilityLedger.tryTakeCopy(bookId)) {
+            return false;
         }
-        
+        if (bookRepository.adjustStock(bookId, -1)) {
+            return true;
+        }
+        LOGGER.log(Level.WARNING, "Stock of book {0} was exhausted in the database but not in memory", bookId);
+        bookRepository.findById(bookId).ifPresentOrElse(
+                book -> availabilityLedger.setStock(bookId, book.getStock()),
+                () -> availabilityLedger.forget(bookId));
         return false;
     }
     
@@ -187,55 +313,16 @@ public class BookServiceImpl implements BookService {
             throw new IllegalArgumentException("Book ID must be positive");
         }
         
-        Optional<Book> bookOpt = bookRepository.findById(bookId);
-        if (bookOpt.isPresent()) {
-            Book book = bookOpt.get();
-            return bookRepository.updateStock(bookId, book.getStock() + 1);
+        boolean increased = bookRepository.adjustStock(bookId, 1);
+        if (increased) {
+            availabilityLedger.returnCopy(bookId);
         }
-        
-        return false;
+        return increased;
     }
     
     @Override
     public boolean isValidIsbn(String isbn) {
-        if (isbn == null || isbn.trim().isEmpty()) {
-            return false;
-        }
-
-        // Normalize ISBN by removing common prefixes and non-alphanumeric characters
-        String normalized = normalizeIsbn(isbn);
-        if (normalized == null || normalized.isEmpty()) {
-            return false;
-        }
-
-        // Check normalized patterns: ISBN-10 or ISBN-13
-        if (NORMALIZED_ISBN13.matcher(normalized).matches()) {
-            return true;
-        }
-
-        if (NORMALIZED_ISBN10.matcher(normalized).matches()) {
-            return true;
-        }
-
-        // Fallback to original pattern (accepts formatted ISBNs)
-        return ISBN_PATTERN.matcher(isbn.trim()).matches();
-    }
-
-    /**
-     * Normalize ISBN string: remove leading 'ISBN' or 'ISBN-13:' prefixes, strip hyphens and spaces
-     * and uppercase any trailing 'x'.
-     */
-    private String normalizeIsbn(String isbn) {
-        if (isbn == null) return null;
-        String s = isbn.trim().toUpperCase();
-
-        // Remove common prefix like "ISBN", "ISBN-13:", "ISBN-10:"
-        s = s.replaceAll("^ISBN(?:-1[03])?:?\\s*", "");
-
-        // Remove all non-alphanumeric characters (keep digits and 'X')
-        s = s.replaceAll("[^0-9X]", "");
-
-        return s;
+        return IsbnCodec.isValid(isbn);
     }
     
     @Override
@@ -244,8 +331,7 @@ public class BookServiceImpl implements BookService {
             throw new IllegalArgumentException("Book ID must be positive");
         }
         
-        Optional<Book> bookOpt = bookRepository.findById(bookId);
-        return bookOpt.isPresent() && bookOpt.get().getStock() > 0;
+        return ensureTracked(bookId) && availabilityLedger.isAvailable(bookId);
     }
     
     @Override
@@ -253,6 +339,22 @@ public class BookServiceImpl implements BookService {
         return bookRepository.count();
     }
     
+    /**
+     * Makes sure the availability ledger holds a book, loading it from the
+     * database if it was added outside this application.
+     * 
+     * @param bookId the book ID
+     * @return false if the book does not exist
+     */
+    private boolean ensureTracked(int bookId) {
+        if (availabilityLedger.isTracked(bookId)) {
+            return true;
+        }
+        Optional<Book> bookOpt = bookRepository.findById(bookId);
+        bookOpt.ifPresent(book -> availabilityLedger.setStock(bookId, book.getStock()));
+        return bookOpt.isPresent();
+    }
+    
     /**
      * Validates book data.
      * 
@@ -269,16 +371,15 @@ public class BookServiceImpl implements BookService {
         }
 
         // Normalize ISBN and set it back on the book for consistent storage
-        String normalized = normalizeIsbn(book.getIsbn());
-        if (normalized == null || normalized.isEmpty()) {
+        String normalized = IsbnCodec.normalize(book.getIsbn());
+        if (normalized == null) {
             throw new IllegalArgumentException("Invalid ISBN format");
         }
+        if (!IsbnCodec.isValid(normalized)) {
+            throw new IllegalArgumentException("Invalid ISBN check digit");
+        }
         // Set normalized ISBN (store canonical form without hyphens/spaces)
         book.setIsbn(normalized);
-
-        if (!isValidIsbn(normalized)) {
-            throw new IllegalArgumentException("Invalid ISBN format");
-        }
         
         if (book.getTitle() == null || book.getTitle().trim().isEmpty()) {
             throw new IllegalArgumentException("Book title cannot be null or empty");
@@ -4,15 +4,32 @@
  */
 package com.codeup.novabook.service.impl;
 
+import com.codeup.novabook.cache.AvailabilityLedger;
+import com.codeup.novabook.cache.LibraryCounters;
+import com.codeup.novabook.cache.MemberLoanCounter;
 import com.codeup.novabook.domain.Lending;
+import com.codeup.novabook.domain.LendingOutcome;
+import com.codeup.novabook.engine.OverdueEngine;
+import com.codeup.novabook.engine.OverdueEvent;
+import com.codeup.novabook.engine.ReservationQueue;
+import com.codeup.novabook.infra.jfr.CheckinEvent;
+import com.codeup.novabook.infra.jfr.CheckoutEvent;
+import com.codeup.novabook.infra.metrics.Timed;
 import com.codeup.novabook.repository.LendingRepository;
 import com.codeup.novabook.repository.jdbc.LendingRepositoryJDBC;
 import com.codeup.novabook.service.LendingService;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service implementation for Lending business logic operations.
@@ -23,68 +40,279 @@ import java.util.Optional;
 public class LendingServiceImpl implements LendingService {
 
     private final LendingRepository lendingRepository;
+    private final AvailabilityLedger availabilityLedger;
+    private final MemberLoanCounter memberLoanCounter;
+    private final OverdueEngine overdueEngine;
+    private final ReservationQueue reservationQueue;
+    private final LibraryCounters libraryCounters;
     private static final int DEFAULT_LENDING_DAYS = 14;
-    private static final int DEFAULT_MAX_BOOKS = 3;
 
     /**
      * Constructor that initializes the lending repository.
      */
     public LendingServiceImpl() {
-        this.lendingRepository = new LendingRepositoryJDBC();
+        this.lendingRepository = Timed.wrap(LendingRepository.class, new LendingRepositoryJDBC());
+        this.availabilityLedger = AvailabilityLedger.getInstance();
+        this.memberLoanCounter = MemberLoanCounter.getInstance();
+        this.overdueEngine = OverdueEngine.getInstance();
+        this.reservationQueue = ReservationQueue.getInstance();
+        this.libraryCounters = LibraryCounters.getInstance();
     }
 
     /**
-     * Constructor for injecting a LendingRepository (useful for tests)
+     * Constructor for injecting dependencies (useful for tests)
      */
-    public LendingServiceImpl(LendingRepository lendingRepository) {
+    public LendingServiceImpl(LendingRepository lendingRepository, AvailabilityLedger availabilityLedger,
+            MemberLoanCounter memberLoanCounter, OverdueEngine overdueEngine, ReservationQueue reservationQueue,
+            LibraryCounters libraryCounters) {
         this.lendingRepository = lendingRepository;
+        this.availabilityLedger = availabilityLedger;
+        this.memberLoanCounter = memberLoanCounter;
+        this.overdueEngine = overdueEngine;
+        this.reservationQueue = reservationQueue;
+        this.libraryCounters = libraryCounters;
     }
 
     @Override
     public Lending lendBook(int memberId, int bookId, int lendingDays) {
+        CheckoutEvent event = new CheckoutEvent();
+        event.begin();
+        try {
+            Lending lending = openLending(memberId, bookId, lendingDays);
+            event.lent = 1;
+            return lending;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.memberId = memberId;
+                event.bookId = bookId;
+                event.requested = 1;
+                event.cacheHit = bookId > 0 && availabilityLedger.isTracked(bookId);
+                event.commit();
+            }
+        }
+    }
+
+    private Lending openLending(int memberId, int bookId, int lendingDays) {
         if (memberId <= 0) {
             throw new IllegalArgumentException("Member ID must be positive");
         }
         if (bookId <= 0) {
             throw new IllegalArgumentException("Book ID must be positive");
         }
-        if (lendingDays <= 0) {
-            lendingDays = DEFAULT_LENDING_DAYS;
+
+        // Same path as a bulk checkout, so the copy is taken out of stock too
+        LendingOutcome outcome = openLendings(memberId, List.of(bookId), lendingDays).get(0);
+        switch (outcome.getStatus()) {
+            case DONE:
+                return outcome.getLending();
+            case LIMIT_REACHED:
+                throw new IllegalArgumentException("Member has reached the maximum number of borrowed books ("
+                        + memberLoanCounter.getLimit(memberId) + ")");
+            default:
+                if (reservationQueue.isHeldForAnother(bookId, memberId)) {
+                    throw new IllegalArgumentException("Book is on hold for another member");
+                }
+                throw new IllegalArgumentException("Book is currently lent out and not available");
         }
+    }
 
-        // Check if member can borrow more books
-        if (!canMemberBorrowMoreBooks(memberId, DEFAULT_MAX_BOOKS)) {
-            throw new IllegalArgumentException("Member has reached the maximum number of borrowed books");
+    @Override
+    public boolean returnBook(int lendingId) {
+        CheckinEvent event = new CheckinEvent();
+        event.begin();
+        try {
+            boolean returned = closeLending(lendingId, event);
+            event.returned = returned ? 1 : 0;
+            return returned;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.lendingId = lendingId;
+                event.requested = 1;
+                event.commit();
+            }
         }
+    }
 
-        // Check if book is currently available (not lent out)
-        if (isBookCurrentlyLent(bookId)) {
-            throw new IllegalArgumentException("Book is currently lent out and not available");
+    private boolean closeLending(int lendingId, CheckinEvent event) {
+        if (lendingId <= 0) {
+            throw new IllegalArgumentException("Lending ID must be positive");
         }
 
-        Instant now = Instant.now();
-        Instant dueDate = now.plus(lendingDays, ChronoUnit.DAYS);
+        // Same path as a bulk check-in, so the copy is put back into stock too
+        LendingOutcome outcome = closeLendings(List.of(lendingId)).get(0);
+        if (outcome.getLending() != null) {
+            event.bookId = outcome.getLending().getBookId();
+        }
+        return outcome.getStatus() == LendingOutcome.Status.DONE;
+    }
 
-        Lending lending = new Lending(
-                0, // ID will be generated by database
-                memberId,
-                bookId,
-                now,
-                dueDate,
-                false, // not returned
-                now,
-                now);
+    @Override
+    public List<LendingOutcome> checkinAll(List<Integer> lendingIds) {
+        CheckinEvent event = new CheckinEvent();
+        event.begin();
+        try {
+            List<LendingOutcome> outcomes = closeLendings(lendingIds);
+            event.returned = countDone(outcomes);
+            return outcomes;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.requested = lendingIds == null ? 0 : lendingIds.size();
+                event.commit();
+            }
+        }
+    }
+
+    private List<LendingOutcome> closeLendings(List<Integer> lendingIds) {
+        if (lendingIds == null) {
+            throw new IllegalArgumentException("Lending IDs cannot be null");
+        }
+
+        Set<Integer> requested = new HashSet<>();
+        List<Integer> valid = new ArrayList<>();
+        for (Integer lendingId : lendingIds) {
+            if (lendingId != null && lendingId > 0 && requested.add(lendingId)) {
+                valid.add(lendingId);
+            }
+        }
 
-        return lendingRepository.save(lending);
+        Map<Integer, Lending> found = new HashMap<>();
+        for (Lending lending : lendingRepository.returnAll(valid)) {
+            found.put(lending.getId(), lending);
+        }
+
+        List<LendingOutcome> outcomes = new ArrayList<>(lendingIds.size());
+        Set<Integer> reported = new HashSet<>();
+        for (Integer lendingId : lendingIds) {
+            if (lendingId == null || lendingId <= 0 || !reported.add(lendingId)) {
+                outcomes.add(new LendingOutcome(lendingId == null ? 0 : lendingId, LendingOutcome.Status.INVALID, null));
+                continue;
+            }
+            Lending lending = found.get(lendingId);
+            if (lending == null) {
+                outcomes.add(new LendingOutcome(lendingId, LendingOutcome.Status.NOT_FOUND, null));
+            } else if (lending.isReturned()) {
+                outcomes.add(new LendingOutcome(lendingId, LendingOutcome.Status.ALREADY_RETURNED, lending));
+            } else {
+                // The database has restocked the copy; mirror it in memory
+                availabilityLedger.returnCopy(lending.getBookId());
+                availabilityLedger.loanClosed(lending.getBookId());
+                memberLoanCounter.release(lending.getMemberId());
+                libraryCounters.lendingClosed();
+                overdueEngine.untrack(lendingId);
+                reservationQueue.promoteNext(lending.getBookId());
+                lending.setReturned(true);
+                outcomes.add(new LendingOutcome(lendingId, LendingOutcome.Status.DONE, lending));
+            }
+        }
+        return outcomes;
     }
 
     @Override
-    public boolean returnBook(int lendingId) {
-        if (lendingId <= 0) {
-            throw new IllegalArgumentException("Lending ID must be positive");
+    public List<LendingOutcome> checkoutAll(int memberId, List<Integer> bookIds, int lendingDays) {
+        CheckoutEvent event = new CheckoutEvent();
+        event.begin();
+        try {
+            List<LendingOutcome> outcomes = openLendings(memberId, bookIds, lendingDays);
+            event.lent = countDone(outcomes);
+            return outcomes;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.memberId = memberId;
+                event.requested = bookIds == null ? 0 : bookIds.size();
+                event.commit();
+            }
+        }
+    }
+
+    private List<LendingOutcome> openLendings(int memberId, List<Integer> bookIds, int lendingDays) {
+        if (memberId <= 0) {
+            throw new IllegalArgumentException("Member ID must be positive");
+        }
+        if (bookIds == null) {
+            throw new IllegalArgumentException("Book IDs cannot be null");
+        }
+        if (lendingDays <= 0) {
+            lendingDays = DEFAULT_LENDING_DAYS;
+        }
+        // Fails fast if the member does not exist
+        int limit = memberLoanCounter.getLimit(memberId);
+
+        Instant now = Instant.now();
+        Instant dueDate = now.plus(lendingDays, ChronoUnit.DAYS);
+        Map<Integer, LendingOutcome.Status> rejected = new HashMap<>();
+        List<Integer> eligible = new ArrayList<>();
+        Set<Integer> requested = new HashSet<>();
+        for (Integer bookId : bookIds) {
+            if (bookId == null || bookId <= 0 || !requested.add(bookId)) {
+                continue;
+            }
+            // A fast "no" from memory; a "yes" is confirmed by the database when the lending is inserted
+            if (isBookCurrentlyLent(bookId) || reservationQueue.isHeldForAnother(bookId, memberId)) {
+                rejected.put(bookId, LendingOutcome.Status.NOT_AVAILABLE);
+            } else {
+                eligible.add(bookId);
+            }
+        }
+
+        // Slots go to the first books in request order; they are given back for lendings not created
+        int slots = eligible.isEmpty() ? 0 : memberLoanCounter.tryAcquire(memberId, eligible.size());
+        List<Lending> candidates = new ArrayList<>();
+        for (int i = 0; i < eligible.size(); i++) {
+            if (i < slots) {
+                candidates.add(new Lending(0, memberId, eligible.get(i), now, dueDate, false, now, now));
+            } else {
+                rejected.put(eligible.get(i), LendingOutcome.Status.LIMIT_REACHED);
+            }
         }
 
-        return lendingRepository.markAsReturned(lendingId);
+        List<LendingOutcome> saved;
+        try {
+            saved = candidates.isEmpty() ? List.of() : lendingRepository.checkoutAll(candidates, limit);
+        } catch (RuntimeException e) {
+            candidates.forEach(lending -> memberLoanCounter.release(memberId));
+            throw e;
+        }
+        Map<Integer, Lending> created = new HashMap<>();
+        boolean limitReached = false;
+        for (LendingOutcome outcome : saved) {
+            int bookId = outcome.getRequestedId();
+            if (outcome.getStatus() == LendingOutcome.Status.DONE) {
+                Lending lending = outcome.getLending();
+                created.put(bookId, lending);
+                availabilityLedger.tryTakeCopy(bookId);
+                availabilityLedger.loanOpened(bookId);
+                libraryCounters.lendingOpened();
+                overdueEngine.track(lending);
+                reservationQueue.fulfil(memberId, bookId);
+            } else {
+                // The database decided under the member and book row locks: no stock left, lent by
+                // another process since the ledger last saw it, or the member is at their limit there
+                memberLoanCounter.release(memberId);
+                limitReached |= outcome.getStatus() == LendingOutcome.Status.LIMIT_REACHED;
+                rejected.put(bookId, outcome.getStatus());
+            }
+        }
+        if (limitReached) {
+            // Loans were made elsewhere; take the database count from now on
+            memberLoanCounter.recount(memberId);
+        }
+
+        List<LendingOutcome> outcomes = new ArrayList<>(bookIds.size());
+        Set<Integer> reported = new HashSet<>();
+        for (Integer bookId : bookIds) {
+            if (bookId == null || bookId <= 0 || !reported.add(bookId)) {
+                outcomes.add(new LendingOutcome(bookId == null ? 0 : bookId, LendingOutcome.Status.INVALID, null));
+            } else if (created.containsKey(bookId)) {
+                outcomes.add(new LendingOutcome(bookId, LendingOutcome.Status.DONE, created.get(bookId)));
+            } else {
+                outcomes.add(new LendingOutcome(bookId, rejected.get(bookId), null));
+            }
+        }
+        return outcomes;
     }
 
     @Override
@@ -151,6 +379,25 @@ public class LendingServiceImpl implements LendingService {
         return lendingRepository.findByDueDateBetween(startDate, endDate);
     }
 
+    @Override
+    public List<Lending> getDueSoonLendingsByMember(int memberId) {
+        if (memberId <= 0) {
+            throw new IllegalArgumentException("Member ID must be positive");
+        }
+
+        if (!overdueEngine.isLoaded()) {
+            Instant now = Instant.now();
+            Instant dueSoonLimit = now.plus(overdueEngine.getDueSoonWindow());
+            return lendingRepository.findByMemberId(memberId).stream()
+                    .filter(lending -> !lending.isReturned())
+                    .filter(lending -> lending.getDueDate().isBefore(dueSoonLimit) && lending.getDueDate().isAfter(now))
+                    .toList();
+        }
+        // The engine knows which loans are due soon; only those rows are read, in one query
+        List<Integer> lendingIds = overdueEngine.getLendingIds(memberId, OverdueEvent.Type.DUE_SOON);
+        return lendingIds.isEmpty() ? List.of() : lendingRepository.findByIds(lendingIds);
+    }
+
     @Override
     public boolean extendLending(int lendingId, int additionalDays) {
         if (lendingId <= 0) {
@@ -160,19 +407,23 @@ public class LendingServiceImpl implements LendingService {
             throw new IllegalArgumentException("Additional days must be positive");
         }
 
-        Optional<Lending> lendingOpt = lendingRepository.findById(lendingId);
-        if (lendingOpt.isPresent()) {
-            Lending lending = lendingOpt.get();
-            if (!lending.isReturned()) {
-                Instant newDueDate = lending.getDueDate().plus(additionalDays, ChronoUnit.DAYS);
-                lending.setDueDate(newDueDate);
-                lending.setUpdatedAt(Instant.now());
-                lendingRepository.update(lending);
-                return true;
-            }
+        // Extended in SQL so a concurrent change to the row is never overwritten
+        if (!lendingRepository.extendDueDate(lendingId, additionalDays)) {
+            return false;
+        }
+        overdueEngine.extend(lendingId, Duration.ofDays(additionalDays));
+        return true;
+    }
+
+    @Override
+    public int extendAllActiveLendings(int additionalDays) {
+        if (additionalDays <= 0) {
+            throw new IllegalArgumentException("Additional days must be positive");
         }
 
-        return false;
+        int extended = lendingRepository.extendAllActive(additionalDays);
+        overdueEngine.extendAll(Duration.ofDays(additionalDays));
+        return extended;
     }
 
     @Override
@@ -181,8 +432,23 @@ public class LendingServiceImpl implements LendingService {
             throw new IllegalArgumentException("Member ID must be positive");
         }
 
-        long activeLendingCount = lendingRepository.countByMemberId(memberId);
-        return activeLendingCount < maxBooks;
+        return memberLoanCounter.getActiveLoans(memberId) < maxBooks;
+    }
+
+    @Override
+    public boolean canMemberBorrowMoreBooks(int memberId) {
+        if (memberId <= 0) {
+            throw new IllegalArgumentException("Member ID must be positive");
+        }
+        return memberLoanCounter.hasRoom(memberId);
+    }
+
+    @Override
+    public int getMaxBooks(int memberId) {
+        if (memberId <= 0) {
+            throw new IllegalArgumentException("Member ID must be positive");
+        }
+        return memberLoanCounter.getLimit(memberId);
     }
 
     @Override
@@ -191,8 +457,35 @@ public class LendingServiceImpl implements LendingService {
             throw new IllegalArgumentException("Book ID must be positive");
         }
 
-        List<Lending> activeLendings = lendingRepository.findByBookId(bookId);
-        return activeLendings.stream().anyMatch(lending -> !lending.isReturned());
+        if (availabilityLedger.isTracked(bookId)) {
+            return availabilityLedger.getActiveLoans(bookId) > 0;
+        }
+        return lendingRepository.existsActiveByBookId(bookId);
+    }
+
+    @Override
+    public Set<Integer> findCurrentlyLentBookIds(Collection<Integer> bookIds) {
+        if (bookIds == null) {
+            throw new IllegalArgumentException("Book IDs cannot be null");
+        }
+
+        // Books known to the ledger are answered from memory; only the rest go to the database
+        Set<Integer> lent = new HashSet<>();
+        List<Integer> untracked = new ArrayList<>();
+        for (Integer bookId : bookIds) {
+            if (bookId == null || bookId <= 0) {
+                continue;
+            }
+            if (!availabilityLedger.isTracked(bookId)) {
+                untracked.add(bookId);
+            } else if (availabilityLedger.getActiveLoans(bookId) > 0) {
+                lent.add(bookId);
+            }
+        }
+        if (!untracked.isEmpty()) {
+            lent.addAll(lendingRepository.activeBookIds(untracked));
+        }
+        return lent;
     }
 
     @Override
@@ -239,4 +532,14 @@ public class LendingServiceImpl implements LendingService {
         }
         return lendingRepository.countByMemberId(memberId);
     }
+
+    private static int countDone(List<LendingOutcome> outcomes) {
+        int done = 0;
+        for (LendingOutcome outcome : outcomes) {
+            if (outcome.getStatus() == LendingOutcome.Status.DONE) {
+                done++;
+            }
+        }
+        return done;
+    }
 }
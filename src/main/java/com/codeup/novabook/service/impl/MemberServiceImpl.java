@@ -4,7 +4,10 @@
  */
 package com.codeup.novabook.service.impl;
 
+import com.codeup.novabook.cache.LibraryCounters;
+import com.codeup.novabook.cache.MemberLoanCounter;
 import com.codeup.novabook.domain.Member;
+import com.codeup.novabook.infra.metrics.Timed;
 import com.codeup.novabook.repository.MemberRepository;
 import com.codeup.novabook.repository.jdbc.MemberRepositoryJDBC;
 import com.codeup.novabook.service.MemberService;
@@ -22,19 +25,26 @@ import java.util.Optional;
 public class MemberServiceImpl implements MemberService {
     
     private final MemberRepository memberRepository;
+    private final MemberLoanCounter memberLoanCounter;
+    private final LibraryCounters libraryCounters;
     
     /**
      * Constructor that initializes the member repository.
      */
     public MemberServiceImpl() {
-        this.memberRepository = new MemberRepositoryJDBC();
+        this.memberRepository = Timed.wrap(MemberRepository.class, new MemberRepositoryJDBC());
+        this.memberLoanCounter = MemberLoanCounter.getInstance();
+        this.libraryCounters = LibraryCounters.getInstance();
     }
 
     /**
-     * Constructor for injecting a MemberRepository (useful for tests)
+     * Constructor for injecting dependencies (useful for tests)
      */
-    public MemberServiceImpl(MemberRepository memberRepository) {
+    public MemberServiceImpl(MemberRepository memberRepository, MemberLoanCounter memberLoanCounter,
+            LibraryCounters libraryCounters) {
         this.memberRepository = memberRepository;
+        this.memberLoanCounter = memberLoanCounter;
+        this.libraryCounters = libraryCounters;
     }
     
     /**
@@ -72,7 +82,9 @@ public class MemberServiceImpl implements MemberService {
         member.setCreatedAt(now);
         member.setUpdatedAt(now);
         
-        return memberRepository.save(member);
+        Member savedMember = memberRepository.save(member);
+        libraryCounters.memberAdded(savedMember.getRole(), savedMember.isActive());
+        return savedMember;
     }
     
     @Override
@@ -123,12 +135,19 @@ public class MemberServiceImpl implements MemberService {
         }
         
         // Check if member exists
-        if (!memberRepository.findById(member.getId()).isPresent()) {
+        Optional<Member> existingOpt = memberRepository.findById(member.getId());
+        if (!existingOpt.isPresent()) {
             throw new IllegalArgumentException("Member with ID " + member.getId() + " does not exist");
         }
+        String oldRole = existingOpt.get().getRole();
+        boolean wasActive = existingOpt.get().isActive();
         
         member.setUpdatedAt(Instant.now());
-        return memberRepository.update(member);
+        Member updatedMember = memberRepository.update(member);
+        // The role decides the borrowing limit
+        memberLoanCounter.invalidateLimit(member.getId());
+        libraryCounters.memberChanged(oldRole, wasActive, member.getRole(), member.isActive());
+        return updatedMember;
     }
     
     @Override
@@ -140,9 +159,11 @@ public class MemberServiceImpl implements MemberService {
         Optional<Member> memberOpt = memberRepository.findById(id);
         if (memberOpt.isPresent()) {
             Member member = memberOpt.get();
+            boolean wasActive = member.isActive();
             member.setActive(false);
             member.setUpdatedAt(Instant.now());
             memberRepository.update(member);
+            libraryCounters.memberChanged(member.getRole(), wasActive, member.getRole(), false);
             return true;
         }
         
@@ -158,9 +179,11 @@ public class MemberServiceImpl implements MemberService {
         Optional<Member> memberOpt = memberRepository.findById(id);
         if (memberOpt.isPresent()) {
             Member member = memberOpt.get();
+            boolean wasActive = member.isActive();
             member.setActive(true);
             member.setUpdatedAt(Instant.now());
             memberRepository.update(member);
+            libraryCounters.memberChanged(member.getRole(), wasActive, member.getRole(), true);
             return true;
         }
         
@@ -180,6 +203,8 @@ public class MemberServiceImpl implements MemberService {
                 member.setRole("PREMIUM");
                 member.setUpdatedAt(Instant.now());
                 memberRepository.update(member);
+                memberLoanCounter.invalidateLimit(id);
+                libraryCounters.memberChanged("REGULAR", member.isActive(), "PREMIUM", member.isActive());
                 return true;
             }
         }
@@ -200,6 +225,8 @@ public class MemberServiceImpl implements MemberService {
                 member.setRole("REGULAR");
                 member.setUpdatedAt(Instant.now());
                 memberRepository.update(member);
+                memberLoanCounter.invalidateLimit(id);
+                libraryCounters.memberChanged("PREMIUM", member.isActive(), "REGULAR", member.isActive());
                 return true;
             }
         }
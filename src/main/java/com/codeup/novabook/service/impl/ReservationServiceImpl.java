@@ -0,0 +1,111 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.codeup.novabook.service.impl;
+
+import com.codeup.novabook.domain.Reservation;
+import com.codeup.novabook.engine.ReservationQueue;
+import com.codeup.novabook.infra.metrics.Timed;
+import com.codeup.novabook.repository.ReservationRepository;
+import com.codeup.novabook.repository.jdbc.ReservationRepositoryJDBC;
+import com.codeup.novabook.service.LendingService;
+import com.codeup.novabook.service.ReservationService;
+
+import java.util.List;
+
+/**
+ * Service implementation for Reservation business logic operations.
+ * Validates holds and delegates queueing to the {@link ReservationQueue}.
+ *
+ * @author Adrián Gutiérrez
+ */
+public class ReservationServiceImpl implements ReservationService {
+
+    private final ReservationRepository reservationRepository;
+    private final ReservationQueue reservationQueue;
+    private final LendingService lendingService;
+
+    /**
+     * Constructor that initializes the reservation repository.
+     */
+    public ReservationServiceImpl() {
+        this.reservationRepository = Timed.wrap(ReservationRepository.class, new ReservationRepositoryJDBC());
+        this.reservationQueue = ReservationQueue.getInstance();
+        this.lendingService = Timed.wrap(LendingService.class, new LendingServiceImpl());
+    }
+
+    /**
+     * Constructor for injecting dependencies (useful for tests)
+     */
+    public ReservationServiceImpl(ReservationRepository reservationRepository, ReservationQueue reservationQueue,
+            LendingService lendingService) {
+        this.reservationRepository = reservationRepository;
+        this.reservationQueue = reservationQueue;
+        this.lendingService = lendingService;
+    }
+
+    @Override
+    public Reservation placeHold(int memberId, int bookId) {
+        if (memberId <= 0) {
+            throw new IllegalArgumentException("Member ID must be positive");
+        }
+        if (bookId <= 0) {
+            throw new IllegalArgumentException("Book ID must be positive");
+        }
+
+        // A hold only makes sense while the member could not borrow the book now.
+        // The queue checks and places under one lock, so a return landing in
+        // between promotes this hold instead of leaving it waiting.
+        return reservationQueue.placeIfUnavailable(memberId, bookId,
+                () -> lendingService.isBookCurrentlyLent(bookId));
+    }
+
+    @Override
+    public boolean cancelHold(int reservationId) {
+        if (reservationId <= 0) {
+            throw new IllegalArgumentException("Reservation ID must be positive");
+        }
+        return reservationQueue.cancel(reservationId);
+    }
+
+    @Override
+    public List<Reservation> getActiveHoldsByMember(int memberId) {
+        if (memberId <= 0) {
+            throw new IllegalArgumentException("Member ID must be positive");
+        }
+        return reservationQueue.getActiveByMember(memberId);
+    }
+
+    @Override
+    public List<Reservation> getHoldHistoryByMember(int memberId) {
+        if (memberId <= 0) {
+            throw new IllegalArgumentException("Member ID must be positive");
+        }
+        return reservationRepository.findByMemberId(memberId);
+    }
+
+    @Override
+    public int getQueuePosition(int reservationId) {
+        if (reservationId <= 0) {
+            throw new IllegalArgumentException("Reservation ID must be positive");
+        }
+        return reservationQueue.getPosition(reservationId);
+    }
+
+    @Override
+    public boolean isHeldForAnotherMember(int bookId, int memberId) {
+        if (bookId <= 0) {
+            throw new IllegalArgumentException("Book ID must be positive");
+        }
+        return reservationQueue.isHeldForAnother(bookId, memberId);
+    }
+
+    @Override
+    public int getQueueLength(int bookId) {
+        if (bookId <= 0) {
+            throw new IllegalArgumentException("Book ID must be positive");
+        }
+        return reservationQueue.getWaitingCount(bookId);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.codeup.novabook.service.impl;
+
+import com.codeup.novabook.cache.LibraryCounters;
+import com.codeup.novabook.cache.LibraryCounters.Counter;
+import com.codeup.novabook.service.StatisticsService;
+
+/**
+ * Service implementation for the library statistics dashboards.
+ * Reads the counters maintained by {@link LibraryCounters}.
+ *
+ * @author Adrián Gutiérrez
+ */
+public class StatisticsServiceImpl implements StatisticsService {
+
+    private final LibraryCounters libraryCounters;
+
+    /**
+     * Constructor that initializes the shared counters.
+     */
+    public StatisticsServiceImpl() {
+        this.libraryCounters = LibraryCounters.getInstance();
+    }
+
+    /**
+     * Constructor for injecting dependencies (useful for tests)
+     */
+    public StatisticsServiceImpl(LibraryCounters libraryCounters) {
+        this.libraryCounters = libraryCounters;
+    }
+
+    @Override
+    public long getBookCount() {
+        return libraryCounters.get(Counter.BOOKS);
+    }
+
+    @Override
+    public long getMemberCount() {
+        return libraryCounters.get(Counter.MEMBERS);
+    }
+
+    @Override
+    public long getMemberCountByRole(String role) {
+        if (role == null || role.trim().isEmpty()) {
+            throw new IllegalArgumentException("Role cannot be null or empty");
+        }
+
+        switch (role) {
+            case "REGULAR":
+                return libraryCounters.get(Counter.REGULAR_MEMBERS);
+            case "PREMIUM":
+                return libraryCounters.get(Counter.PREMIUM_MEMBERS);
+            default:
+                throw new IllegalArgumentException("Role must be either 'REGULAR' or 'PREMIUM'");
+        }
+    }
+
+    @Override
+    public long getActiveMemberCount() {
+        return libraryCounters.get(Counter.ACTIVE_MEMBERS);
+    }
+
+    @Override
+    public long getUserCount() {
+        return libraryCounters.get(Counter.USERS);
+    }
+
+    @Override
+    public long getLendingCount() {
+        return libraryCounters.get(Counter.LENDINGS);
+    }
+
+    @Override
+    public long getActiveLendingCount() {
+        return libraryCounters.get(Counter.ACTIVE_LENDINGS);
+    }
+
+    @Override
+    public long getOverdueLendingCount() {
+        return libraryCounters.get(Counter.OVERDUE_LENDINGS);
+    }
+}
@@ -4,14 +4,25 @@
  */
 package com.codeup.novabook.service.impl;
 
+import com.codeup.novabook.cache.LibraryCounters;
 import com.codeup.novabook.domain.User;
+import com.codeup.novabook.exceptions.user.TooManyLoginAttemptsException;
+import com.codeup.novabook.infra.jfr.AuthenticationEvent;
+import com.codeup.novabook.infra.metrics.Timed;
 import com.codeup.novabook.repository.UserRepository;
 import com.codeup.novabook.repository.jdbc.UserRepositoryJDBC;
+import com.codeup.novabook.security.AuthExecutor;
+import com.codeup.novabook.security.LoginRateLimiter;
+import com.codeup.novabook.security.Session;
+import com.codeup.novabook.security.SessionManager;
 import com.codeup.novabook.service.UserService;
 
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.regex.Pattern;
 import com.codeup.novabook.utils.PasswordUtils;
 
@@ -23,7 +34,13 @@ import com.codeup.novabook.utils.PasswordUtils;
  */
 public class UserServiceImpl implements UserService {
     
+    private static final Logger LOGGER = Logger.getLogger(UserServiceImpl.class.getName());
+    
     private final UserRepository userRepository;
+    private final LibraryCounters libraryCounters;
+    private final AuthExecutor authExecutor;
+    private final SessionManager sessionManager;
+    private final LoginRateLimiter loginRateLimiter;
     private static final Pattern EMAIL_PATTERN = Pattern.compile(
         "^[A-Za-z0-9+_.-]+@([A-Za-z0-9.-]+\\.[A-Za-z]{2,})$"
     );
@@ -32,7 +49,23 @@ public class UserServiceImpl implements UserService {
      * Constructor that initializes the user repository.
      */
     public UserServiceImpl() {
-        this.userRepository = new UserRepositoryJDBC();
+        this.userRepository = Timed.wrap(UserRepository.class, new UserRepositoryJDBC());
+        this.libraryCounters = LibraryCounters.getInstance();
+        this.authExecutor = AuthExecutor.getInstance();
+        this.sessionManager = SessionManager.getInstance();
+        this.loginRateLimiter = LoginRateLimiter.getInstance();
+    }
+
+    /**
+     * Constructor for injecting dependencies (useful for tests)
+     */
+    public UserServiceImpl(UserRepository userRepository, LibraryCounters libraryCounters,
+            AuthExecutor authExecutor, SessionManager sessionManager, LoginRateLimiter loginRateLimiter) {
+        this.userRepository = userRepository;
+        this.libraryCounters = libraryCounters;
+        this.authExecutor = authExecutor;
+        this.sessionManager = sessionManager;
+        this.loginRateLimiter = loginRateLimiter;
     }
     
     @Override
@@ -44,7 +77,7 @@ public class UserServiceImpl implements UserService {
         }
         
         // Hash the password before saving
-        String hashedPassword = PasswordUtils.hashPassword(user.getPassword());
+        String hashedPassword = authExecutor.timeHash(() -> PasswordUtils.hashPassword(user.getPassword()));
         user.setPassword(hashedPassword);
         
         // Set timestamps
@@ -52,31 +85,90 @@ public class UserServiceImpl implements UserService {
         user.setCreatedAt(now);
         user.setUpdatedAt(now);
         
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        libraryCounters.add(LibraryCounters.Counter.USERS, 1);
+        return savedUser;
     }
     
     @Override
     public Optional<User> authenticateUser(String email, String password) {
-        if (email == null || email.trim().isEmpty()) {
-            throw new IllegalArgumentException("Email cannot be null or empty");
-        }
-        if (password == null || password.trim().isEmpty()) {
-            throw new IllegalArgumentException("Password cannot be null or empty");
-        }
-        
+        validateCredentials(email, password);
+        loginRateLimiter.acquire(email, LoginRateLimiter.LOCAL_SOURCE);
+        return verifyCredentials(email, password);
+    }
+    
+    @Override
+    public CompletableFuture<Optional<User>> authenticateUserAsync(String email, String password) {
+        return authenticateUserAsync(email, password, LoginRateLimiter.LOCAL_SOURCE);
+    }
+    
+    @Override
+    public CompletableFuture<Optional<User>> authenticateUserAsync(String email, String password, String source) {
+        // Bad input and throttled attempts fail on the caller's thread without taking a queue slot
+        validateCredentials(email, password);
+        try {
+            loginRateLimiter.acquire(email, source);
+        } catch (TooManyLoginAttemptsException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return authExecutor.submit(() -> verifyCredentials(email, password));
+    }
+    
+    @Override
+    public CompletableFuture<Optional<Session>> createSession(String email, String password) {
+        return createSession(email, password, LoginRateLimiter.LOCAL_SOURCE);
+    }
+    
+    @Override
+    public CompletableFuture<Optional<Session>> createSession(String email, String password, String source) {
+        return authenticateUserAsync(email, password, source)
+                .thenApply(userOpt -> userOpt.map(sessionManager::issue));
+    }
+    
+    /**
+     * Looks a user up and checks the password, once the attempt has been
+     * let through by the rate limiter.
+     * 
+     * @param email the user's email
+     * @param password the user's password
+     * @return Optional containing the user if the credentials match
+     */
+    private Optional<User> verifyCredentials(String email, String password) {
+        AuthenticationEvent event = new AuthenticationEvent();
+        event.begin();
+        event.bcryptCost = -1;
         Optional<User> userOpt = userRepository.findByEmail(email.trim());
         
         if (userOpt.isPresent()) {
             User user = userOpt.get();
-            if (user.isActive() && !user.isDeleted() && 
-                PasswordUtils.verifyPassword(password, user.getPassword())) {
-                return Optional.of(user);
+            if (user.isActive() && !user.isDeleted()) {
+                event.bcryptCost = PasswordUtils.getCost(user.getPassword());
+                if (authExecutor.timeHash(() -> PasswordUtils.verifyPassword(password, user.getPassword()))) {
+                    if (PasswordUtils.needsRehash(user.getPassword())) {
+                        rehashInBackground(user.getId(), user.getPassword(), password);
+                    }
+                    event.userId = user.getId();
+                    event.success = true;
+                    event.commit();
+                    return Optional.of(user);
+                }
             }
         }
         
+        event.commit();
         return Optional.empty();
     }
     
+    @Override
+    public Optional<Session> findSession(String token) {
+        return sessionManager.validate(token);
+    }
+    
+    @Override
+    public boolean endSession(String token) {
+        return sessionManager.invalidate(token);
+    }
+    
     @Override
     public Optional<User> findUserById(int id) {
         if (id <= 0) {
@@ -123,7 +215,10 @@ public class UserServiceImpl implements UserService {
         }
         
         user.setUpdatedAt(Instant.now());
-        return userRepository.update(user);
+        User updatedUser = userRepository.update(user);
+        // Sessions carry the role and access level, which may have changed
+        sessionManager.invalidateUser(user.getId());
+        return updatedUser;
     }
     
     @Override
@@ -138,6 +233,7 @@ public class UserServiceImpl implements UserService {
             user.setActive(false);
             user.setUpdatedAt(Instant.now());
             userRepository.update(user);
+            sessionManager.invalidateUser(id);
             return true;
         }
         
@@ -177,11 +273,12 @@ public class UserServiceImpl implements UserService {
         Optional<User> userOpt = userRepository.findById(userId);
         if (userOpt.isPresent()) {
             User user = userOpt.get();
-            if (user.getPassword().equals(oldPassword)) {
-                user.setPassword(newPassword);
-                user.setUpdatedAt(Instant.now());
-                userRepository.update(user);
-                return true;
+            if (authExecutor.timeHash(() -> PasswordUtils.verifyPassword(oldPassword, user.getPassword()))) {
+                String newHash = authExecutor.timeHash(() -> PasswordUtils.hashPassword(newPassword));
+                if (userRepository.updatePassword(userId, user.getPassword(), newHash)) {
+                    sessionManager.invalidateUser(userId);
+                    return true;
+                }
             }
         }
         
@@ -207,6 +304,7 @@ public class UserServiceImpl implements UserService {
             user.setRole(newRole);
             user.setUpdatedAt(Instant.now());
             userRepository.update(user);
+            sessionManager.invalidateUser(userId);
             return true;
         }
         
@@ -226,6 +324,46 @@ public class UserServiceImpl implements UserService {
         return userRepository.count();
     }
     
+    /**
+     * Hashes a password again at the current cost once the user is logged
+     * in, without delaying the login. The new hash is only written if the
+     * password was not changed meanwhile; if the pool is busy the rehash
+     * is left for the next login.
+     * 
+     * @param userId the user ID
+     * @param oldHash the hash the password was verified against
+     * @param password the verified password
+     */
+    private void rehashInBackground(int userId, String oldHash, String password) {
+        authExecutor.submit(() -> userRepository.updatePassword(userId, oldHash,
+                        authExecutor.timeHash(() -> PasswordUtils.hashPassword(password))))
+                .whenComplete((updated, error) -> {
+                    if (error != null) {
+                        LOGGER.log(Level.FINE, "Password rehash skipped for user " + userId + ": "
+                                + error.getMessage());
+                    } else if (updated) {
+                        LOGGER.log(Level.INFO, "Password of user {0} rehashed at cost {1}",
+                                new Object[] { userId, PasswordUtils.getCost() });
+                    }
+                });
+    }
+    
+    /**
+     * Validates login credentials.
+     * 
+     * @param email the email
+     * @param password the password
+     * @throws IllegalArgumentException if either is missing
+     */
+    private void validateCredentials(String email, String password) {
+        if (email == null || email.trim().isEmpty()) {
+            throw new IllegalArgumentException("Email cannot be null or empty");
+        }
+        if (password == null || password.trim().isEmpty()) {
+            throw new IllegalArgumentException("Password cannot be null or empty");
+        }
+    }
+    
     /**
      * Validates user data.
      * 
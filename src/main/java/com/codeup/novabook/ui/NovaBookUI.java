@@ -7,21 +7,40 @@ package com.codeup.novabook.ui;
 import com.codeup.novabook.domain.Book;
 import com.codeup.novabook.domain.Member;
 import com.codeup.novabook.domain.Lending;
+import com.codeup.novabook.domain.LendingOutcome;
+import com.codeup.novabook.domain.Reservation;
 import com.codeup.novabook.domain.User;
+import com.codeup.novabook.exceptions.db.ConcurrentUpdateException;
+import com.codeup.novabook.exceptions.user.AuthenticationBusyException;
+import com.codeup.novabook.exceptions.user.TooManyLoginAttemptsException;
+import com.codeup.novabook.infra.metrics.MetricsRegistry;
+import com.codeup.novabook.infra.metrics.Timed;
+import com.codeup.novabook.service.AutocompleteService;
 import com.codeup.novabook.service.BookService;
 import com.codeup.novabook.service.MemberService;
 import com.codeup.novabook.service.LendingService;
+import com.codeup.novabook.service.ReservationService;
+import com.codeup.novabook.service.StatisticsService;
 import com.codeup.novabook.service.UserService;
+import com.codeup.novabook.service.impl.AutocompleteServiceImpl;
 import com.codeup.novabook.service.impl.BookServiceImpl;
 import com.codeup.novabook.service.impl.MemberServiceImpl;
 import com.codeup.novabook.service.impl.LendingServiceImpl;
+import com.codeup.novabook.service.impl.ReservationServiceImpl;
+import com.codeup.novabook.service.impl.StatisticsServiceImpl;
 import com.codeup.novabook.service.impl.UserServiceImpl;
 
 import javax.swing.*;
+import javax.swing.event.AncestorEvent;
+import javax.swing.event.AncestorListener;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
 import com.codeup.novabook.utils.CsvExporter;
 import com.codeup.novabook.utils.LoggerConfig;
 
@@ -36,7 +55,10 @@ public class NovaBookUI {
     private final BookService bookService;
     private final MemberService memberService;
     private final LendingService lendingService;
+    private final ReservationService reservationService;
     private final UserService userService;
+    private final StatisticsService statisticsService;
+    private final AutocompleteService autocompleteService;
     private volatile User currentUser;
     private volatile Member currentMember;
 
@@ -44,10 +66,13 @@ public class NovaBookUI {
      * Constructor that initializes all services.
      */
     public NovaBookUI() {
-        this.bookService = new BookServiceImpl();
-        this.memberService = new MemberServiceImpl();
-        this.lendingService = new LendingServiceImpl();
-        this.userService = new UserServiceImpl();
+        this.bookService = Timed.wrap(BookService.class, new BookServiceImpl());
+        this.memberService = Timed.wrap(MemberService.class, new MemberServiceImpl());
+        this.lendingService = Timed.wrap(LendingService.class, new LendingServiceImpl());
+        this.reservationService = Timed.wrap(ReservationService.class, new ReservationServiceImpl());
+        this.userService = Timed.wrap(UserService.class, new UserServiceImpl());
+        this.statisticsService = Timed.wrap(StatisticsService.class, new StatisticsServiceImpl());
+        this.autocompleteService = Timed.wrap(AutocompleteService.class, AutocompleteServiceImpl.getInstance());
         clearSession();
     }
 
@@ -217,7 +242,17 @@ public class NovaBookUI {
 
                     clearSession(); // Clear any existing session
 
-                    Optional<User> userOpt = userService.authenticateUser(email, password);
+                    Optional<User> userOpt;
+                    try {
+                        userOpt = userService.authenticateUserAsync(email, password).join();
+                    } catch (CompletionException e) {
+                        String message = e.getCause() instanceof AuthenticationBusyException
+                                || e.getCause() instanceof TooManyLoginAttemptsException
+                                ? e.getCause().getMessage()
+                                : "Error during login: " + e.getCause().getMessage();
+                        JOptionPane.showMessageDialog(null, message, "Login Error", JOptionPane.ERROR_MESSAGE);
+                        continue;
+                    }
                     if (userOpt.isPresent()) {
                         User authenticatedUser = userOpt.get();
 
@@ -461,6 +496,7 @@ public class NovaBookUI {
                     "My Current lendings",
                     "My Overdue lendings",
                     "My Due Soon lendings",
+                    "My Holds",
                     "Logout"
             };
 
@@ -497,6 +533,9 @@ public class NovaBookUI {
                     viewMyDueSoonLendings();
                     break;
                 case 7:
+                    viewMyHolds();
+                    break;
+                case 8:
                 default:
                     // Clear user state before returning
                     String memberName;
@@ -919,6 +958,8 @@ public class NovaBookUI {
                 optionsList.add("Lend Book");
                 optionsList.add("Return Book");
                 optionsList.add("Extend Lending");
+                optionsList.add("Process Returns");
+                optionsList.add("Extend All Active Lendings");
             }
 
             optionsList.add("Back to Main Menu");
@@ -958,6 +999,16 @@ public class NovaBookUI {
                     }
                     break;
                 case 5:
+                    if (hasWriteAccess()) {
+                        processReturns();
+                    }
+                    break;
+                case 6:
+                    if (hasWriteAccess()) {
+                        extendAllActiveLendings();
+                    }
+                    break;
+                case 7:
                 default:
                     return;
             }
@@ -1033,6 +1084,7 @@ public class NovaBookUI {
                 "Library Statistics",
                 "Member Statistics",
                 "Lending Statistics",
+                "Performance Metrics",
                 "Back to Main Menu"
         };
 
@@ -1057,6 +1109,9 @@ public class NovaBookUI {
                 showLendingStatistics();
                 break;
             case 3:
+                showPerformanceMetrics();
+                break;
+            case 4:
             default:
                 return;
         }
@@ -1183,17 +1238,20 @@ public class NovaBookUI {
 
             int stock = Integer.parseInt(stockStr);
 
-            book.setIsbn(isbn.trim());
-            book.setTitle(title.trim());
-            book.setAuthor(author.trim());
-            book.setStock(stock);
-
-            Book updatedBook = bookService.updateBook(book);
+            // Only the fields edited here are saved; changes others made meanwhile to the rest are kept
+            Book edited = new Book(book.getId(), isbn.trim(), title.trim(), author.trim(), stock,
+                    book.getCreatedAt(), Instant.now());
+            Book updatedBook = bookService.applyEdits(book, edited);
             JOptionPane.showMessageDialog(null,
                     "Book updated successfully!\nID: " + updatedBook.getId() +
                             "\nTitle: " + updatedBook.getTitle(),
                     "Success", JOptionPane.INFORMATION_MESSAGE);
 
+        } catch (ConcurrentUpdateException e) {
+            JOptionPane.showMessageDialog(null,
+                    "Someone else changed the same fields of this book while you were editing it.\n"
+                            + "Please open it again and repeat your changes.",
+                    "Edit Conflict", JOptionPane.WARNING_MESSAGE);
         } catch (Exception e) {
             JOptionPane.showMessageDialog(null, "Error updating book: " + e.getMessage(),
                     "Error", JOptionPane.ERROR_MESSAGE);
@@ -1512,6 +1570,42 @@ public class NovaBookUI {
         }
     }
 
+    /**
+     * Returns a batch of books at once, such as the contents of a book drop.
+     */
+    private void processReturns() {
+        try {
+            String input = JOptionPane.showInputDialog("Enter the lending IDs to return (separated by commas or spaces):");
+            if (input == null || input.trim().isEmpty())
+                return;
+
+            List<Integer> lendingIds = new ArrayList<>();
+            for (String token : input.trim().split("[,\\s]+")) {
+                lendingIds.add(Integer.parseInt(token));
+            }
+
+            List<LendingOutcome> outcomes = lendingService.checkinAll(lendingIds);
+            long returned = outcomes.stream().filter(LendingOutcome::isDone).count();
+
+            StringBuilder sb = new StringBuilder();
+            sb.append("Returned: ").append(returned).append(" of ").append(outcomes.size()).append("\n");
+            for (LendingOutcome outcome : outcomes) {
+                if (!outcome.isDone()) {
+                    sb.append("Lending ").append(outcome.getRequestedId()).append(": ")
+                            .append(outcome.getStatus()).append("\n");
+                }
+            }
+            JOptionPane.showMessageDialog(null, sb.toString(), "Process Returns", JOptionPane.INFORMATION_MESSAGE);
+
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(null, "Lending IDs must be numbers.", "Invalid Input",
+                    JOptionPane.ERROR_MESSAGE);
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(null, "Error processing returns: " + e.getMessage(),
+                    "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     /**
      * Views active lendings.
      */
@@ -1569,6 +1663,33 @@ public class NovaBookUI {
         }
     }
 
+    /**
+     * Extends every active lending, e.g. while the branch is closed.
+     */
+    private void extendAllActiveLendings() {
+        try {
+            String daysStr = JOptionPane.showInputDialog("Enter additional days for all active lendings:");
+            if (daysStr == null || daysStr.trim().isEmpty())
+                return;
+
+            int days = Integer.parseInt(daysStr);
+
+            int confirm = JOptionPane.showConfirmDialog(null,
+                    "Extend every active lending by " + days + " day(s)?",
+                    "Confirm Extension", JOptionPane.YES_NO_OPTION);
+            if (confirm != JOptionPane.YES_OPTION)
+                return;
+
+            int extended = lendingService.extendAllActiveLendings(days);
+            JOptionPane.showMessageDialog(null, extended + " lending(s) extended successfully!",
+                    "Success", JOptionPane.INFORMATION_MESSAGE);
+
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(null, "Error extending lendings: " + e.getMessage(),
+                    "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     /**
      * Displays a list of lendings.
      */
@@ -1887,16 +2008,30 @@ public class NovaBookUI {
         }
     }
 
+    /**
+     * Shows call counts and latency percentiles per repository and service
+     * operation.
+     */
+    private void showPerformanceMetrics() {
+        String report = MetricsRegistry.getInstance().report();
+        JTextArea textArea = new JTextArea(report.isEmpty() ? "No calls recorded yet." : report);
+        textArea.setEditable(false);
+        textArea.setFont(new java.awt.Font(java.awt.Font.MONOSPACED, java.awt.Font.PLAIN, 12));
+        JScrollPane scrollPane = new JScrollPane(textArea);
+        scrollPane.setPreferredSize(new java.awt.Dimension(900, 500));
+        JOptionPane.showMessageDialog(null, scrollPane, "Performance Metrics", JOptionPane.INFORMATION_MESSAGE);
+    }
+
     /**
      * Shows library statistics.
      */
     private void showLibraryStatistics() {
         try {
-            long bookCount = bookService.getBookCount();
-            long memberCount = memberService.getMemberCount();
-            long userCount = userService.getUserCount();
-            long lendingCount = lendingService.getLendingCount();
-            long activeLendingCount = lendingService.getActiveLendingCount();
+            long bookCount = statisticsService.getBookCount();
+            long memberCount = statisticsService.getMemberCount();
+            long userCount = statisticsService.getUserCount();
+            long lendingCount = statisticsService.getLendingCount();
+            long activeLendingCount = statisticsService.getActiveLendingCount();
 
             StringBuilder sb = new StringBuilder();
             sb.append("=== LIBRARY STATISTICS ===\n\n");
@@ -1919,17 +2054,17 @@ public class NovaBookUI {
      */
     private void showMemberStatistics() {
         try {
-            long totalMembers = memberService.getMemberCount();
-            long regularMembers = memberService.getMemberCountByRole("REGULAR");
-            long premiumMembers = memberService.getMemberCountByRole("PREMIUM");
-            List<Member> activeMembers = memberService.getActiveMembers();
+            long totalMembers = statisticsService.getMemberCount();
+            long regularMembers = statisticsService.getMemberCountByRole("REGULAR");
+            long premiumMembers = statisticsService.getMemberCountByRole("PREMIUM");
+            long activeMembers = statisticsService.getActiveMemberCount();
 
             StringBuilder sb = new StringBuilder();
             sb.append("=== MEMBER STATISTICS ===\n\n");
             sb.append("Total Members: ").append(totalMembers).append("\n");
             sb.append("Regular Members: ").append(regularMembers).append("\n");
             sb.append("Premium Members: ").append(premiumMembers).append("\n");
-            sb.append("Active Members: ").append(activeMembers.size()).append("\n");
+            sb.append("Active Members: ").append(activeMembers).append("\n");
 
             JOptionPane.showMessageDialog(null, sb.toString(), "Member Statistics", JOptionPane.INFORMATION_MESSAGE);
 
@@ -1944,15 +2079,15 @@ public class NovaBookUI {
      */
     private void showLendingStatistics() {
         try {
-            long totalLendings = lendingService.getLendingCount();
-            long activeLendings = lendingService.getActiveLendingCount();
-            List<Lending> overdueLendings = lendingService.getOverdueLendings();
+            long totalLendings = statisticsService.getLendingCount();
+            long activeLendings = statisticsService.getActiveLendingCount();
+            long overdueLendings = statisticsService.getOverdueLendingCount();
 
             StringBuilder sb = new StringBuilder();
             sb.append("=== LENDING STATISTICS ===\n\n");
             sb.append("Total Lendings: ").append(totalLendings).append("\n");
             sb.append("Active Lendings: ").append(activeLendings).append("\n");
-            sb.append("Overdue Lendings: ").append(overdueLendings.size()).append("\n");
+            sb.append("Overdue Lendings: ").append(overdueLendings).append("\n");
 
             JOptionPane.showMessageDialog(null, sb.toString(), "Lending Statistics", JOptionPane.INFORMATION_MESSAGE);
 
@@ -1994,8 +2129,8 @@ public class NovaBookUI {
             if (searchType == null)
                 return;
 
-            String searchTerm = JOptionPane.showInputDialog("Enter search term:");
-            if (searchTerm == null || searchTerm.trim().isEmpty())
+            String searchTerm = promptSearchTerm(searchType);
+            if (searchTerm == null || searchTerm.isEmpty())
                 return;
 
             List<Book> books;
@@ -2026,6 +2161,99 @@ public class NovaBookUI {
         }
     }
 
+    /**
+     * Asks for a search term, listing autocomplete suggestions under the
+     * field as the member types. A selected suggestion is used instead of
+     * the typed text.
+     * 
+     * @param searchType the selected search type
+     * @return the term to search for, or null if the member cancelled
+     */
+    private String promptSearchTerm(String searchType) {
+        JTextField termField = new JTextField(30);
+        DefaultListModel<String> suggestions = new DefaultListModel<>();
+        JList<String> suggestionList = new JList<>(suggestions);
+        suggestionList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        suggestionList.setVisibleRowCount(8);
+
+        // The index is in memory, so it is queried on every keystroke
+        termField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                refresh();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                refresh();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                // Attribute changes do not change the text
+            }
+
+            private void refresh() {
+                suggestions.clear();
+                String typed = termField.getText().trim();
+                if (!typed.isEmpty()) {
+                    suggest(searchType, typed).forEach(suggestions::addElement);
+                }
+            }
+        });
+        // Start typing right away instead of on the OK button
+        termField.addAncestorListener(new AncestorListener() {
+            @Override
+            public void ancestorAdded(AncestorEvent event) {
+                termField.requestFocusInWindow();
+            }
+
+            @Override
+            public void ancestorRemoved(AncestorEvent event) {
+            }
+
+            @Override
+            public void ancestorMoved(AncestorEvent event) {
+            }
+        });
+
+        JPanel searchPanel = new JPanel();
+        searchPanel.setLayout(new BoxLayout(searchPanel, BoxLayout.Y_AXIS));
+        searchPanel.add(new JLabel("Enter search term:"));
+        searchPanel.add(termField);
+        searchPanel.add(Box.createVerticalStrut(5));
+        searchPanel.add(new JLabel("Suggestions:"));
+        searchPanel.add(new JScrollPane(suggestionList));
+
+        int choice = JOptionPane.showConfirmDialog(null, searchPanel, searchType,
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (choice != JOptionPane.OK_OPTION) {
+            return null;
+        }
+        String selected = suggestionList.getSelectedValue();
+        return selected != null ? selected : termField.getText().trim();
+    }
+
+    /**
+     * Gets the autocomplete suggestions for a partial search term.
+     * 
+     * @param searchType the selected search type
+     * @param searchTerm the text typed so far
+     * @return up to 10 suggestions
+     */
+    private List<String> suggest(String searchType, String searchTerm) {
+        switch (searchType) {
+            case "Search by Title":
+                return autocompleteService.suggestTitles(searchTerm, 10);
+            case "Search by Author":
+                return autocompleteService.suggestAuthors(searchTerm, 10);
+            case "Search by ISBN":
+                return autocompleteService.suggestIsbns(searchTerm, 10);
+            default:
+                return List.of();
+        }
+    }
+
     /**
      * Allows members to borrow a book.
      */
@@ -2039,12 +2267,20 @@ public class NovaBookUI {
                 return;
             }
 
+            // Look up which titles are lent out for the whole list at once
+            List<Integer> bookIds = new ArrayList<>();
+            for (Book book : availableBooks) {
+                bookIds.add(book.getId());
+            }
+            Set<Integer> lentBookIds = lendingService.findCurrentlyLentBookIds(bookIds);
+
             // Create book selection dialog
             String[] bookOptions = new String[availableBooks.size()];
             for (int i = 0; i < availableBooks.size(); i++) {
                 Book book = availableBooks.get(i);
                 bookOptions[i] = "ID: " + book.getId() + " - " + book.getTitle() + " by " + book.getAuthor()
-                        + " (Stock: " + book.getStock() + ")";
+                        + " (Stock: " + book.getStock() + ")"
+                        + (lentBookIds.contains(book.getId()) ? " [Currently lent out]" : "");
             }
 
             String selectedBook = (String) JOptionPane.showInputDialog(null,
@@ -2060,6 +2296,11 @@ public class NovaBookUI {
 
             // Extract book ID
             int bookId = Integer.parseInt(selectedBook.substring(4, selectedBook.indexOf(" -")));
+            if (lentBookIds.contains(bookId)
+                    || reservationService.isHeldForAnotherMember(bookId, currentMember.getId())) {
+                offerHold(bookId);
+                return;
+            }
 
             // Get lending period
             String daysStr = JOptionPane.showInputDialog("Enter lending period in days (default: 14):");
@@ -2079,50 +2320,47 @@ public class NovaBookUI {
                 }
             }
 
-            synchronized (this) {
-                // Check if member can borrow more books
-                if (!lendingService.canMemberBorrowMoreBooks(currentMember.getId(), 3)) {
-                    JOptionPane.showMessageDialog(null, "You have reached the maximum number of borrowed books (3).",
-                            "Borrowing Limit", JOptionPane.WARNING_MESSAGE);
-                    return;
-                }
+            // Check if member can borrow more books
+            if (!lendingService.canMemberBorrowMoreBooks(currentMember.getId())) {
+                JOptionPane.showMessageDialog(null, "You have reached the maximum number of borrowed books ("
+                        + lendingService.getMaxBooks(currentMember.getId()) + ").",
+                        "Borrowing Limit", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
 
-                // Check if book is available and has stock
-                if (!bookService.isBookAvailable(bookId)) {
-                    JOptionPane.showMessageDialog(null, "This book is not available for borrowing.",
-                            "Book Not Available", JOptionPane.WARNING_MESSAGE);
-                    return;
-                }
+            // Check if book is available and has stock
+            if (!bookService.isBookAvailable(bookId)) {
+                JOptionPane.showMessageDialog(null, "This book is not available for borrowing.",
+                        "Book Not Available", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
 
-                Lending lending = null;
-                try {
-                    // Try to create lending
-                    lending = lendingService.lendBook(currentMember.getId(), bookId, lendingDays);
-
-                    // If lending was successful, decrease stock
-                    if (lending != null && lending.getId() > 0) {
-                        if (bookService.decreaseStock(bookId)) {
-                            JOptionPane.showMessageDialog(null,
-                                    "Book borrowed successfully!\n" +
-                                            "Lending ID: " + lending.getId() + "\n" +
-                                            "Due Date: " + lending.getDueDate() + "\n" +
-                                            "Please return the book on time.",
-                                    "Borrowing Successful",
-                                    JOptionPane.INFORMATION_MESSAGE);
-                            return;
-                        }
-                    }
+            Lending lending = null;
+            try {
+                // Try to create lending
+                lending = lendingService.lendBook(currentMember.getId(), bookId, lendingDays);
 
+                // The lending service takes the copy out of stock
+                if (lending != null && lending.getId() > 0) {
                     JOptionPane.showMessageDialog(null,
-                            "Failed to borrow the book. Please try again.",
-                            "Error",
-                            JOptionPane.ERROR_MESSAGE);
-                } catch (Exception e) {
-                    JOptionPane.showMessageDialog(null,
-                            "Error while borrowing book: " + e.getMessage(),
-                            "Error",
-                            JOptionPane.ERROR_MESSAGE);
+                            "Book borrowed successfully!\n" +
+                                    "Lending ID: " + lending.getId() + "\n" +
+                                    "Due Date: " + lending.getDueDate() + "\n" +
+                                    "Please return the book on time.",
+                            "Borrowing Successful",
+                            JOptionPane.INFORMATION_MESSAGE);
+                    return;
                 }
+
+                JOptionPane.showMessageDialog(null,
+                        "Failed to borrow the book. Please try again.",
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE);
+            } catch (Exception e) {
+                JOptionPane.showMessageDialog(null,
+                        "Error while borrowing book: " + e.getMessage(),
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE);
             }
 
         } catch (Exception e) {
@@ -2131,6 +2369,86 @@ public class NovaBookUI {
         }
     }
 
+    /**
+     * Offers to place a hold on a book the member cannot borrow right now.
+     */
+    private void offerHold(int bookId) {
+        int queueLength = reservationService.getQueueLength(bookId);
+        int confirm = JOptionPane.showConfirmDialog(null,
+                "This book is currently lent out or kept for another member.\n"
+                        + queueLength + " member(s) are already waiting for it.\n\n"
+                        + "Would you like to place a hold?",
+                "Book Not Available", JOptionPane.YES_NO_OPTION);
+        if (confirm != JOptionPane.YES_OPTION) {
+            return;
+        }
+
+        try {
+            Reservation reservation = reservationService.placeHold(currentMember.getId(), bookId);
+            JOptionPane.showMessageDialog(null,
+                    "Hold placed successfully!\n" +
+                            "Reservation ID: " + reservation.getId() + "\n" +
+                            "Position in line: " + reservationService.getQueuePosition(reservation.getId()) + "\n" +
+                            "The book will be kept for you when it is returned.",
+                    "Hold Placed",
+                    JOptionPane.INFORMATION_MESSAGE);
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(null, e.getMessage(), "Hold Not Placed", JOptionPane.WARNING_MESSAGE);
+        }
+    }
+
+    /**
+     * Shows the member's active holds and lets them cancel one.
+     */
+    private void viewMyHolds() {
+        try {
+            List<Reservation> holds = reservationService.getActiveHoldsByMember(currentMember.getId());
+            if (holds.isEmpty()) {
+                JOptionPane.showMessageDialog(null, "You have no active holds.", "My Holds",
+                        JOptionPane.INFORMATION_MESSAGE);
+                return;
+            }
+
+            String[] holdOptions = new String[holds.size()];
+            for (int i = 0; i < holds.size(); i++) {
+                Reservation hold = holds.get(i);
+                String bookTitle = bookService.findBookById(hold.getBookId()).map(Book::getTitle)
+                        .orElse("Unknown Book");
+                holdOptions[i] = "ID: " + hold.getId() + " - " + bookTitle
+                        + (hold.getStatus() == Reservation.Status.READY
+                                ? " (Ready to borrow until " + hold.getExpiresAt() + ")"
+                                : " (Position in line: " + reservationService.getQueuePosition(hold.getId()) + ")");
+            }
+
+            String selectedHold = (String) JOptionPane.showInputDialog(null,
+                    "Your holds. Select one to cancel it:",
+                    "My Holds",
+                    JOptionPane.QUESTION_MESSAGE,
+                    null,
+                    holdOptions,
+                    holdOptions[0]);
+
+            if (selectedHold == null)
+                return;
+
+            int reservationId = Integer.parseInt(selectedHold.substring(4, selectedHold.indexOf(" -")));
+            int confirm = JOptionPane.showConfirmDialog(null, "Cancel this hold?", "Cancel Hold",
+                    JOptionPane.YES_NO_OPTION);
+            if (confirm == JOptionPane.YES_OPTION) {
+                if (reservationService.cancelHold(reservationId)) {
+                    JOptionPane.showMessageDialog(null, "Hold cancelled.", "Cancel Hold",
+                            JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(null, "The hold is no longer active.", "Cancel Hold",
+                            JOptionPane.WARNING_MESSAGE);
+                }
+            }
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(null, "Error retrieving your holds: " + e.getMessage(),
+                    "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     /**
      * Allows members to return a book.
      */
@@ -2171,15 +2489,9 @@ public class NovaBookUI {
             // Extract lending ID
             int lendingId = Integer.parseInt(selectedlending.substring(4, selectedlending.indexOf(" -")));
 
-            // Return the book
+            // Return the book; the lending service puts the copy back into stock
             boolean success = lendingService.returnBook(lendingId);
             if (success) {
-                // Increase book stock
-                Optional<Lending> lendingOpt = lendingService.findLendingById(lendingId);
-                if (lendingOpt.isPresent()) {
-                    bookService.increaseStock(lendingOpt.get().getBookId());
-                }
-
                 JOptionPane.showMessageDialog(null, "Book returned successfully!", "Return Successful",
                         JOptionPane.INFORMATION_MESSAGE);
             } else {
@@ -2244,14 +2556,7 @@ public class NovaBookUI {
      */
     private void viewMyDueSoonLendings() {
         try {
-            List<Lending> allLoans = lendingService.getLendingsByMember(currentMember.getId());
-            Instant threeDaysFromNow = Instant.now().plus(3, java.time.temporal.ChronoUnit.DAYS);
-
-            List<Lending> dueSoonLoans = allLoans.stream()
-                    .filter(lending -> !lending.isReturned())
-                    .filter(lending -> lending.getDueDate().isBefore(threeDaysFromNow)
-                            && lending.getDueDate().isAfter(Instant.now()))
-                    .collect(java.util.stream.Collectors.toList());
+            List<Lending> dueSoonLoans = lendingService.getDueSoonLendingsByMember(currentMember.getId());
 
             if (dueSoonLoans.isEmpty()) {
                 JOptionPane.showMessageDialog(null, "You have no loans due soon.", "My Due Soon Loans",
@@ -3,6 +3,8 @@ package com.codeup.novabook.ui.components;
 import com.codeup.novabook.domain.Book;
 import com.codeup.novabook.exceptions.book.DuplicateISBNException;
 import com.codeup.novabook.exceptions.book.InvalidStockException;
+import com.codeup.novabook.exceptions.db.ConcurrentUpdateException;
+import com.codeup.novabook.infra.metrics.Timed;
 import com.codeup.novabook.service.BookService;
 import com.codeup.novabook.service.impl.BookServiceImpl;
 import com.codeup.novabook.utils.ErrorHandler;
@@ -20,7 +22,7 @@ public class BookPanel extends JPanel {
     private final JButton btnDelete;
     
     public BookPanel() {
-        this.bookService = new BookServiceImpl();
+        this.bookService = Timed.wrap(BookService.class, new BookServiceImpl());
         this.formPanel = new BookFormPanel();
         this.tablePanel = new BookTablePanel();
         this.btnEdit = new JButton("Editar");
@@ -113,8 +115,8 @@ public class BookPanel extends JPanel {
 
     private void handleEditBook(ActionEvent evt) {
         try {
-            int selectedId = tablePanel.getSelectedBookId();
-            if (selectedId <= 0) {
+            Book selected = tablePanel.getSelectedBook();
+            if (selected == null) {
                 JOptionPane.showMessageDialog(this, "Seleccione un libro para editar", "Aviso", JOptionPane.WARNING_MESSAGE);
                 return;
             }
@@ -124,16 +126,20 @@ public class BookPanel extends JPanel {
             String author = formPanel.getAuthor();
             int stock = Integer.parseInt(formPanel.getStock());
 
-            // Build book with selected ID
-            Book book = new Book(selectedId, isbn, title, author, stock, null, Instant.now());
+            // Only the fields edited here are saved; changes others made meanwhile to the rest are kept
+            Book book = new Book(selected.getId(), isbn, title, author, stock, selected.getCreatedAt(), Instant.now());
 
-            bookService.updateBook(book);
+            bookService.applyEdits(selected, book);
             formPanel.clearForm();
             formPanel.setButtonText("Agregar Libro");
             loadBooks();
             JOptionPane.showMessageDialog(this, "Libro actualizado correctamente", "Éxito", JOptionPane.INFORMATION_MESSAGE);
         } catch (NumberFormatException ex) {
             ErrorHandler.handleError("Error de formato", "El stock debe ser un número válido", ex);
+        } catch (ConcurrentUpdateException ex) {
+            loadBooks();
+            ErrorHandler.handleError("Conflicto de edición",
+                    "Otro usuario modificó los mismos campos del libro mientras lo editaba. Se recargaron los datos; vuelva a intentarlo.", ex);
         } catch (Exception ex) {
             ErrorHandler.handleError("Error al actualizar", "No se pudo actualizar el libro: " + ex.getMessage(), ex);
         }
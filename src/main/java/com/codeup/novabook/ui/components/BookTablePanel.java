@@ -6,11 +6,14 @@ import com.codeup.novabook.utils.ErrorHandler;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.util.ArrayList;
 import java.util.List;
 
 public class BookTablePanel extends JPanel {
     private final JTable tblBooks;
     private final DefaultTableModel tableModel;
+    // Books shown, row by row, as read (with their versions) for editing
+    private final List<Book> books = new ArrayList<>();
     
     public BookTablePanel() {
         setLayout(new BorderLayout());
@@ -61,6 +64,8 @@ public class BookTablePanel extends JPanel {
     public void updateBooks(List<Book> books) {
         try {
             tableModel.setRowCount(0);
+            this.books.clear();
+            this.books.addAll(books);
             
             for (Book book : books) {
                 Object[] row = {
@@ -87,15 +92,7 @@ public class BookTablePanel extends JPanel {
             return null;
         }
         
-        return new Book(
-            Integer.parseInt(tableModel.getValueAt(selectedRow, 0).toString()), // ID
-            tableModel.getValueAt(selectedRow, 1).toString(), // ISBN
-            tableModel.getValueAt(selectedRow, 2).toString(), // Title
-            tableModel.getValueAt(selectedRow, 3).toString(), // Author
-            Integer.parseInt(tableModel.getValueAt(selectedRow, 4).toString()), // Stock
-            null, // Created at not available in table
-            null  // Updated at not available in table
-        );
+        return books.get(selectedRow);
     }
 
     public int getSelectedBookId() {
@@ -0,0 +1,56 @@
+package com.codeup.novabook.utils;
+
+import com.codeup.novabook.exceptions.db.ConcurrentUpdateException;
+
+import java.util.function.Supplier;
+
+/**
+ * Retries read-modify-write operations that lost a race to a concurrent
+ * update. The operation must read the current row itself on every attempt,
+ * so each retry starts from the latest version.
+ */
+public final class ConflictRetry {
+
+    /** Attempts made when none is given. */
+    public static final int DEFAULT_ATTEMPTS = 3;
+
+    private ConflictRetry() {
+    }
+
+    /**
+     * Runs an operation, running it again while it fails with a
+     * {@link ConcurrentUpdateException}.
+     *
+     * @param maxAttempts how many times the operation may run
+     * @param operation   the operation, re-reading what it updates
+     * @param <T>         the result type
+     * @return the result of the first attempt that did not conflict
+     * @throws ConcurrentUpdateException if every attempt conflicted
+     */
+    public static <T> T run(int maxAttempts, Supplier<T> operation) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("Attempts must be positive");
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return operation.get();
+            } catch (ConcurrentUpdateException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs an operation with {@link #DEFAULT_ATTEMPTS} attempts.
+     *
+     * @param operation the operation, re-reading what it updates
+     * @param <T>       the result type
+     * @return the result of the first attempt that did not conflict
+     * @throws ConcurrentUpdateException if every attempt conflicted
+     */
+    public static <T> T run(Supplier<T> operation) {
+        return run(DEFAULT_ATTEMPTS, operation);
+    }
+}
@@ -2,8 +2,10 @@ package com.codeup.novabook.utils;
 
 import com.codeup.novabook.domain.Book;
 import com.codeup.novabook.domain.Lending;
+import com.codeup.novabook.infra.jfr.ExportEvent;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -22,6 +24,21 @@ public class CsvExporter {
      * @return true if export was successful, false otherwise
      */
     public static boolean exportBooksToCsv(List<Book> books, String filePath) {
+        ExportEvent event = new ExportEvent();
+        event.begin();
+        boolean success = writeBooks(books, filePath);
+        event.end();
+        if (event.shouldCommit()) {
+            event.kind = "books";
+            event.rows = books.size();
+            event.path = filePath;
+            event.success = success;
+            event.commit();
+        }
+        return success;
+    }
+
+    private static boolean writeBooks(List<Book> books, String filePath) {
         try (FileWriter writer = new FileWriter(filePath)) {
             // Write header
             writer.write("ISBN,Title,Author,Stock,CreatedAt,UpdatedAt\n");
@@ -55,11 +72,27 @@ public class CsvExporter {
      * @return true if export was successful, false otherwise
      */
     public static boolean exportOverdueLendingsToCsv(List<Lending> lendings, String filePath) {
+        ExportEvent event = new ExportEvent();
+        event.begin();
+        boolean success = writeOverdueLendings(lendings, filePath);
+        event.end();
+        if (event.shouldCommit()) {
+            event.kind = "overdueLendings";
+            event.rows = lendings.size();
+            event.path = filePath;
+            event.success = success;
+            event.commit();
+        }
+        return success;
+    }
+
+    private static boolean writeOverdueLendings(List<Lending> lendings, String filePath) {
         try (FileWriter writer = new FileWriter(filePath)) {
             // Write header
             writer.write("LendingID,BookTitle,MemberName,LendDate,DueDate,DaysOverdue\n");
 
             // Write lending data
+            Instant now = Instant.now();
             for (Lending lending : lendings) {
                 writer.write(String.format("%d,%d,%d,%s,%s,%d\n",
                         lending.getId(),
@@ -67,7 +100,7 @@ public class CsvExporter {
                         lending.getMemberId(),
                         lending.getLendingDate(),
                         lending.getDueDate(),
-                        lending.getDaysOverdue()));
+                        lending.getDaysOverdue(now)));
             }
 
             LOGGER.log(Level.INFO, "Successfully exported {0} overdue lendings to {1}",
@@ -0,0 +1,275 @@
+package com.codeup.novabook.utils;
+
+/**
+ * Utility class for parsing, validating and converting ISBNs.
+ * <p>
+ * Accepts ISBN-10 and ISBN-13 values with an optional "ISBN", "ISBN-10" or
+ * "ISBN-13" prefix and hyphens or spaces between digits. Every method works
+ * in a single pass over the characters without regular expressions, and
+ * validation does not allocate at all.
+ * </p>
+ */
+public final class IsbnCodec {
+
+    /**
+     * Returned by {@link #toKey(CharSequence)} for input that is not a valid ISBN.
+     */
+    public static final long NO_KEY = -1L;
+
+    private static final int INVALID = -1;
+    private static final long MIN_KEY = 978_000_000_000_0L;
+    private static final long MAX_KEY = 979_999_999_999_9L;
+
+    private IsbnCodec() {
+    }
+
+    /**
+     * Checks that an ISBN is well formed and that its check digit is correct.
+     * ISBN-13 values must start with 978 or 979.
+     *
+     * @param isbn the ISBN to validate
+     * @return true if the ISBN is valid
+     */
+    public static boolean isValid(CharSequence isbn) {
+        if (isbn == null) {
+            return false;
+        }
+        int start = bodyStart(isbn);
+        if (start == INVALID) {
+            return false;
+        }
+
+        int digits = 0;
+        int sum10 = 0;
+        int sum13 = 0;
+        int prefix = 0;
+        int end = trimmedEnd(isbn);
+        for (int i = start; i < end; i++) {
+            char c = isbn.charAt(i);
+            if (c >= '0' && c <= '9') {
+                int d = c - '0';
+                if (digits < 10) {
+                    sum10 += (10 - digits) * d;
+                }
+                sum13 += (digits & 1) == 0 ? d : 3 * d;
+                if (digits < 3) {
+                    prefix = prefix * 10 + d;
+                }
+                digits++;
+            } else if ((c == 'X' || c == 'x') && digits == 9 && isLastSignificant(isbn, i, end)) {
+                sum10 += 10;
+                digits++;
+            } else if (!isSeparator(c) || digits == 0) {
+                return false;
+            }
+            if (digits > 13) {
+                return false;
+            }
+        }
+
+        if (digits == 10) {
+            return sum10 % 11 == 0;
+        }
+        return digits == 13 && sum13 % 10 == 0 && (prefix == 978 || prefix == 979);
+    }
+
+    /**
+     * Normalizes an ISBN to its canonical form: digits only, upper-case check
+     * character, no prefix or separators. The check digit is not verified;
+     * use {@link #isValid(CharSequence)} for that.
+     *
+     * @param isbn the ISBN to normalize
+     * @return the canonical 10 or 13 character ISBN, or null if the input is
+     *         not shaped like an ISBN
+     */
+    public static String normalize(CharSequence isbn) {
+        if (isbn == null) {
+            return null;
+        }
+        if (isCanonical(isbn)) {
+            return isbn.toString();
+        }
+        int start = bodyStart(isbn);
+        if (start == INVALID) {
+            return null;
+        }
+
+        char[] buffer = new char[13];
+        int digits = 0;
+        int end = trimmedEnd(isbn);
+        for (int i = start; i < end; i++) {
+            char c = isbn.charAt(i);
+            if (digits == 13 && !isSeparator(c)) {
+                return null;
+            }
+            if (c >= '0' && c <= '9') {
+                buffer[digits++] = c;
+            } else if ((c == 'X' || c == 'x') && digits == 9 && isLastSignificant(isbn, i, end)) {
+                buffer[digits++] = 'X';
+            } else if (!isSeparator(c) || digits == 0) {
+                return null;
+            }
+        }
+        return digits == 10 || digits == 13 ? new String(buffer, 0, digits) : null;
+    }
+
+    /**
+     * Converts an ISBN to its ISBN-13 form, recomputing the check digit when
+     * converting from ISBN-10.
+     *
+     * @param isbn the ISBN to convert
+     * @return the canonical ISBN-13, or null if the ISBN is not valid
+     */
+    public static String toIsbn13(CharSequence isbn) {
+        long key = toKey(isbn);
+        return key == NO_KEY ? null : fromKey(key);
+    }
+
+    /**
+     * Packs an ISBN into a long: the numeric value of its ISBN-13 form.
+     * ISBN-10 values are converted first, so both forms of the same book share
+     * a key. Keys are ordered like the ISBN-13 strings they represent, which
+     * makes ISBN prefixes contiguous key ranges. No objects are allocated.
+     *
+     * @param isbn the ISBN to pack
+     * @return the key, or {@link #NO_KEY} if the ISBN is not valid
+     */
+    public static long toKey(CharSequence isbn) {
+        if (!isValid(isbn)) {
+            return NO_KEY;
+        }
+        long value = 0;
+        int digits = 0;
+        int end = trimmedEnd(isbn);
+        for (int i = bodyStart(isbn); i < end; i++) {
+            char c = isbn.charAt(i);
+            if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                digits++;
+            }
+        }
+        if (digits == 13) {
+            return value;
+        }
+        // ISBN-10: drop its check digit (absent when it was an X) and re-prefix with 978
+        long body = digits == 10 ? value / 10 : value;
+        long first12 = 978_000_000_000L + body;
+        return first12 * 10 + checkDigit13(first12);
+    }
+
+    /**
+     * Unpacks a key produced by {@link #toKey(CharSequence)}.
+     *
+     * @param key the packed ISBN
+     * @return the canonical ISBN-13
+     * @throws IllegalArgumentException if the value is not an ISBN key
+     */
+    public static String fromKey(long key) {
+        if (!isKey(key)) {
+            throw new IllegalArgumentException("Not an ISBN key: " + key);
+        }
+        char[] buffer = new char[13];
+        for (int i = 12; i >= 0; i--) {
+            buffer[i] = (char) ('0' + key % 10);
+            key /= 10;
+        }
+        return new String(buffer);
+    }
+
+    /**
+     * Checks whether a long is in the range of ISBN keys.
+     *
+     * @param key the value to check
+     * @return true if the value can be an ISBN key
+     */
+    public static boolean isKey(long key) {
+        return key >= MIN_KEY && key <= MAX_KEY;
+    }
+
+    /**
+     * Computes the ISBN-13 check digit for its first twelve digits.
+     */
+    private static int checkDigit13(long first12) {
+        int sum = 0;
+        // Walk from the right: position 11 (weight 3) down to position 0 (weight 1)
+        for (int position = 11; position >= 0; position--) {
+            int d = (int) (first12 % 10);
+            sum += (position & 1) == 0 ? d : 3 * d;
+            first12 /= 10;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    /**
+     * Checks whether the input is already a bare 10 or 13 character ISBN.
+     */
+    private static boolean isCanonical(CharSequence isbn) {
+        int length = isbn.length();
+        if (length != 10 && length != 13) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = isbn.charAt(i);
+            if ((c < '0' || c > '9') && !(c == 'X' && length == 10 && i == 9)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Skips leading whitespace and an optional "ISBN", "ISBN-10:" or
+     * "ISBN-13:" prefix.
+     *
+     * @return the index of the first character of the ISBN body, or INVALID
+     */
+    private static int bodyStart(CharSequence isbn) {
+        int length = isbn.length();
+        int i = 0;
+        while (i < length && Character.isWhitespace(isbn.charAt(i))) {
+            i++;
+        }
+        if (i + 4 <= length && startsWithIsbn(isbn, i)) {
+            i += 4;
+            if (i + 3 <= length && isbn.charAt(i) == '-' && isbn.charAt(i + 1) == '1'
+                    && (isbn.charAt(i + 2) == '0' || isbn.charAt(i + 2) == '3')) {
+                i += 3;
+            }
+            if (i < length && isbn.charAt(i) == ':') {
+                i++;
+            }
+            while (i < length && Character.isWhitespace(isbn.charAt(i))) {
+                i++;
+            }
+        }
+        return i < length ? i : INVALID;
+    }
+
+    private static boolean startsWithIsbn(CharSequence isbn, int offset) {
+        return (isbn.charAt(offset) | 0x20) == 'i'
+                && (isbn.charAt(offset + 1) | 0x20) == 's'
+                && (isbn.charAt(offset + 2) | 0x20) == 'b'
+                && (isbn.charAt(offset + 3) | 0x20) == 'n';
+    }
+
+    private static int trimmedEnd(CharSequence isbn) {
+        int end = isbn.length();
+        while (end > 0 && Character.isWhitespace(isbn.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    private static boolean isLastSignificant(CharSequence isbn, int index, int end) {
+        for (int i = index + 1; i < end; i++) {
+            if (!isSeparator(isbn.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == '-' || c == ' ';
+    }
+}
@@ -1,6 +1,17 @@
 package com.codeup.novabook.utils;
 
+import com.codeup.novabook.infra.config.AppConfig;
+import com.codeup.novabook.infra.logging.AsyncHandler;
+import com.codeup.novabook.infra.logging.JsonFormatter;
+import com.codeup.novabook.infra.logging.RollingFileHandler;
+
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
 import java.util.logging.*;
 
 /**
@@ -10,10 +21,14 @@ public class LoggerConfig {
     private static final Logger LOGGER = Logger.getLogger("com.codeup.novabook");
     private static final String LOG_FILE = "app.log";
     private static boolean initialized = false;
+    private static final AsyncHandler.OverflowPolicy DEFAULT_OVERFLOW_POLICY = AsyncHandler.OverflowPolicy.SAMPLE;
+    private static AsyncHandler asyncHandler;
 
     /**
      * Initializes the logging configuration.
-     * Sets up both file and console handlers with appropriate formatters.
+     * Sets up a rolling file handler (JSON lines unless configured as text)
+     * and a console handler, written to from a background thread so logging
+     * callers never wait for I/O.
      */
     public static void init() {
         if (initialized) {
@@ -21,9 +36,15 @@ public class LoggerConfig {
         }
 
         try {
-            // Create file handler
-            FileHandler fileHandler = new FileHandler(LOG_FILE, true);
-            fileHandler.setFormatter(new SimpleFormatter());
+            // Create file handler; buffered, as the async handler flushes once per batch
+            AppConfig config = AppConfig.getInstance();
+            Formatter fileFormatter = "text".equalsIgnoreCase(config.get("log.format", "json"))
+                    ? new SimpleFormatter() : new JsonFormatter();
+            RollingFileHandler fileHandler = new RollingFileHandler(Paths.get(config.get("log.file", LOG_FILE)),
+                    config.getLong("log.rolling.maxMegabytes", RollingFileHandler.DEFAULT_MAX_MEGABYTES) * 1024 * 1024,
+                    Duration.ofHours(config.getLong("log.rolling.hours", RollingFileHandler.DEFAULT_ROLL_HOURS)),
+                    config.getInt("log.rolling.maxFiles", RollingFileHandler.DEFAULT_MAX_FILES),
+                    config.getBoolean("log.rolling.gzip", true), fileFormatter, Clock.systemUTC());
 
             // Create console handler
             ConsoleHandler consoleHandler = new ConsoleHandler();
@@ -39,11 +60,24 @@ public class LoggerConfig {
                 rootLogger.removeHandler(handler);
             }
 
-            // Add our handlers
-            rootLogger.addHandler(fileHandler);
-            rootLogger.addHandler(consoleHandler);
+            // Add our handlers behind a single writer thread
+            String overflow = config.get("log.async.overflow", DEFAULT_OVERFLOW_POLICY.name());
+            Optional<AsyncHandler.OverflowPolicy> overflowPolicy = parseOverflowPolicy(overflow);
+            asyncHandler = new AsyncHandler(
+                    config.getInt("log.async.capacity", AsyncHandler.DEFAULT_CAPACITY),
+                    config.getInt("log.async.batchSize", AsyncHandler.DEFAULT_BATCH_SIZE),
+                    overflowPolicy.orElse(DEFAULT_OVERFLOW_POLICY),
+                    config.getInt("log.async.sampleRate", AsyncHandler.DEFAULT_SAMPLE_RATE),
+                    fileHandler, consoleHandler);
+            rootLogger.addHandler(asyncHandler);
+            Runtime.getRuntime().addShutdownHook(new Thread(asyncHandler::close, "log-shutdown"));
 
             LOGGER.info("Logging system initialized");
+            if (overflowPolicy.isEmpty()) {
+                LOGGER.warning("Unknown log.async.overflow '" + overflow + "'; expected one of "
+                        + Arrays.toString(AsyncHandler.OverflowPolicy.values()) + ", using "
+                        + DEFAULT_OVERFLOW_POLICY);
+            }
             initialized = true;
 
         } catch (IOException e) {
@@ -52,6 +86,35 @@ public class LoggerConfig {
         }
     }
 
+    /**
+     * Parses the policy for a full log buffer, ignoring case and surrounding
+     * blanks.
+     *
+     * @param value the configured policy name
+     * @return the policy, or empty if the name is not one of
+     *         {@link AsyncHandler.OverflowPolicy}
+     */
+    static Optional<AsyncHandler.OverflowPolicy> parseOverflowPolicy(String value) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(AsyncHandler.OverflowPolicy.valueOf(value.trim().toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Gets the handler that writes log records in the background, for its
+     * drop counters.
+     *
+     * @return the handler, or null before initialization
+     */
+    public static AsyncHandler getAsyncHandler() {
+        return asyncHandler;
+    }
+
     /**
      * Gets the application logger.
      *
@@ -0,0 +1,58 @@
+package com.codeup.novabook.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money helpers. Amounts are held as a {@code long} count of
+ * cents, so adding and multiplying them is exact, unlike {@code double}.
+ */
+public final class Money {
+
+    private Money() {
+    }
+
+    /**
+     * Parses a decimal amount such as {@code "1.25"} into cents.
+     *
+     * @param amount the amount, with at most two decimals
+     * @return the amount in cents
+     * @throws IllegalArgumentException if the text is not an amount or has
+     *                                  more than two decimals
+     */
+    public static long parseCents(String amount) {
+        if (amount == null || amount.trim().isEmpty()) {
+            throw new IllegalArgumentException("Amount cannot be null or empty");
+        }
+        try {
+            return new BigDecimal(amount.trim()).setScale(2, RoundingMode.UNNECESSARY)
+                    .movePointRight(2).longValueExact();
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount: " + amount, e);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount must have at most two decimals: " + amount, e);
+        }
+    }
+
+    /**
+     * Formats cents as a decimal amount with two decimals.
+     *
+     * @param cents the amount in cents
+     * @return the amount, for example {@code "12.50"}
+     */
+    public static String format(long cents) {
+        return BigDecimal.valueOf(cents, 2).toPlainString();
+    }
+
+    /**
+     * Multiplies an amount by a count, failing instead of overflowing.
+     *
+     * @param cents the amount in cents
+     * @param times the count
+     * @return the product in cents
+     * @throws ArithmeticException if the result does not fit in a long
+     */
+    public static long times(long cents, long times) {
+        return Math.multiplyExact(cents, times);
+    }
+}
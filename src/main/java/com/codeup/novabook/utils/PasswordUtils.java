@@ -8,24 +8,44 @@ import org.mindrot.jbcrypt.BCrypt;
 
 /**
  * Utility class for handling password hashing and verification.
- * 
+ *
  * @author Adrián Gutiérrez
  */
 public class PasswordUtils {
-    
+
+    /** Cost used until one is configured or calibrated. */
+    public static final int DEFAULT_COST = 12;
+    /** Lowest cost BCrypt accepts. */
+    public static final int MIN_COST = 4;
+    /** Highest cost BCrypt accepts. */
+    public static final int MAX_COST = 31;
+
+    private static volatile int cost = DEFAULT_COST;
+
     /**
-     * Hashes a password using BCrypt.
-     * 
+     * Hashes a password using BCrypt at the current cost.
+     *
      * @param plainTextPassword the password to hash
      * @return the hashed password
      */
     public static String hashPassword(String plainTextPassword) {
-        return BCrypt.hashpw(plainTextPassword, BCrypt.gensalt(12));
+        return hashPassword(plainTextPassword, cost);
     }
-    
+
+    /**
+     * Hashes a password using BCrypt at a given cost.
+     *
+     * @param plainTextPassword the password to hash
+     * @param cost the log2 number of rounds
+     * @return the hashed password
+     */
+    public static String hashPassword(String plainTextPassword, int cost) {
+        return BCrypt.hashpw(plainTextPassword, BCrypt.gensalt(cost));
+    }
+
     /**
      * Verifies a password against a hash.
-     * 
+     *
      * @param plainTextPassword the password to check
      * @param hashedPassword the hash to check against
      * @return true if the password matches the hash
@@ -33,4 +53,58 @@ public class PasswordUtils {
     public static boolean verifyPassword(String plainTextPassword, String hashedPassword) {
         return BCrypt.checkpw(plainTextPassword, hashedPassword);
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the cost new hashes are made with.
+     *
+     * @return the current cost
+     */
+    public static int getCost() {
+        return cost;
+    }
+
+    /**
+     * Sets the cost new hashes are made with.
+     *
+     * @param newCost the log2 number of rounds
+     * @throws IllegalArgumentException if BCrypt does not accept the cost
+     */
+    public static void setCost(int newCost) {
+        if (newCost < MIN_COST || newCost > MAX_COST) {
+            throw new IllegalArgumentException("BCrypt cost must be between " + MIN_COST + " and " + MAX_COST);
+        }
+        cost = newCost;
+    }
+
+    /**
+     * Reads the cost a hash was made with.
+     *
+     * @param hashedPassword a BCrypt hash such as {@code $2a$12$...}
+     * @return the cost, or -1 if the value is not a BCrypt hash
+     */
+    public static int getCost(String hashedPassword) {
+        if (hashedPassword == null || hashedPassword.length() < 7 || hashedPassword.charAt(0) != '$'
+                || hashedPassword.charAt(3) != '$' || hashedPassword.charAt(6) != '$') {
+            return -1;
+        }
+        char tens = hashedPassword.charAt(4);
+        char units = hashedPassword.charAt(5);
+        if (!Character.isDigit(tens) || !Character.isDigit(units)) {
+            return -1;
+        }
+        return (tens - '0') * 10 + (units - '0');
+    }
+
+    /**
+     * Checks whether a hash was made with a lower cost than the current one.
+     * Hashes are only ever strengthened: terminals that calibrated different
+     * costs share the users table, and rehashing down would let them undo
+     * each other's work on every login.
+     *
+     * @param hashedPassword the stored hash
+     * @return true if the password should be hashed again
+     */
+    public static boolean needsRehash(String hashedPassword) {
+        return getCost(hashedPassword) < cost;
+    }
+}
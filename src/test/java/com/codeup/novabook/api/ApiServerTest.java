@@ -0,0 +1,291 @@
+package com.codeup.novabook.api;
+
+import com.codeup.novabook.domain.Book;
+import com.codeup.novabook.domain.Lending;
+import com.codeup.novabook.domain.LendingOutcome;
+import com.codeup.novabook.domain.User;
+import com.codeup.novabook.exceptions.user.TooManyLoginAttemptsException;
+import com.codeup.novabook.security.Session;
+import com.codeup.novabook.security.SessionManager;
+import com.codeup.novabook.service.BookService;
+import com.codeup.novabook.service.LendingService;
+import com.codeup.novabook.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ApiServerTest {
+
+    @Mock
+    private BookService bookService;
+
+    @Mock
+    private LendingService lendingService;
+
+    @Mock
+    private UserService userService;
+
+    private ApiServer server;
+    private HttpClient client;
+    private Session librarian;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new ApiServer(new InetSocketAddress("127.0.0.1", 0), 50, 4, Duration.ofMillis(100),
+                bookService, lendingService, userService);
+        server.start();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        Instant now = Instant.now();
+        librarian = new SessionManager(Clock.systemUTC(), Duration.ofMinutes(30), Duration.ofHours(8), 10)
+                .issue(new User(1, "Ana", "ana@novabook.com", "hash", "555-0100", "ADMIN", "READ_WRITE", true, false,
+                        now, now));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(Duration.ZERO);
+    }
+
+    @Test
+    void books_SearchByTitle_ShouldReturnJsonArray() throws Exception {
+        // Arrange
+        Instant now = Instant.now();
+        when(bookService.searchBooksByTitle("dune")).thenReturn(List.of(
+                new Book(7, "9780441013593", "Dune \"Deluxe\"", "Frank Herbert", 3, now, now)));
+
+        // Act
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/api/books?title=dune")).GET());
+
+        // Assert
+        assertEquals(200, response.statusCode());
+        assertEquals("[{\"id\":7,\"isbn\":\"9780441013593\",\"title\":\"Dune \\\"Deluxe\\\"\","
+                + "\"author\":\"Frank Herbert\",\"stock\":3}]", response.body());
+    }
+
+    @Test
+    void checkout_WithoutToken_ShouldReturn401() throws Exception {
+        // Act
+        HttpResponse<String> response = send(form("/api/checkouts", "memberId=1&bookId=7"));
+
+        // Assert
+        assertEquals(401, response.statusCode());
+        verifyNoInteractions(lendingService);
+    }
+
+    @Test
+    void checkout_SingleBook_ShouldGoThroughStockAdjustingBulkPath() throws Exception {
+        // Arrange
+        when(userService.findSession(librarian.getToken())).thenReturn(Optional.of(librarian));
+        when(lendingService.checkoutAll(3, List.of(7), 0)).thenReturn(List.of(
+                new LendingOutcome(7, LendingOutcome.Status.DONE, lending(11, 3, 7, false))));
+
+        // Act
+        HttpResponse<String> response = send(form("/api/checkouts", "memberId=3&bookId=7")
+                .header("Authorization", "Bearer " + librarian.getToken()));
+
+        // Assert
+        assertEquals(201, response.statusCode());
+        assertTrue(response.body().startsWith("{\"id\":11,\"memberId\":3,\"bookId\":7,"));
+        verify(lendingService).checkoutAll(3, List.of(7), 0);
+        verify(lendingService, never()).lendBook(anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    void checkout_ManyBooks_ShouldGoThroughStockAdjustingBulkPath() throws Exception {
+        // Arrange
+        when(userService.findSession(librarian.getToken())).thenReturn(Optional.of(librarian));
+        when(lendingService.checkoutAll(3, List.of(7, 8), 0)).thenReturn(List.of(
+                new LendingOutcome(7, LendingOutcome.Status.DONE, lending(11, 3, 7, false)),
+                new LendingOutcome(8, LendingOutcome.Status.NOT_AVAILABLE, null)));
+
+        // Act
+        HttpResponse<String> response = send(form("/api/checkouts", "memberId=3&bookIds=7,8")
+                .header("Authorization", "Bearer " + librarian.getToken()));
+
+        // Assert
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("\"requestedId\":8,\"status\":\"NOT_AVAILABLE\""));
+        verify(lendingService).checkoutAll(3, List.of(7, 8), 0);
+    }
+
+    @Test
+    void checkout_BookNotAvailable_ShouldReturn409() throws Exception {
+        // Arrange
+        when(userService.findSession(librarian.getToken())).thenReturn(Optional.of(librarian));
+        when(lendingService.checkoutAll(3, List.of(7), 0)).thenReturn(List.of(
+                new LendingOutcome(7, LendingOutcome.Status.NOT_AVAILABLE, null)));
+
+        // Act
+        HttpResponse<String> response = send(form("/api/checkouts", "memberId=3&bookId=7")
+                .header("Authorization", "Bearer " + librarian.getToken()));
+
+        // Assert
+        assertEquals(409, response.statusCode());
+        assertEquals("{\"status\":409,\"error\":\"Book 7 is not available\"}", response.body());
+    }
+
+    @Test
+    void checkout_ServiceRejects_ShouldReturn400WithMessage() throws Exception {
+        // Arrange
+        when(userService.findSession(librarian.getToken())).thenReturn(Optional.of(librarian));
+        when(lendingService.checkoutAll(3, List.of(7), 0))
+                .thenThrow(new IllegalArgumentException("Member ID must be positive"));
+
+        // Act
+        HttpResponse<String> response = send(form("/api/checkouts", "memberId=3&bookId=7")
+                .header("Authorization", "Bearer " + librarian.getToken()));
+
+        // Assert
+        assertEquals(400, response.statusCode());
+        assertEquals("{\"status\":400,\"error\":\"Member ID must be positive\"}", response.body());
+    }
+
+    @Test
+    void checkin_SingleLending_ShouldGoThroughStockAdjustingBulkPath() throws Exception {
+        // Arrange
+        when(userService.findSession(librarian.getToken())).thenReturn(Optional.of(librarian));
+        when(lendingService.checkinAll(List.of(11))).thenReturn(List.of(
+                new LendingOutcome(11, LendingOutcome.Status.DONE, lending(11, 3, 7, true))));
+
+        // Act
+        HttpResponse<String> response = send(form("/api/checkins", "lendingId=11")
+                .header("Authorization", "Bearer " + librarian.getToken()));
+
+        // Assert
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("\"returned\":true"));
+        verify(lendingService).checkinAll(List.of(11));
+        verify(lendingService, never()).returnBook(anyInt());
+    }
+
+    @Test
+    void checkin_ManyLendings_ShouldGoThroughStockAdjustingBulkPath() throws Exception {
+        // Arrange
+        when(userService.findSession(librarian.getToken())).thenReturn(Optional.of(librarian));
+        when(lendingService.checkinAll(List.of(11, 12))).thenReturn(List.of(
+                new LendingOutcome(11, LendingOutcome.Status.DONE, lending(11, 3, 7, true)),
+                new LendingOutcome(12, LendingOutcome.Status.NOT_FOUND, null)));
+
+        // Act
+        HttpResponse<String> response = send(form("/api/checkins", "lendingIds=11,12")
+                .header("Authorization", "Bearer " + librarian.getToken()));
+
+        // Assert
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("\"requestedId\":12,\"status\":\"NOT_FOUND\""));
+        verify(lendingService).checkinAll(List.of(11, 12));
+    }
+
+    @Test
+    void checkin_AlreadyReturned_ShouldReturn409() throws Exception {
+        // Arrange
+        when(userService.findSession(librarian.getToken())).thenReturn(Optional.of(librarian));
+        when(lendingService.checkinAll(List.of(11))).thenReturn(List.of(
+                new LendingOutcome(11, LendingOutcome.Status.ALREADY_RETURNED, lending(11, 3, 7, true))));
+
+        // Act
+        HttpResponse<String> response = send(form("/api/checkins", "lendingId=11")
+                .header("Authorization", "Bearer " + librarian.getToken()));
+
+        // Assert
+        assertEquals(409, response.statusCode());
+    }
+
+    @Test
+    void sessions_Throttled_ShouldReturn429WithRetryAfter() throws Exception {
+        // Arrange
+        when(userService.createSession(eq("ana@novabook.com"), anyString(), eq("127.0.0.1")))
+                .thenReturn(CompletableFuture.failedFuture(new TooManyLoginAttemptsException(Duration.ofSeconds(30))));
+
+        // Act
+        HttpResponse<String> response = send(form("/api/sessions", "email=ana%40novabook.com&password=x"));
+
+        // Assert
+        assertEquals(429, response.statusCode());
+        assertEquals("30", response.headers().firstValue("Retry-After").orElse(null));
+    }
+
+    @Test
+    void books_WrongMethod_ShouldReturn405() throws Exception {
+        // Act
+        HttpResponse<String> response = send(form("/api/books", "title=dune"));
+
+        // Assert
+        assertEquals(405, response.statusCode());
+        assertEquals("GET", response.headers().firstValue("Allow").orElse(null));
+    }
+
+    @Test
+    void handle_AllSlotsBusy_ShouldShedWith503() throws Exception {
+        // Arrange
+        CompletableFuture<Void> release = new CompletableFuture<>();
+        when(lendingService.getOverdueLendings()).thenAnswer(invocation -> {
+            release.join();
+            return List.of();
+        });
+        when(userService.findSession(librarian.getToken())).thenReturn(Optional.of(librarian));
+        HttpRequest overdue = HttpRequest.newBuilder(uri("/api/lendings/overdue"))
+                .header("Authorization", "Bearer " + librarian.getToken()).GET().build();
+        List<CompletableFuture<HttpResponse<String>>> blocked = List.of(
+                client.sendAsync(overdue, HttpResponse.BodyHandlers.ofString()),
+                client.sendAsync(overdue, HttpResponse.BodyHandlers.ofString()),
+                client.sendAsync(overdue, HttpResponse.BodyHandlers.ofString()),
+                client.sendAsync(overdue, HttpResponse.BodyHandlers.ofString()));
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (server.getInFlight() < 4 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // Act
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/health")).GET());
+        release.complete(null);
+
+        // Assert
+        assertEquals(503, response.statusCode());
+        assertEquals(1, server.getShedCount());
+        for (CompletableFuture<HttpResponse<String>> request : blocked) {
+            assertEquals(200, request.get().statusCode());
+        }
+    }
+
+    private static Lending lending(int id, int memberId, int bookId, boolean returned) {
+        Instant now = Instant.now();
+        return new Lending(id, memberId, bookId, now, now.plus(14, ChronoUnit.DAYS), returned, now, now);
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder form(String path, String body) {
+        return HttpRequest.newBuilder(uri(path)).header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+    }
+}
@@ -0,0 +1,118 @@
+package com.codeup.novabook.bench;
+
+import com.codeup.novabook.infra.collections.IntIntMap;
+import com.codeup.novabook.infra.collections.IntObjectMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the primitive id-keyed collections with boxed HashMaps for the
+ * access patterns of the in-memory caches: building an index keyed by id,
+ * looking entries up by id and bumping per-id counters.
+ * <p>
+ * Run with:
+ * {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * -Dexec.args="-cp %classpath org.openjdk.jmh.Main IdMap -prof gc"}.
+ * The {@code gc.alloc.rate.norm} column of the build benchmarks is the
+ * footprint of each structure, since nothing else is allocated.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdMapBenchmark {
+
+    private static final Object VALUE = new Object();
+
+    @Param({ "1000", "100000" })
+    public int size;
+
+    private Map<Integer, Object> boxedObjects;
+    private IntObjectMap<Object> primitiveObjects;
+    private Map<Integer, Integer> boxedCounters;
+    private IntIntMap primitiveCounters;
+
+    @Setup
+    public void setUp() {
+        boxedObjects = buildBoxedObjects();
+        primitiveObjects = buildPrimitiveObjects();
+        boxedCounters = new HashMap<>();
+        primitiveCounters = new IntIntMap();
+        for (int id = 1; id <= size; id++) {
+            boxedCounters.put(id, 0);
+            primitiveCounters.put(id, 0);
+        }
+    }
+
+    @Benchmark
+    public Map<Integer, Object> buildBoxedObjects() {
+        Map<Integer, Object> map = new HashMap<>();
+        for (int id = 1; id <= size; id++) {
+            map.put(id, VALUE);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public IntObjectMap<Object> buildPrimitiveObjects() {
+        IntObjectMap<Object> map = new IntObjectMap<>();
+        for (int id = 1; id <= size; id++) {
+            map.put(id, VALUE);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public int lookupBoxedObjects() {
+        int found = 0;
+        for (int id = 1; id <= size; id++) {
+            if (boxedObjects.get(id) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int lookupPrimitiveObjects() {
+        int found = 0;
+        for (int id = 1; id <= size; id++) {
+            if (primitiveObjects.get(id) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> incrementBoxedCounters() {
+        for (int id = 1; id <= size; id++) {
+            boxedCounters.merge(id, 1, Integer::sum);
+        }
+        return boxedCounters;
+    }
+
+    @Benchmark
+    public IntIntMap incrementPrimitiveCounters() {
+        for (int id = 1; id <= size; id++) {
+            primitiveCounters.addTo(id, 1);
+        }
+        return primitiveCounters;
+    }
+}
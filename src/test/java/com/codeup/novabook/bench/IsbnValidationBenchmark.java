@@ -0,0 +1,86 @@
+package com.codeup.novabook.bench;
+
+import com.codeup.novabook.utils.IsbnCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the regex based ISBN normalization and validation that
+ * BookServiceImpl used to run on every add/update with {@link IsbnCodec}.
+ * <p>
+ * Run with:
+ * {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * -Dexec.args="-cp %classpath org.openjdk.jmh.Main IsbnValidation"}
+ * and add {@code -prof gc} to the JMH arguments to compare allocation rates.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IsbnValidationBenchmark {
+
+    // Copy of the patterns previously held by BookServiceImpl
+    private static final Pattern ISBN_PATTERN = Pattern.compile(
+        "^(?:ISBN(?:-1[03])?:? )?(?=[0-9X]{10}$|(?=(?:[0-9]+[- ]){3})[- 0-9X]{13}$|97[89][0-9]{10}$|(?=(?:[0-9]+[- ]){4})[- 0-9]{17}$)(?:97[89][- ]?)?[0-9]{1,5}[- ]?[0-9]+[- ]?[0-9]+[- ]?[0-9X]$"
+    );
+    private static final Pattern NORMALIZED_ISBN10 = Pattern.compile("^[0-9]{9}[0-9X]$");
+    private static final Pattern NORMALIZED_ISBN13 = Pattern.compile("^[0-9]{13}$");
+
+    @Param({ "9780134685991", "978-0-13-468599-1", "ISBN-10: 0-306-40615-2", "123-ABC-456" })
+    public String isbn;
+
+    @Benchmark
+    public String regexNormalize() {
+        return regexNormalizeIsbn(isbn);
+    }
+
+    @Benchmark
+    public String codecNormalize() {
+        return IsbnCodec.normalize(isbn);
+    }
+
+    @Benchmark
+    public boolean regexValidate() {
+        if (isbn == null || isbn.trim().isEmpty()) {
+            return false;
+        }
+        String normalized = regexNormalizeIsbn(isbn);
+        if (normalized == null || normalized.isEmpty()) {
+            return false;
+        }
+        if (NORMALIZED_ISBN13.matcher(normalized).matches()) {
+            return true;
+        }
+        if (NORMALIZED_ISBN10.matcher(normalized).matches()) {
+            return true;
+        }
+        return ISBN_PATTERN.matcher(isbn.trim()).matches();
+    }
+
+    @Benchmark
+    public boolean codecValidate() {
+        return IsbnCodec.isValid(isbn);
+    }
+
+    private static String regexNormalizeIsbn(String isbn) {
+        if (isbn == null) return null;
+        String s = isbn.trim().toUpperCase();
+        s = s.replaceAll("^ISBN(?:-1[03])?:?\\s*", "");
+        s = s.replaceAll("[^0-9X]", "");
+        return s;
+    }
+}
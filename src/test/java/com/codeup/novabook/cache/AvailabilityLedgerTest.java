@@ -0,0 +1,135 @@
+package com.codeup.novabook.cache;
+
+import com.codeup.novabook.infra.collections.IntIntMap;
+import com.codeup.novabook.repository.BookRepository;
+import com.codeup.novabook.repository.LendingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityLedgerTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private LendingRepository lendingRepository;
+
+    private AvailabilityLedger ledger;
+    private IntIntMap stock;
+    private IntIntMap activeLoans;
+
+    @BeforeEach
+    void setUp() {
+        ledger = new AvailabilityLedger(bookRepository, lendingRepository);
+        stock = new IntIntMap();
+        activeLoans = new IntIntMap();
+        when(bookRepository.findAllStock()).thenReturn(stock);
+        when(lendingRepository.countActiveByBook()).thenReturn(activeLoans);
+    }
+
+    @Test
+    void warmUp_ShouldLoadStockAndActiveLoans() {
+        // Arrange
+        stock.put(1, 2);
+        stock.put(5000, 0);
+        activeLoans.put(5000, 3);
+
+        // Act
+        ledger.warmUp();
+
+        // Assert
+        assertTrue(ledger.isAvailable(1));
+        assertEquals(2, ledger.getStock(1));
+        assertFalse(ledger.isAvailable(5000));
+        assertEquals(3, ledger.getActiveLoans(5000));
+        assertFalse(ledger.isTracked(2));
+        assertEquals(-1, ledger.getStock(2));
+    }
+
+    @Test
+    void tryTakeCopy_UnderContention_ShouldNeverOversell() throws InterruptedException {
+        // Arrange
+        stock.put(7, 100);
+        ledger.warmUp();
+        AtomicInteger taken = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            executor.execute(() -> {
+                if (ledger.tryTakeCopy(7)) {
+                    taken.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(100, taken.get());
+        assertEquals(0, ledger.getStock(7));
+    }
+
+    @Test
+    void loanClosed_ShouldNotGoBelowZero() {
+        // Arrange
+        stock.put(1, 1);
+        ledger.warmUp();
+
+        // Act
+        ledger.loanOpened(1);
+        ledger.loanClosed(1);
+        ledger.loanClosed(1);
+
+        // Assert
+        assertEquals(0, ledger.getActiveLoans(1));
+    }
+
+    @Test
+    void reconcile_ShouldRepairDriftAndReportIt() {
+        // Arrange
+        stock.put(1, 2);
+        stock.put(2, 1);
+        ledger.warmUp();
+        IntIntMap databaseStock = new IntIntMap();
+        databaseStock.put(1, 2);
+        databaseStock.put(3, 4);
+        IntIntMap databaseLoans = new IntIntMap();
+        databaseLoans.put(1, 1);
+        when(bookRepository.findAllStock()).thenReturn(databaseStock);
+        when(lendingRepository.countActiveByBook()).thenReturn(databaseLoans);
+
+        // Act
+        ReconciliationReport report = ledger.reconcile();
+
+        // Assert
+        assertFalse(report.isClean());
+        assertEquals(2, report.getChecked());
+        assertEquals(3, report.getRepairs().size());
+        assertEquals(1, ledger.getActiveLoans(1));
+        assertEquals(4, ledger.getStock(3));
+        assertFalse(ledger.isTracked(2));
+        assertSame(report, ledger.getLastReport());
+    }
+
+    @Test
+    void setStock_BeforeWarmUp_ShouldBeIgnored() {
+        // Act
+        ledger.setStock(1, 5);
+
+        // Assert
+        assertFalse(ledger.isTracked(1));
+    }
+}
@@ -0,0 +1,104 @@
+package com.codeup.novabook.cache;
+
+import com.codeup.novabook.cache.LibraryCounters.Counter;
+import com.codeup.novabook.engine.OverdueEngine;
+import com.codeup.novabook.repository.LendingRepository;
+import com.codeup.novabook.repository.StatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LibraryCountersTest {
+
+    @Mock
+    private StatsRepository statsRepository;
+
+    @Mock
+    private LendingRepository lendingRepository;
+
+    private LibraryCounters counters;
+    private Map<String, Long> stored;
+    private Map<String, Long> counted;
+
+    @BeforeEach
+    void setUp() {
+        OverdueEngine overdueEngine = new OverdueEngine(lendingRepository, Clock.systemUTC(), Duration.ofDays(3),
+                Duration.ofMinutes(1));
+        counters = new LibraryCounters(statsRepository, overdueEngine);
+        stored = new HashMap<>();
+        counted = new HashMap<>();
+        for (Counter counter : Counter.values()) {
+            counted.put(counter.getKey(), 10L);
+        }
+        lenient().when(statsRepository.findAll()).thenReturn(stored);
+        lenient().when(statsRepository.countFromTables(any())).thenReturn(counted);
+    }
+
+    @Test
+    void warmUp_WithNoSavedCounters_ShouldCountOnceAndSave() {
+        // Act
+        counters.warmUp();
+
+        // Assert
+        assertEquals(10, counters.get(Counter.BOOKS));
+        assertEquals(10, counters.get(Counter.OVERDUE_LENDINGS));
+        verify(statsRepository, times(1)).countFromTables(any());
+        verify(statsRepository).saveAll(eq(counted), any());
+    }
+
+    @Test
+    void get_WithSavedCounters_ShouldNotQuerySourceTables() {
+        // Arrange
+        for (Counter counter : Counter.values()) {
+            stored.put(counter.getKey(), 4L);
+        }
+        counters.warmUp();
+
+        // Act
+        counters.lendingOpened();
+        counters.memberChanged("REGULAR", true, "PREMIUM", false);
+
+        // Assert
+        assertEquals(5, counters.get(Counter.LENDINGS));
+        assertEquals(5, counters.get(Counter.ACTIVE_LENDINGS));
+        assertEquals(3, counters.get(Counter.REGULAR_MEMBERS));
+        assertEquals(5, counters.get(Counter.PREMIUM_MEMBERS));
+        assertEquals(3, counters.get(Counter.ACTIVE_MEMBERS));
+        assertEquals(4, counters.get(Counter.MEMBERS));
+        verify(statsRepository, never()).countFromTables(any());
+    }
+
+    @Test
+    void reconcile_ShouldRepairDriftButSkipRecentChanges() {
+        // Arrange
+        for (Counter counter : Counter.values()) {
+            stored.put(counter.getKey(), 8L);
+        }
+        counters.warmUp();
+        counters.add(Counter.BOOKS, 1);
+
+        // Act
+        ReconciliationReport report = counters.reconcile();
+
+        // Assert
+        assertEquals(Counter.values().length - 1, report.getChecked());
+        assertEquals(1, report.getSkipped());
+        assertEquals(Counter.values().length - 2, report.getRepairs().size());
+        assertEquals(9, counters.get(Counter.BOOKS));
+        assertEquals(10, counters.get(Counter.USERS));
+        verify(statsRepository).saveAll(anyMap(), any());
+    }
+}
@@ -0,0 +1,111 @@
+package com.codeup.novabook.connection;
+
+import com.codeup.novabook.infra.metrics.MetricsRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SqlInstrumentationTest {
+
+    private static final String SELECT = "SELECT * FROM books WHERE author = ?";
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement statement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    private final Logger slowLog = Logger.getLogger("com.codeup.novabook.sql.slow");
+    private final List<LogRecord> logged = new CopyOnWriteArrayList<>();
+    private final Handler capture = new Handler() {
+        @Override
+        public void publish(LogRecord record) {
+            logged.add(record);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        slowLog.addHandler(capture);
+    }
+
+    @AfterEach
+    void tearDown() {
+        slowLog.removeHandler(capture);
+    }
+
+    @Test
+    void executeQuery_ShouldTimeCountRowsAndLogSlowStatement() throws SQLException {
+        // Arrange
+        MetricsRegistry registry = new MetricsRegistry(true);
+        SqlInstrumentation instrumentation = new SqlInstrumentation(registry, 0, 3);
+        when(connection.prepareStatement(SELECT)).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, true, true, false);
+
+        // Act
+        try (PreparedStatement stmt = instrumentation.wrap(connection).prepareStatement(SELECT)) {
+            stmt.setString(1, "Herbert");
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    // Read every row
+                }
+            }
+        }
+
+        // Assert
+        verify(statement).setString(1, "Herbert");
+        verify(resultSet).close();
+        assertEquals(1, registry.histogram("sql " + SELECT).getCount());
+        assertEquals(3, registry.counter("sql " + SELECT + " [rows]").sum());
+        assertEquals(1, registry.counter("sql.slow").sum());
+        assertEquals(1, registry.counter("sql.largeResults").sum());
+        assertEquals("[1=Herbert]", logged.get(0).getParameters()[2]);
+    }
+
+    @Test
+    void executeUpdate_OnPasswordStatement_ShouldRedactParametersAndRethrow() throws SQLException {
+        // Arrange
+        String update = "UPDATE users SET password = ? WHERE id = ?";
+        SqlInstrumentation instrumentation = new SqlInstrumentation(new MetricsRegistry(true), 0, 100);
+        when(connection.prepareStatement(update)).thenReturn(statement);
+        when(statement.executeUpdate()).thenThrow(new SQLException("Lock wait timeout"));
+
+        // Act
+        PreparedStatement stmt = instrumentation.wrap(connection).prepareStatement(update);
+        stmt.setString(1, "$2a$12$secret");
+        SQLException thrown = assertThrows(SQLException.class, stmt::executeUpdate);
+
+        // Assert
+        assertEquals("Lock wait timeout", thrown.getMessage());
+        assertEquals("[redacted]", logged.get(0).getParameters()[2]);
+    }
+}
@@ -0,0 +1,105 @@
+package com.codeup.novabook.engine;
+
+import com.codeup.novabook.domain.Fine;
+import com.codeup.novabook.domain.Member;
+import com.codeup.novabook.repository.FineRepository;
+import com.codeup.novabook.repository.MemberRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FineAssessorTest {
+
+    private static final Instant NOW = Instant.parse("2024-03-20T12:00:00Z");
+
+    @Mock
+    private FineRepository fineRepository;
+
+    @Mock
+    private MemberRepository memberRepository;
+
+    private List<Runnable> queued;
+    private List<List<Fine>> written;
+    private FineAssessor assessor;
+
+    @BeforeEach
+    void setUp() {
+        FineEngine engine = new FineEngine(fineRepository, Map.of("REGULAR", 100L, "PREMIUM", 50L), 100L,
+                ForkJoinPool.commonPool(), 1000);
+        queued = new ArrayList<>();
+        written = new ArrayList<>();
+        assessor = new FineAssessor(engine, memberRepository, queued::add, Clock.fixed(NOW, ZoneOffset.UTC));
+        lenient().when(fineRepository.upsertAll(any())).thenAnswer(invocation -> {
+            List<Fine> batch = invocation.getArgument(0);
+            written.add(batch);
+            return batch.size();
+        });
+        lenient().when(memberRepository.findById(10))
+                .thenReturn(Optional.of(new Member(10, "Jane Smith", true, false, "PREMIUM", "READ_WRITE", NOW, NOW)));
+    }
+
+    @Test
+    void onEvent_WhenOverdue_ShouldUpsertFineAtMemberRate() {
+        // Act
+        assessor.onEvent(new OverdueEvent(OverdueEvent.Type.OVERDUE, 1, 10, 5, NOW.minus(2, ChronoUnit.DAYS)));
+        queued.forEach(Runnable::run);
+
+        // Assert
+        assertEquals(1, written.size());
+        Fine fine = written.get(0).get(0);
+        assertEquals(1, fine.getLendingId());
+        assertEquals(2, fine.getDaysOverdue());
+        assertEquals(100L, fine.getAmountCents());
+    }
+
+    @Test
+    void onEvent_WhenDueSoon_ShouldNotWrite() {
+        // Act
+        assessor.onEvent(new OverdueEvent(OverdueEvent.Type.DUE_SOON, 1, 10, 5, NOW.plus(1, ChronoUnit.DAYS)));
+
+        // Assert
+        assertTrue(queued.isEmpty());
+        verifyNoInteractions(fineRepository);
+    }
+
+    @Test
+    void onEvent_WhenEventsPileUp_ShouldWriteThemInOneBatch() {
+        // Act
+        assessor.onEvent(new OverdueEvent(OverdueEvent.Type.OVERDUE, 1, 10, 5, NOW.minus(1, ChronoUnit.DAYS)));
+        assessor.onEvent(new OverdueEvent(OverdueEvent.Type.OVERDUE, 2, 10, 6, NOW.minus(3, ChronoUnit.DAYS)));
+        queued.forEach(Runnable::run);
+
+        // Assert
+        assertEquals(1, queued.size());
+        assertEquals(1, written.size());
+        assertEquals(2, written.get(0).size());
+        verify(memberRepository, times(1)).findById(10);
+    }
+
+    @Test
+    void onEvent_WhenWriteFails_ShouldLeaveItToTheNextRun() {
+        // Arrange
+        doThrow(new RuntimeException("db down")).when(fineRepository).upsertAll(any());
+
+        // Act & Assert
+        assessor.onEvent(new OverdueEvent(OverdueEvent.Type.OVERDUE, 1, 10, 5, NOW.minus(1, ChronoUnit.DAYS)));
+        assertDoesNotThrow(() -> queued.forEach(Runnable::run));
+    }
+}
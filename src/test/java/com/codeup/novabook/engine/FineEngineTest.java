@@ -0,0 +1,123 @@
+package com.codeup.novabook.engine;
+
+import com.codeup.novabook.domain.Fine;
+import com.codeup.novabook.repository.FineRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FineEngineTest {
+
+    private static final Instant AS_OF = Instant.parse("2024-03-20T12:00:00Z");
+
+    @Mock
+    private FineRepository fineRepository;
+
+    private FineEngine engine;
+    private List<Fine> written;
+
+    @BeforeEach
+    void setUp() {
+        engine = new FineEngine(fineRepository, Map.of("REGULAR", 100L, "PREMIUM", 50L), 100L,
+                ForkJoinPool.commonPool(), 1000);
+        written = new ArrayList<>();
+        lenient().when(fineRepository.upsertAll(any())).thenAnswer(invocation -> {
+            List<Fine> batch = invocation.getArgument(0);
+            written.addAll(batch);
+            return batch.size();
+        });
+    }
+
+    @Test
+    void run_ShouldApplyRoleRatesPerWholeDay() {
+        // Arrange
+        stream(new Object[] { 1, 10, AS_OF.minus(3, ChronoUnit.DAYS), "REGULAR" },
+                new Object[] { 2, 11, AS_OF.minus(3, ChronoUnit.DAYS).minus(5, ChronoUnit.HOURS), "PREMIUM" },
+                new Object[] { 3, 12, AS_OF.minus(2, ChronoUnit.HOURS), "REGULAR" });
+
+        // Act
+        FineRun run = engine.run(AS_OF);
+
+        // Assert
+        assertEquals(3, written.size());
+        assertEquals(300L, written.get(0).getAmountCents());
+        assertEquals(150L, written.get(1).getAmountCents());
+        assertEquals(3, written.get(1).getDaysOverdue());
+        assertEquals(0L, written.get(2).getAmountCents());
+        assertEquals(450L, run.getTotalCents());
+        assertEquals(1, run.getBatches());
+    }
+
+    @Test
+    void run_WithManyLendings_ShouldEvaluateInParallelAndWriteInBatches() {
+        // Arrange
+        int count = 150_000;
+        doAnswer(invocation -> {
+            FineRepository.OverdueLendingHandler handler = invocation.getArgument(1);
+            for (int i = 1; i <= count; i++) {
+                handler.accept(i, i % 500 + 1, AS_OF.minus(i % 30, ChronoUnit.DAYS), i % 2 == 0 ? "PREMIUM" : "REGULAR");
+            }
+            return null;
+        }).when(fineRepository).forEachOverdue(eq(AS_OF), any());
+
+        // Act
+        FineRun run = engine.run(AS_OF);
+
+        // Assert
+        long expected = 0;
+        Map<Integer, Long> amounts = new HashMap<>();
+        for (int i = 1; i <= count; i++) {
+            long amount = (i % 30) * (i % 2 == 0 ? 50L : 100L);
+            expected += amount;
+            amounts.put(i, amount);
+        }
+        assertEquals(count, written.size());
+        assertEquals(expected, run.getTotalCents());
+        assertEquals(150, run.getBatches());
+        for (Fine fine : written) {
+            assertEquals(amounts.get(fine.getLendingId()), fine.getAmountCents());
+        }
+    }
+
+    @Test
+    void run_WithNoOverdueLendings_ShouldNotWrite() {
+        // Act
+        FineRun run = engine.run(AS_OF);
+
+        // Assert
+        assertEquals(0, run.getLendings());
+        verify(fineRepository, never()).upsertAll(any());
+    }
+
+    @Test
+    void calculateCents_WithUnknownRole_ShouldUseDefaultRate() {
+        assertEquals(500L, engine.calculateCents(AS_OF.minus(5, ChronoUnit.DAYS), AS_OF, "GUEST"));
+        assertEquals(0L, engine.calculateCents(AS_OF.plus(1, ChronoUnit.DAYS), AS_OF, "REGULAR"));
+    }
+
+    private void stream(Object[]... rows) {
+        doAnswer(invocation -> {
+            FineRepository.OverdueLendingHandler handler = invocation.getArgument(1);
+            for (Object[] row : rows) {
+                handler.accept((Integer) row[0], (Integer) row[1], (Instant) row[2], (String) row[3]);
+            }
+            return null;
+        }).when(fineRepository).forEachOverdue(eq(AS_OF), any());
+    }
+}
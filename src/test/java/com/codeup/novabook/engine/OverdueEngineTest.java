@@ -0,0 +1,183 @@
+package com.codeup.novabook.engine;
+
+import com.codeup.novabook.domain.Lending;
+import com.codeup.novabook.repository.LendingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OverdueEngineTest {
+
+    @Mock
+    private LendingRepository lendingRepository;
+
+    private MutableClock clock;
+    private OverdueEngine engine;
+    private List<OverdueEvent> events;
+    private List<Lending> active;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2024-03-01T10:00:00Z"));
+        engine = new OverdueEngine(lendingRepository, clock, Duration.ofDays(3), Duration.ofMinutes(1));
+        events = new ArrayList<>();
+        engine.addListener(events::add);
+        active = new ArrayList<>();
+        lenient().doAnswer(invocation -> {
+            Consumer<Lending> consumer = invocation.getArgument(0);
+            active.forEach(consumer);
+            return null;
+        }).when(lendingRepository).forEachActive(any());
+    }
+
+    @Test
+    void advance_ShouldFireDueSoonThenOverdue() {
+        // Arrange
+        active.add(lending(1, 10, clock.instant().plus(5, ChronoUnit.DAYS)));
+        engine.warmUp();
+
+        // Act & Assert
+        assertEquals(0, engine.advance());
+
+        clock.add(Duration.ofDays(2).plusMinutes(1));
+        assertEquals(1, engine.advance());
+        assertEquals(OverdueEvent.Type.DUE_SOON, events.get(0).getType());
+        assertEquals(List.of(1), engine.getLendingIds(10, OverdueEvent.Type.DUE_SOON));
+
+        clock.add(Duration.ofDays(3));
+        assertEquals(1, engine.advance());
+        assertEquals(OverdueEvent.Type.OVERDUE, events.get(1).getType());
+        assertEquals(OverdueEvent.Type.OVERDUE, engine.getState(1));
+        assertTrue(engine.getLendingIds(10, OverdueEvent.Type.DUE_SOON).isEmpty());
+    }
+
+    @Test
+    void warmUp_WithLendingAlreadyOverdue_ShouldFireOverdueOnFirstAdvance() {
+        // Arrange
+        active.add(lending(1, 10, clock.instant().minus(1, ChronoUnit.DAYS)));
+        active.add(lending(2, 10, clock.instant().plus(1, ChronoUnit.DAYS)));
+        engine.warmUp();
+
+        // Act
+        engine.advance();
+
+        // Assert
+        assertEquals(OverdueEvent.Type.OVERDUE, engine.getState(1));
+        assertEquals(OverdueEvent.Type.DUE_SOON, engine.getState(2));
+        assertEquals(2, events.size());
+    }
+
+    @Test
+    void untrack_ShouldCancelPendingEvents() {
+        // Arrange
+        active.add(lending(1, 10, clock.instant().plus(5, ChronoUnit.DAYS)));
+        engine.warmUp();
+
+        // Act
+        engine.untrack(1);
+        clock.add(Duration.ofDays(10));
+        engine.advance();
+
+        // Assert
+        assertTrue(events.isEmpty());
+        assertEquals(0, engine.size());
+    }
+
+    @Test
+    void track_WhenDueDateExtended_ShouldClearOverdueState() {
+        // Arrange
+        Lending lending = lending(1, 10, clock.instant().minus(1, ChronoUnit.DAYS));
+        active.add(lending);
+        engine.warmUp();
+        engine.advance();
+
+        // Act
+        lending.setDueDate(clock.instant().plus(10, ChronoUnit.DAYS));
+        engine.track(lending);
+        engine.advance();
+
+        // Assert
+        assertNull(engine.getState(1));
+        verify(lendingRepository, times(1)).forEachActive(any());
+    }
+
+    @Test
+    void track_BeforeWarmUp_ShouldBeIgnored() {
+        // Act
+        engine.track(lending(1, 10, clock.instant()));
+
+        // Assert
+        assertFalse(engine.isLoaded());
+        verifyNoInteractions(lendingRepository);
+    }
+
+    @Test
+    void extendAll_ShouldClearStateAndPostponeEvents() {
+        // Arrange
+        active.add(lending(1, 10, clock.instant().minus(1, ChronoUnit.DAYS)));
+        active.add(lending(2, 11, clock.instant().plus(1, ChronoUnit.DAYS)));
+        engine.warmUp();
+        assertEquals(2, engine.advance());
+
+        // Act
+        engine.extendAll(Duration.ofDays(7));
+
+        // Assert
+        assertNull(engine.getState(1));
+        assertNull(engine.getState(2));
+        assertEquals(0, engine.advance());
+        clock.add(Duration.ofDays(3).plusMinutes(1));
+        assertEquals(1, engine.advance());
+        assertEquals(OverdueEvent.Type.DUE_SOON, engine.getState(1));
+        verify(lendingRepository, times(1)).forEachActive(any());
+    }
+
+    private static Lending lending(int id, int memberId, Instant dueDate) {
+        Instant lent = dueDate.minus(14, ChronoUnit.DAYS);
+        return new Lending(id, memberId, 1, lent, dueDate, false, lent, lent);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void add(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.codeup.novabook.engine;
+
+import com.codeup.novabook.domain.Reservation;
+import com.codeup.novabook.repository.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationQueueTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    private MutableClock clock;
+    private ReservationQueue queue;
+    private List<Reservation> active;
+    private int nextId;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2024-03-01T10:00:00Z"));
+        queue = new ReservationQueue(reservationRepository, clock, Duration.ofHours(48), Duration.ofMinutes(1));
+        active = new ArrayList<>();
+        nextId = 1;
+        lenient().doAnswer(invocation -> {
+            Consumer<Reservation> consumer = invocation.getArgument(0);
+            active.forEach(consumer);
+            return null;
+        }).when(reservationRepository).forEachActive(any());
+        lenient().when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> {
+            Reservation reservation = invocation.getArgument(0);
+            reservation.setId(nextId++);
+            return reservation;
+        });
+        lenient().when(reservationRepository.updateStatus(anyInt(), any(), any(), any(), any())).thenReturn(true);
+    }
+
+    @Test
+    void promoteNext_ShouldServeHoldsInOrderPlaced() {
+        // Arrange
+        Reservation first = queue.place(10, 1);
+        Reservation second = queue.place(11, 1);
+        queue.place(12, 2);
+
+        // Act
+        Optional<Reservation> promoted = queue.promoteNext(1);
+
+        // Assert
+        assertTrue(promoted.isPresent());
+        assertEquals(first.getId(), promoted.get().getId());
+        assertEquals(Reservation.Status.READY, promoted.get().getStatus());
+        assertEquals(clock.instant().plus(Duration.ofHours(48)), promoted.get().getExpiresAt());
+        assertEquals(0, queue.getPosition(first.getId()));
+        assertEquals(1, queue.getPosition(second.getId()));
+        assertEquals(1, queue.getReadyCount(1));
+        assertEquals(1, queue.getWaitingCount(1));
+        verify(reservationRepository).updateStatus(eq(first.getId()), eq(Reservation.Status.WAITING),
+                eq(Reservation.Status.READY), any(), any());
+    }
+
+    @Test
+    void promoteNext_ShouldSkipCancelledHolds() {
+        // Arrange
+        Reservation first = queue.place(10, 1);
+        Reservation second = queue.place(11, 1);
+        assertTrue(queue.cancel(first.getId()));
+
+        // Act
+        Optional<Reservation> promoted = queue.promoteNext(1);
+
+        // Assert
+        assertEquals(second.getId(), promoted.get().getId());
+        assertEquals(-1, queue.getPosition(first.getId()));
+        assertFalse(queue.promoteNext(1).isPresent());
+    }
+
+    @Test
+    void isHeldForAnother_WithReadyHold_ShouldOnlyLetHolderBorrow() {
+        // Arrange
+        queue.place(10, 1);
+        queue.place(11, 1);
+        queue.promoteNext(1);
+
+        // Act & Assert
+        assertFalse(queue.isHeldForAnother(1, 10));
+        assertTrue(queue.isHeldForAnother(1, 11));
+        assertTrue(queue.isHeldForAnother(1, 99));
+        assertFalse(queue.isHeldForAnother(2, 99));
+
+        assertTrue(queue.fulfil(10, 1));
+        assertFalse(queue.isHeldForAnother(1, 11));
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    void place_WithActiveHoldOnSameBook_ShouldThrowIllegalArgumentException() {
+        // Arrange
+        queue.place(10, 1);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> queue.place(10, 1));
+        verify(reservationRepository, times(1)).save(any());
+    }
+
+    @Test
+    void expire_ShouldPassCopyToNextMemberInLine() {
+        // Arrange
+        Reservation first = queue.place(10, 1);
+        Reservation second = queue.place(11, 1);
+        queue.promoteNext(1);
+
+        // Act & Assert
+        clock.add(Duration.ofHours(47));
+        assertEquals(0, queue.expire());
+
+        clock.add(Duration.ofHours(1).plusMinutes(1));
+        assertEquals(1, queue.expire());
+        assertEquals(-1, queue.getPosition(first.getId()));
+        assertEquals(0, queue.getPosition(second.getId()));
+        verify(reservationRepository).updateStatus(eq(first.getId()), eq(Reservation.Status.READY),
+                eq(Reservation.Status.EXPIRED), any(), any());
+    }
+
+    @Test
+    void warmUp_ShouldRestoreQueuesFromDatabase() {
+        // Arrange
+        Instant placed = clock.instant().minus(Duration.ofDays(1));
+        active.add(new Reservation(5, 10, 1, Reservation.Status.READY, placed, placed,
+                clock.instant().plus(Duration.ofHours(1))));
+        active.add(new Reservation(6, 11, 1, Reservation.Status.WAITING, placed, null, null));
+        active.add(new Reservation(7, 12, 1, Reservation.Status.WAITING, placed, null, null));
+
+        // Act
+        queue.warmUp();
+
+        // Assert
+        assertEquals(3, queue.size());
+        assertEquals(0, queue.getPosition(5));
+        assertEquals(2, queue.getPosition(7));
+        assertEquals(List.of(6), queue.getActiveByMember(11).stream().map(Reservation::getId).toList());
+        clock.add(Duration.ofHours(2));
+        assertEquals(1, queue.expire());
+        assertEquals(0, queue.getPosition(6));
+    }
+
+    @Test
+    void promoteNext_WhenUpdateFails_ShouldKeepMemberFirstInLine() {
+        // Arrange
+        Reservation first = queue.place(10, 1);
+        when(reservationRepository.updateStatus(anyInt(), any(), any(), any(), any()))
+                .thenThrow(new RuntimeException("Database down"));
+
+        // Act
+        Optional<Reservation> promoted = queue.promoteNext(1);
+
+        // Assert
+        assertFalse(promoted.isPresent());
+        assertEquals(1, queue.getPosition(first.getId()));
+        assertEquals(0, queue.getReadyCount(1));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void add(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
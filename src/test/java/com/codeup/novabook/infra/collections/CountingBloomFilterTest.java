@@ -0,0 +1,105 @@
+package com.codeup.novabook.infra.collections;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountingBloomFilterTest {
+
+    @Test
+    void mightContain_AfterInterleavedAddAndRemove_ShouldHaveNoFalseNegatives() {
+        CountingBloomFilter filter = new CountingBloomFilter(2_000, 0.01);
+        Random random = new Random(42);
+        List<Long> held = new ArrayList<>();
+
+        for (int i = 0; i < 10_000; i++) {
+            if (held.isEmpty() || random.nextInt(3) > 0) {
+                long hash = random.nextLong();
+                filter.add(hash);
+                held.add(hash);
+            } else {
+                filter.remove(held.remove(random.nextInt(held.size())));
+            }
+            if (held.size() > 2_000) {
+                filter.remove(held.remove(0));
+            }
+        }
+
+        for (long hash : held) {
+            assertTrue(filter.mightContain(hash));
+        }
+        assertEquals(held.size(), filter.size());
+    }
+
+    @Test
+    void remove_SameHashAddedTwice_ShouldStayUntilBothRemoved() {
+        CountingBloomFilter filter = new CountingBloomFilter(100, 0.01);
+        long hash = 0x9E3779B97F4A7C15L;
+
+        filter.add(hash);
+        filter.add(hash);
+        filter.remove(hash);
+
+        assertTrue(filter.mightContain(hash));
+        filter.remove(hash);
+        assertFalse(filter.mightContain(hash));
+        assertEquals(0, filter.size());
+    }
+
+    @Test
+    void remove_SaturatedCounters_ShouldNeverBeDecremented() {
+        CountingBloomFilter filter = new CountingBloomFilter(100, 0.01);
+        long hash = 0x9E3779B97F4A7C15L;
+
+        // 300 adds push every counter of the hash past 255, where it sticks
+        for (int i = 0; i < 300; i++) {
+            filter.add(hash);
+        }
+        for (int i = 0; i < 300; i++) {
+            filter.remove(hash);
+        }
+
+        // Stuck counters keep the element visible rather than risk a false negative
+        assertTrue(filter.mightContain(hash));
+    }
+
+    @Test
+    void expectedFalsePositiveRate_ShouldGrowWithSizeUpToConfiguredRate() {
+        CountingBloomFilter filter = new CountingBloomFilter(1_000, 0.01);
+        Random random = new Random(7);
+
+        assertEquals(0.0, filter.expectedFalsePositiveRate());
+        double previous = 0;
+        for (int i = 0; i < 1_000; i++) {
+            filter.add(random.nextLong());
+            double rate = filter.expectedFalsePositiveRate();
+            assertTrue(rate >= previous && rate <= 1);
+            previous = rate;
+        }
+
+        // At the sized capacity the estimate is close to the configured rate
+        assertTrue(previous > 0.005 && previous < 0.02, "rate was " + previous);
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(random.nextLong())) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+
+        filter.clear();
+        assertEquals(0.0, filter.expectedFalsePositiveRate());
+        assertEquals(0, filter.size());
+    }
+
+    @Test
+    void constructor_WithInvalidArguments_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new CountingBloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new CountingBloomFilter(10, 0));
+        assertThrows(IllegalArgumentException.class, () -> new CountingBloomFilter(10, 1));
+    }
+}
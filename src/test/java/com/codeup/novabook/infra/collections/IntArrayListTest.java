@@ -0,0 +1,115 @@
+package com.codeup.novabook.infra.collections;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntArrayListTest {
+
+    @Test
+    void add_BeyondInitialCapacity_ShouldGrowAndKeepOrder() {
+        IntArrayList list = new IntArrayList(0);
+
+        for (int i = 0; i < 100; i++) {
+            list.add(i * 2);
+        }
+
+        assertEquals(100, list.size());
+        assertEquals(0, list.get(0));
+        assertEquals(198, list.get(99));
+    }
+
+    @Test
+    void removeAt_ShouldShiftFollowingElements() {
+        IntArrayList list = listOf(5, 6, 7, 8);
+
+        assertEquals(6, list.removeAt(1));
+        assertArrayEquals(new int[] { 5, 7, 8 }, list.toArray());
+        assertEquals(8, list.removeAt(2));
+        assertEquals(5, list.removeAt(0));
+        assertArrayEquals(new int[] { 7 }, list.toArray());
+    }
+
+    @Test
+    void indexOf_ShouldFindFirstOccurrenceWithinSize() {
+        IntArrayList list = listOf(3, 9, 3, 4);
+
+        assertEquals(0, list.indexOf(3));
+        assertEquals(3, list.indexOf(4));
+        assertEquals(-1, list.indexOf(10));
+        list.removeAt(3);
+        // The removed value may still be in the backing array but is not part of the list
+        assertEquals(-1, list.indexOf(4));
+        assertFalse(list.contains(4));
+        assertTrue(list.contains(9));
+    }
+
+    @Test
+    void removeAtAndIndexOf_RandomOperations_ShouldMatchArrayList() {
+        IntArrayList list = new IntArrayList();
+        List<Integer> expected = new ArrayList<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 5_000; i++) {
+            int value = random.nextInt(50);
+            if (random.nextBoolean()) {
+                list.add(value);
+                expected.add(value);
+            } else {
+                int index = list.indexOf(value);
+                assertEquals(expected.indexOf(value), index);
+                if (index >= 0) {
+                    assertEquals(expected.remove(index).intValue(), list.removeAt(index));
+                }
+            }
+        }
+
+        assertEquals(expected.size(), list.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).intValue(), list.get(i));
+        }
+    }
+
+    @Test
+    void set_ShouldReturnPreviousElement() {
+        IntArrayList list = listOf(1, 2);
+
+        assertEquals(2, list.set(1, 20));
+        assertEquals(20, list.get(1));
+    }
+
+    @Test
+    void sort_ShouldOnlySortElementsWithinSize() {
+        IntArrayList list = listOf(4, 1, 3, 2);
+        list.removeAt(3);
+
+        list.sort();
+
+        assertArrayEquals(new int[] { 1, 3, 4 }, list.toArray());
+    }
+
+    @Test
+    void get_OutsideSize_ShouldThrow() {
+        IntArrayList list = listOf(1);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.removeAt(1));
+        list.clear();
+        assertTrue(list.isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(0));
+        assertThrows(IllegalArgumentException.class, () -> new IntArrayList(-1));
+    }
+
+    private static IntArrayList listOf(int... values) {
+        IntArrayList list = new IntArrayList();
+        for (int value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,78 @@
+package com.codeup.novabook.infra.collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntIntMapTest {
+
+    private IntIntMap map;
+
+    @BeforeEach
+    void setUp() {
+        map = new IntIntMap(4, -1);
+    }
+
+    @Test
+    void get_WithAbsentKey_ShouldReturnMissingValue() {
+        map.put(1, 0);
+
+        assertEquals(0, map.get(1));
+        assertEquals(-1, map.get(2));
+        assertTrue(map.containsKey(1));
+        assertFalse(map.containsKey(2));
+    }
+
+    @Test
+    void addTo_ShouldStartFromMissingValueAndAccumulate() {
+        IntIntMap counters = new IntIntMap();
+
+        assertEquals(1, counters.addTo(5, 1));
+        assertEquals(3, counters.addTo(5, 2));
+        assertEquals(2, counters.addTo(5, -1));
+        assertEquals(1, counters.size());
+    }
+
+    @Test
+    void remove_ShouldMatchHashMapBehaviour() {
+        // Arrange
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+
+        // Act
+        for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(300);
+            if (random.nextInt(3) > 0) {
+                Integer previous = expected.put(key, i);
+                assertEquals(previous == null ? -1 : previous, map.put(key, i));
+            } else {
+                Integer previous = expected.remove(key);
+                assertEquals(previous == null ? -1 : previous, map.remove(key));
+            }
+        }
+
+        // Assert
+        assertEquals(expected.size(), map.size());
+        IntArrayList keys = map.keys();
+        assertEquals(expected.size(), keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(expected.get(keys.get(i)), map.get(keys.get(i)));
+        }
+    }
+
+    @Test
+    void clear_ShouldRemoveEveryEntry() {
+        map.put(1, 10);
+        map.put(2, 20);
+
+        map.clear();
+
+        assertTrue(map.isEmpty());
+        assertEquals(-1, map.get(1));
+    }
+}
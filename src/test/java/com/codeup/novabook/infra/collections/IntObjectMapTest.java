@@ -0,0 +1,89 @@
+package com.codeup.novabook.infra.collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntObjectMapTest {
+
+    private IntObjectMap<String> map;
+
+    @BeforeEach
+    void setUp() {
+        map = new IntObjectMap<>();
+    }
+
+    @Test
+    void put_ShouldStoreAndReplaceValues() {
+        // Act
+        assertNull(map.put(1, "one"));
+        String previous = map.put(1, "uno");
+
+        // Assert
+        assertEquals("one", previous);
+        assertEquals("uno", map.get(1));
+        assertEquals(1, map.size());
+        assertNull(map.get(2));
+    }
+
+    @Test
+    void put_WithNullValue_ShouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> map.put(1, null));
+    }
+
+    @Test
+    void put_BeyondInitialCapacity_ShouldKeepEveryEntry() {
+        // Act
+        for (int id = 1; id <= 10_000; id++) {
+            map.put(id, "book-" + id);
+        }
+
+        // Assert
+        assertEquals(10_000, map.size());
+        assertEquals("book-1", map.get(1));
+        assertEquals("book-10000", map.get(10_000));
+        assertEquals(10_000, map.values().size());
+    }
+
+    @Test
+    void remove_ShouldKeepOtherKeysReachable() {
+        // Arrange: random operations checked against a HashMap
+        Map<Integer, String> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        // Act
+        for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(500) - 250;
+            if (random.nextBoolean()) {
+                assertEquals(expected.put(key, "v" + i), map.put(key, "v" + i));
+            } else {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+        }
+
+        // Assert
+        assertEquals(expected.size(), map.size());
+        for (int key = -250; key < 250; key++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+    }
+
+    @Test
+    void forEach_ShouldVisitEveryEntry() {
+        // Arrange
+        map.put(7, "seven");
+        map.put(-3, "minus three");
+        Map<Integer, String> visited = new HashMap<>();
+
+        // Act
+        map.forEach(visited::put);
+
+        // Assert
+        assertEquals(Map.of(7, "seven", -3, "minus three"), visited);
+    }
+}
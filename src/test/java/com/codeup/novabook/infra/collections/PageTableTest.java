@@ -0,0 +1,72 @@
+package com.codeup.novabook.infra.collections;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageTableTest {
+
+    @Test
+    void get_NeverCreated_ShouldReturnNull() {
+        PageTable<AtomicIntegerArray> table = new PageTable<>(() -> new AtomicIntegerArray(PageTable.PAGE_SIZE));
+
+        assertNull(table.get(0));
+        assertNull(table.get(1_000_000));
+        assertEquals(0, table.pageCount());
+    }
+
+    @Test
+    void getOrCreate_ShouldShareOnePagePerPageSizeIndexes() {
+        AtomicInteger created = new AtomicInteger();
+        PageTable<AtomicIntegerArray> table = new PageTable<>(() -> {
+            created.incrementAndGet();
+            return new AtomicIntegerArray(PageTable.PAGE_SIZE);
+        });
+
+        AtomicIntegerArray first = table.getOrCreate(1_024);
+        first.set(PageTable.slot(1_030), 7);
+
+        assertSame(first, table.getOrCreate(2_047));
+        assertSame(first, table.get(1_030));
+        assertEquals(7, table.get(1_030).get(PageTable.slot(1_030)));
+        assertNull(table.get(1_023));
+        assertNull(table.pageAt(0));
+        assertSame(first, table.pageAt(1));
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    void getOrCreate_WhileGrowing_ShouldKeepExistingPages() {
+        PageTable<AtomicIntegerArray> table = new PageTable<>(() -> new AtomicIntegerArray(PageTable.PAGE_SIZE));
+        AtomicIntegerArray first = table.getOrCreate(3);
+
+        table.getOrCreate(500_000);
+
+        assertSame(first, table.get(3));
+        assertTrue(table.pageCount() > 500_000 >>> PageTable.PAGE_BITS);
+    }
+
+    @Test
+    void clear_ShouldDropEveryPage() {
+        PageTable<AtomicIntegerArray> table = new PageTable<>(() -> new AtomicIntegerArray(PageTable.PAGE_SIZE));
+        table.getOrCreate(3);
+        table.getOrCreate(70_000);
+
+        table.clear();
+
+        assertNull(table.get(3));
+        assertNull(table.get(70_000));
+        assertEquals(0, table.pageCount());
+    }
+
+    @Test
+    void get_NegativeIndex_ShouldThrow() {
+        PageTable<AtomicIntegerArray> table = new PageTable<>(() -> new AtomicIntegerArray(PageTable.PAGE_SIZE));
+
+        assertThrows(IndexOutOfBoundsException.class, () -> table.get(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> table.getOrCreate(-1));
+    }
+}
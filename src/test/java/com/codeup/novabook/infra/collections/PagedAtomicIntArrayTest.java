@@ -0,0 +1,111 @@
+package com.codeup.novabook.infra.collections;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PagedAtomicIntArrayTest {
+
+    @Test
+    void get_NeverWritten_ShouldReturnDefaultValue() {
+        PagedAtomicIntArray array = new PagedAtomicIntArray(-1);
+
+        assertEquals(-1, array.get(0));
+        assertEquals(-1, array.get(1_000_000));
+    }
+
+    @Test
+    void set_ShouldCreateOnlyTheTouchedPageFilledWithDefault() {
+        PagedAtomicIntArray array = new PagedAtomicIntArray(-1);
+
+        array.set(5_000, 7);
+
+        assertEquals(7, array.get(5_000));
+        // Neighbours on the same page start at the default, not at zero
+        assertEquals(-1, array.get(5_001));
+        assertEquals(-1, array.get(4_096));
+        assertEquals(-1, array.get(0));
+    }
+
+    @Test
+    void compareAndSet_ShouldOnlySetWhenExpectedMatches() {
+        PagedAtomicIntArray array = new PagedAtomicIntArray(0);
+
+        assertTrue(array.compareAndSet(1_024, 0, 1));
+        assertFalse(array.compareAndSet(1_024, 0, 2));
+        assertEquals(1, array.get(1_024));
+    }
+
+    @Test
+    void clear_ShouldResetEveryIndexAndAllowNewWrites() {
+        PagedAtomicIntArray array = new PagedAtomicIntArray(-1);
+        array.set(3, 30);
+        array.set(70_000, 700);
+
+        array.clear();
+
+        assertEquals(-1, array.get(3));
+        assertEquals(-1, array.get(70_000));
+        array.set(3, 31);
+        assertEquals(31, array.get(3));
+    }
+
+    @Test
+    void get_NegativeIndex_ShouldThrow() {
+        PagedAtomicIntArray array = new PagedAtomicIntArray(0);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> array.get(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> array.set(-1, 1));
+    }
+
+    @Test
+    void compareAndSet_ConcurrentIncrementsWhilePageTableGrows_ShouldLoseNoUpdates() throws Exception {
+        PagedAtomicIntArray array = new PagedAtomicIntArray(0);
+        // Both sides of the first page boundary, plus pages far enough apart to grow the table repeatedly
+        int[] indexes = { 1_023, 1_024, 2_047, 2_048, 40_000, 500_000 };
+        int threads = 8;
+        int incrementsPerThread = 5_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < incrementsPerThread; i++) {
+                        // Each thread walks the indexes in a different order, so pages are created concurrently
+                        int index = indexes[(i + offset) % indexes.length];
+                        int current;
+                        do {
+                            current = array.get(index);
+                        } while (!array.compareAndSet(index, current, current + 1));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        int total = 0;
+        for (int index : indexes) {
+            total += array.get(index);
+        }
+        assertEquals(threads * incrementsPerThread, total);
+        assertEquals(0, array.get(1_022));
+        assertEquals(0, array.get(1_025));
+    }
+}
@@ -0,0 +1,76 @@
+package com.codeup.novabook.infra.collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortedLongIntMapTest {
+
+    private SortedLongIntMap map;
+
+    @BeforeEach
+    void setUp() {
+        map = new SortedLongIntMap(-1);
+    }
+
+    @Test
+    void put_ShouldKeepKeysSortedAndReplaceExistingValues() {
+        // Arrange
+        map.put(30L, 3);
+        map.put(10L, 1);
+        map.put(20L, 2);
+
+        // Act
+        int previous = map.put(20L, 22);
+
+        // Assert
+        assertEquals(2, previous);
+        assertEquals(3, map.size());
+        assertEquals(10L, map.keyAt(0));
+        assertEquals(22, map.valueAt(1));
+        assertEquals(30L, map.keyAt(2));
+    }
+
+    @Test
+    void get_WithAbsentKey_ShouldReturnMissingValue() {
+        map.put(10L, 1);
+
+        assertEquals(1, map.get(10L));
+        assertEquals(-1, map.get(11L));
+        assertFalse(map.containsKey(11L));
+    }
+
+    @Test
+    void remove_ShouldShiftRemainingEntries() {
+        // Arrange
+        for (int i = 0; i < 40; i++) {
+            map.put(i * 10L, i);
+        }
+
+        // Act
+        int removed = map.remove(100L);
+
+        // Assert
+        assertEquals(10, removed);
+        assertEquals(-1, map.remove(100L));
+        assertEquals(39, map.size());
+        assertEquals(110L, map.keyAt(10));
+    }
+
+    @Test
+    void ceilingIndex_ShouldFindStartOfKeyRange() {
+        // Arrange
+        map.put(9780134685991L, 1);
+        map.put(9780321349606L, 2);
+        map.put(9780596009205L, 3);
+
+        // Act
+        int start = map.ceilingIndex(9780300000000L);
+
+        // Assert
+        assertEquals(1, start);
+        assertEquals(3, map.ceilingIndex(9790000000000L));
+        assertEquals(0, map.ceilingIndex(9780134685991L));
+    }
+}
@@ -0,0 +1,60 @@
+package com.codeup.novabook.infra.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecordingTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void profile_Bundled_ShouldEnableNovaBookEvents() throws Exception {
+        // Act
+        var settings = FlightRecording.profile().getSettings();
+
+        // Assert
+        assertEquals("true", settings.get("com.codeup.novabook.Checkout#enabled"));
+        assertEquals("true", settings.get("com.codeup.novabook.Search#enabled"));
+        assertEquals("10 ms", settings.get("jdk.JavaMonitorEnter#threshold"));
+    }
+
+    @Test
+    void start_EventCommitted_ShouldBeWrittenToDestination() throws Exception {
+        // Arrange
+        Path file = dir.resolve("test.jfr");
+
+        // Act
+        try (Recording recording = FlightRecording.start(file, Duration.ofMinutes(5))) {
+            SearchEvent event = new SearchEvent();
+            event.begin();
+            event.end();
+            event.kind = "title";
+            event.queryLength = 4;
+            event.results = 2;
+            event.cacheHit = true;
+            event.commit();
+            // Stopping writes the recording to its destination
+            recording.stop();
+        }
+
+        // Assert
+        List<RecordedEvent> searches = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals("com.codeup.novabook.Search"))
+                .collect(Collectors.toList());
+        assertEquals(1, searches.size());
+        assertEquals("title", searches.get(0).getString("kind"));
+        assertEquals(2, searches.get(0).getInt("results"));
+        assertTrue(searches.get(0).getBoolean("cacheHit"));
+    }
+}
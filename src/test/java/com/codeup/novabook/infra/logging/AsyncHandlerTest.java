@@ -0,0 +1,120 @@
+package com.codeup.novabook.infra.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncHandlerTest {
+
+    @Test
+    void close_ShouldWriteBufferedRecordsAndKeepCaller() {
+        // Arrange
+        CapturingHandler target = new CapturingHandler(null);
+        AsyncHandler handler = new AsyncHandler(100, 10, AsyncHandler.OverflowPolicy.BLOCK, 1, target);
+        Logger logger = Logger.getAnonymousLogger();
+        logger.setUseParentHandlers(false);
+        logger.addHandler(handler);
+
+        // Act
+        for (int i = 0; i < 25; i++) {
+            logger.info("message " + i);
+        }
+        handler.close();
+
+        // Assert
+        assertEquals(25, target.records.size());
+        assertEquals("message 24", target.records.get(24).getMessage());
+        assertEquals(getClass().getName(), target.records.get(0).getSourceClassName());
+        assertTrue(target.closed);
+        assertEquals(25, handler.getWrittenCount());
+    }
+
+    @Test
+    void publish_WhenFullWithDropPolicy_ShouldCountDropped() throws InterruptedException {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        CapturingHandler target = new CapturingHandler(release);
+        AsyncHandler handler = new AsyncHandler(2, 1, AsyncHandler.OverflowPolicy.DROP, 1, target);
+        handler.publish(new LogRecord(Level.INFO, "held by writer"));
+        assertTrue(target.started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            handler.publish(new LogRecord(Level.INFO, "message " + i));
+        }
+        release.countDown();
+        handler.close();
+
+        // Assert
+        assertEquals(3, handler.getDroppedCount());
+        assertEquals(3, target.records.size());
+    }
+
+    @Test
+    void publish_WhenHalfFullWithSamplePolicy_ShouldKeepWarnings() throws InterruptedException {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        CapturingHandler target = new CapturingHandler(release);
+        AsyncHandler handler = new AsyncHandler(20, 1, AsyncHandler.OverflowPolicy.SAMPLE, 5, target);
+        handler.publish(new LogRecord(Level.INFO, "held by writer"));
+        assertTrue(target.started.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 10; i++) {
+            handler.publish(new LogRecord(Level.INFO, "filler " + i));
+        }
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            handler.publish(new LogRecord(Level.INFO, "sampled " + i));
+        }
+        handler.publish(new LogRecord(Level.SEVERE, "failure"));
+        release.countDown();
+        handler.close();
+
+        // Assert
+        assertEquals(8, handler.getSampledOutCount());
+        assertEquals(0, handler.getDroppedCount());
+        assertEquals("failure", target.records.get(target.records.size() - 1).getMessage());
+    }
+
+    private static final class CapturingHandler extends Handler {
+        private final List<LogRecord> records = new CopyOnWriteArrayList<>();
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release;
+        private volatile boolean closed;
+
+        private CapturingHandler(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void publish(LogRecord record) {
+            started.countDown();
+            if (release != null) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            records.add(record);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
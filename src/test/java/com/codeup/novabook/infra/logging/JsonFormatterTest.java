@@ -0,0 +1,49 @@
+package com.codeup.novabook.infra.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonFormatterTest {
+
+    private final JsonFormatter formatter = new JsonFormatter();
+
+    @Test
+    void format_ShouldWriteOneEscapedJsonLine() {
+        // Arrange
+        LogRecord record = new LogRecord(Level.INFO, "Book \"{0}\" added\tby\n{1}");
+        record.setParameters(new Object[] { "Dune", "ana\\admin" });
+        record.setLoggerName("com.codeup.novabook.service");
+        record.setInstant(Instant.parse("2025-01-01T10:00:00Z"));
+        record.setSourceClassName("BookServiceImpl");
+        record.setSourceMethodName("addBook");
+        record.setLongThreadID(7);
+
+        // Act
+        String json = formatter.format(record);
+
+        // Assert
+        assertEquals("{\"ts\":\"2025-01-01T10:00:00Z\",\"level\":\"INFO\",\"logger\":\"com.codeup.novabook.service\","
+                + "\"thread\":7,\"source\":\"BookServiceImpl.addBook\","
+                + "\"message\":\"Book \\\"Dune\\\" added\\tby\\nana\\\\admin\"}\n", json);
+    }
+
+    @Test
+    void format_WithException_ShouldIncludeErrorAndStack() {
+        // Arrange
+        LogRecord record = new LogRecord(Level.SEVERE, "Failed");
+        record.setThrown(new IllegalStateException("broken\u0001"));
+
+        // Act
+        String json = formatter.format(record);
+
+        // Assert
+        assertTrue(json.contains("\"error\":\"java.lang.IllegalStateException: broken\\u0001\""));
+        assertTrue(json.contains("\"stack\":\"java.lang.IllegalStateException: broken\\u0001\\n\\tat "));
+        assertEquals(1, json.split("\n").length);
+    }
+}
@@ -0,0 +1,107 @@
+package com.codeup.novabook.infra.logging;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollingFileHandlerTest {
+
+    @TempDir
+    Path dir;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T10:00:00Z"));
+
+    @Test
+    void publish_OverMaxSize_ShouldRollAndKeepNewestFiles() throws IOException {
+        // Arrange
+        Path file = dir.resolve("app.log");
+        RollingFileHandler handler = new RollingFileHandler(file, 50, Duration.ofDays(1), 2, false,
+                new JsonFormatter(), clock);
+
+        // Act
+        for (int i = 0; i < 4; i++) {
+            handler.publish(new LogRecord(Level.INFO, "record " + i));
+            handler.flush();
+            clock.add(Duration.ofSeconds(1));
+        }
+        handler.close();
+
+        // Assert
+        assertEquals(List.of("app.log", "app.log.20250101-100002", "app.log.20250101-100003"), listFiles());
+        assertTrue(Files.readString(file).contains("record 3"));
+        assertTrue(Files.readString(dir.resolve("app.log.20250101-100002")).contains("record 1"));
+    }
+
+    @Test
+    void publish_AfterPeriodEnds_ShouldRollAndCompress() throws IOException {
+        // Arrange
+        Path file = dir.resolve("app.log");
+        RollingFileHandler handler = new RollingFileHandler(file, 1_000_000, Duration.ofDays(1), 5, true,
+                new JsonFormatter(), clock);
+        handler.publish(new LogRecord(Level.INFO, "yesterday"));
+        handler.flush();
+
+        // Act
+        clock.add(Duration.ofHours(14));
+        handler.publish(new LogRecord(Level.INFO, "today"));
+        handler.close();
+
+        // Assert
+        assertEquals(List.of("app.log", "app.log.20250102-000000.gz"), listFiles());
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(dir.resolve("app.log.20250102-000000.gz")))) {
+            assertTrue(new String(in.readAllBytes(), StandardCharsets.UTF_8).contains("yesterday"));
+        }
+        assertTrue(Files.readString(file).contains("today"));
+    }
+
+    private List<String> listFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(path -> path.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void add(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.codeup.novabook.infra.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void getPercentileMillis_ShouldBeWithinBucketPrecision() {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(i * 10L));
+        }
+
+        // Act
+        double p50 = histogram.getPercentileMillis(0.5);
+        double p99 = histogram.getPercentileMillis(0.99);
+        double p999 = histogram.getPercentileMillis(0.999);
+
+        // Assert
+        assertEquals(5.0, p50, 5.0 * 0.07);
+        assertEquals(9.9, p99, 9.9 * 0.07);
+        assertEquals(9.99, p999, 9.99 * 0.07);
+        assertEquals(10.0, histogram.getMaxMillis(), 1e-9);
+        assertEquals(1000, histogram.getCount());
+    }
+
+    @Test
+    void indexOf_ShouldPlaceEveryValueWithinItsBucket() {
+        // Arrange
+        long[] values = { 0, 15, 16, 17, 31, 32, 33, 1_000, 123_456_789, (1L << 40) - 1 };
+
+        for (long value : values) {
+            // Act
+            int index = LatencyHistogram.indexOf(value);
+
+            // Assert
+            assertTrue(value <= LatencyHistogram.upperBound(index), "value " + value);
+            assertTrue(index == 0 || value > LatencyHistogram.upperBound(index - 1), "value " + value);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.codeup.novabook.infra.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimedTest {
+
+    interface Greeter {
+        String greet(String name);
+    }
+
+    @Test
+    void wrap_ShouldTimeCallsAndCountErrors() {
+        // Arrange
+        MetricsRegistry registry = new MetricsRegistry(true);
+        Greeter greeter = Timed.wrap(Greeter.class, name -> {
+            if (name == null) {
+                throw new IllegalArgumentException("Name cannot be null");
+            }
+            return "Hello " + name;
+        }, registry);
+
+        // Act
+        String greeting = greeter.greet("Ana");
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> greeter.greet(null));
+
+        // Assert
+        assertEquals("Hello Ana", greeting);
+        assertEquals("Name cannot be null", thrown.getMessage());
+        assertEquals(2, registry.histogram("Greeter.greet").getCount());
+        assertEquals(1, registry.counter("Greeter.greet.errors").sum());
+        assertTrue(registry.report().startsWith("Greeter.greet: count=2"));
+    }
+
+    @Test
+    void wrap_WhenDisabled_ShouldReturnTarget() {
+        // Arrange
+        Greeter target = name -> "Hello " + name;
+
+        // Act
+        Greeter wrapped = Timed.wrap(Greeter.class, target, new MetricsRegistry(false));
+
+        // Assert
+        assertSame(target, wrapped);
+    }
+}
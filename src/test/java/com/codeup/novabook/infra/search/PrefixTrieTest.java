@@ -0,0 +1,113 @@
+package com.codeup.novabook.infra.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefixTrieTest {
+
+    private PrefixTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new PrefixTrie(3);
+    }
+
+    @Test
+    void suggest_WithMatchingPrefix_ShouldReturnValuesAlphabetically() {
+        // Arrange
+        trie.insert("head first java", "Head First Java");
+        trie.insert("head first design patterns", "Head First Design Patterns");
+        trie.insert("effective java", "Effective Java");
+
+        // Act
+        List<String> result = trie.suggest("head", 10);
+
+        // Assert
+        assertEquals(List.of("Head First Design Patterns", "Head First Java"), result);
+    }
+
+    @Test
+    void suggest_WithPrefixEndingInsideEdge_ShouldReturnValues() {
+        // Arrange
+        trie.insert("effective java", "Effective Java");
+
+        // Act & Assert
+        assertEquals(List.of("Effective Java"), trie.suggest("effec", 10));
+        assertTrue(trie.suggest("effex", 10).isEmpty());
+        assertTrue(trie.suggest("effective javascript", 10).isEmpty());
+    }
+
+    @Test
+    void suggest_ShouldRankValuesSharedByMoreKeysFirst() {
+        // Arrange
+        trie.insert("bloch", "Joshua Bloch");
+        trie.insert("bloch", "Joshua Bloch");
+        trie.insert("blake", "William Blake");
+
+        // Act
+        List<String> result = trie.suggest("bl", 10);
+
+        // Assert
+        assertEquals(List.of("Joshua Bloch", "William Blake"), result);
+    }
+
+    @Test
+    void suggest_ShouldKeepOnlyTopKPerNode() {
+        // Arrange
+        trie.insert("a1", "A1");
+        trie.insert("a2", "A2");
+        trie.insert("a3", "A3");
+        trie.insert("a4", "A4");
+
+        // Act
+        List<String> result = trie.suggest("a", 10);
+
+        // Assert
+        assertEquals(3, result.size());
+        assertEquals(List.of("A1", "A2", "A3"), result);
+    }
+
+    @Test
+    void suggest_WithSameValueUnderSeveralKeys_ShouldReturnItOnce() {
+        // Arrange
+        trie.insert("effective java", "Effective Java");
+        trie.insert("java", "Effective Java");
+
+        // Act
+        List<String> result = trie.suggest("", 10);
+
+        // Assert
+        assertEquals(List.of("Effective Java"), result);
+    }
+
+    @Test
+    void remove_ShouldRefreshPrecomputedSuggestions() {
+        // Arrange
+        trie.insert("head first java", "Head First Java");
+        trie.insert("head first design patterns", "Head First Design Patterns");
+
+        // Act
+        boolean removed = trie.remove("head first java", "Head First Java");
+
+        // Assert
+        assertTrue(removed);
+        assertEquals(List.of("Head First Design Patterns"), trie.suggest("head", 10));
+        assertTrue(trie.suggest("head first j", 10).isEmpty());
+        assertEquals(1, trie.size());
+    }
+
+    @Test
+    void remove_WithUnknownAssociation_ShouldReturnFalse() {
+        // Arrange
+        trie.insert("effective java", "Effective Java");
+
+        // Act & Assert
+        assertFalse(trie.remove("effective java", "Other"));
+        assertFalse(trie.remove("effective", "Effective Java"));
+        assertEquals(List.of("Effective Java"), trie.suggest("eff", 10));
+    }
+}
@@ -0,0 +1,81 @@
+package com.codeup.novabook.infra.time;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowLimiterTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+
+    @Test
+    void tryAcquire_OverLimit_ShouldRejectUntilOldestBucketLeavesWindow() {
+        // Arrange
+        SlidingWindowLimiter limiter = new SlidingWindowLimiter(clock, 3, Duration.ofSeconds(10), 10);
+        limiter.tryAcquire("a");
+        clock.add(Duration.ofSeconds(5));
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("a");
+
+        // Act
+        boolean overLimit = limiter.tryAcquire("a");
+        boolean otherKey = limiter.tryAcquire("b");
+        clock.add(Duration.ofSeconds(5));
+        boolean afterFirstExpired = limiter.tryAcquire("a");
+
+        // Assert
+        assertFalse(overLimit);
+        assertTrue(otherKey);
+        assertTrue(afterFirstExpired);
+        assertEquals(3, limiter.getCount("a"));
+    }
+
+    @Test
+    void tryAcquire_AfterWindowPassed_ShouldDropIdleKeys() {
+        // Arrange
+        SlidingWindowLimiter limiter = new SlidingWindowLimiter(clock, 5, Duration.ofSeconds(10), 10);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+
+        // Act
+        clock.add(Duration.ofSeconds(11));
+        limiter.tryAcquire("c");
+
+        // Assert
+        assertEquals(1, limiter.getTrackedKeys());
+        assertEquals(0, limiter.getCount("a"));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void add(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
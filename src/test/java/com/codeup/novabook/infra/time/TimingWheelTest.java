@@ -0,0 +1,108 @@
+package com.codeup.novabook.infra.time;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private static final long TICK = 1000;
+
+    private TimingWheel<Item> wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new TimingWheel<>(TICK, 0);
+    }
+
+    @Test
+    void advanceTo_ShouldFireOnlyReachedDeadlines() {
+        Item soon = new Item(1);
+        Item later = new Item(2);
+        wheel.schedule(soon, 5 * TICK);
+        wheel.schedule(later, 6 * TICK + 1);
+
+        assertTrue(wheel.advanceTo(4 * TICK).isEmpty());
+        assertEquals(List.of(soon), wheel.advanceTo(6 * TICK));
+        assertTrue(later.isScheduled());
+        assertEquals(List.of(later), wheel.advanceTo(7 * TICK));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advanceTo_WithDeadlinesAcrossLevels_ShouldFireEachAtItsTick() {
+        // Deadlines spread over every level, including past the top one
+        Random random = new Random(42);
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Item item = new Item(i);
+            item.deadline = (long) (Math.pow(random.nextDouble(), 4) * (1L << 25)) * TICK;
+            wheel.schedule(item, item.deadline);
+            items.add(item);
+        }
+
+        long now = 0;
+        int fired = 0;
+        while (fired < items.size()) {
+            now += TICK * (1 + random.nextInt(5000));
+            for (Item item : wheel.advanceTo(now)) {
+                assertTrue(item.deadline <= now, "fired early");
+                assertTrue(item.deadline >= now - TICK * 5000, "fired late");
+                fired++;
+            }
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancel_ShouldPreventFiring() {
+        Item kept = new Item(1);
+        Item cancelled = new Item(2);
+        wheel.schedule(kept, 100 * TICK);
+        wheel.schedule(cancelled, 100 * TICK);
+
+        assertTrue(wheel.cancel(cancelled));
+        assertFalse(wheel.cancel(cancelled));
+
+        assertEquals(List.of(kept), wheel.advanceTo(200 * TICK));
+    }
+
+    @Test
+    void schedule_WithPastDeadline_ShouldFireOnNextAdvance() {
+        wheel.advanceTo(50 * TICK);
+        Item late = new Item(1);
+        wheel.schedule(late, 10 * TICK);
+
+        assertEquals(List.of(late), wheel.advanceTo(50 * TICK));
+    }
+
+    @Test
+    void schedule_WhenAlreadyScheduled_ShouldMoveTimeout() {
+        Item item = new Item(1);
+        wheel.schedule(item, 10 * TICK);
+        wheel.schedule(item, 5000 * TICK);
+
+        assertTrue(wheel.advanceTo(10 * TICK).isEmpty());
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(item), wheel.advanceTo(5000 * TICK));
+    }
+
+    private static final class Item extends TimingWheel.Timeout {
+        private final int id;
+        private long deadline;
+
+        private Item(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public String toString() {
+            return "Item" + id;
+        }
+    }
+}
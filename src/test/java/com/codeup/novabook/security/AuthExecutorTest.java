@@ -0,0 +1,99 @@
+package com.codeup.novabook.security;
+
+import com.codeup.novabook.exceptions.user.AuthenticationBusyException;
+import com.codeup.novabook.infra.metrics.MetricsRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthExecutorTest {
+
+    private MetricsRegistry registry;
+    private AuthExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        registry = new MetricsRegistry(true);
+        executor = new AuthExecutor(1, 2, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void submit_ShouldRunOnWorkerAndRecordQueueWait() {
+        // Act
+        String thread = executor.submit(() -> Thread.currentThread().getName()).join();
+
+        // Assert
+        assertTrue(thread.startsWith("auth-worker-"));
+        assertEquals(1, executor.getQueueWait().getCount());
+    }
+
+    @Test
+    void submit_WhenQueueIsFull_ShouldRejectWithoutBlocking() throws InterruptedException {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        executor.submit(() -> {
+            started.countDown();
+            return await(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued1 = executor.submit(() -> true);
+        CompletableFuture<Boolean> queued2 = executor.submit(() -> true);
+
+        // Act
+        CompletableFuture<Boolean> rejected = executor.submit(() -> true);
+
+        // Assert
+        CompletionException e = assertThrows(CompletionException.class, rejected::join);
+        assertInstanceOf(AuthenticationBusyException.class, e.getCause());
+        assertEquals(1, executor.getRejectedCount());
+        assertEquals(2, executor.getQueueDepth());
+        release.countDown();
+        assertTrue(queued1.join());
+        assertTrue(queued2.join());
+    }
+
+    @Test
+    void timeHash_ShouldRecordLatencyEvenWhenHashFails() {
+        // Act & Assert
+        assertEquals("hash", executor.timeHash(() -> "hash"));
+        assertThrows(IllegalStateException.class, () -> executor.timeHash(() -> {
+            throw new IllegalStateException("Bad salt");
+        }));
+        assertEquals(2, executor.getHashLatency().getCount());
+    }
+
+    @Test
+    void timeHash_ShouldAppearInRegistryReportWithPercentiles() {
+        // Act
+        executor.timeHash(() -> "hash");
+        executor.submit(() -> true).join();
+
+        // Assert
+        String report = registry.report();
+        assertTrue(report.contains("auth.hash: count=1"));
+        assertTrue(report.contains("auth.queueWait: count=1"));
+        assertTrue(report.contains("p999="));
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.codeup.novabook.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BcryptCalibratorTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void chooseCost_ShouldPickHighestCostWithinBudget() {
+        // 4 ms at cost 8 -> 8 ms at 9, ... 256 ms at 14
+        assertEquals(13, BcryptCalibrator.chooseCost(4 * MS, 8, 250 * MS, 10, 16));
+        assertEquals(14, BcryptCalibrator.chooseCost(4 * MS, 8, 256 * MS, 10, 16));
+    }
+
+    @Test
+    void chooseCost_ShouldStayWithinConfiguredRange() {
+        assertEquals(10, BcryptCalibrator.chooseCost(100 * MS, 8, 50 * MS, 10, 16));
+        assertEquals(16, BcryptCalibrator.chooseCost(1_000, 8, 10_000 * MS, 10, 16));
+    }
+}
@@ -0,0 +1,114 @@
+package com.codeup.novabook.security;
+
+import com.codeup.novabook.domain.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionManagerTest {
+
+    private MutableClock clock;
+    private SessionManager sessions;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2024-03-01T10:00:00Z"));
+        sessions = new SessionManager(clock, Duration.ofMinutes(30), Duration.ofHours(8), 3);
+    }
+
+    @Test
+    void validate_ShouldSlideIdleTimeoutButRespectMaxAge() {
+        // Arrange
+        Session session = sessions.issue(user(1));
+
+        // Act & Assert
+        for (int i = 0; i < 16; i++) {
+            clock.add(Duration.ofMinutes(29));
+            assertTrue(sessions.validate(session.getToken()).isPresent());
+        }
+        clock.add(Duration.ofMinutes(29));
+        assertFalse(sessions.validate(session.getToken()).isPresent());
+        assertEquals(0, sessions.size());
+    }
+
+    @Test
+    void invalidateUser_ShouldEndEverySessionOfUser() {
+        // Arrange
+        Session first = sessions.issue(user(1));
+        Session second = sessions.issue(user(1));
+        Session other = sessions.issue(user(2));
+
+        // Act
+        int ended = sessions.invalidateUser(1);
+
+        // Assert
+        assertEquals(2, ended);
+        assertFalse(sessions.validate(first.getToken()).isPresent());
+        assertFalse(sessions.validate(second.getToken()).isPresent());
+        assertTrue(sessions.validate(other.getToken()).isPresent());
+    }
+
+    @Test
+    void issue_WhenFull_ShouldDropLeastRecentlyUsed() {
+        // Arrange
+        Session first = sessions.issue(user(1));
+        clock.add(Duration.ofMinutes(1));
+        Session second = sessions.issue(user(2));
+        clock.add(Duration.ofMinutes(1));
+        Session third = sessions.issue(user(3));
+        clock.add(Duration.ofMinutes(1));
+        sessions.validate(first.getToken());
+
+        // Act
+        Session fourth = sessions.issue(user(4));
+
+        // Assert
+        assertEquals(3, sessions.size());
+        assertFalse(sessions.validate(second.getToken()).isPresent());
+        assertTrue(sessions.validate(first.getToken()).isPresent());
+        assertTrue(sessions.validate(third.getToken()).isPresent());
+        assertTrue(sessions.validate(fourth.getToken()).isPresent());
+        assertNotEquals(first.getToken(), fourth.getToken());
+        assertFalse(fourth.toString().contains(fourth.getToken()));
+    }
+
+    private static User user(int id) {
+        Instant now = Instant.parse("2024-01-01T00:00:00Z");
+        return new User(id, "User " + id, "user" + id + "@novabook.com", "$2a$04$hash", "555-0100", "USER",
+                "READ_WRITE", true, false, now, now);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void add(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
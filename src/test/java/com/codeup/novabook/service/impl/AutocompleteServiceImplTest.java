@@ -0,0 +1,125 @@
+package com.codeup.novabook.service.impl;
+
+import com.codeup.novabook.domain.Book;
+import com.codeup.novabook.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AutocompleteServiceImplTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    private AutocompleteServiceImpl autocompleteService;
+
+    @BeforeEach
+    void setUp() {
+        autocompleteService = new AutocompleteServiceImpl(bookRepository);
+        when(bookRepository.findAll()).thenReturn(List.of(
+                book(1, "9780134685991", "Effective Java", "Joshua Bloch"),
+                book(2, "9780596009205", "Head First Java", "Kathy Sierra"),
+                book(3, "9780132350884", "Clean Code", "Robert C. Martin")));
+    }
+
+    @Test
+    void suggestTitles_ShouldMatchAnyWordOfTheTitle() {
+        // Act & Assert
+        assertEquals(List.of("Effective Java", "Head First Java"), autocompleteService.suggestTitles("jav", 10));
+        assertEquals(List.of("Head First Java"), autocompleteService.suggestTitles("Head f", 10));
+        verify(bookRepository, times(1)).findAll();
+    }
+
+    @Test
+    void suggestAuthors_ShouldSplitNamesIntoWords() {
+        // Act & Assert
+        assertEquals(List.of("Joshua Bloch"), autocompleteService.suggestAuthors("blo", 10));
+        assertEquals(List.of("Robert C. Martin"), autocompleteService.suggestAuthors("martin", 10));
+        assertEquals(List.of("Robert C. Martin"), autocompleteService.suggestAuthors("c. mar", 10));
+        assertTrue(autocompleteService.suggestAuthors("sierra kathy", 10).isEmpty());
+    }
+
+    @Test
+    void indexBook_AfterLoad_ShouldAddBookWithoutReloading() {
+        // Arrange
+        autocompleteService.suggestTitles("java", 10);
+
+        // Act
+        autocompleteService.indexBook(book(4, "9781617294945", "Java Concurrency Recipes", "Jane Doe"));
+
+        // Assert
+        assertEquals(List.of("Effective Java", "Head First Java", "Java Concurrency Recipes"),
+                autocompleteService.suggestTitles("java", 10));
+        assertEquals(List.of("9781617294945"), autocompleteService.suggestIsbns("978161", 10));
+        verify(bookRepository, times(1)).findAll();
+    }
+
+    @Test
+    void indexBook_WithChangedTitle_ShouldReplaceOldEntries() {
+        // Arrange
+        autocompleteService.suggestTitles("clean", 10);
+
+        // Act
+        autocompleteService.indexBook(book(3, "9780132350884", "Clean Architecture", "Robert C. Martin"));
+
+        // Assert
+        assertEquals(List.of("Clean Architecture"), autocompleteService.suggestTitles("clean", 10));
+        assertTrue(autocompleteService.suggestTitles("code", 10).isEmpty());
+        assertEquals(List.of("Robert C. Martin"), autocompleteService.suggestAuthors("robert", 10));
+    }
+
+    @Test
+    void removeBook_ShouldDropTitleAuthorAndIsbn() {
+        // Arrange
+        autocompleteService.suggestTitles("java", 10);
+
+        // Act
+        autocompleteService.removeBook(1);
+
+        // Assert
+        assertEquals(List.of("Head First Java"), autocompleteService.suggestTitles("java", 10));
+        assertTrue(autocompleteService.suggestAuthors("bloch", 10).isEmpty());
+        assertEquals(List.of("9780132350884"), autocompleteService.suggestIsbns("978013", 10));
+    }
+
+    @Test
+    void indexBook_BeforeLoad_ShouldBeLeftToTheLoad() {
+        // Act
+        autocompleteService.indexBook(book(4, "9781617294945", "Java Concurrency Recipes", "Jane Doe"));
+
+        // Assert
+        verifyNoInteractions(bookRepository);
+        assertEquals(List.of("Effective Java", "Head First Java"), autocompleteService.suggestTitles("java", 10));
+    }
+
+    @Test
+    void suggestIsbns_ShouldScanIsbn13RangeInOrder() {
+        // Act & Assert
+        assertEquals(List.of("9780132350884", "9780134685991", "9780596009205"),
+                autocompleteService.suggestIsbns("978-0", 10));
+        assertEquals(List.of("9780132350884", "9780134685991"), autocompleteService.suggestIsbns("978013", 10));
+        assertEquals(List.of("9780132350884"), autocompleteService.suggestIsbns("978013", 1));
+        assertTrue(autocompleteService.suggestIsbns("979", 10).isEmpty());
+    }
+
+    @Test
+    void suggestIsbns_WithIsbn10Prefix_ShouldMatchSameBooks() {
+        // Act & Assert
+        assertEquals(List.of("9780132350884", "9780134685991"), autocompleteService.suggestIsbns("013", 10));
+        assertEquals(List.of("9780134685991"), autocompleteService.suggestIsbns("0-13-468599-7", 10));
+    }
+
+    private static Book book(int id, String isbn, String title, String author) {
+        Instant now = Instant.now();
+        return new Book(id, isbn, title, author, 1, now, now);
+    }
+}
@@ -0,0 +1,225 @@
+package com.codeup.novabook.service.impl;
+
+import com.codeup.novabook.cache.AvailabilityLedger;
+import com.codeup.novabook.cache.IsbnBloomFilter;
+import com.codeup.novabook.cache.LibraryCounters;
+import com.codeup.novabook.domain.Book;
+import com.codeup.novabook.exceptions.book.DuplicateISBNException;
+import com.codeup.novabook.exceptions.db.ConcurrentUpdateException;
+import com.codeup.novabook.infra.collections.IntIntMap;
+import com.codeup.novabook.repository.BookRepository;
+import com.codeup.novabook.repository.LendingRepository;
+import com.codeup.novabook.service.AutocompleteService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookServiceImplTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private LendingRepository lendingRepository;
+
+    @Mock
+    private AutocompleteService autocompleteService;
+
+    @Mock
+    private LibraryCounters libraryCounters;
+
+    private IsbnBloomFilter isbnFilter;
+    private BookServiceImpl bookService;
+    private Book testBook;
+
+    @BeforeEach
+    void setUp() {
+        isbnFilter = new IsbnBloomFilter(bookRepository, 1_000, 0.01);
+        bookService = new BookServiceImpl(bookRepository, autocompleteService, isbnFilter,
+                new AvailabilityLedger(bookRepository, lendingRepository), libraryCounters);
+        Instant now = Instant.now();
+        testBook = new Book(1, "978-0-13-468599-1", "Effective Java", "Joshua Bloch", 3, now, now);
+    }
+
+    @Test
+    void addBook_WithNewIsbn_ShouldSkipExistsQuery() {
+        // Arrange
+        when(bookRepository.findAllIsbns()).thenReturn(List.of("9780596009205"));
+        when(bookRepository.save(any(Book.class))).thenReturn(testBook);
+
+        // Act
+        Book result = bookService.addBook(testBook);
+
+        // Assert
+        assertNotNull(result);
+        assertEquals("9780134685991", result.getIsbn());
+        verify(bookRepository, never()).existsByIsbn(any());
+        verify(autocompleteService).indexBook(testBook);
+        assertEquals(1, isbnFilter.getDefiniteNegatives());
+    }
+
+    @Test
+    void updateBook_WithStaleVersion_ShouldThrowConcurrentUpdateException() {
+        // Arrange
+        Instant now = Instant.now();
+        Book current = new Book(1, "978-0-13-468599-1", "Effective Java", "Joshua Bloch", 2, now, now);
+        current.setVersion(4);
+        testBook.setVersion(3);
+        when(bookRepository.findById(1)).thenReturn(java.util.Optional.of(current));
+
+        // Act & Assert
+        ConcurrentUpdateException e = assertThrows(ConcurrentUpdateException.class,
+                () -> bookService.updateBook(testBook));
+        assertEquals(3, e.getExpectedVersion());
+        verify(bookRepository, never()).update(any());
+    }
+
+    @Test
+    void applyEdits_WhenStockMovedMeanwhile_ShouldKeepStockAndSaveTitle() {
+        // Arrange
+        Book asRead = book(3, "Effective Java", 3);
+        Book edited = book(3, "Effective Java, 3rd Edition", 3);
+        when(bookRepository.findById(1)).thenReturn(Optional.of(book(4, "Effective Java", 2)));
+        when(bookRepository.update(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Book result = bookService.applyEdits(asRead, edited);
+
+        // Assert
+        assertEquals("Effective Java, 3rd Edition", result.getTitle());
+        assertEquals(2, result.getStock());
+    }
+
+    @Test
+    void applyEdits_WhenSameFieldChangedMeanwhile_ShouldThrowConcurrentUpdateException() {
+        // Arrange
+        Book asRead = book(3, "Effective Java", 3);
+        Book edited = book(3, "Effective Java", 5);
+        when(bookRepository.findById(1)).thenReturn(Optional.of(book(4, "Effective Java", 2)));
+
+        // Act & Assert
+        assertThrows(ConcurrentUpdateException.class, () -> bookService.applyEdits(asRead, edited));
+        verify(bookRepository, times(1)).findById(1);
+        verify(bookRepository, never()).update(any());
+    }
+
+    @Test
+    void applyEdits_WhenUpdateLosesRace_ShouldRetryFromLatestRow() {
+        // Arrange
+        Book asRead = book(3, "Effective Java", 3);
+        Book edited = book(3, "Effective Java, 3rd Edition", 3);
+        // The row changes between the read of the first attempt and its update
+        when(bookRepository.findById(1)).thenReturn(Optional.of(book(3, "Effective Java", 3)),
+                Optional.of(book(4, "Effective Java", 1)));
+        when(bookRepository.update(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Book result = bookService.applyEdits(asRead, edited);
+
+        // Assert
+        assertEquals("Effective Java, 3rd Edition", result.getTitle());
+        assertEquals(1, result.getStock());
+        verify(bookRepository, times(4)).findById(1);
+        verify(bookRepository, times(1)).update(any());
+    }
+
+    @Test
+    void addBook_WithExistingIsbn_ShouldThrowDuplicateISBNException() {
+        // Arrange
+        when(bookRepository.findAllIsbns()).thenReturn(List.of("978-0134685991"));
+        when(bookRepository.existsByIsbn("9780134685991")).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(DuplicateISBNException.class, () -> bookService.addBook(testBook));
+        verify(bookRepository, never()).save(any());
+    }
+
+    @Test
+    void addBook_WhenFilterPositiveIsNotConfirmed_ShouldSaveAndRecordFalsePositive() {
+        // Arrange
+        when(bookRepository.findAllIsbns()).thenReturn(List.of("9780134685991"));
+        when(bookRepository.existsByIsbn("9780134685991")).thenReturn(false);
+        when(bookRepository.save(any(Book.class))).thenReturn(testBook);
+
+        // Act
+        bookService.addBook(testBook);
+
+        // Assert
+        verify(bookRepository).save(testBook);
+        assertEquals(1, isbnFilter.getFalsePositives());
+        assertEquals(1.0, isbnFilter.getObservedFalsePositiveRate());
+    }
+
+    @Test
+    void addBook_AfterSaving_ShouldAddIsbnToFilter() {
+        // Arrange
+        when(bookRepository.findAllIsbns()).thenReturn(List.of());
+        when(bookRepository.save(any(Book.class))).thenReturn(testBook);
+
+        // Act
+        bookService.addBook(testBook);
+
+        // Assert
+        assertTrue(isbnFilter.mightContain("9780134685991"));
+        assertEquals(1, isbnFilter.size());
+    }
+
+    @Test
+    void decreaseStock_WhenLedgerStockIsExhausted_ShouldNotQueryDatabase() {
+        // Arrange
+        IntIntMap stock = new IntIntMap();
+        stock.put(1, 1);
+        when(bookRepository.findAllStock()).thenReturn(stock);
+        when(lendingRepository.countActiveByBook()).thenReturn(new IntIntMap());
+        when(bookRepository.adjustStock(1, -1)).thenReturn(true);
+
+        // Act
+        boolean first = bookService.decreaseStock(1);
+        boolean second = bookService.decreaseStock(1);
+
+        // Assert
+        assertTrue(first);
+        assertFalse(second);
+        assertFalse(bookService.isBookAvailable(1));
+        verify(bookRepository, times(1)).adjustStock(1, -1);
+        verify(bookRepository, never()).findById(anyInt());
+    }
+
+    @Test
+    void increaseStock_ShouldUpdateDatabaseAtomicallyAndLedger() {
+        // Arrange
+        IntIntMap stock = new IntIntMap();
+        stock.put(1, 0);
+        when(bookRepository.findAllStock()).thenReturn(stock);
+        when(lendingRepository.countActiveByBook()).thenReturn(new IntIntMap());
+        when(bookRepository.adjustStock(1, 1)).thenReturn(true);
+        assertFalse(bookService.isBookAvailable(1));
+
+        // Act
+        boolean result = bookService.increaseStock(1);
+
+        // Assert
+        assertTrue(result);
+        assertTrue(bookService.isBookAvailable(1));
+        verify(bookRepository, never()).updateStock(anyInt(), anyInt());
+    }
+
+    private static Book book(int version, String title, int stock) {
+        Instant now = Instant.now();
+        Book book = new Book(1, "9780134685991", title, "Joshua Bloch", stock, now, now);
+        book.setVersion(version);
+        return book;
+    }
+}
@@ -1,12 +1,23 @@
 package com.codeup.novabook.service.impl;
 
+import com.codeup.novabook.cache.AvailabilityLedger;
+import com.codeup.novabook.cache.IsbnBloomFilter;
+import com.codeup.novabook.cache.LibraryCounters;
+import com.codeup.novabook.repository.BookRepository;
+import com.codeup.novabook.repository.LendingRepository;
+import com.codeup.novabook.service.AutocompleteService;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
 
 class BookServiceIsbnTest {
 
-    private final BookServiceImpl service = new BookServiceImpl();
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final BookServiceImpl service = new BookServiceImpl(bookRepository,
+            mock(AutocompleteService.class), new IsbnBloomFilter(bookRepository, 100, 0.01),
+            new AvailabilityLedger(bookRepository, mock(LendingRepository.class)),
+            mock(LibraryCounters.class));
 
     @Test
     void validIsbn13WithoutHyphens() {
@@ -21,10 +32,16 @@ class BookServiceIsbnTest {
     @Test
     void validIsbn10WithX() {
         assertTrue(service.isValidIsbn("0306406152"));
+        assertTrue(service.isValidIsbn("080442957X"));
     }
 
     @Test
     void invalidIsbn() {
         assertFalse(service.isValidIsbn("123-ABC-456"));
     }
+
+    @Test
+    void invalidIsbnCheckDigit() {
+        assertFalse(service.isValidIsbn("978-0-13-468599-2"));
+    }
 }
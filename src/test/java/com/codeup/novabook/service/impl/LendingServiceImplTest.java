@@ -1,18 +1,35 @@
 package com.codeup.novabook.service.impl;
 
+import com.codeup.novabook.cache.AvailabilityLedger;
+import com.codeup.novabook.cache.LibraryCounters;
+import com.codeup.novabook.cache.MemberLoanCounter;
 import com.codeup.novabook.domain.Lending;
+import com.codeup.novabook.domain.LendingOutcome;
+import com.codeup.novabook.domain.Member;
+import com.codeup.novabook.domain.Reservation;
+import com.codeup.novabook.engine.OverdueEngine;
+import com.codeup.novabook.engine.ReservationQueue;
+import com.codeup.novabook.infra.collections.IntIntMap;
+import com.codeup.novabook.repository.BookRepository;
 import com.codeup.novabook.repository.LendingRepository;
+import com.codeup.novabook.repository.MemberRepository;
+import com.codeup.novabook.repository.ReservationRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -24,14 +41,43 @@ class LendingServiceImplTest {
     @Mock
     private LendingRepository lendingRepository;
 
-    @InjectMocks
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private MemberRepository memberRepository;
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private LibraryCounters libraryCounters;
+
     private LendingServiceImpl lendingService;
 
+    private ReservationQueue reservationQueue;
+
+    private AvailabilityLedger availabilityLedger;
+
+    private OverdueEngine overdueEngine;
+
     private Lending testLending;
 
     @BeforeEach
     void setUp() {
+        reservationQueue = new ReservationQueue(reservationRepository, Clock.systemUTC(), Duration.ofHours(48),
+                Duration.ofMinutes(1));
+        availabilityLedger = new AvailabilityLedger(bookRepository, lendingRepository);
+        overdueEngine = new OverdueEngine(lendingRepository, Clock.systemUTC(), Duration.ofDays(3), Duration.ofMinutes(1));
+        lendingService = new LendingServiceImpl(lendingRepository, availabilityLedger,
+                new MemberLoanCounter(lendingRepository, memberRepository,
+                        Map.of("REGULAR", 3, "PREMIUM", 5), 3),
+                overdueEngine, reservationQueue, libraryCounters);
+        lenient().when(bookRepository.findAllStock()).thenReturn(new IntIntMap());
+        lenient().when(lendingRepository.countActiveByBook()).thenReturn(new IntIntMap());
         Instant now = Instant.now();
+        lenient().when(memberRepository.findById(1))
+                .thenReturn(Optional.of(new Member(1, "John Doe", true, false, "REGULAR", "READ_WRITE", now, now)));
         Instant returnDate = now.plus(14, ChronoUnit.DAYS);
         testLending = new Lending(1, 1, 1, now, returnDate, false, now, now);
     }
@@ -43,8 +89,9 @@ class LendingServiceImplTest {
         int bookId = 1;
         int lendingDays = 14;
         when(lendingRepository.countByMemberId(memberId)).thenReturn(0L);
-        when(lendingRepository.findByBookId(bookId)).thenReturn(Arrays.asList());
-        when(lendingRepository.save(any(Lending.class))).thenReturn(testLending);
+        when(lendingRepository.existsActiveByBookId(bookId)).thenReturn(false);
+        when(lendingRepository.checkoutAll(anyList(), anyInt()))
+                .thenReturn(List.of(new LendingOutcome(1, LendingOutcome.Status.DONE, testLending)));
 
         // Act
         Lending result = lendingService.lendBook(memberId, bookId, lendingDays);
@@ -53,7 +100,8 @@ class LendingServiceImplTest {
         assertNotNull(result);
         assertEquals(memberId, result.getMemberId());
         assertEquals(bookId, result.getBookId());
-        verify(lendingRepository).save(any(Lending.class));
+        verify(lendingRepository).checkoutAll(anyList(), eq(3));
+        verify(lendingRepository, never()).save(any());
     }
 
     @Test
@@ -61,7 +109,7 @@ class LendingServiceImplTest {
         // Act & Assert
         assertThrows(IllegalArgumentException.class, 
             () -> lendingService.lendBook(0, 1, 14));
-        verify(lendingRepository, never()).save(any());
+        verify(lendingRepository, never()).checkoutAll(anyList(), anyInt());
     }
 
     @Test
@@ -69,7 +117,7 @@ class LendingServiceImplTest {
         // Act & Assert
         assertThrows(IllegalArgumentException.class, 
             () -> lendingService.lendBook(1, 0, 14));
-        verify(lendingRepository, never()).save(any());
+        verify(lendingRepository, never()).checkoutAll(anyList(), anyInt());
     }
 
     @Test
@@ -78,9 +126,10 @@ class LendingServiceImplTest {
         when(lendingRepository.countByMemberId(1)).thenReturn(3L);
 
         // Act & Assert
-        assertThrows(IllegalArgumentException.class, 
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
             () -> lendingService.lendBook(1, 1, 14));
-        verify(lendingRepository, never()).save(any());
+        assertTrue(e.getMessage().contains("maximum number of borrowed books (3)"));
+        verify(lendingRepository, never()).checkoutAll(anyList(), anyInt());
     }
 
     @Test
@@ -100,26 +149,316 @@ class LendingServiceImplTest {
     void returnBook_WithValidLendingId_ShouldReturnTrue() {
         // Arrange
         int lendingId = 1;
-        when(lendingRepository.markAsReturned(lendingId)).thenReturn(true);
+        when(lendingRepository.returnAll(List.of(lendingId))).thenReturn(List.of(testLending));
 
         // Act
         boolean result = lendingService.returnBook(lendingId);
 
         // Assert
         assertTrue(result);
-        verify(lendingRepository).markAsReturned(lendingId);
+        verify(lendingRepository).returnAll(List.of(lendingId));
+        verify(lendingRepository, never()).markAsReturned(anyInt());
     }
 
     @Test
     void returnBook_WithInvalidLendingId_ShouldReturnFalse() {
         // Arrange
-        when(lendingRepository.markAsReturned(anyInt())).thenReturn(false);
+        when(lendingRepository.returnAll(List.of(1))).thenReturn(List.of());
 
         // Act
         boolean result = lendingService.returnBook(1);
 
         // Assert
         assertFalse(result);
-        verify(lendingRepository).markAsReturned(1);
+        verify(lendingRepository).returnAll(List.of(1));
+    }
+
+    @Test
+    void returnBook_ShouldCloseLoanInLedgerOnlyOnce() {
+        // Arrange
+        IntIntMap stock = new IntIntMap();
+        stock.put(1, 2);
+        IntIntMap activeLoans = new IntIntMap();
+        activeLoans.put(1, 1);
+        when(bookRepository.findAllStock()).thenReturn(stock);
+        when(lendingRepository.countActiveByBook()).thenReturn(activeLoans);
+        Lending alreadyReturned = new Lending(1, 1, 1, testLending.getLendingDate(), testLending.getDueDate(),
+                true, testLending.getCreatedAt(), testLending.getUpdatedAt());
+        when(lendingRepository.returnAll(List.of(1))).thenReturn(List.of(testLending), List.of(alreadyReturned));
+        assertTrue(lendingService.isBookCurrentlyLent(1));
+
+        // Act
+        assertTrue(lendingService.returnBook(1));
+        assertFalse(lendingService.returnBook(1));
+
+        // Assert
+        assertFalse(lendingService.isBookCurrentlyLent(1));
+        assertEquals(3, availabilityLedger.getStock(1));
+        verify(lendingRepository, never()).existsActiveByBookId(anyInt());
+    }
+
+    @Test
+    void returnBook_WithWaitingHold_ShouldKeepCopyForNextMember() {
+        // Arrange
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> {
+            Reservation reservation = invocation.getArgument(0);
+            reservation.setId(1);
+            return reservation;
+        });
+        when(reservationRepository.updateStatus(anyInt(), any(), any(), any(), any())).thenReturn(true);
+        Reservation hold = reservationQueue.place(2, 1);
+        when(lendingRepository.returnAll(List.of(1))).thenReturn(List.of(testLending));
+        when(lendingRepository.existsActiveByBookId(1)).thenReturn(false);
+
+        // Act
+        lendingService.returnBook(1);
+
+        // Assert
+        assertEquals(0, reservationQueue.getPosition(hold.getId()));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> lendingService.lendBook(1, 1, 14));
+        assertEquals("Book is on hold for another member", e.getMessage());
+        verify(lendingRepository, never()).checkoutAll(anyList(), anyInt());
+    }
+
+    @Test
+    void lendBook_WithReadyHold_ShouldFulfilHold() {
+        // Arrange
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> {
+            Reservation reservation = invocation.getArgument(0);
+            reservation.setId(1);
+            return reservation;
+        });
+        when(reservationRepository.updateStatus(anyInt(), any(), any(), any(), any())).thenReturn(true);
+        reservationQueue.place(1, 1);
+        reservationQueue.promoteNext(1);
+        when(lendingRepository.existsActiveByBookId(1)).thenReturn(false);
+        when(lendingRepository.countByMemberId(1)).thenReturn(0L);
+        when(lendingRepository.checkoutAll(anyList(), anyInt()))
+                .thenReturn(List.of(new LendingOutcome(1, LendingOutcome.Status.DONE, testLending)));
+
+        // Act
+        lendingService.lendBook(1, 1, 14);
+
+        // Assert
+        assertEquals(0, reservationQueue.size());
+        verify(reservationRepository).updateStatus(eq(1), eq(Reservation.Status.READY),
+                eq(Reservation.Status.FULFILLED), any(), any());
+    }
+
+    @Test
+    void extendLending_ShouldExtendInDatabaseWithoutReadingRow() {
+        // Arrange
+        when(lendingRepository.extendDueDate(1, 7)).thenReturn(true);
+
+        // Act
+        boolean result = lendingService.extendLending(1, 7);
+
+        // Assert
+        assertTrue(result);
+        verify(lendingRepository, never()).findById(anyInt());
+        verify(lendingRepository, never()).update(any(Lending.class));
+    }
+
+    @Test
+    void extendAllActiveLendings_ShouldReturnNumberExtended() {
+        // Arrange
+        when(lendingRepository.extendAllActive(3)).thenReturn(42);
+
+        // Act
+        int result = lendingService.extendAllActiveLendings(3);
+
+        // Assert
+        assertEquals(42, result);
+        assertThrows(IllegalArgumentException.class, () -> lendingService.extendAllActiveLendings(0));
+    }
+
+    @Test
+    void lendBook_WhenPremiumMemberHasThreeBooks_ShouldCreateLending() {
+        // Arrange
+        Instant now = Instant.now();
+        when(memberRepository.findById(2))
+                .thenReturn(Optional.of(new Member(2, "Jane Smith", true, false, "PREMIUM", "READ_WRITE", now, now)));
+        when(lendingRepository.countByMemberId(2)).thenReturn(3L);
+        when(lendingRepository.checkoutAll(anyList(), anyInt()))
+                .thenReturn(List.of(new LendingOutcome(1, LendingOutcome.Status.DONE, testLending)));
+
+        // Act
+        Lending result = lendingService.lendBook(2, 1, 14);
+
+        // Assert
+        assertNotNull(result);
+        assertEquals(5, lendingService.getMaxBooks(2));
+        assertTrue(lendingService.canMemberBorrowMoreBooks(2));
+    }
+
+    @Test
+    void lendBook_WhenSaveFails_ShouldGiveBackLoanSlot() {
+        // Arrange
+        when(lendingRepository.countByMemberId(1)).thenReturn(2L);
+        when(lendingRepository.checkoutAll(anyList(), anyInt())).thenThrow(new RuntimeException("db down"));
+
+        // Act
+        assertThrows(RuntimeException.class, () -> lendingService.lendBook(1, 1, 14));
+
+        // Assert
+        assertTrue(lendingService.canMemberBorrowMoreBooks(1));
+        verify(lendingRepository, times(1)).countByMemberId(1);
+    }
+
+    @Test
+    void lendBook_WhenDatabaseFindsActiveLending_ShouldRejectAndGiveBackSlot() {
+        // Arrange
+        IntIntMap stock = new IntIntMap();
+        stock.put(1, 2);
+        when(bookRepository.findAllStock()).thenReturn(stock);
+        when(lendingRepository.countByMemberId(1)).thenReturn(2L);
+        // Lent by another process after the ledger was loaded
+        when(lendingRepository.checkoutAll(anyList(), eq(3)))
+                .thenReturn(List.of(new LendingOutcome(1, LendingOutcome.Status.NOT_AVAILABLE, null)));
+
+        // Act
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> lendingService.lendBook(1, 1, 14));
+
+        // Assert
+        assertEquals("Book is currently lent out and not available", e.getMessage());
+        assertTrue(lendingService.canMemberBorrowMoreBooks(1));
+        assertEquals(2, availabilityLedger.getStock(1));
+    }
+
+    @Test
+    void lendBook_WhenDatabaseFindsMemberAtLimit_ShouldRejectAndRecount() {
+        // Arrange
+        when(lendingRepository.countByMemberId(1)).thenReturn(1L, 3L);
+        // Two loans made by another process after the count was loaded
+        when(lendingRepository.checkoutAll(anyList(), eq(3)))
+                .thenReturn(List.of(new LendingOutcome(1, LendingOutcome.Status.LIMIT_REACHED, null)));
+
+        // Act
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> lendingService.lendBook(1, 1, 14));
+
+        // Assert
+        assertTrue(e.getMessage().contains("maximum number of borrowed books (3)"));
+        assertFalse(lendingService.canMemberBorrowMoreBooks(1));
+    }
+
+    @Test
+    void lendBook_WhenCountIsStaleAtLimit_ShouldRecountBeforeRefusing() {
+        // Arrange
+        when(lendingRepository.countByMemberId(1)).thenReturn(3L, 2L);
+        when(lendingRepository.checkoutAll(anyList(), eq(3)))
+                .thenReturn(List.of(new LendingOutcome(1, LendingOutcome.Status.DONE, testLending)));
+
+        // Act
+        Lending result = lendingService.lendBook(1, 1, 14);
+
+        // Assert
+        assertNotNull(result);
+        verify(lendingRepository, times(2)).countByMemberId(1);
+    }
+
+    @Test
+    void getDueSoonLendingsByMember_WhenEngineLoaded_ShouldReadRowsInOneQuery() {
+        // Arrange
+        Instant now = Instant.now();
+        Lending dueSoon = new Lending(1, 1, 1, now.minus(12, ChronoUnit.DAYS), now.plus(1, ChronoUnit.DAYS),
+                false, now, now);
+        Lending later = new Lending(2, 1, 2, now, now.plus(10, ChronoUnit.DAYS), false, now, now);
+        doAnswer(invocation -> {
+            Consumer<Lending> consumer = invocation.getArgument(0);
+            consumer.accept(dueSoon);
+            consumer.accept(later);
+            return null;
+        }).when(lendingRepository).forEachActive(any());
+        overdueEngine.warmUp();
+        overdueEngine.advance();
+        when(lendingRepository.findByIds(List.of(1))).thenReturn(List.of(dueSoon));
+
+        // Act
+        List<Lending> result = lendingService.getDueSoonLendingsByMember(1);
+
+        // Assert
+        assertEquals(List.of(dueSoon), result);
+        verify(lendingRepository, never()).findById(anyInt());
+    }
+
+    @Test
+    void isBookCurrentlyLent_WhenBookNotTracked_ShouldNotLoadHistory() {
+        // Arrange
+        when(lendingRepository.existsActiveByBookId(7)).thenReturn(true);
+
+        // Act
+        boolean result = lendingService.isBookCurrentlyLent(7);
+
+        // Assert
+        assertTrue(result);
+        verify(lendingRepository, never()).findByBookId(anyInt());
+    }
+
+    @Test
+    void findCurrentlyLentBookIds_ShouldQueryOnlyUntrackedBooks() {
+        // Arrange
+        IntIntMap stock = new IntIntMap();
+        stock.put(1, 2);
+        stock.put(2, 1);
+        IntIntMap activeLoans = new IntIntMap();
+        activeLoans.put(1, 1);
+        when(bookRepository.findAllStock()).thenReturn(stock);
+        when(lendingRepository.countActiveByBook()).thenReturn(activeLoans);
+        when(lendingRepository.activeBookIds(List.of(9))).thenReturn(Set.of(9));
+
+        // Act
+        Set<Integer> result = lendingService.findCurrentlyLentBookIds(List.of(1, 2, 9));
+
+        // Assert
+        assertEquals(Set.of(1, 9), result);
+        verify(lendingRepository).activeBookIds(List.of(9));
+    }
+
+    @Test
+    void checkinAll_ShouldReportOutcomePerLending() {
+        // Arrange
+        Instant now = Instant.now();
+        Lending active = new Lending(1, 1, 1, now, now, false, now, now);
+        Lending returned = new Lending(2, 1, 2, now, now, true, now, now);
+        when(lendingRepository.returnAll(List.of(1, 2, 3))).thenReturn(List.of(active, returned));
+
+        // Act
+        List<LendingOutcome> outcomes = lendingService.checkinAll(Arrays.asList(1, 2, 3, 1, -4));
+
+        // Assert
+        assertEquals(LendingOutcome.Status.DONE, outcomes.get(0).getStatus());
+        assertEquals(LendingOutcome.Status.ALREADY_RETURNED, outcomes.get(1).getStatus());
+        assertEquals(LendingOutcome.Status.NOT_FOUND, outcomes.get(2).getStatus());
+        assertEquals(LendingOutcome.Status.INVALID, outcomes.get(3).getStatus());
+        assertEquals(LendingOutcome.Status.INVALID, outcomes.get(4).getStatus());
+        verify(lendingRepository, never()).markAsReturned(anyInt());
+    }
+
+    @Test
+    void checkoutAll_ShouldStopAtMemberLimitAndSkipBooksWithoutStock() {
+        // Arrange
+        when(lendingRepository.countByMemberId(1)).thenReturn(1L);
+        when(lendingRepository.checkoutAll(anyList(), eq(3))).thenAnswer(invocation -> {
+            List<Lending> requested = invocation.getArgument(0);
+            // Book 11 has no stock left
+            return requested.stream()
+                    .map(lending -> lending.getBookId() == 11
+                            ? new LendingOutcome(11, LendingOutcome.Status.NOT_AVAILABLE, null)
+                            : new LendingOutcome(lending.getBookId(), LendingOutcome.Status.DONE, lending))
+                    .toList();
+        });
+
+        // Act
+        List<LendingOutcome> outcomes = lendingService.checkoutAll(1, List.of(10, 11, 12), 14);
+
+        // Assert
+        assertEquals(LendingOutcome.Status.DONE, outcomes.get(0).getStatus());
+        assertEquals(LendingOutcome.Status.NOT_AVAILABLE, outcomes.get(1).getStatus());
+        assertEquals(LendingOutcome.Status.LIMIT_REACHED, outcomes.get(2).getStatus());
+        // The slot taken for book 11 was given back
+        assertTrue(lendingService.canMemberBorrowMoreBooks(1));
     }
-}
\ No newline at end of file
+}
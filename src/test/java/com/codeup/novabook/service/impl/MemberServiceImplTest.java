@@ -1,5 +1,7 @@
 package com.codeup.novabook.service.impl;
 
+import com.codeup.novabook.cache.LibraryCounters;
+import com.codeup.novabook.cache.MemberLoanCounter;
 import com.codeup.novabook.domain.Member;
 import com.codeup.novabook.repository.MemberRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -24,6 +26,12 @@ class MemberServiceImplTest {
     @Mock
     private MemberRepository memberRepository;
 
+    @Mock
+    private MemberLoanCounter memberLoanCounter;
+
+    @Mock
+    private LibraryCounters libraryCounters;
+
     @InjectMocks
     private MemberServiceImpl memberService;
 
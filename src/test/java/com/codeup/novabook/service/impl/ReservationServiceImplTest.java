@@ -0,0 +1,210 @@
+package com.codeup.novabook.service.impl;
+
+import com.codeup.novabook.domain.Reservation;
+import com.codeup.novabook.engine.ReservationQueue;
+import com.codeup.novabook.repository.ReservationRepository;
+import com.codeup.novabook.service.LendingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationServiceImplTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private LendingService lendingService;
+
+    private MutableClock clock;
+    private ReservationQueue reservationQueue;
+    private ReservationServiceImpl reservationService;
+    private List<Reservation> active;
+    private int nextId;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2024-03-01T10:00:00Z"));
+        reservationQueue = new ReservationQueue(reservationRepository, clock, Duration.ofHours(48),
+                Duration.ofMinutes(1));
+        reservationService = new ReservationServiceImpl(reservationRepository, reservationQueue, lendingService);
+        active = new ArrayList<>();
+        nextId = 1;
+        lenient().doAnswer(invocation -> {
+            Consumer<Reservation> consumer = invocation.getArgument(0);
+            active.forEach(consumer);
+            return null;
+        }).when(reservationRepository).forEachActive(any());
+        lenient().when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> {
+            Reservation reservation = invocation.getArgument(0);
+            reservation.setId(nextId++);
+            return reservation;
+        });
+        lenient().when(reservationRepository.updateStatus(anyInt(), any(), any(), any(), any())).thenReturn(true);
+    }
+
+    @Test
+    void placeHold_WhenBookIsLent_ShouldQueueHoldUntilReturn() {
+        // Arrange
+        when(lendingService.isBookCurrentlyLent(1)).thenReturn(true);
+
+        // Act
+        Reservation first = reservationService.placeHold(10, 1);
+        Reservation second = reservationService.placeHold(11, 1);
+
+        // Assert
+        assertEquals(Reservation.Status.WAITING, first.getStatus());
+        assertEquals(1, reservationService.getQueuePosition(first.getId()));
+        assertEquals(2, reservationService.getQueuePosition(second.getId()));
+        assertEquals(2, reservationService.getQueueLength(1));
+    }
+
+    @Test
+    void placeHold_WhenBookIsAvailable_ShouldThrowIllegalArgumentException() {
+        // Arrange
+        when(lendingService.isBookCurrentlyLent(1)).thenReturn(false);
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> reservationService.placeHold(10, 1));
+        assertEquals("Book is available; borrow it instead of placing a hold", exception.getMessage());
+        verify(reservationRepository, never()).save(any());
+    }
+
+    @Test
+    void placeHold_WhenCopyIsKeptForAnother_ShouldQueueHold() {
+        // Arrange
+        when(lendingService.isBookCurrentlyLent(1)).thenReturn(true, false);
+        Reservation first = reservationService.placeHold(10, 1);
+        reservationQueue.promoteNext(1);
+
+        // Act
+        Reservation second = reservationService.placeHold(11, 1);
+
+        // Assert
+        assertEquals(0, reservationService.getQueuePosition(first.getId()));
+        assertEquals(1, reservationService.getQueuePosition(second.getId()));
+        assertTrue(reservationService.isHeldForAnotherMember(1, 11));
+    }
+
+    @Test
+    void placeHold_WhenBookIsReturnedDuringPlacement_ShouldPromoteNewHold() throws Exception {
+        // Arrange
+        AtomicReference<Optional<Reservation>> promoted = new AtomicReference<>();
+        AtomicReference<Thread> returning = new AtomicReference<>();
+        reservationQueue.warmUp();
+        when(lendingService.isBookCurrentlyLent(1)).thenAnswer(invocation -> {
+            // The copy comes back right after the check: the return promotes the next hold
+            Thread thread = new Thread(() -> promoted.set(reservationQueue.promoteNext(1)));
+            returning.set(thread);
+            thread.start();
+            while (thread.getState() != Thread.State.BLOCKED && thread.getState() != Thread.State.TERMINATED) {
+                Thread.onSpinWait();
+            }
+            return true;
+        });
+
+        // Act
+        Reservation placed = reservationService.placeHold(10, 1);
+        returning.get().join(5000);
+
+        // Assert
+        assertTrue(promoted.get().isPresent());
+        assertEquals(placed.getId(), promoted.get().get().getId());
+        assertEquals(0, reservationService.getQueuePosition(placed.getId()));
+        assertFalse(reservationService.isHeldForAnotherMember(1, 10));
+        assertTrue(reservationService.isHeldForAnotherMember(1, 11));
+    }
+
+    @Test
+    void placeHold_WhenBookIsReturned_ShouldPromoteFirstHold() {
+        // Arrange
+        when(lendingService.isBookCurrentlyLent(1)).thenReturn(true);
+        Reservation first = reservationService.placeHold(10, 1);
+        Reservation second = reservationService.placeHold(11, 1);
+
+        // Act
+        Optional<Reservation> promoted = reservationQueue.promoteNext(1);
+
+        // Assert
+        assertEquals(first.getId(), promoted.get().getId());
+        assertEquals(Reservation.Status.READY, promoted.get().getStatus());
+        assertEquals(0, reservationService.getQueuePosition(first.getId()));
+        assertEquals(1, reservationService.getQueuePosition(second.getId()));
+        assertEquals(1, reservationService.getQueueLength(1));
+    }
+
+    @Test
+    void placeHold_WhenReadyHoldExpires_ShouldPassCopyToNextMember() {
+        // Arrange
+        when(lendingService.isBookCurrentlyLent(1)).thenReturn(true);
+        Reservation first = reservationService.placeHold(10, 1);
+        Reservation second = reservationService.placeHold(11, 1);
+        reservationQueue.promoteNext(1);
+
+        // Act
+        clock.add(Duration.ofHours(49));
+        int expired = reservationQueue.expire();
+
+        // Assert
+        assertEquals(1, expired);
+        assertEquals(-1, reservationService.getQueuePosition(first.getId()));
+        assertEquals(0, reservationService.getQueuePosition(second.getId()));
+        assertTrue(reservationService.getActiveHoldsByMember(10).isEmpty());
+        assertTrue(reservationService.isHeldForAnotherMember(1, 10));
+    }
+
+    @Test
+    void placeHold_WithInvalidIds_ShouldThrowIllegalArgumentException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> reservationService.placeHold(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> reservationService.placeHold(10, -1));
+        verifyNoInteractions(lendingService);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void add(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.codeup.novabook.service.impl;
+
+import com.codeup.novabook.cache.LibraryCounters;
+import com.codeup.novabook.domain.User;
+import com.codeup.novabook.repository.UserRepository;
+import com.codeup.novabook.exceptions.user.TooManyLoginAttemptsException;
+import com.codeup.novabook.infra.metrics.MetricsRegistry;
+import com.codeup.novabook.security.AuthExecutor;
+import com.codeup.novabook.security.LoginRateLimiter;
+import com.codeup.novabook.security.Session;
+import com.codeup.novabook.security.SessionManager;
+import com.codeup.novabook.utils.PasswordUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private LibraryCounters libraryCounters;
+
+    private AuthExecutor authExecutor;
+    private SessionManager sessionManager;
+    private LoginRateLimiter loginRateLimiter;
+    private UserServiceImpl userService;
+
+    @BeforeEach
+    void setUp() {
+        PasswordUtils.setCost(4);
+        authExecutor = new AuthExecutor(1, 4, new MetricsRegistry(true));
+        sessionManager = new SessionManager(Clock.systemUTC(), Duration.ofMinutes(30), Duration.ofHours(8), 100);
+        loginRateLimiter = new LoginRateLimiter(Clock.systemUTC(), 3, Duration.ofMinutes(5), 10, Duration.ofMinutes(1));
+        userService = new UserServiceImpl(userRepository, libraryCounters, authExecutor, sessionManager,
+                loginRateLimiter);
+    }
+
+    @AfterEach
+    void tearDown() {
+        authExecutor.shutdown();
+        PasswordUtils.setCost(PasswordUtils.DEFAULT_COST);
+    }
+
+    @Test
+    void authenticateUserAsync_WithHashAtLowerCost_ShouldRehashInBackground() {
+        // Arrange
+        String oldHash = PasswordUtils.hashPassword("secret", 4);
+        PasswordUtils.setCost(5);
+        User user = user(oldHash);
+        when(userRepository.findByEmail("ana@novabook.com")).thenReturn(Optional.of(user));
+        when(userRepository.updatePassword(eq(1), eq(oldHash), anyString())).thenReturn(true);
+
+        // Act
+        Optional<User> result = userService.authenticateUserAsync("ana@novabook.com", "secret").join();
+
+        // Assert
+        assertTrue(result.isPresent());
+        ArgumentCaptor<String> newHash = ArgumentCaptor.forClass(String.class);
+        verify(userRepository, timeout(5_000)).updatePassword(eq(1), eq(oldHash), newHash.capture());
+        assertEquals(5, PasswordUtils.getCost(newHash.getValue()));
+        assertTrue(PasswordUtils.verifyPassword("secret", newHash.getValue()));
+    }
+
+    @Test
+    void authenticateUser_WithHashAtCurrentCost_ShouldNotRehash() {
+        // Arrange
+        when(userRepository.findByEmail("ana@novabook.com"))
+                .thenReturn(Optional.of(user(PasswordUtils.hashPassword("secret"))));
+
+        // Act
+        Optional<User> result = userService.authenticateUser("ana@novabook.com", "secret");
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(1, authExecutor.getHashLatency().getCount());
+        verify(userRepository, never()).updatePassword(anyInt(), anyString(), anyString());
+    }
+
+    @Test
+    void changePassword_WithCorrectOldPassword_ShouldStoreHashOfNewPassword() {
+        // Arrange
+        String oldHash = PasswordUtils.hashPassword("secret");
+        when(userRepository.findById(1)).thenReturn(Optional.of(user(oldHash)));
+        when(userRepository.updatePassword(eq(1), eq(oldHash), anyString())).thenReturn(true);
+
+        // Act
+        boolean changed = userService.changePassword(1, "secret", "n3w-secret");
+
+        // Assert
+        assertTrue(changed);
+        ArgumentCaptor<String> newHash = ArgumentCaptor.forClass(String.class);
+        verify(userRepository).updatePassword(eq(1), eq(oldHash), newHash.capture());
+        assertTrue(PasswordUtils.verifyPassword("n3w-secret", newHash.getValue()));
+        assertFalse(userService.changePassword(1, "wrong", "other"));
+    }
+
+    @Test
+    void createSession_ThenChangePassword_ShouldEndSession() {
+        // Arrange
+        String hash = PasswordUtils.hashPassword("secret");
+        when(userRepository.findByEmail("ana@novabook.com")).thenReturn(Optional.of(user(hash)));
+        when(userRepository.findById(1)).thenReturn(Optional.of(user(hash)));
+        when(userRepository.updatePassword(eq(1), eq(hash), anyString())).thenReturn(true);
+        Session session = userService.createSession("ana@novabook.com", "secret").join().orElseThrow();
+        assertEquals("USER", userService.findSession(session.getToken()).orElseThrow().getRole());
+
+        // Act
+        userService.changePassword(1, "secret", "n3w-secret");
+
+        // Assert
+        assertFalse(userService.findSession(session.getToken()).isPresent());
+        // Login, old password check and new hash; looking the session up costs none
+        assertEquals(3, authExecutor.getHashLatency().getCount());
+    }
+
+    @Test
+    void authenticateUserAsync_OverEmailLimit_ShouldRejectBeforeLookup() {
+        // Arrange
+        when(userRepository.findByEmail("ana@novabook.com")).thenReturn(Optional.empty());
+        for (int i = 0; i < 3; i++) {
+            userService.authenticateUserAsync("ana@novabook.com", "guess" + i, "10.0.0.1").join();
+        }
+
+        // Act
+        CompletionException thrown = assertThrows(CompletionException.class,
+                () -> userService.authenticateUserAsync(" ANA@novabook.com", "guess", "10.0.0.2").join());
+
+        // Assert
+        assertInstanceOf(TooManyLoginAttemptsException.class, thrown.getCause());
+        verify(userRepository, times(3)).findByEmail(anyString());
+        assertEquals(1, loginRateLimiter.getRejectedByEmailCount());
+        assertEquals(0, authExecutor.getHashLatency().getCount());
+    }
+
+    private static User user(String hash) {
+        Instant now = Instant.now();
+        return new User(1, "Ana", "ana@novabook.com", hash, "555-0100", "USER", "READ_WRITE", true, false, now, now);
+    }
+}
@@ -0,0 +1,63 @@
+package com.codeup.novabook.utils;
+
+import com.codeup.novabook.exceptions.db.ConcurrentUpdateException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConflictRetryTest {
+
+    @Test
+    void run_ConflictThenSuccess_ShouldRetryAndReturnResult() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act
+        String result = ConflictRetry.run(3, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ConcurrentUpdateException("Lending", 1, attempts.get());
+            }
+            return "saved";
+        });
+
+        // Assert
+        assertEquals("saved", result);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void run_EveryAttemptConflicts_ShouldRethrowAfterMaxAttempts() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act
+        ConcurrentUpdateException e = assertThrows(ConcurrentUpdateException.class, () -> ConflictRetry.run(2, () -> {
+            throw new ConcurrentUpdateException("Lending", 1, attempts.incrementAndGet());
+        }));
+
+        // Assert
+        assertEquals(2, attempts.get());
+        assertEquals(2, e.getExpectedVersion());
+    }
+
+    @Test
+    void run_OtherException_ShouldNotRetry() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> ConflictRetry.run(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("Broken");
+        }));
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void run_NonPositiveAttempts_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> ConflictRetry.run(0, () -> "never"));
+        assertThrows(IllegalArgumentException.class, () -> ConflictRetry.run(-1, () -> "never"));
+    }
+}
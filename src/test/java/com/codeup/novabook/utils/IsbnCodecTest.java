@@ -0,0 +1,92 @@
+package com.codeup.novabook.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IsbnCodecTest {
+
+    @Test
+    void isValid_WithValidIsbn13_ShouldReturnTrue() {
+        assertTrue(IsbnCodec.isValid("9780134685991"));
+        assertTrue(IsbnCodec.isValid("978-0-13-468599-1"));
+        assertTrue(IsbnCodec.isValid("ISBN-13: 978 0 13 468599 1"));
+    }
+
+    @Test
+    void isValid_WithValidIsbn10_ShouldReturnTrue() {
+        assertTrue(IsbnCodec.isValid("0306406152"));
+        assertTrue(IsbnCodec.isValid("0-306-40615-2"));
+        assertTrue(IsbnCodec.isValid("ISBN 080442957X"));
+        assertTrue(IsbnCodec.isValid("0-8044-2957-x"));
+    }
+
+    @Test
+    void isValid_WithWrongCheckDigit_ShouldReturnFalse() {
+        assertFalse(IsbnCodec.isValid("9780134685992"));
+        assertFalse(IsbnCodec.isValid("0306406153"));
+    }
+
+    @Test
+    void isValid_WithMalformedInput_ShouldReturnFalse() {
+        assertFalse(IsbnCodec.isValid(null));
+        assertFalse(IsbnCodec.isValid(""));
+        assertFalse(IsbnCodec.isValid("   "));
+        assertFalse(IsbnCodec.isValid("123-ABC-456"));
+        assertFalse(IsbnCodec.isValid("97801346859911"));
+        assertFalse(IsbnCodec.isValid("X306406152"));
+        assertFalse(IsbnCodec.isValid("-0306406152"));
+        // Valid mod-10 checksum but not a Bookland prefix
+        assertFalse(IsbnCodec.isValid("1234567890128"));
+    }
+
+    @Test
+    void normalize_ShouldStripPrefixAndSeparators() {
+        assertEquals("9780134685991", IsbnCodec.normalize(" ISBN-13: 978-0-13-468599-1 "));
+        assertEquals("080442957X", IsbnCodec.normalize("0-8044-2957-x"));
+    }
+
+    @Test
+    void normalize_WithCanonicalInput_ShouldReturnSameInstance() {
+        String isbn = "9780134685991";
+
+        assertSame(isbn, IsbnCodec.normalize(isbn));
+    }
+
+    @Test
+    void normalize_WithWrongLength_ShouldReturnNull() {
+        assertNull(IsbnCodec.normalize("978-0-13-468599"));
+        assertNull(IsbnCodec.normalize("978-0-13-468599-12"));
+        assertNull(IsbnCodec.normalize("ISBN"));
+    }
+
+    @Test
+    void toIsbn13_ShouldConvertIsbn10AndRecomputeCheckDigit() {
+        assertEquals("9780306406157", IsbnCodec.toIsbn13("0-306-40615-2"));
+        assertEquals("9780804429573", IsbnCodec.toIsbn13("080442957X"));
+        assertEquals("9780134685991", IsbnCodec.toIsbn13("978-0-13-468599-1"));
+        assertNull(IsbnCodec.toIsbn13("0306406153"));
+    }
+
+    @Test
+    void toKey_ShouldGiveSameKeyForEveryFormOfAnIsbn() {
+        long key = IsbnCodec.toKey("9780306406157");
+
+        assertEquals(9780306406157L, key);
+        assertEquals(key, IsbnCodec.toKey("978-0-306-40615-7"));
+        assertEquals(key, IsbnCodec.toKey("0-306-40615-2"));
+        assertEquals(9780804429573L, IsbnCodec.toKey("080442957X"));
+    }
+
+    @Test
+    void toKey_WithInvalidIsbn_ShouldReturnNoKey() {
+        assertEquals(IsbnCodec.NO_KEY, IsbnCodec.toKey("0306406153"));
+        assertEquals(IsbnCodec.NO_KEY, IsbnCodec.toKey(null));
+    }
+
+    @Test
+    void fromKey_ShouldRoundTripToIsbn13() {
+        assertEquals("9780134685991", IsbnCodec.fromKey(IsbnCodec.toKey("978-0-13-468599-1")));
+        assertThrows(IllegalArgumentException.class, () -> IsbnCodec.fromKey(42L));
+    }
+}
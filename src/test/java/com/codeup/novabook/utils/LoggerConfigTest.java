@@ -0,0 +1,25 @@
+package com.codeup.novabook.utils;
+
+import com.codeup.novabook.infra.logging.AsyncHandler;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoggerConfigTest {
+
+    @Test
+    void parseOverflowPolicy_ShouldIgnoreCaseAndBlanks() {
+        assertEquals(Optional.of(AsyncHandler.OverflowPolicy.DROP), LoggerConfig.parseOverflowPolicy("drop"));
+        assertEquals(Optional.of(AsyncHandler.OverflowPolicy.BLOCK), LoggerConfig.parseOverflowPolicy(" Block "));
+        assertEquals(Optional.of(AsyncHandler.OverflowPolicy.SAMPLE), LoggerConfig.parseOverflowPolicy("SAMPLE"));
+    }
+
+    @Test
+    void parseOverflowPolicy_WithUnknownName_ShouldBeEmpty() {
+        assertTrue(LoggerConfig.parseOverflowPolicy("smaple").isEmpty());
+        assertTrue(LoggerConfig.parseOverflowPolicy("").isEmpty());
+        assertTrue(LoggerConfig.parseOverflowPolicy(null).isEmpty());
+    }
+}
@@ -0,0 +1,27 @@
+package com.codeup.novabook.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void parseCents_WithDecimalAmount_ShouldBeExact() {
+        assertEquals(110L, Money.parseCents("1.10"));
+        assertEquals(50L, Money.parseCents(" 0.5 "));
+        assertEquals(300L, Money.parseCents("3"));
+    }
+
+    @Test
+    void parseCents_WithMoreThanTwoDecimals_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> Money.parseCents("0.125"));
+        assertThrows(IllegalArgumentException.class, () -> Money.parseCents("abc"));
+    }
+
+    @Test
+    void format_ShouldPrintTwoDecimals() {
+        assertEquals("12.50", Money.format(1250));
+        assertEquals("0.05", Money.format(5));
+    }
+}
@@ -0,0 +1,48 @@
+package com.codeup.novabook.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordUtilsTest {
+
+    @AfterEach
+    void tearDown() {
+        PasswordUtils.setCost(PasswordUtils.DEFAULT_COST);
+    }
+
+    @Test
+    void getCost_ShouldReadCostFromHash() {
+        assertEquals(12, PasswordUtils.getCost("$2a$12$LQv3c1yqBWVHxkd0LHAkCOYz6TtxMQJqhN8/LewqhrPtR6sGdVL6m"));
+        assertEquals(-1, PasswordUtils.getCost("admin@123"));
+        assertEquals(-1, PasswordUtils.getCost(null));
+    }
+
+    @Test
+    void needsRehash_WhenCostRaised_ShouldBeTrue() {
+        PasswordUtils.setCost(4);
+        String hash = PasswordUtils.hashPassword("secret");
+
+        assertFalse(PasswordUtils.needsRehash(hash));
+        PasswordUtils.setCost(5);
+        assertTrue(PasswordUtils.needsRehash(hash));
+        assertTrue(PasswordUtils.verifyPassword("secret", hash));
+    }
+
+    @Test
+    void needsRehash_WhenHashHasHigherCost_ShouldBeFalse() {
+        PasswordUtils.setCost(5);
+        String hash = PasswordUtils.hashPassword("secret");
+
+        PasswordUtils.setCost(4);
+        assertFalse(PasswordUtils.needsRehash(hash));
+        assertTrue(PasswordUtils.verifyPassword("secret", hash));
+    }
+
+    @Test
+    void setCost_OutsideBcryptRange_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> PasswordUtils.setCost(3));
+        assertThrows(IllegalArgumentException.class, () -> PasswordUtils.setCost(32));
+    }
+}